@@ -0,0 +1,25 @@
+package com.artivisi.accountingfinance.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accounts counted as cash by the cash flow statement and the dashboard.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cash-flow")
+@Getter
+@Setter
+public class CashFlowConfig {
+
+    /**
+     * Codes of the cash and bank accounts. Codes without an account are ignored.
+     */
+    private List<String> cashAccountCodes = new ArrayList<>(List.of("1.1.01", "1.1.02", "1.1.03"));
+}
@@ -0,0 +1,47 @@
+package com.artivisi.accountingfinance.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route request limits for {@link com.artivisi.accountingfinance.security.RateLimitService}.
+ * Routes not overridden in configuration keep the defaults below.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitConfig {
+
+    public static final String LOGIN = "login";
+    public static final String API = "api";
+    public static final String GENERAL = "general";
+
+    /**
+     * Maximum number of client keys tracked per route. When full, idle keys are
+     * evicted first, then arbitrary keys.
+     */
+    private int maxKeys = 100_000;
+
+    private Map<String, Limit> routes = new LinkedHashMap<>(Map.of(
+            LOGIN, new Limit(10, 60),
+            API, new Limit(100, 60),
+            GENERAL, new Limit(300, 60)));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int maxRequests;
+        private int windowSeconds;
+    }
+}
@@ -1,16 +1,21 @@
 package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.security.Permission;
+import com.artivisi.accountingfinance.service.DashboardMetrics;
 import com.artivisi.accountingfinance.service.DashboardService;
+import com.artivisi.accountingfinance.service.DashboardWidgetLoader;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.time.YearMonth;
+import java.util.List;
 
 import static com.artivisi.accountingfinance.controller.ViewConstants.*;
 
@@ -20,6 +25,8 @@ import static com.artivisi.accountingfinance.controller.ViewConstants.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardWidgetLoader dashboardWidgetLoader;
+    private final DashboardMetrics dashboardMetrics;
 
     @GetMapping("/")
     public String home() {
@@ -29,6 +36,19 @@ public class DashboardController {
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         model.addAttribute(ATTR_CURRENT_PAGE, PAGE_DASHBOARD);
+
+        // Widgets are rendered with the page; those not loaded here load themselves via HTMX
+        YearMonth month = YearMonth.now();
+        var widgets = dashboardWidgetLoader.load(month);
+        model.addAttribute("widgets", widgets);
+        model.addAttribute("selectedMonth", month);
+        if (widgets.kpi() != null) {
+            model.addAttribute("kpi", widgets.kpi());
+            model.addAttribute("cashBankItems", widgets.kpi().cashBankItems());
+            model.addAttribute("totalCash", widgets.kpi().cashBalance());
+        }
+        model.addAttribute("transactions", widgets.recentTransactions());
+        model.addAttribute("summary", widgets.amortizationSummary());
         return "dashboard";
     }
 
@@ -57,7 +77,7 @@ public class DashboardController {
 
     @GetMapping("/dashboard/recent-transactions")
     public String recentTransactions(Model model) {
-        var transactions = dashboardService.getRecentTransactions(10);
+        var transactions = dashboardService.getRecentTransactions(DashboardWidgetLoader.RECENT_TRANSACTION_LIMIT);
         model.addAttribute("transactions", transactions);
         return "fragments/recent-transactions :: transactions";
     }
@@ -69,6 +89,12 @@ public class DashboardController {
         return "fragments/amortization-widget :: widget";
     }
 
+    @GetMapping("/dashboard/api/latency")
+    @ResponseBody
+    public ResponseEntity<List<DashboardMetrics.WidgetStatistics>> dashboardLatency() {
+        return ResponseEntity.ok(dashboardMetrics.getStatistics());
+    }
+
     @GetMapping("/login")
     @PreAuthorize("permitAll()")
     public String login() {
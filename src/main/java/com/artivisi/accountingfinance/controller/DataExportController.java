@@ -2,11 +2,11 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.exception.DataExportException;
 import com.artivisi.accountingfinance.service.DataExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,18 +36,15 @@ public class DataExportController {
     }
 
     @PostMapping("/download")
-    public ResponseEntity<byte[]> downloadExport() {
-        try {
-            byte[] zipData = dataExportService.exportAllData();
-
-            String filename = "export-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".zip";
+    public void downloadExport(HttpServletResponse response) {
+        String filename = "export-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".zip";
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(zipData.length)
-                    .body(zipData);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
 
+        try {
+            // Streamed straight to the client: the archive is never held in memory
+            dataExportService.exportAllData(response.getOutputStream());
         } catch (IOException e) {
             log.error("Failed to export data", e);
             throw new DataExportException("Gagal mengekspor data: " + e.getMessage(), e);
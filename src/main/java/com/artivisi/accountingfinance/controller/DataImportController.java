@@ -13,6 +13,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 @Controller
 @RequestMapping("/settings/import")
@@ -50,9 +51,8 @@ public class DataImportController {
             return REDIRECT_IMPORT;
         }
 
-        try {
-            byte[] zipData = file.getBytes();
-            DataImportService.ImportResult result = dataImportService.importAllData(zipData);
+        try (InputStream zipStream = file.getInputStream()) {
+            DataImportService.ImportResult result = dataImportService.importAllData(zipStream);
 
             String message = String.format(
                 "Import berhasil: %d record data, %d dokumen dalam %d ms",
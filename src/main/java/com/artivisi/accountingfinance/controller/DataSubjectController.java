@@ -9,6 +9,7 @@ import com.artivisi.accountingfinance.service.DataSubjectService.DataRetentionSt
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -61,7 +63,10 @@ public class DataSubjectController {
         Page<Employee> employees;
 
         if (search != null && !search.trim().isEmpty()) {
-            employees = employeeRepository.findByFiltersAndSearch(search.trim(), null, null, pageRequest);
+            // A request identified by NIK KTP or NPWP matches exactly one data subject
+            employees = dataSubjectService.findByIdentityNumber(search.trim())
+                    .<Page<Employee>>map(employee -> new PageImpl<>(List.of(employee), pageRequest, 1))
+                    .orElseGet(() -> employeeRepository.findByFiltersAndSearch(search.trim(), null, null, pageRequest));
         } else {
             employees = employeeRepository.findByFilters(null, null, pageRequest);
         }
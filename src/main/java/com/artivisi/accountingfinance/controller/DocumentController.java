@@ -170,6 +170,7 @@ public class DocumentController {
     /**
      * View/download a document.
      * Uses RFC 6266 compliant Content-Disposition to prevent RFD attacks.
+     * Range requests are answered with 206 by Spring MVC from the streaming resource.
      */
     @GetMapping("/{id}/view")
     @ResponseBody
@@ -199,6 +200,7 @@ public class DocumentController {
     /**
      * Download a document.
      * Uses RFC 6266 compliant Content-Disposition to prevent RFD attacks.
+     * Every request is audited, including Range requests.
      */
     @GetMapping("/{id}/download")
     @ResponseBody
@@ -8,6 +8,7 @@ import com.artivisi.accountingfinance.entity.DisposalType;
 import com.artivisi.accountingfinance.entity.FixedAsset;
 import com.artivisi.accountingfinance.security.Permission;
 import com.artivisi.accountingfinance.service.AssetCategoryService;
+import com.artivisi.accountingfinance.service.DepreciationBatchService;
 import com.artivisi.accountingfinance.service.FixedAssetService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -53,6 +54,7 @@ public class FixedAssetController {
 
     private final FixedAssetService fixedAssetService;
     private final AssetCategoryService assetCategoryService;
+    private final DepreciationBatchService depreciationBatchService;
 
     @GetMapping
     public String list(
@@ -256,13 +258,17 @@ public class FixedAssetController {
             Authentication authentication,
             RedirectAttributes redirectAttributes) {
 
-        int count = fixedAssetService.postAllPendingDepreciation(period, authentication.getName());
+        DepreciationBatchService.BatchResult result = depreciationBatchService.postPending(period, authentication.getName());
 
-        if (count == 0) {
+        if (result.postedCount() == 0 && !result.hasErrors()) {
             redirectAttributes.addFlashAttribute("infoMessage", "Tidak ada entri penyusutan yang perlu di-posting");
         } else {
             redirectAttributes.addFlashAttribute(ATTR_SUCCESS_MESSAGE,
-                    "Berhasil posting " + count + " entri penyusutan");
+                    "Berhasil posting " + result.postedCount() + " entri penyusutan");
+        }
+        if (result.hasErrors()) {
+            redirectAttributes.addFlashAttribute(ATTR_ERROR_MESSAGE,
+                    result.errorCount() + " entri penyusutan gagal di-posting");
         }
         return REDIRECT_ASSETS_DEPRECIATION;
     }
@@ -5,6 +5,7 @@ import com.artivisi.accountingfinance.service.InventoryReportService;
 import com.artivisi.accountingfinance.service.ProductCategoryService;
 import com.artivisi.accountingfinance.service.ProductService;
 import com.artivisi.accountingfinance.service.ReportExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
@@ -218,18 +220,17 @@ public class InventoryReportController {
     }
 
     @GetMapping("/stock-balance/export/excel")
-    public ResponseEntity<byte[]> exportStockBalanceToExcel(
+    public void exportStockBalanceToExcel(
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            HttpServletResponse response) throws IOException {
         LocalDate asOfDate = LocalDate.now();
         InventoryReportService.StockBalanceReport report = reportService.generateStockBalanceReport(categoryId, search);
-        byte[] excelBytes = reportExportService.exportStockBalanceToExcel(report, asOfDate);
 
         String filename = "saldo-stok-" + asOfDate.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .body(excelBytes);
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportStockBalanceToExcel(report, asOfDate, response.getOutputStream());
     }
 
     // Stock Movement Exports
@@ -252,21 +253,20 @@ public class InventoryReportController {
     }
 
     @GetMapping("/stock-movement/export/excel")
-    public ResponseEntity<byte[]> exportStockMovementToExcel(
+    public void exportStockMovementToExcel(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) UUID productId) {
+            @RequestParam(required = false) UUID productId,
+            HttpServletResponse response) throws IOException {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
         InventoryReportService.StockMovementReport report = reportService.generateStockMovementReport(start, end, categoryId, productId);
-        byte[] excelBytes = reportExportService.exportStockMovementToExcel(report);
 
         String filename = "mutasi-stok-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .body(excelBytes);
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportStockMovementToExcel(report, response.getOutputStream());
     }
 
     // Valuation Exports
@@ -285,17 +285,16 @@ public class InventoryReportController {
     }
 
     @GetMapping("/valuation/export/excel")
-    public ResponseEntity<byte[]> exportValuationToExcel(
-            @RequestParam(required = false) UUID categoryId) {
+    public void exportValuationToExcel(
+            @RequestParam(required = false) UUID categoryId,
+            HttpServletResponse response) throws IOException {
         LocalDate asOfDate = LocalDate.now();
         InventoryReportService.ValuationReport report = reportService.generateValuationReport(categoryId);
-        byte[] excelBytes = reportExportService.exportValuationToExcel(report, asOfDate);
 
         String filename = "penilaian-persediaan-" + asOfDate.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .body(excelBytes);
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportValuationToExcel(report, asOfDate, response.getOutputStream());
     }
 
     // Profitability Exports
@@ -318,20 +317,19 @@ public class InventoryReportController {
     }
 
     @GetMapping("/profitability/export/excel")
-    public ResponseEntity<byte[]> exportProfitabilityToExcel(
+    public void exportProfitabilityToExcel(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) UUID productId) {
+            @RequestParam(required = false) UUID productId,
+            HttpServletResponse response) throws IOException {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
         InventoryReportService.ProfitabilityReport report = reportService.generateProfitabilityReport(start, end, categoryId, productId);
-        byte[] excelBytes = reportExportService.exportProductProfitabilityToExcel(report);
 
         String filename = "profitabilitas-produk-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .body(excelBytes);
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportProductProfitabilityToExcel(report, response.getOutputStream());
     }
 }
@@ -123,4 +123,31 @@ public class JournalEntryController {
             @RequestParam LocalDate endDate) {
         return ResponseEntity.ok(journalEntryService.getGeneralLedger(accountId, startDate, endDate));
     }
+
+    /**
+     * Keyset-paginated ledger: pass {@code after} (next page) or {@code before} (previous page)
+     * cursors from a previous response, or {@code last=true} to jump to the last page.
+     */
+    @GetMapping("/api/ledger/{accountId}/slice")
+    @ResponseBody
+    public ResponseEntity<JournalEntryService.GeneralLedgerSlice> apiLedgerSlice(
+            @PathVariable UUID accountId,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "false") boolean last,
+            @RequestParam(defaultValue = "50") int size) {
+        JournalEntryService.LedgerPageRequest request;
+        if (after != null) {
+            request = JournalEntryService.LedgerPageRequest.after(JournalEntryService.LedgerCursor.decode(after), size);
+        } else if (before != null) {
+            request = JournalEntryService.LedgerPageRequest.before(JournalEntryService.LedgerCursor.decode(before), size);
+        } else if (last) {
+            request = JournalEntryService.LedgerPageRequest.last(size);
+        } else {
+            request = JournalEntryService.LedgerPageRequest.first(size);
+        }
+        return ResponseEntity.ok(journalEntryService.getGeneralLedgerSlice(accountId, startDate, endDate, request));
+    }
 }
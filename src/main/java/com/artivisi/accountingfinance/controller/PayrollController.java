@@ -3,8 +3,10 @@ package com.artivisi.accountingfinance.controller;
 import com.artivisi.accountingfinance.entity.PayrollDetail;
 import com.artivisi.accountingfinance.entity.PayrollRun;
 import com.artivisi.accountingfinance.entity.PayrollStatus;
+import com.artivisi.accountingfinance.service.PayrollDocumentBatchService;
 import com.artivisi.accountingfinance.service.PayrollReportService;
 import com.artivisi.accountingfinance.service.PayrollService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.List;
@@ -44,16 +47,21 @@ public class PayrollController {
     private static final String CONTENT_TYPE_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     private static final String ATTACHMENT_FILENAME = "attachment; filename=\"";
     private static final String EXT_XLSX = ".xlsx";
+    private static final String CONTENT_TYPE_ZIP = "application/zip";
+    private static final String EXT_ZIP = ".zip";
     private static final String VIEW_FORM = "payroll/form";
     private static final String ATTR_RISK_CLASSES = "riskClasses";
     private static final String MSG_PAYROLL_PERIODE = "Payroll periode ";
 
     private final PayrollService payrollService;
     private final PayrollReportService payrollReportService;
+    private final PayrollDocumentBatchService payrollDocumentBatchService;
 
-    public PayrollController(PayrollService payrollService, PayrollReportService payrollReportService) {
+    public PayrollController(PayrollService payrollService, PayrollReportService payrollReportService,
+                             PayrollDocumentBatchService payrollDocumentBatchService) {
         this.payrollService = payrollService;
         this.payrollReportService = payrollReportService;
+        this.payrollDocumentBatchService = payrollDocumentBatchService;
     }
 
     @GetMapping
@@ -243,18 +251,16 @@ public class PayrollController {
     }
 
     @GetMapping("/{id}/export/summary/excel")
-    public ResponseEntity<byte[]> exportSummaryExcel(@PathVariable UUID id) {
+    public void exportSummaryExcel(@PathVariable UUID id, HttpServletResponse response) throws IOException {
         PayrollRun payrollRun = payrollService.findById(id)
             .orElseThrow(() -> new IllegalArgumentException(PAYROLL_NOT_FOUND));
         List<PayrollDetail> details = payrollService.getPayrollDetails(id);
 
-        byte[] excel = payrollReportService.exportPayrollSummaryToExcel(payrollRun, details);
         String filename = "rekap-gaji-" + payrollRun.getPayrollPeriod() + EXT_XLSX;
 
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"")
-            .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-            .body(excel);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"");
+        payrollReportService.exportPayrollSummaryToExcel(payrollRun, details, response.getOutputStream());
     }
 
     @GetMapping("/{id}/export/pph21/pdf")
@@ -273,18 +279,16 @@ public class PayrollController {
     }
 
     @GetMapping("/{id}/export/pph21/excel")
-    public ResponseEntity<byte[]> exportPph21Excel(@PathVariable UUID id) {
+    public void exportPph21Excel(@PathVariable UUID id, HttpServletResponse response) throws IOException {
         PayrollRun payrollRun = payrollService.findById(id)
             .orElseThrow(() -> new IllegalArgumentException(PAYROLL_NOT_FOUND));
         List<PayrollDetail> details = payrollService.getPayrollDetails(id);
 
-        byte[] excel = payrollReportService.exportPph21ReportToExcel(payrollRun, details);
         String filename = "pph21-" + payrollRun.getPayrollPeriod() + EXT_XLSX;
 
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"")
-            .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-            .body(excel);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"");
+        payrollReportService.exportPph21ReportToExcel(payrollRun, details, response.getOutputStream());
     }
 
     @GetMapping("/{id}/export/bpjs/pdf")
@@ -303,18 +307,16 @@ public class PayrollController {
     }
 
     @GetMapping("/{id}/export/bpjs/excel")
-    public ResponseEntity<byte[]> exportBpjsExcel(@PathVariable UUID id) {
+    public void exportBpjsExcel(@PathVariable UUID id, HttpServletResponse response) throws IOException {
         PayrollRun payrollRun = payrollService.findById(id)
             .orElseThrow(() -> new IllegalArgumentException(PAYROLL_NOT_FOUND));
         List<PayrollDetail> details = payrollService.getPayrollDetails(id);
 
-        byte[] excel = payrollReportService.exportBpjsReportToExcel(payrollRun, details);
         String filename = "bpjs-" + payrollRun.getPayrollPeriod() + EXT_XLSX;
 
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"")
-            .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-            .body(excel);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"");
+        payrollReportService.exportBpjsReportToExcel(payrollRun, details, response.getOutputStream());
     }
 
     @GetMapping("/{id}/payslip/{employeeId}/pdf")
@@ -337,6 +339,17 @@ public class PayrollController {
             .body(pdf);
     }
 
+    @GetMapping("/{id}/payslips/zip")
+    public void exportPayslipArchive(@PathVariable UUID id, HttpServletResponse response) throws IOException {
+        PayrollRun payrollRun = payrollService.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException(PAYROLL_NOT_FOUND));
+        String filename = "slip-gaji-" + payrollRun.getPayrollPeriod() + EXT_ZIP;
+
+        response.setContentType(CONTENT_TYPE_ZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"");
+        payrollDocumentBatchService.writePayslipArchive(payrollRun, response.getOutputStream());
+    }
+
     // ==================== BUKTI POTONG 1721-A1 ====================
 
     @GetMapping("/bukti-potong")
@@ -345,18 +358,7 @@ public class PayrollController {
             Model model
     ) {
         int selectedYear = year != null ? year : java.time.Year.now().getValue();
-        List<UUID> employeeIds = payrollService.getEmployeesWithPayrollInYear(selectedYear);
-
-        List<PayrollService.YearlyPayrollSummary> summaries = employeeIds.stream()
-            .map(empId -> {
-                try {
-                    return payrollService.getYearlyPayrollSummary(empId, selectedYear);
-                } catch (IllegalArgumentException _) {
-                    return null;
-                }
-            })
-            .filter(s -> s != null)
-            .toList();
+        List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(selectedYear);
 
         // Generate year options (current year and 2 previous years)
         int currentYear = java.time.Year.now().getValue();
@@ -385,6 +387,15 @@ public class PayrollController {
             .body(pdf);
     }
 
+    @GetMapping("/bukti-potong/{year}/zip")
+    public void exportBuktiPotongArchive(@PathVariable int year, HttpServletResponse response) throws IOException {
+        String filename = "1721-A1-" + year + EXT_ZIP;
+
+        response.setContentType(CONTENT_TYPE_ZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"");
+        payrollDocumentBatchService.writeBuktiPotongArchive(year, response.getOutputStream());
+    }
+
     private java.util.List<RiskClassOption> getRiskClasses() {
         return java.util.List.of(
             new RiskClassOption(1, "Kelas 1 - Sangat Rendah (0.24%) - IT, Jasa"),
@@ -1,6 +1,8 @@
 package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.entity.CompanyConfig;
+import com.artivisi.accountingfinance.enums.CashFlowMethod;
+import com.artivisi.accountingfinance.service.AccountPeriodBalanceService;
 import com.artivisi.accountingfinance.service.ClientService;
 import com.artivisi.accountingfinance.service.CompanyConfigService;
 import com.artivisi.accountingfinance.service.ProjectProfitabilityService;
@@ -8,8 +10,10 @@ import com.artivisi.accountingfinance.service.ProjectService;
 import com.artivisi.accountingfinance.service.ReportExportService;
 import com.artivisi.accountingfinance.service.DepreciationReportService;
 import com.artivisi.accountingfinance.service.FiscalYearClosingService;
+import com.artivisi.accountingfinance.service.ReportCache;
 import com.artivisi.accountingfinance.service.ReportService;
 import com.artivisi.accountingfinance.service.TaxReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -24,8 +28,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.UUID;
 
 import static com.artivisi.accountingfinance.controller.ViewConstants.*;
@@ -55,6 +61,8 @@ public class ReportController {
     private final TaxReportService taxReportService;
     private final DepreciationReportService depreciationReportService;
     private final FiscalYearClosingService fiscalYearClosingService;
+    private final AccountPeriodBalanceService accountPeriodBalanceService;
+    private final ReportCache reportCache;
 
     private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
 
@@ -120,6 +128,7 @@ public class ReportController {
     public String cashFlow(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(defaultValue = "DIRECT") CashFlowMethod method,
             Model model) {
         model.addAttribute(ATTR_CURRENT_PAGE, PAGE_REPORTS);
         model.addAttribute(ATTR_REPORT_TYPE, "cash-flow");
@@ -129,7 +138,9 @@ public class ReportController {
 
         model.addAttribute(ATTR_START_DATE, start);
         model.addAttribute(ATTR_END_DATE, end);
-        model.addAttribute(ATTR_REPORT, reportService.generateCashFlowStatement(start, end));
+        model.addAttribute("method", method);
+        model.addAttribute("cashFlowMethods", CashFlowMethod.values());
+        model.addAttribute(ATTR_REPORT, reportService.generateCashFlowStatement(start, end, method));
 
         return "reports/cash-flow";
     }
@@ -160,6 +171,15 @@ public class ReportController {
         return ResponseEntity.ok(reportService.generateBalanceSheet(reportDate));
     }
 
+    @GetMapping("/api/cash-flow")
+    @ResponseBody
+    public ResponseEntity<ReportService.CashFlowReport> apiCashFlow(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate,
+            @RequestParam(defaultValue = "DIRECT") CashFlowMethod method) {
+        return ResponseEntity.ok(reportService.generateCashFlowStatement(startDate, endDate, method));
+    }
+
     // ==================== EXPORT ENDPOINTS ====================
 
     // Trial Balance Exports
@@ -178,17 +198,16 @@ public class ReportController {
     }
 
     @GetMapping("/trial-balance/export/excel")
-    public ResponseEntity<byte[]> exportTrialBalanceToExcel(
-            @RequestParam(required = false) LocalDate asOfDate) {
+    public void exportTrialBalanceToExcel(
+            @RequestParam(required = false) LocalDate asOfDate,
+            HttpServletResponse response) throws IOException {
         LocalDate reportDate = asOfDate != null ? asOfDate : LocalDate.now();
         ReportService.TrialBalanceReport report = reportService.generateTrialBalance(reportDate);
-        byte[] excelBytes = reportExportService.exportTrialBalanceToExcel(report);
 
         String filename = "neraca-saldo-" + reportDate.format(FILE_DATE_FORMAT) + FILE_EXT_XLSX;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelBytes);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportTrialBalanceToExcel(report, response.getOutputStream());
     }
 
     // Balance Sheet Exports
@@ -207,17 +226,16 @@ public class ReportController {
     }
 
     @GetMapping("/balance-sheet/export/excel")
-    public ResponseEntity<byte[]> exportBalanceSheetToExcel(
-            @RequestParam(required = false) LocalDate asOfDate) {
+    public void exportBalanceSheetToExcel(
+            @RequestParam(required = false) LocalDate asOfDate,
+            HttpServletResponse response) throws IOException {
         LocalDate reportDate = asOfDate != null ? asOfDate : LocalDate.now();
         ReportService.BalanceSheetReport report = reportService.generateBalanceSheet(reportDate);
-        byte[] excelBytes = reportExportService.exportBalanceSheetToExcel(report);
 
         String filename = "laporan-posisi-keuangan-" + reportDate.format(FILE_DATE_FORMAT) + FILE_EXT_XLSX;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelBytes);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportBalanceSheetToExcel(report, response.getOutputStream());
     }
 
     // Income Statement Exports
@@ -238,29 +256,29 @@ public class ReportController {
     }
 
     @GetMapping("/income-statement/export/excel")
-    public ResponseEntity<byte[]> exportIncomeStatementToExcel(
+    public void exportIncomeStatementToExcel(
             @RequestParam(required = false) LocalDate startDate,
-            @RequestParam(required = false) LocalDate endDate) {
+            @RequestParam(required = false) LocalDate endDate,
+            HttpServletResponse response) throws IOException {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
         ReportService.IncomeStatementReport report = reportService.generateIncomeStatement(start, end);
-        byte[] excelBytes = reportExportService.exportIncomeStatementToExcel(report);
 
         String filename = "laporan-laba-rugi-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + FILE_EXT_XLSX;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelBytes);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportIncomeStatementToExcel(report, response.getOutputStream());
     }
 
     // Cash Flow Exports
     @GetMapping("/cash-flow/export/pdf")
     public ResponseEntity<byte[]> exportCashFlowToPdf(
             @RequestParam(required = false) LocalDate startDate,
-            @RequestParam(required = false) LocalDate endDate) {
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(defaultValue = "DIRECT") CashFlowMethod method) {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
-        ReportService.CashFlowReport report = reportService.generateCashFlowStatement(start, end);
+        ReportService.CashFlowReport report = reportService.generateCashFlowStatement(start, end, method);
         byte[] pdfBytes = reportExportService.exportCashFlowToPdf(report);
 
         String filename = "laporan-arus-kas-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + ".pdf";
@@ -271,19 +289,19 @@ public class ReportController {
     }
 
     @GetMapping("/cash-flow/export/excel")
-    public ResponseEntity<byte[]> exportCashFlowToExcel(
+    public void exportCashFlowToExcel(
             @RequestParam(required = false) LocalDate startDate,
-            @RequestParam(required = false) LocalDate endDate) {
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(defaultValue = "DIRECT") CashFlowMethod method,
+            HttpServletResponse response) throws IOException {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
-        ReportService.CashFlowReport report = reportService.generateCashFlowStatement(start, end);
-        byte[] excelBytes = reportExportService.exportCashFlowToExcel(report);
+        ReportService.CashFlowReport report = reportService.generateCashFlowStatement(start, end, method);
 
         String filename = "laporan-arus-kas-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + FILE_EXT_XLSX;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelBytes);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportCashFlowToExcel(report, response.getOutputStream());
     }
 
     // ==================== PROFITABILITY REPORTS ====================
@@ -374,6 +392,24 @@ public class ReportController {
         return ResponseEntity.ok(profitabilityService.calculateClientProfitability(clientId, startDate, endDate));
     }
 
+    @GetMapping("/api/project-profitability/monthly")
+    @ResponseBody
+    public ResponseEntity<List<ProjectProfitabilityService.MonthlyProfitability>> apiProjectMonthlyTrend(
+            @RequestParam UUID projectId,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok(profitabilityService.calculateProjectMonthlyTrend(projectId, startDate, endDate));
+    }
+
+    @GetMapping("/api/client-profitability/monthly")
+    @ResponseBody
+    public ResponseEntity<List<ProjectProfitabilityService.MonthlyProfitability>> apiClientMonthlyTrend(
+            @RequestParam UUID clientId,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok(profitabilityService.calculateClientMonthlyTrend(clientId, startDate, endDate));
+    }
+
     @GetMapping("/api/cost-overrun")
     @ResponseBody
     public ResponseEntity<ProjectProfitabilityService.CostOverrunReport> apiCostOverrun(
@@ -432,6 +468,7 @@ public class ReportController {
     public String printCashFlow(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(defaultValue = "DIRECT") CashFlowMethod method,
             Model model) {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
@@ -439,7 +476,7 @@ public class ReportController {
 
         model.addAttribute(ATTR_START_DATE, start);
         model.addAttribute(ATTR_END_DATE, end);
-        model.addAttribute(ATTR_REPORT, reportService.generateCashFlowStatement(start, end));
+        model.addAttribute(ATTR_REPORT, reportService.generateCashFlowStatement(start, end, method));
         model.addAttribute(ATTR_COMPANY, company);
 
         return "reports/cash-flow-print";
@@ -616,17 +653,16 @@ public class ReportController {
     }
 
     @GetMapping("/depreciation/export/excel")
-    public ResponseEntity<byte[]> exportDepreciationToExcel(
-            @RequestParam(required = false) Integer year) {
+    public void exportDepreciationToExcel(
+            @RequestParam(required = false) Integer year,
+            HttpServletResponse response) throws IOException {
         int reportYear = year != null ? year : LocalDate.now().getYear();
         DepreciationReportService.DepreciationReport report = depreciationReportService.generateReport(reportYear);
-        byte[] excelBytes = reportExportService.exportDepreciationToExcel(report);
 
         String filename = "laporan-penyusutan-" + reportYear + FILE_EXT_XLSX;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelBytes);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        reportExportService.exportDepreciationToExcel(report, response.getOutputStream());
     }
 
     // ==================== FISCAL YEAR CLOSING ====================
@@ -680,4 +716,27 @@ public class ReportController {
             @RequestParam int year) {
         return ResponseEntity.ok(fiscalYearClosingService.previewClosing(year));
     }
+
+    // ==================== BALANCE SNAPSHOTS ====================
+
+    @GetMapping("/api/balance-snapshots/check")
+    @ResponseBody
+    public ResponseEntity<List<AccountPeriodBalanceService.SnapshotDiscrepancy>> apiCheckBalanceSnapshots() {
+        return ResponseEntity.ok(accountPeriodBalanceService.checkConsistency());
+    }
+
+    @PostMapping("/api/balance-snapshots/rebuild")
+    @ResponseBody
+    @org.springframework.security.access.prepost.PreAuthorize("hasAuthority('" + com.artivisi.accountingfinance.security.Permission.SETTINGS_EDIT + "')")
+    public ResponseEntity<Integer> apiRebuildBalanceSnapshots() {
+        return ResponseEntity.ok(accountPeriodBalanceService.rebuild());
+    }
+
+    // ==================== REPORT CACHE ====================
+
+    @GetMapping("/api/report-cache")
+    @ResponseBody
+    public ResponseEntity<List<ReportCache.ReportStatistics>> apiReportCacheStatistics() {
+        return ResponseEntity.ok(reportCache.getStatistics());
+    }
 }
@@ -148,7 +148,7 @@ public class SettingsController {
             }
 
             // Store new logo
-            String storedPath = documentStorageService.store(logoFile);
+            String storedPath = documentStorageService.store(logoFile).storagePath();
             config.setCompanyLogoPath(storedPath);
             companyConfigService.save(config);
 
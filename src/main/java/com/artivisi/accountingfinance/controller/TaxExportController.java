@@ -1,11 +1,10 @@
 package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.service.CoretaxExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -61,69 +60,63 @@ public class TaxExportController {
     }
 
     @GetMapping("/efaktur-keluaran")
-    public ResponseEntity<byte[]> exportEFakturKeluaran(
+    public void exportEFakturKeluaran(
             @RequestParam String startMonth,
-            @RequestParam String endMonth) throws IOException {
+            @RequestParam String endMonth,
+            HttpServletResponse response) throws IOException {
 
         YearMonth start = YearMonth.parse(startMonth);
         YearMonth end = YearMonth.parse(endMonth);
         LocalDate startDate = start.atDay(1);
         LocalDate endDate = end.atEndOfMonth();
 
-        byte[] excelData = coretaxExportService.exportEFakturKeluaran(startDate, endDate);
-
         String filename = String.format("efaktur-keluaran_%s_%s.xlsx",
                 start.format(FILE_MONTH_FORMAT),
                 end.format(FILE_MONTH_FORMAT));
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelData);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        coretaxExportService.exportEFakturKeluaran(startDate, endDate, response.getOutputStream());
     }
 
     @GetMapping("/efaktur-masukan")
-    public ResponseEntity<byte[]> exportEFakturMasukan(
+    public void exportEFakturMasukan(
             @RequestParam String startMonth,
-            @RequestParam String endMonth) throws IOException {
+            @RequestParam String endMonth,
+            HttpServletResponse response) throws IOException {
 
         YearMonth start = YearMonth.parse(startMonth);
         YearMonth end = YearMonth.parse(endMonth);
         LocalDate startDate = start.atDay(1);
         LocalDate endDate = end.atEndOfMonth();
 
-        byte[] excelData = coretaxExportService.exportEFakturMasukan(startDate, endDate);
-
         String filename = String.format("efaktur-masukan_%s_%s.xlsx",
                 start.format(FILE_MONTH_FORMAT),
                 end.format(FILE_MONTH_FORMAT));
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelData);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        coretaxExportService.exportEFakturMasukan(startDate, endDate, response.getOutputStream());
     }
 
     @GetMapping("/bupot-unifikasi")
-    public ResponseEntity<byte[]> exportBupotUnifikasi(
+    public void exportBupotUnifikasi(
             @RequestParam String startMonth,
-            @RequestParam String endMonth) throws IOException {
+            @RequestParam String endMonth,
+            HttpServletResponse response) throws IOException {
 
         YearMonth start = YearMonth.parse(startMonth);
         YearMonth end = YearMonth.parse(endMonth);
         LocalDate startDate = start.atDay(1);
         LocalDate endDate = end.atEndOfMonth();
 
-        byte[] excelData = coretaxExportService.exportBupotUnifikasi(startDate, endDate);
-
         String filename = String.format("bupot-unifikasi_%s_%s.xlsx",
                 start.format(FILE_MONTH_FORMAT),
                 end.format(FILE_MONTH_FORMAT));
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
-                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
-                .body(excelData);
+        response.setContentType(CONTENT_TYPE_XLSX);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"");
+        coretaxExportService.exportBupotUnifikasi(startDate, endDate, response.getOutputStream());
     }
 
     private java.util.List<YearMonth> generateAvailableMonths() {
@@ -2,10 +2,11 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.config.TelegramConfig;
 import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
-import com.artivisi.accountingfinance.service.TelegramBotService;
+import com.artivisi.accountingfinance.service.telegram.TelegramUpdateQueueService;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,11 +21,11 @@ public class TelegramWebhookController {
 
     private static final Logger log = LoggerFactory.getLogger(TelegramWebhookController.class);
 
-    private final TelegramBotService telegramBotService;
+    private final TelegramUpdateQueueService updateQueueService;
     private final TelegramConfig telegramConfig;
 
-    public TelegramWebhookController(TelegramBotService telegramBotService, TelegramConfig telegramConfig) {
-        this.telegramBotService = telegramBotService;
+    public TelegramWebhookController(TelegramUpdateQueueService updateQueueService, TelegramConfig telegramConfig) {
+        this.updateQueueService = updateQueueService;
         this.telegramConfig = telegramConfig;
     }
 
@@ -55,9 +56,16 @@ public class TelegramWebhookController {
 
         log.debug("Received Telegram update: {}", update.getUpdateId());
 
+        // Only store the update here; photo download, OCR and parsing run on the queue workers
         try {
-            telegramBotService.handleUpdate(update);
+            if (!updateQueueService.enqueue(update)) {
+                log.debug("Ignoring duplicate Telegram update: {}", update.getUpdateId());
+            }
             return ResponseEntity.ok("OK");
+        } catch (DataAccessException e) {
+            // Not stored: let Telegram deliver the update again
+            log.warn("Could not queue Telegram update {}: {}", update.getUpdateId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Retry later");
         } catch (Exception e) {
             // Log at warn without stack trace - webhook errors are expected (network, parsing, etc.)
             log.warn("Error handling Telegram update {}: {}", update.getUpdateId(), e.getMessage());
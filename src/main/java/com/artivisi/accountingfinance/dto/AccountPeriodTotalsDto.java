@@ -0,0 +1,15 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Debit and credit totals of one account within one calendar month.
+ */
+public record AccountPeriodTotalsDto(
+        UUID accountId,
+        Integer periodYear,
+        Integer periodMonth,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal
+) {}
@@ -0,0 +1,13 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Debit and credit totals of one account, produced by grouped ledger aggregation queries.
+ */
+public record AccountTotalsDto(
+        UUID accountId,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal
+) {}
@@ -0,0 +1,20 @@
+package com.artivisi.accountingfinance.dto;
+
+import com.artivisi.accountingfinance.enums.CashFlowCategory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Debit and credit totals of one account in the transactions of one journal template,
+ * produced by the cash flow aggregation query.
+ *
+ * @param category cash flow category of the template, null when not set
+ */
+public record CashFlowTotalsDto(
+        CashFlowCategory category,
+        String templateName,
+        UUID accountId,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal
+) {}
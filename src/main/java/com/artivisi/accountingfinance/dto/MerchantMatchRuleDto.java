@@ -0,0 +1,14 @@
+package com.artivisi.accountingfinance.dto;
+
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+
+import java.util.UUID;
+
+/**
+ * The fields of a merchant mapping needed to match merchant names, loaded to build the matcher index.
+ */
+public record MerchantMatchRuleDto(
+        UUID id,
+        String merchantPattern,
+        MerchantMapping.MatchType matchType
+) {}
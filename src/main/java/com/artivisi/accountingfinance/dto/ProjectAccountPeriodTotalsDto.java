@@ -0,0 +1,17 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Debit and credit totals of one account in the journal lines of one project within one
+ * calendar month.
+ */
+public record ProjectAccountPeriodTotalsDto(
+        UUID projectId,
+        UUID accountId,
+        Integer periodYear,
+        Integer periodMonth,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal
+) {}
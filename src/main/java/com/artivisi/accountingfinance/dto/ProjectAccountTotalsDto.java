@@ -0,0 +1,15 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Debit and credit totals of one account in the journal lines of one project,
+ * produced by the profitability aggregation query.
+ */
+public record ProjectAccountTotalsDto(
+        UUID projectId,
+        UUID accountId,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal
+) {}
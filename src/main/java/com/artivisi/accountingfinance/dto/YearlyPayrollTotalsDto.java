@@ -0,0 +1,16 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Totals of one employee's posted payroll details in a year, produced by the
+ * 1721-A1 aggregation query.
+ */
+public record YearlyPayrollTotalsDto(
+        UUID employeeId,
+        long monthCount,
+        BigDecimal totalGross,
+        BigDecimal totalBpjsEmployee,
+        BigDecimal totalPph21
+) {}
@@ -0,0 +1,62 @@
+package com.artivisi.accountingfinance.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Synchronize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Monthly snapshot of posted debit/credit totals for one account.
+ * Rows are maintained by database triggers on journal_entries and transactions
+ * (see V005 migration); the application only reads, rebuilds, compacts and verifies them.
+ * The triggers append delta rows, so an account and month can have several rows until
+ * the next compaction; queries must sum them.
+ *
+ * <p>{@code @Synchronize} makes queries on this entity flush pending journal entry and
+ * transaction changes first, so the triggers have run before the snapshot is read.
+ */
+@Entity
+@Table(name = "account_period_balances")
+@Synchronize({"journal_entries", "transactions"})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountPeriodBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_account", nullable = false)
+    private ChartOfAccount account;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "debit_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal debitTotal = BigDecimal.ZERO;
+
+    @Column(name = "credit_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal creditTotal = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
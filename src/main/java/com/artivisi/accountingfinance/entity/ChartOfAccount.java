@@ -2,8 +2,10 @@ package com.artivisi.accountingfinance.entity;
 
 import com.artivisi.accountingfinance.enums.AccountType;
 import com.artivisi.accountingfinance.enums.NormalBalance;
+import com.artivisi.accountingfinance.service.LedgerChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -26,6 +28,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "chart_of_accounts")
+@EntityListeners(LedgerChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
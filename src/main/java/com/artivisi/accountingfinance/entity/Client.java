@@ -1,7 +1,9 @@
 package com.artivisi.accountingfinance.entity;
 
+import com.artivisi.accountingfinance.service.LedgerChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -23,6 +25,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "clients")
+@EntityListeners(LedgerChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
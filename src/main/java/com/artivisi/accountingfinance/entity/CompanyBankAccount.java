@@ -1,9 +1,14 @@
 package com.artivisi.accountingfinance.entity;
 
+import com.artivisi.accountingfinance.security.BlindIndexListener;
+import com.artivisi.accountingfinance.security.BlindIndexService;
+import com.artivisi.accountingfinance.security.BlindIndexed;
+import com.artivisi.accountingfinance.security.EncryptedString;
 import com.artivisi.accountingfinance.security.EncryptedStringConverter;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -12,6 +17,7 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -21,10 +27,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "company_bank_accounts")
+@EntityListeners(BlindIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
-public class CompanyBankAccount {
+public class CompanyBankAccount implements BlindIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -41,11 +48,14 @@ public class CompanyBankAccount {
     private String bankBranch;
 
     // Encrypted at rest (PII protection - financial data)
-    @NotBlank(message = "Nomor rekening wajib diisi")
-    @Size(max = 50, message = "Nomor rekening maksimal 50 karakter")
     @Column(name = "account_number", nullable = false, length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String accountNumber;
+    private EncryptedString accountNumber;
+
+    // Blind index for lookups by account number (see BlindIndexService)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "account_number_bidx", length = 32)
+    private String accountNumberBlindIndex;
 
     @NotBlank(message = "Nama pemilik rekening wajib diisi")
     @Size(max = 255, message = "Nama pemilik rekening maksimal 255 karakter")
@@ -68,6 +78,22 @@ public class CompanyBankAccount {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Encrypted fields are decrypted on first access; constraints validate the plaintext
+    @NotBlank(message = "Nomor rekening wajib diisi")
+    @Size(max = 50, message = "Nomor rekening maksimal 50 karakter")
+    public String getAccountNumber() {
+        return EncryptedString.plaintextOf(accountNumber);
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = EncryptedString.of(accountNumber);
+    }
+
+    @Override
+    public void updateBlindIndexes(BlindIndexService blindIndexService) {
+        accountNumberBlindIndex = blindIndexService.refresh(accountNumber, accountNumberBlindIndex);
+    }
+
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -96,6 +96,10 @@ public class Document {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @JsonIgnore
+    @Column(name = "blob_migration_failed_at")
+    private LocalDateTime blobMigrationFailedAt;
+
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -1,9 +1,14 @@
 package com.artivisi.accountingfinance.entity;
 
+import com.artivisi.accountingfinance.security.BlindIndexListener;
+import com.artivisi.accountingfinance.security.BlindIndexService;
+import com.artivisi.accountingfinance.security.BlindIndexed;
+import com.artivisi.accountingfinance.security.EncryptedString;
 import com.artivisi.accountingfinance.security.EncryptedStringConverter;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -20,6 +25,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -30,10 +36,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "employees")
+@EntityListeners(BlindIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
-public class Employee {
+public class Employee implements BlindIndexed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -69,18 +76,23 @@ public class Employee {
 
     // Tax identification - optional fields, validated only when provided
     // Encrypted at rest (PII protection)
-    @Size(max = 20, message = "NPWP maksimal 20 karakter")
-    @Pattern(regexp = "^$|^[0-9.\\-]{15,20}$", message = "NPWP harus 15-20 digit")
     @Column(name = "npwp", length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String npwp;
+    private EncryptedString npwp;
+
+    // Blind indexes for lookups by NPWP, NIK KTP and bank account (see BlindIndexService)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "npwp_bidx", length = 32)
+    private String npwpBlindIndex;
 
     // Encrypted at rest (PII protection)
-    @Size(max = 16, message = "NIK KTP maksimal 16 karakter")
-    @Pattern(regexp = "^$|^\\d{16}$", message = "NIK KTP harus 16 digit angka")
     @Column(name = "nik_ktp", length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String nikKtp;
+    private EncryptedString nikKtp;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nik_ktp_bidx", length = 32)
+    private String nikKtpBlindIndex;
 
     @NotNull(message = "Status PTKP wajib diisi")
     @Enumerated(EnumType.STRING)
@@ -119,26 +131,27 @@ public class Employee {
     private String bankName;
 
     // Encrypted at rest (PII protection - financial data)
-    @Size(max = 50, message = "Nomor rekening maksimal 50 karakter")
     @Column(name = "bank_account_number", length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String bankAccountNumber;
+    private EncryptedString bankAccountNumber;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "bank_account_number_bidx", length = 32)
+    private String bankAccountNumberBlindIndex;
 
     @Size(max = 255, message = "Nama pemilik rekening maksimal 255 karakter")
     @Column(name = "bank_account_name")
     private String bankAccountName;
 
     // BPJS registration - Encrypted at rest (PII protection)
-    @Size(max = 20, message = "Nomor BPJS Kesehatan maksimal 20 karakter")
     @Column(name = "bpjs_kesehatan_number", length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String bpjsKesehatanNumber;
+    private EncryptedString bpjsKesehatanNumber;
 
     // Encrypted at rest (PII protection)
-    @Size(max = 20, message = "Nomor BPJS Ketenagakerjaan maksimal 20 karakter")
     @Column(name = "bpjs_ketenagakerjaan_number", length = 255)  // Extended for encrypted data
     @Convert(converter = EncryptedStringConverter.class)
-    private String bpjsKetenagakerjaanNumber;
+    private EncryptedString bpjsKetenagakerjaanNumber;
 
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
@@ -152,6 +165,61 @@ public class Employee {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Encrypted fields are decrypted on first access; constraints validate the plaintext
+    @Size(max = 20, message = "NPWP maksimal 20 karakter")
+    @Pattern(regexp = "^$|^[0-9.\\-]{15,20}$", message = "NPWP harus 15-20 digit")
+    public String getNpwp() {
+        return EncryptedString.plaintextOf(npwp);
+    }
+
+    public void setNpwp(String npwp) {
+        this.npwp = EncryptedString.of(npwp);
+    }
+
+    @Size(max = 16, message = "NIK KTP maksimal 16 karakter")
+    @Pattern(regexp = "^$|^\\d{16}$", message = "NIK KTP harus 16 digit angka")
+    public String getNikKtp() {
+        return EncryptedString.plaintextOf(nikKtp);
+    }
+
+    public void setNikKtp(String nikKtp) {
+        this.nikKtp = EncryptedString.of(nikKtp);
+    }
+
+    @Size(max = 50, message = "Nomor rekening maksimal 50 karakter")
+    public String getBankAccountNumber() {
+        return EncryptedString.plaintextOf(bankAccountNumber);
+    }
+
+    public void setBankAccountNumber(String bankAccountNumber) {
+        this.bankAccountNumber = EncryptedString.of(bankAccountNumber);
+    }
+
+    @Size(max = 20, message = "Nomor BPJS Kesehatan maksimal 20 karakter")
+    public String getBpjsKesehatanNumber() {
+        return EncryptedString.plaintextOf(bpjsKesehatanNumber);
+    }
+
+    public void setBpjsKesehatanNumber(String bpjsKesehatanNumber) {
+        this.bpjsKesehatanNumber = EncryptedString.of(bpjsKesehatanNumber);
+    }
+
+    @Size(max = 20, message = "Nomor BPJS Ketenagakerjaan maksimal 20 karakter")
+    public String getBpjsKetenagakerjaanNumber() {
+        return EncryptedString.plaintextOf(bpjsKetenagakerjaanNumber);
+    }
+
+    public void setBpjsKetenagakerjaanNumber(String bpjsKetenagakerjaanNumber) {
+        this.bpjsKetenagakerjaanNumber = EncryptedString.of(bpjsKetenagakerjaanNumber);
+    }
+
+    @Override
+    public void updateBlindIndexes(BlindIndexService blindIndexService) {
+        npwpBlindIndex = blindIndexService.refresh(npwp, npwpBlindIndex);
+        nikKtpBlindIndex = blindIndexService.refresh(nikKtp, nikKtpBlindIndex);
+        bankAccountNumberBlindIndex = blindIndexService.refresh(bankAccountNumber, bankAccountNumberBlindIndex);
+    }
+
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -3,9 +3,11 @@ package com.artivisi.accountingfinance.entity;
 import com.artivisi.accountingfinance.enums.CashFlowCategory;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
 import com.artivisi.accountingfinance.enums.TemplateType;
+import com.artivisi.accountingfinance.service.LedgerChangeListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -31,6 +33,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "journal_templates")
+@EntityListeners(LedgerChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
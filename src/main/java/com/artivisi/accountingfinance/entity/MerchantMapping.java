@@ -1,7 +1,9 @@
 package com.artivisi.accountingfinance.entity;
 
+import com.artivisi.accountingfinance.service.MerchantMappingListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -26,6 +28,7 @@ import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "merchant_mappings")
+@EntityListeners(MerchantMappingListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,9 +1,11 @@
 package com.artivisi.accountingfinance.entity;
 
 import com.artivisi.accountingfinance.enums.ProjectStatus;
+import com.artivisi.accountingfinance.service.LedgerChangeListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -32,6 +34,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "projects")
+@EntityListeners(LedgerChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,9 +2,11 @@ package com.artivisi.accountingfinance.entity;
 
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.enums.VoidReason;
+import com.artivisi.accountingfinance.service.LedgerChangeListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -31,6 +33,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "transactions")
+@EntityListeners(LedgerChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,28 @@
+package com.artivisi.accountingfinance.enums;
+
+/**
+ * Presentation of operating activities in the cash flow statement.
+ * Investing and financing activities are the same in both.
+ */
+public enum CashFlowMethod {
+    /** Cash received and paid, by journal template */
+    DIRECT("Direct Method", "Metode Langsung"),
+    /** Net income adjusted by changes in non-cash accounts */
+    INDIRECT("Indirect Method", "Metode Tidak Langsung");
+
+    private final String englishName;
+    private final String indonesianName;
+
+    CashFlowMethod(String englishName, String indonesianName) {
+        this.englishName = englishName;
+        this.indonesianName = indonesianName;
+    }
+
+    public String getEnglishName() {
+        return englishName;
+    }
+
+    public String getIndonesianName() {
+        return indonesianName;
+    }
+}
@@ -0,0 +1,44 @@
+package com.artivisi.accountingfinance.enums;
+
+/**
+ * Document number sequences.
+ * Gap-free sequences number legal documents from their transaction_sequences row
+ * inside the posting transaction. The others are handed out from blocks reserved
+ * on a PostgreSQL sequence per year.
+ */
+public enum SequenceType {
+    TRANSACTION("TRANSACTION", "TRX", null),
+    JOURNAL("JOURNAL", "JE", "journal_number_seq"),
+    MANUAL_JOURNAL("MANUAL_JOURNAL", "MJ", null),
+    FISCAL_CLOSING("SEQ_TYPE_FISCAL_CLOSING", "FC", null);
+
+    private final String code;
+    private final String prefix;
+    private final String databaseSequence;
+
+    SequenceType(String code, String prefix, String databaseSequence) {
+        this.code = code;
+        this.prefix = prefix;
+        this.databaseSequence = databaseSequence;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Name stem of the per-year PostgreSQL sequences (stem_YYYY) whose INCREMENT BY is the
+     * reserved block size, or null for gap-free sequences.
+     */
+    public String getDatabaseSequence() {
+        return databaseSequence;
+    }
+
+    public boolean isGapFree() {
+        return databaseSequence == null;
+    }
+}
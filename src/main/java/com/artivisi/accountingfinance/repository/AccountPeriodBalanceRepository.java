@@ -0,0 +1,68 @@
+package com.artivisi.accountingfinance.repository;
+
+import com.artivisi.accountingfinance.dto.AccountPeriodTotalsDto;
+import com.artivisi.accountingfinance.dto.AccountTotalsDto;
+import com.artivisi.accountingfinance.entity.AccountPeriodBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccountPeriodBalanceRepository extends JpaRepository<AccountPeriodBalance, UUID> {
+
+    /**
+     * Totals per account over whole months, periods encoded as yyyyMM (e.g. 202401).
+     */
+    @Query("SELECT new com.artivisi.accountingfinance.dto.AccountTotalsDto(" +
+           "b.account.id, SUM(b.debitTotal), SUM(b.creditTotal)) " +
+           "FROM AccountPeriodBalance b " +
+           "WHERE (b.periodYear * 100 + b.periodMonth) BETWEEN :fromPeriod AND :toPeriod " +
+           "GROUP BY b.account.id")
+    List<AccountTotalsDto> sumGroupedByAccountBetweenPeriods(
+            @Param("fromPeriod") int fromPeriod,
+            @Param("toPeriod") int toPeriod);
+
+    @Query("SELECT new com.artivisi.accountingfinance.dto.AccountPeriodTotalsDto(" +
+           "b.account.id, b.periodYear, b.periodMonth, SUM(b.debitTotal), SUM(b.creditTotal)) " +
+           "FROM AccountPeriodBalance b " +
+           "GROUP BY b.account.id, b.periodYear, b.periodMonth")
+    List<AccountPeriodTotalsDto> findAllPeriodTotals();
+
+    // Blocks concurrent postings while the snapshot is rebuilt
+    @Modifying
+    @Query(value = "LOCK TABLE transactions, journal_entries IN SHARE MODE", nativeQuery = true)
+    void lockLedgerForRebuild();
+
+    // Blocks compaction and other rebuilds; taken after the ledger lock so that
+    // postings still running can append their deltas and commit first
+    @Modifying
+    @Query(value = "LOCK TABLE account_period_balances IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockSnapshotForRebuild();
+
+    @Query(value = "SELECT compact_account_period_balances()", nativeQuery = true)
+    int compactSnapshots();
+
+    @Modifying
+    @Query(value = "DELETE FROM account_period_balances", nativeQuery = true)
+    int deleteAllSnapshots();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO account_period_balances (id_account, period_year, period_month, debit_total, credit_total)
+            SELECT j.id_account,
+                   EXTRACT(YEAR FROM t.transaction_date)::INTEGER,
+                   EXTRACT(MONTH FROM t.transaction_date)::INTEGER,
+                   SUM(j.debit_amount),
+                   SUM(j.credit_amount)
+            FROM journal_entries j
+            JOIN transactions t ON t.id = j.id_transaction
+            WHERE t.status = 'POSTED' AND j.deleted_at IS NULL
+            GROUP BY j.id_account, EXTRACT(YEAR FROM t.transaction_date), EXTRACT(MONTH FROM t.transaction_date)
+            """, nativeQuery = true)
+    int insertSnapshotsFromJournalEntries();
+}
@@ -17,7 +17,5 @@ public interface CompanyBankAccountRepository extends JpaRepository<CompanyBankA
 
     Optional<CompanyBankAccount> findByIsDefaultTrueAndActiveTrue();
 
-    Optional<CompanyBankAccount> findByAccountNumber(String accountNumber);
-
-    boolean existsByAccountNumber(String accountNumber);
+    List<CompanyBankAccount> findByAccountNumberBlindIndex(String accountNumberBlindIndex);
 }
@@ -11,8 +11,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -55,6 +57,23 @@ public interface DepreciationEntryRepository extends JpaRepository<DepreciationE
             @Param("assetId") UUID assetId,
             @Param("periodEnd") LocalDate periodEnd);
 
+    @Query("SELECT e.fixedAsset.id FROM DepreciationEntry e WHERE e.periodEnd = :periodEnd")
+    Set<UUID> findAssetIdsByPeriodEnd(@Param("periodEnd") LocalDate periodEnd);
+
+    @Query("SELECT e.id FROM DepreciationEntry e JOIN e.fixedAsset a " +
+           "WHERE e.status = 'PENDING' AND e.periodEnd <= :periodEnd " +
+           "ORDER BY e.periodEnd ASC, a.assetCode ASC")
+    List<UUID> findPendingIdsUpTo(@Param("periodEnd") LocalDate periodEnd);
+
+    @Query("SELECT e FROM DepreciationEntry e " +
+           "JOIN FETCH e.fixedAsset a " +
+           "JOIN FETCH a.assetAccount " +
+           "JOIN FETCH a.accumulatedDepreciationAccount " +
+           "JOIN FETCH a.depreciationExpenseAccount " +
+           "WHERE e.id IN :ids AND e.status = 'PENDING' " +
+           "ORDER BY e.periodEnd ASC, a.assetCode ASC")
+    List<DepreciationEntry> findPendingByIdsWithAccounts(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT e FROM DepreciationEntry e WHERE " +
            "e.periodEnd >= :startDate AND e.periodEnd <= :endDate " +
            "AND (:status IS NULL OR e.status = :status) " +
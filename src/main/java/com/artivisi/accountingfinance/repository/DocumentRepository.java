@@ -1,12 +1,22 @@
 package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.Document;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
@@ -26,4 +36,30 @@ public interface DocumentRepository extends JpaRepository<Document, UUID> {
     long countByJournalEntryId(UUID journalEntryId);
 
     long countByInvoiceId(UUID invoiceId);
+
+    // Content-addressed storage: live documents sharing a storage path are the references to its blob
+    long countByStoragePath(String storagePath);
+
+    @Query("SELECT d.storagePath FROM Document d WHERE d.storagePath LIKE CONCAT(:prefix, '%')")
+    Set<String> findStoragePathsStartingWith(@Param("prefix") String prefix);
+
+    @Query("SELECT d FROM Document d WHERE d.storagePath NOT LIKE 'blobs/%' AND d.blobMigrationFailedAt IS NULL " +
+           "AND d.id > :after ORDER BY d.id")
+    List<Document> findNotContentAddressedAfter(@Param("after") UUID after, Limit limit);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Document d SET d.blobMigrationFailedAt = :failedAt WHERE d.id = :id")
+    int markBlobMigrationFailed(@Param("id") UUID id, @Param("failedAt") LocalDateTime failedAt);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Document d SET d.storagePath = :newPath, d.filename = :filename WHERE d.storagePath = :oldPath")
+    int moveStoragePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath, @Param("filename") String filename);
+
+    // Data export: streamed with a JDBC fetch size so rows are not loaded all at once
+    @Query("SELECT d FROM Document d LEFT JOIN FETCH d.transaction LEFT JOIN FETCH d.journalEntry ORDER BY d.createdAt, d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Document> streamAllForExport();
 }
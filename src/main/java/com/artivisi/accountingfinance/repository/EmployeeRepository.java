@@ -21,7 +21,11 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
 
     boolean existsByEmployeeId(String employeeId);
 
-    boolean existsByNpwp(String npwp);
+    List<Employee> findByNpwpBlindIndex(String npwpBlindIndex);
+
+    List<Employee> findByNikKtpBlindIndex(String nikKtpBlindIndex);
+
+    List<Employee> findByBankAccountNumberBlindIndex(String bankAccountNumberBlindIndex);
 
     List<Employee> findByActiveTrue();
 
@@ -56,8 +60,9 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.active = true AND e.employmentStatus = 'ACTIVE'")
     long countActiveEmployees();
 
-    @Query("SELECT e FROM Employee e WHERE e.npwp = :npwp AND e.id != :excludeId")
-    Optional<Employee> findByNpwpExcludingId(@Param("npwp") String npwp, @Param("excludeId") UUID excludeId);
+    @Query("SELECT e FROM Employee e WHERE e.npwpBlindIndex = :npwpBlindIndex AND e.id != :excludeId")
+    List<Employee> findByNpwpBlindIndexExcludingId(@Param("npwpBlindIndex") String npwpBlindIndex,
+                                                   @Param("excludeId") UUID excludeId);
 
     Optional<Employee> findByUser(User user);
 
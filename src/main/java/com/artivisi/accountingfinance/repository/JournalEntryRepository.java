@@ -1,18 +1,29 @@
 package com.artivisi.accountingfinance.repository;
 
+import com.artivisi.accountingfinance.dto.AccountPeriodTotalsDto;
+import com.artivisi.accountingfinance.dto.AccountTotalsDto;
+import com.artivisi.accountingfinance.dto.CashFlowTotalsDto;
+import com.artivisi.accountingfinance.dto.ProjectAccountPeriodTotalsDto;
+import com.artivisi.accountingfinance.dto.ProjectAccountTotalsDto;
 import com.artivisi.accountingfinance.entity.JournalEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID> {
@@ -27,7 +38,7 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE " +
            "j.account.id = :accountId AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
     List<JournalEntry> findByAccountIdAndDateRange(
             @Param("accountId") UUID accountId,
             @Param("startDate") LocalDate startDate,
@@ -36,7 +47,7 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE " +
            "j.account.id = :accountId AND t.status = 'POSTED' AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
     List<JournalEntry> findPostedEntriesByAccountAndDateRange(
             @Param("accountId") UUID accountId,
             @Param("startDate") LocalDate startDate,
@@ -45,7 +56,7 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE " +
            "j.account.id = :accountId AND t.status = 'POSTED' AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
     Page<JournalEntry> findPostedEntriesByAccountAndDateRangePaged(
             @Param("accountId") UUID accountId,
             @Param("startDate") LocalDate startDate,
@@ -58,7 +69,7 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
            "(LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(j.journalNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(t.referenceNumber) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
     Page<JournalEntry> findPostedEntriesByAccountAndDateRangeAndSearchPaged(
             @Param("accountId") UUID accountId,
             @Param("startDate") LocalDate startDate,
@@ -66,6 +77,93 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
             @Param("search") String search,
             Pageable pageable);
 
+    // Net (debit - credit) of the first :rowCount ledger lines, in general ledger order
+    @Query(value = "SELECT COALESCE(SUM(p.debit_amount - p.credit_amount), 0) FROM (" +
+           "SELECT je.debit_amount, je.credit_amount FROM journal_entries je " +
+           "JOIN transactions t ON t.id = je.id_transaction " +
+           "WHERE je.id_account = :accountId AND je.deleted_at IS NULL AND t.status = 'POSTED' AND " +
+           "t.transaction_date BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transaction_date, t.created_at, je.journal_number, je.id LIMIT :rowCount) p",
+           nativeQuery = true)
+    BigDecimal sumNetOfFirstLedgerLines(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("rowCount") long rowCount);
+
+    // Keyset (seek) pagination of the general ledger on (transactionDate, createdAt, journalNumber, id).
+    // Lines of one journal may share a journal number, so the id makes the position unique.
+    // The redundant transactionDate bound lets the planner use the composite index range.
+    @Query("SELECT j FROM JournalEntry j JOIN FETCH j.transaction t WHERE " +
+           "j.account.id = :accountId AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
+    List<JournalEntry> findLedgerLinesFirst(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable limit);
+
+    @Query("SELECT j FROM JournalEntry j JOIN FETCH j.transaction t WHERE " +
+           "j.account.id = :accountId AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transactionDate DESC, t.createdAt DESC, j.journalNumber DESC, j.id DESC")
+    List<JournalEntry> findLedgerLinesLast(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable limit);
+
+    @Query("SELECT j FROM JournalEntry j JOIN FETCH j.transaction t WHERE " +
+           "j.account.id = :accountId AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate AND t.transactionDate >= :date AND " +
+           "(t.transactionDate > :date OR (t.transactionDate = :date AND " +
+           "(t.createdAt > :createdAt OR (t.createdAt = :createdAt AND (j.journalNumber > :journalNumber OR " +
+           "(j.journalNumber = :journalNumber AND j.id > :id)))))) " +
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
+    List<JournalEntry> findLedgerLinesAfter(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("date") LocalDate date,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("journalNumber") String journalNumber,
+            @Param("id") UUID id,
+            Pageable limit);
+
+    @Query("SELECT j FROM JournalEntry j JOIN FETCH j.transaction t WHERE " +
+           "j.account.id = :accountId AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate AND t.transactionDate <= :date AND " +
+           "(t.transactionDate < :date OR (t.transactionDate = :date AND " +
+           "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND (j.journalNumber < :journalNumber OR " +
+           "(j.journalNumber = :journalNumber AND j.id < :id)))))) " +
+           "ORDER BY t.transactionDate DESC, t.createdAt DESC, j.journalNumber DESC, j.id DESC")
+    List<JournalEntry> findLedgerLinesBefore(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("date") LocalDate date,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("journalNumber") String journalNumber,
+            @Param("id") UUID id,
+            Pageable limit);
+
+    // Net (debit - credit) of the ledger lines in range that sort before the given line
+    @Query("SELECT COALESCE(SUM(j.debitAmount - j.creditAmount), 0) FROM JournalEntry j JOIN j.transaction t WHERE " +
+           "j.account.id = :accountId AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate AND t.transactionDate <= :date AND " +
+           "(t.transactionDate < :date OR (t.transactionDate = :date AND " +
+           "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND (j.journalNumber < :journalNumber OR " +
+           "(j.journalNumber = :journalNumber AND j.id < :id))))))")
+    BigDecimal sumNetOfLedgerLinesBefore(
+            @Param("accountId") UUID accountId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("date") LocalDate date,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("journalNumber") String journalNumber,
+            @Param("id") UUID id);
+
     @Query("SELECT COUNT(j) FROM JournalEntry j JOIN j.transaction t WHERE " +
            "j.account.id = :accountId AND t.status = 'POSTED' AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate")
@@ -76,7 +174,7 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
 
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE " +
            "t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
+           "ORDER BY t.transactionDate, t.createdAt, j.journalNumber, j.id")
     Page<JournalEntry> findAllPostedEntriesByDateRange(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
@@ -106,6 +204,35 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    // Grouped aggregation: debit/credit totals of every account in one scan
+    @Query("SELECT new com.artivisi.accountingfinance.dto.AccountTotalsDto(" +
+           "j.account.id, SUM(j.debitAmount), SUM(j.creditAmount)) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY j.account.id")
+    List<AccountTotalsDto> sumDebitCreditGroupedByAccount(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Grouped aggregation for the cash flow statement: totals of every account per journal template
+    @Query("SELECT new com.artivisi.accountingfinance.dto.CashFlowTotalsDto(" +
+           "tpl.cashFlowCategory, tpl.templateName, j.account.id, SUM(j.debitAmount), SUM(j.creditAmount)) " +
+           "FROM JournalEntry j JOIN j.transaction t JOIN t.journalTemplate tpl " +
+           "WHERE t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY tpl.cashFlowCategory, tpl.templateName, j.account.id")
+    List<CashFlowTotalsDto> sumDebitCreditGroupedByTemplateAndAccount(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Raw per-account monthly totals, used to verify account_period_balances snapshots
+    @Query("SELECT new com.artivisi.accountingfinance.dto.AccountPeriodTotalsDto(" +
+           "j.account.id, EXTRACT(YEAR FROM t.transactionDate), EXTRACT(MONTH FROM t.transactionDate), " +
+           "SUM(j.debitAmount), SUM(j.creditAmount)) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE t.status = 'POSTED' " +
+           "GROUP BY j.account.id, EXTRACT(YEAR FROM t.transactionDate), EXTRACT(MONTH FROM t.transactionDate)")
+    List<AccountPeriodTotalsDto> sumDebitCreditGroupedByAccountAndMonth();
+
     List<JournalEntry> findAllByJournalNumberOrderByIdAsc(String journalNumber);
 
     @Query("SELECT j FROM JournalEntry j LEFT JOIN FETCH j.account WHERE j.journalNumber = :journalNumber ORDER BY j.id ASC")
@@ -122,22 +249,27 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
            "WHERE journal_number LIKE :prefix", nativeQuery = true)
     Integer findMaxSequenceByPrefix(@Param("prefix") String prefix);
 
-    // Project profitability queries
-    @Query("SELECT COALESCE(SUM(j.debitAmount), 0) FROM JournalEntry j JOIN j.transaction t " +
-           "WHERE j.project.id = :projectId AND j.account.id = :accountId AND t.status = 'POSTED' AND " +
-           "t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumDebitByProjectAndAccountAndDateRange(
-            @Param("projectId") UUID projectId,
-            @Param("accountId") UUID accountId,
+    // Project profitability cube: totals of every account per project
+    @Query("SELECT new com.artivisi.accountingfinance.dto.ProjectAccountTotalsDto(" +
+           "j.project.id, j.account.id, SUM(j.debitAmount), SUM(j.creditAmount)) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE j.project.id IN :projectIds AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY j.project.id, j.account.id")
+    List<ProjectAccountTotalsDto> sumDebitCreditGroupedByProjectAndAccount(
+            @Param("projectIds") Collection<UUID> projectIds,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT COALESCE(SUM(j.creditAmount), 0) FROM JournalEntry j JOIN j.transaction t " +
-           "WHERE j.project.id = :projectId AND j.account.id = :accountId AND t.status = 'POSTED' AND " +
-           "t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumCreditByProjectAndAccountAndDateRange(
-            @Param("projectId") UUID projectId,
-            @Param("accountId") UUID accountId,
+    @Query("SELECT new com.artivisi.accountingfinance.dto.ProjectAccountPeriodTotalsDto(" +
+           "j.project.id, j.account.id, EXTRACT(YEAR FROM t.transactionDate), EXTRACT(MONTH FROM t.transactionDate), " +
+           "SUM(j.debitAmount), SUM(j.creditAmount)) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE j.project.id IN :projectIds AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY j.project.id, j.account.id, EXTRACT(YEAR FROM t.transactionDate), EXTRACT(MONTH FROM t.transactionDate)")
+    List<ProjectAccountPeriodTotalsDto> sumDebitCreditGroupedByProjectAccountAndMonth(
+            @Param("projectIds") Collection<UUID> projectIds,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
@@ -147,4 +279,12 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
 
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE t.referenceNumber LIKE :pattern ORDER BY t.referenceNumber, j.id")
     List<JournalEntry> findByReferenceNumberLike(@Param("pattern") String pattern);
+
+    // Data export: streamed with a JDBC fetch size so rows are not loaded all at once
+    @Query("SELECT j FROM JournalEntry j JOIN FETCH j.transaction LEFT JOIN FETCH j.account ORDER BY j.journalNumber")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JournalEntry> streamAllForExport();
 }
@@ -5,10 +5,12 @@ import com.artivisi.accountingfinance.enums.TemplateCategory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -58,4 +60,8 @@ public interface JournalTemplateRepository extends JpaRepository<JournalTemplate
     @Query("SELECT COUNT(t) > 0 FROM Transaction t WHERE t.journalTemplate.id = :templateId")
     boolean isTemplateInUse(@Param("templateId") UUID templateId);
 
+    // Atomic increment without a version bump, so concurrent postings of one template do not conflict
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE JournalTemplate t SET t.usageCount = t.usageCount + :count, t.lastUsedAt = :usedAt WHERE t.id = :id")
+    int incrementUsage(@Param("id") UUID id, @Param("count") int count, @Param("usedAt") LocalDateTime usedAt);
 }
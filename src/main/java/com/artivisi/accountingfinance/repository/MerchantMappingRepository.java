@@ -1,9 +1,9 @@
 package com.artivisi.accountingfinance.repository;
 
+import com.artivisi.accountingfinance.dto.MerchantMatchRuleDto;
 import com.artivisi.accountingfinance.entity.MerchantMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,13 +14,10 @@ public interface MerchantMappingRepository extends JpaRepository<MerchantMapping
 
     List<MerchantMapping> findAllByOrderByMatchCountDesc();
 
-    @Query("SELECT m FROM MerchantMapping m WHERE " +
-           "m.matchType = 'EXACT' AND LOWER(m.merchantPattern) = LOWER(:merchantName)")
-    List<MerchantMapping> findExactMatches(@Param("merchantName") String merchantName);
-
-    @Query("SELECT m FROM MerchantMapping m WHERE " +
-           "m.matchType = 'CONTAINS' AND LOWER(:merchantName) LIKE LOWER(CONCAT('%', m.merchantPattern, '%'))")
-    List<MerchantMapping> findContainsMatches(@Param("merchantName") String merchantName);
-
-    List<MerchantMapping> findByMatchType(MerchantMapping.MatchType matchType);
+    /**
+     * All mappings for the matcher index, in priority order within a match type: oldest first.
+     */
+    @Query("SELECT new com.artivisi.accountingfinance.dto.MerchantMatchRuleDto(m.id, m.merchantPattern, m.matchType) " +
+           "FROM MerchantMapping m ORDER BY m.createdAt, m.id")
+    List<MerchantMatchRuleDto> findMatchRules();
 }
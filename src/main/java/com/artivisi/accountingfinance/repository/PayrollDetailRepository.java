@@ -1,8 +1,10 @@
 package com.artivisi.accountingfinance.repository;
 
+import com.artivisi.accountingfinance.dto.YearlyPayrollTotalsDto;
 import com.artivisi.accountingfinance.entity.PayrollDetail;
 import com.artivisi.accountingfinance.entity.PayrollRun;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,7 +25,13 @@ public interface PayrollDetailRepository extends JpaRepository<PayrollDetail, UU
            "ORDER BY pd.employee.employeeId")
     List<PayrollDetail> findByPayrollRunIdWithEmployee(@Param("payrollRunId") UUID payrollRunId);
 
-    void deleteByPayrollRun(PayrollRun payrollRun);
+    /**
+     * Delete the details of a run in one statement. The persistence context is cleared, so
+     * the run must be loaded again afterwards.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PayrollDetail pd WHERE pd.payrollRun.id = :payrollRunId")
+    int deleteAllByPayrollRunId(@Param("payrollRunId") UUID payrollRunId);
 
     boolean existsByPayrollRunAndEmployeeId(PayrollRun payrollRun, UUID employeeId);
 
@@ -45,6 +53,16 @@ public interface PayrollDetailRepository extends JpaRepository<PayrollDetail, UU
            "AND pr.status = 'POSTED'")
     List<UUID> findEmployeeIdsWithPostedPayrollInYear(@Param("yearPrefix") String yearPrefix);
 
+    @Query("SELECT new com.artivisi.accountingfinance.dto.YearlyPayrollTotalsDto(" +
+           "pd.employee.id, COUNT(pd), SUM(pd.grossSalary), " +
+           "SUM(pd.bpjsKesEmployee + pd.bpjsJhtEmployee + pd.bpjsJpEmployee), SUM(pd.pph21)) " +
+           "FROM PayrollDetail pd " +
+           "JOIN pd.payrollRun pr " +
+           "WHERE pr.payrollPeriod LIKE :yearPrefix% " +
+           "AND pr.status = 'POSTED' " +
+           "GROUP BY pd.employee.id")
+    List<YearlyPayrollTotalsDto> sumPostedByEmployeeAndYear(@Param("yearPrefix") String yearPrefix);
+
     @Query("SELECT pd FROM PayrollDetail pd " +
            "JOIN FETCH pd.payrollRun pr " +
            "WHERE pd.employee.id = :employeeId " +
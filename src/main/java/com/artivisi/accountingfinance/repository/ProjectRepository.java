@@ -20,6 +20,8 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
     List<Project> findByClientId(UUID clientId);
 
+    List<Project> findByClientActiveTrue();
+
     List<Project> findByStatus(ProjectStatus status);
 
     Page<Project> findAllByOrderByCodeAsc(Pageable pageable);
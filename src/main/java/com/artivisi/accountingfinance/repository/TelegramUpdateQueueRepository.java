@@ -0,0 +1,72 @@
+package com.artivisi.accountingfinance.repository;
+
+import com.artivisi.accountingfinance.entity.TelegramUpdateQueueItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TelegramUpdateQueueRepository extends JpaRepository<TelegramUpdateQueueItem, UUID> {
+
+    /**
+     * Queue an update unless one with the same update_id is already queued.
+     *
+     * @return 1 if queued, 0 for a duplicate
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO telegram_update_queue (id, update_id, payload) " +
+           "VALUES (gen_random_uuid(), :updateId, :payload) " +
+           "ON CONFLICT (update_id) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("updateId") long updateId, @Param("payload") String payload);
+
+    /**
+     * Claim up to {@code limit} ready updates, oldest first, skipping rows claimed by another
+     * worker. Claimed rows are PROCESSING until {@code leaseUntil}, then become claimable again.
+     */
+    @Transactional
+    @Query(value = "UPDATE telegram_update_queue q " +
+           "SET status = 'PROCESSING', attempts = q.attempts + 1, next_attempt_at = :leaseUntil, updated_at = NOW() " +
+           "WHERE q.id IN (SELECT id FROM telegram_update_queue " +
+           "  WHERE status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= NOW() " +
+           "  ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING q.*", nativeQuery = true)
+    List<TelegramUpdateQueueItem> claimReady(@Param("limit") int limit, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TelegramUpdateQueueItem q SET q.status = 'DONE', q.lastError = null, q.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE q.id = :id")
+    int markDone(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TelegramUpdateQueueItem q SET q.status = 'PENDING', q.nextAttemptAt = :nextAttemptAt, " +
+           "q.lastError = :error, q.updatedAt = CURRENT_TIMESTAMP WHERE q.id = :id")
+    int scheduleRetry(@Param("id") UUID id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TelegramUpdateQueueItem q SET q.status = 'FAILED', q.lastError = :error, " +
+           "q.updatedAt = CURRENT_TIMESTAMP WHERE q.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error);
+
+    long countByStatus(TelegramUpdateQueueItem.Status status);
+
+    /**
+     * Delete finished updates last touched before the cutoff. Telegram stops redelivering
+     * an update long before that, so they are no longer needed for deduplication.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TelegramUpdateQueueItem q WHERE q.status IN ('DONE', 'FAILED') AND q.updatedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,12 +1,17 @@
 package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.entity.TransactionAccountMapping;
+import com.artivisi.accountingfinance.entity.TransactionVariable;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +19,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
@@ -56,16 +62,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
            "WHERE t.id = :id")
     Optional<Transaction> findByIdWithMappingsAndVariables(@Param("id") UUID id);
 
+    @Query("SELECT t.id FROM Transaction t")
+    List<UUID> findAllIds();
+
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.status = :status")
     long countByStatus(@Param("status") TransactionStatus status);
 
     long countByTransactionDateBetween(LocalDate startDate, LocalDate endDate);
 
-    @Query("SELECT t FROM Transaction t WHERE t.status = 'POSTED' AND " +
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.journalTemplate WHERE t.status = 'POSTED' AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
-    List<Transaction> findPostedTransactionsBetweenDates(
+    List<Transaction> findRecentPostedWithTemplate(
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
 
     boolean existsByJournalTemplateId(UUID templateId);
+
+    // Data export: streamed with a JDBC fetch size so rows are not loaded all at once
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.journalTemplate LEFT JOIN FETCH t.project ORDER BY t.createdAt")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transaction> streamAllForExport();
+
+    @Query("SELECT m FROM TransactionAccountMapping m JOIN FETCH m.transaction t LEFT JOIN FETCH t.journalTemplate " +
+           "LEFT JOIN FETCH m.templateLine LEFT JOIN FETCH m.account ORDER BY t.createdAt, t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransactionAccountMapping> streamAccountMappingsForExport();
+
+    @Query("SELECT v FROM TransactionVariable v JOIN FETCH v.transaction t ORDER BY t.createdAt, t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransactionVariable> streamVariablesForExport();
 }
@@ -1,12 +1,11 @@
 package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.TransactionSequence;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -16,7 +15,48 @@ public interface TransactionSequenceRepository extends JpaRepository<Transaction
 
     Optional<TransactionSequence> findBySequenceTypeAndYear(String sequenceType, Integer year);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT s FROM TransactionSequence s WHERE s.sequenceType = :type AND s.year = :year")
-    Optional<TransactionSequence> findBySequenceTypeAndYearForUpdate(@Param("type") String sequenceType, @Param("year") Integer year);
+    /**
+     * Atomically advance a sequence by {@code count} numbers, creating it if missing.
+     * The row stays locked until the surrounding transaction ends.
+     *
+     * @return the last number of the advanced range
+     */
+    @Transactional
+    @Query(value = "INSERT INTO transaction_sequences (id, sequence_type, prefix, year, last_number) " +
+           "VALUES (gen_random_uuid(), :type, :prefix, :year, :count) " +
+           "ON CONFLICT (sequence_type, year) DO UPDATE " +
+           "SET last_number = transaction_sequences.last_number + :count, updated_at = NOW() " +
+           "RETURNING last_number", nativeQuery = true)
+    int advance(@Param("type") String sequenceType, @Param("prefix") String prefix,
+                @Param("year") int year, @Param("count") int count);
+
+    /**
+     * Upper end of the next block reserved on the journal number sequence of the year. Not rolled
+     * back with the caller. Sequences are created ahead of posting; one still missing is created
+     * here in the caller's transaction, after the journal numbers in use and {@code floor}.
+     */
+    @Transactional
+    @Query(value = "SELECT nextval(CAST(journal_number_sequence(:year, :floor) AS regclass))", nativeQuery = true)
+    long reserveJournalNumberBlock(@Param("year") int year, @Param("floor") long floor);
+
+    /**
+     * Create the journal number sequence of the year if missing, after the journal numbers in use.
+     *
+     * @return the sequence name
+     */
+    @Transactional
+    @Query(value = "SELECT journal_number_sequence(:year)", nativeQuery = true)
+    String createJournalNumberSequence(@Param("year") int year);
+
+    @Query(value = "SELECT increment_by FROM pg_sequences WHERE sequencename = :sequence", nativeQuery = true)
+    long findBlockSize(@Param("sequence") String sequenceName);
+
+    /**
+     * Move the journal number sequence of every year past the JE-YYYY-NNNN numbers in use, e.g. after a data import.
+     *
+     * @return the number of years realigned
+     */
+    @Transactional
+    @Query(value = "SELECT realign_journal_number_sequences()", nativeQuery = true)
+    int realignJournalNumberSequences();
 }
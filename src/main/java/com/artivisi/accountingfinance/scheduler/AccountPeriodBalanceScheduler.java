@@ -0,0 +1,31 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.AccountPeriodBalanceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for monthly account balance snapshot maintenance.
+ * Postings append delta rows; this folds them so reports sum few rows per account and month.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountPeriodBalanceScheduler {
+
+    private final AccountPeriodBalanceService accountPeriodBalanceService;
+
+    /**
+     * Run every 5 minutes to fold the delta rows appended since the last run.
+     */
+    @Scheduled(cron = "${app.ledger.period-balances.compaction-schedule:0 */5 * * * *}")
+    public void compactSnapshots() {
+        try {
+            accountPeriodBalanceService.compact();
+        } catch (Exception e) {
+            log.error("Scheduled account period balance compaction failed", e);
+        }
+    }
+}
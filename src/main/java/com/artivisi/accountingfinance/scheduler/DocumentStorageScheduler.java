@@ -0,0 +1,45 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.DocumentBlobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for document blob store maintenance.
+ * Moves documents stored before content addressing into the blob store and
+ * removes blobs that no document references anymore.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentStorageScheduler {
+
+    private final DocumentBlobService documentBlobService;
+
+    /**
+     * Run every 10 minutes to move remaining legacy document files into the blob store.
+     * Once everything is migrated a run is a single indexed query.
+     */
+    @Scheduled(cron = "${app.storage.documents.migration-schedule:0 */10 * * * *}")
+    public void migrateLegacyDocuments() {
+        try {
+            documentBlobService.migrateAll();
+        } catch (Exception e) {
+            log.error("Scheduled document blob migration failed", e);
+        }
+    }
+
+    /**
+     * Run daily at 3:30 AM to delete unreferenced blobs older than the grace period.
+     */
+    @Scheduled(cron = "${app.storage.documents.gc-schedule:0 30 3 * * *}")
+    public void collectGarbage() {
+        try {
+            documentBlobService.collectGarbage();
+        } catch (Exception e) {
+            log.error("Scheduled document blob garbage collection failed", e);
+        }
+    }
+}
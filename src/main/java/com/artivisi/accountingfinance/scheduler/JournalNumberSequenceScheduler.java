@@ -0,0 +1,35 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.SequenceNumberAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Year-rollover job for journal numbering.
+ * Creates the journal number sequence of the next year well before its first posting.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalNumberSequenceScheduler {
+
+    private final SequenceNumberAllocator sequenceNumberAllocator;
+
+    /**
+     * Run daily at 1:00 AM to create the sequences of the current and next year if missing.
+     */
+    @Scheduled(cron = "${app.journal-number.prepare-schedule:0 0 1 * * *}")
+    public void prepareSequences() {
+        int year = LocalDate.now().getYear();
+        try {
+            sequenceNumberAllocator.prepareYear(year);
+            sequenceNumberAllocator.prepareYear(year + 1);
+        } catch (Exception e) {
+            log.error("Scheduled journal number sequence preparation failed", e);
+        }
+    }
+}
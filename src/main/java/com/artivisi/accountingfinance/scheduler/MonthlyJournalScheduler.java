@@ -1,8 +1,7 @@
 package com.artivisi.accountingfinance.scheduler;
 
-import com.artivisi.accountingfinance.entity.DepreciationEntry;
 import com.artivisi.accountingfinance.service.AmortizationBatchService;
-import com.artivisi.accountingfinance.service.FixedAssetService;
+import com.artivisi.accountingfinance.service.DepreciationBatchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -10,7 +9,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.List;
 
 /**
  * Scheduler for automated monthly journal entries.
@@ -24,7 +22,7 @@ public class MonthlyJournalScheduler {
     private static final String SYSTEM_USER = "SYSTEM";
 
     private final AmortizationBatchService amortizationBatchService;
-    private final FixedAssetService fixedAssetService;
+    private final DepreciationBatchService depreciationBatchService;
 
     /**
      * Run daily at 6:00 AM to process auto-post amortization entries.
@@ -45,7 +43,8 @@ public class MonthlyJournalScheduler {
 
     /**
      * Run on the 1st day of each month at 7:00 AM to process depreciation entries
-     * for the previous month. Entries are generated and auto-posted.
+     * for the previous month. Entries are generated and auto-posted in chunks
+     * of app.depreciation.chunk-size entries.
      */
     @Scheduled(cron = "${app.depreciation.schedule:0 0 7 1 * *}")
     public void processDepreciationEntries() {
@@ -53,41 +52,17 @@ public class MonthlyJournalScheduler {
         log.info("Starting scheduled depreciation batch processing for period: {}", previousMonth);
 
         try {
-            // Step 1: Generate depreciation entries
-            List<DepreciationEntry> generatedEntries = fixedAssetService.generateDepreciationEntries(previousMonth);
+            DepreciationBatchService.BatchResult result = depreciationBatchService.run(previousMonth, SYSTEM_USER);
 
-            if (generatedEntries.isEmpty()) {
+            if (result.generatedCount() == 0 && result.chunks().isEmpty()) {
                 log.info("No assets need depreciation for period {}", previousMonth);
                 return;
             }
 
-            // Step 2: Post all generated entries
-            int postedCount = 0;
-            int errorCount = 0;
-
-            for (DepreciationEntry entry : generatedEntries) {
-                if (tryPostDepreciationEntry(entry)) {
-                    postedCount++;
-                } else {
-                    errorCount++;
-                }
-            }
-
-            log.info("Scheduled depreciation batch completed: {} generated, {} posted, {} errors",
-                    generatedEntries.size(), postedCount, errorCount);
+            log.info("Scheduled depreciation batch completed: {} generated, {} posted, {} errors in {} chunks",
+                    result.generatedCount(), result.postedCount(), result.errorCount(), result.chunks().size());
         } catch (Exception e) {
             log.error("Scheduled depreciation batch failed", e);
         }
     }
-
-    private boolean tryPostDepreciationEntry(DepreciationEntry entry) {
-        try {
-            fixedAssetService.postDepreciationEntry(entry.getId(), SYSTEM_USER);
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to post depreciation entry: asset={}, period={}, error={}",
-                    entry.getFixedAsset().getAssetCode(), entry.getPeriodNumber(), e.getMessage());
-            return false;
-        }
-    }
 }
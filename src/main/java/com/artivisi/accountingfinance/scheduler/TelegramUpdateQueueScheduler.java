@@ -0,0 +1,69 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.telegram.ReceiptPipelineMetrics;
+import com.artivisi.accountingfinance.service.telegram.TelegramUpdateQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for the Telegram update queue.
+ * Hands queued webhook updates to the queue workers and removes old finished updates.
+ */
+@Component
+@ConditionalOnProperty(name = "telegram.bot.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramUpdateQueueScheduler {
+
+    private final TelegramUpdateQueueService updateQueueService;
+
+    /**
+     * Run every second to start processing ready updates, up to the number of idle workers.
+     */
+    @Scheduled(cron = "${telegram.queue.poll-schedule:* * * * * *}")
+    public void dispatch() {
+        try {
+            updateQueueService.dispatch();
+        } catch (Exception e) {
+            log.error("Telegram update queue dispatch failed", e);
+        }
+    }
+
+    /**
+     * Run every 5 minutes to log queue depth and stage latency.
+     */
+    @Scheduled(cron = "${telegram.queue.statistics-schedule:0 */5 * * * *}")
+    public void logStatistics() {
+        try {
+            TelegramUpdateQueueService.QueueStatistics stats = updateQueueService.getStatistics();
+            log.info("Telegram update queue: {} pending, {} processing, {} failed, {} idle workers",
+                    stats.pending(), stats.processing(), stats.failed(), stats.idleWorkers());
+            for (ReceiptPipelineMetrics.StageStatistics stage : stats.stages()) {
+                if (stage.count() > 0) {
+                    log.info("Telegram {}: {} runs, avg {} ms, max {} ms",
+                            stage.stage(), stage.count(), stage.averageMillis(), stage.maxMillis());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Telegram update queue statistics failed", e);
+        }
+    }
+
+    /**
+     * Run daily at 3:45 AM to delete finished updates past the retention period.
+     */
+    @Scheduled(cron = "${telegram.queue.purge-schedule:0 45 3 * * *}")
+    public void purgeFinished() {
+        try {
+            int deleted = updateQueueService.purgeFinished();
+            if (deleted > 0) {
+                log.info("Deleted {} finished Telegram updates", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Telegram update queue purge failed", e);
+        }
+    }
+}
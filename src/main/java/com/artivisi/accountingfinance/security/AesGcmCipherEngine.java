@@ -0,0 +1,127 @@
+package com.artivisi.accountingfinance.security;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AES-256-GCM cipher engine shared by field encryption ({@link EncryptedStringConverter})
+ * and file encryption ({@link FileEncryptionService}).
+ *
+ * <p>{@code Cipher.getInstance} walks the JCE providers on every call, and a fresh cipher
+ * expands the AES key on its first init. Ciphers are therefore pooled per key: a caller
+ * borrows one with {@link #acquire()}, uses it on its own thread, and returns it by
+ * closing the lease. A reused cipher keeps its expanded key, so re-initialising it with a
+ * new IV is cheap. At most {@code maxIdle} ciphers are kept; extra ones made under load
+ * are dropped when returned.
+ */
+public final class AesGcmCipherEngine {
+
+    public static final String ALGORITHM = "AES/GCM/NoPadding";
+    public static final int IV_LENGTH = 12;
+    public static final int TAG_LENGTH_BITS = 128;
+    public static final int TAG_LENGTH = TAG_LENGTH_BITS / 8;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final SecretKey key;
+    private final int maxIdle;
+    private final Deque<Cipher> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public AesGcmCipherEngine(SecretKey key) {
+        this(key, Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    AesGcmCipherEngine(SecretKey key, int maxIdle) {
+        this.key = key;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Borrow a cipher. Close the lease to return it; the cipher must not be used afterwards.
+     */
+    public Lease acquire() {
+        Cipher cipher = idle.pollFirst();
+        if (cipher != null) {
+            idleCount.decrementAndGet();
+            return new Lease(cipher);
+        }
+        try {
+            return new Lease(Cipher.getInstance(ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM not available", e);
+        }
+    }
+
+    /**
+     * Encrypt with a random IV.
+     *
+     * @return IV (12 bytes) followed by ciphertext and tag
+     */
+    public byte[] encrypt(byte[] plaintext) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        SECURE_RANDOM.nextBytes(iv);
+        byte[] output = new byte[IV_LENGTH + plaintext.length + TAG_LENGTH];
+        System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+        try (Lease lease = acquire()) {
+            Cipher cipher = lease.init(Cipher.ENCRYPT_MODE, iv, 0);
+            cipher.doFinal(plaintext, 0, plaintext.length, output, IV_LENGTH);
+        }
+        return output;
+    }
+
+    /**
+     * Decrypt data laid out as IV (12 bytes) followed by ciphertext and tag.
+     */
+    public byte[] decrypt(byte[] data, int offset, int length) throws GeneralSecurityException {
+        if (length < IV_LENGTH + TAG_LENGTH) {
+            throw new javax.crypto.AEADBadTagException("Encrypted data too short");
+        }
+        try (Lease lease = acquire()) {
+            Cipher cipher = lease.init(Cipher.DECRYPT_MODE, data, offset);
+            return cipher.doFinal(data, offset + IV_LENGTH, length - IV_LENGTH);
+        }
+    }
+
+    private void release(Cipher cipher) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(cipher);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * A borrowed cipher, confined to the borrowing thread until closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private Cipher cipher;
+
+        private Lease(Cipher cipher) {
+            this.cipher = cipher;
+        }
+
+        /**
+         * Initialise the borrowed cipher with the engine's key and the 12-byte IV at
+         * {@code iv[offset]}.
+         */
+        public Cipher init(int mode, byte[] iv, int offset) throws GeneralSecurityException {
+            cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv, offset, IV_LENGTH));
+            return cipher;
+        }
+
+        @Override
+        public void close() {
+            if (cipher != null) {
+                release(cipher);
+                cipher = null;
+            }
+        }
+    }
+}
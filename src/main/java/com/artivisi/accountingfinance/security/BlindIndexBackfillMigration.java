@@ -0,0 +1,147 @@
+package com.artivisi.accountingfinance.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Flyway migration V010: fill the blind-index columns added by V009 for existing rows.
+ *
+ * <p>Runs in Java because the stored values have to be decrypted with the application
+ * key first. Registered as a Spring bean so Flyway gets it with its keys configured.
+ * Rows are read in id order in batches; only rows with a value and no index are touched,
+ * so the backfill is rerun after every migrate run, and after {@link #rebuild} cleared the
+ * columns (see {@link BlindIndexRebuildCallback}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlindIndexBackfillMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_EMPLOYEES = """
+            SELECT id, npwp, nik_ktp, bank_account_number FROM employees
+            WHERE id > ?
+              AND ((npwp IS NOT NULL AND npwp_bidx IS NULL)
+                OR (nik_ktp IS NOT NULL AND nik_ktp_bidx IS NULL)
+                OR (bank_account_number IS NOT NULL AND bank_account_number_bidx IS NULL))
+            ORDER BY id LIMIT ?""";
+    private static final String UPDATE_EMPLOYEE = """
+            UPDATE employees SET npwp_bidx = ?, nik_ktp_bidx = ?, bank_account_number_bidx = ?
+            WHERE id = ?""";
+    private static final String SELECT_BANK_ACCOUNTS = """
+            SELECT id, account_number FROM company_bank_accounts
+            WHERE id > ? AND account_number IS NOT NULL AND account_number_bidx IS NULL
+            ORDER BY id LIMIT ?""";
+    private static final String UPDATE_BANK_ACCOUNT = """
+            UPDATE company_bank_accounts SET account_number_bidx = ? WHERE id = ?""";
+    private static final String CLEAR_EMPLOYEES = """
+            UPDATE employees SET npwp_bidx = NULL, nik_ktp_bidx = NULL, bank_account_number_bidx = NULL
+            WHERE npwp_bidx IS NOT NULL OR nik_ktp_bidx IS NOT NULL OR bank_account_number_bidx IS NOT NULL""";
+    private static final String CLEAR_BANK_ACCOUNTS = """
+            UPDATE company_bank_accounts SET account_number_bidx = NULL WHERE account_number_bidx IS NOT NULL""";
+
+    private final EncryptedStringConverter encryptedStringConverter;
+    private final BlindIndexService blindIndexService;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("010");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill pii blind index";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        backfill(context.getConnection());
+    }
+
+    /**
+     * Fill missing blind indexes.
+     *
+     * @return number of rows updated
+     */
+    int backfill(Connection connection) throws SQLException {
+        int employees = backfillTable(connection, SELECT_EMPLOYEES, UPDATE_EMPLOYEE, 3);
+        int bankAccounts = backfillTable(connection, SELECT_BANK_ACCOUNTS, UPDATE_BANK_ACCOUNT, 1);
+        if (employees > 0 || bankAccounts > 0) {
+            log.info("PII blind index backfill: {} employees, {} company bank accounts", employees, bankAccounts);
+        }
+        return employees + bankAccounts;
+    }
+
+    /**
+     * Recompute every blind index, e.g. after the blind-index key changed.
+     *
+     * @return number of rows updated
+     */
+    int rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CLEAR_EMPLOYEES);
+            statement.executeUpdate(CLEAR_BANK_ACCOUNTS);
+        }
+        return backfill(connection);
+    }
+
+    /**
+     * The select returns the id followed by {@code columns} encrypted values; the update
+     * takes their blind indexes followed by the id.
+     */
+    private int backfillTable(Connection connection, String select, String update, int columns) throws SQLException {
+        int updated = 0;
+        UUID after = new UUID(0L, 0L);
+        try (PreparedStatement query = connection.prepareStatement(select);
+             PreparedStatement write = connection.prepareStatement(update)) {
+            int rows;
+            do {
+                query.setObject(1, after);
+                query.setInt(2, BATCH_SIZE);
+                rows = 0;
+                try (ResultSet resultSet = query.executeQuery()) {
+                    while (resultSet.next()) {
+                        after = resultSet.getObject(1, UUID.class);
+                        for (int column = 1; column <= columns; column++) {
+                            String stored = resultSet.getString(column + 1);
+                            // Left empty if encrypted data is found without a key; filled when the row is next saved
+                            write.setString(column, encryptedStringConverter.canDecrypt(stored)
+                                    ? blindIndexService.compute(encryptedStringConverter.decrypt(stored))
+                                    : null);
+                        }
+                        write.setObject(columns + 1, after);
+                        write.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows > 0) {
+                    write.executeBatch();
+                    updated += rows;
+                }
+            } while (rows == BATCH_SIZE);
+        }
+        return updated;
+    }
+}
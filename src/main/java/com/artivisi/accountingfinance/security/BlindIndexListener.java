@@ -0,0 +1,26 @@
+package com.artivisi.accountingfinance.security;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that updates blind-index columns before an entity is written.
+ * Register with {@code @EntityListeners(BlindIndexListener.class)} on entities
+ * implementing {@link BlindIndexed}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlindIndexListener {
+
+    private final BlindIndexService blindIndexService;
+
+    @PrePersist
+    @PreUpdate
+    public void updateBlindIndexes(Object entity) {
+        if (entity instanceof BlindIndexed indexed) {
+            indexed.updateBlindIndexes(blindIndexService);
+        }
+    }
+}
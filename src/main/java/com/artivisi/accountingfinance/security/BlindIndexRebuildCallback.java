@@ -0,0 +1,88 @@
+package com.artivisi.accountingfinance.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Flyway callback that keeps the PII blind indexes valid for the configured key.
+ *
+ * <p>Runs after every migrate run, i.e. at every start. When the fingerprint of the
+ * blind-index key differs from the one stored in pii_blind_index_key (the key was set,
+ * rotated or derived from a new encryption key), all blind indexes are recomputed and the
+ * new fingerprint is stored. Otherwise only missing indexes are filled, e.g. for rows
+ * inserted by SQL scripts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlindIndexRebuildCallback implements Callback {
+
+    private static final String SELECT_FINGERPRINT = "SELECT key_fingerprint FROM pii_blind_index_key WHERE id = 1";
+    private static final String UPSERT_FINGERPRINT = """
+            INSERT INTO pii_blind_index_key (id, key_fingerprint, rebuilt_at) VALUES (1, ?, NOW())
+            ON CONFLICT (id) DO UPDATE SET key_fingerprint = EXCLUDED.key_fingerprint, rebuilt_at = NOW()""";
+
+    private final BlindIndexService blindIndexService;
+    private final BlindIndexBackfillMigration backfillMigration;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try {
+            synchronize(context.getConnection());
+        } catch (SQLException e) {
+            throw new FlywayException("Failed to rebuild PII blind indexes", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "pii blind index rebuild";
+    }
+
+    /**
+     * Rebuild all blind indexes if they were built with another key, else fill missing ones.
+     *
+     * @return number of rows updated
+     */
+    int synchronize(Connection connection) throws SQLException {
+        String fingerprint = blindIndexService.keyFingerprint();
+        if (fingerprint.equals(storedFingerprint(connection))) {
+            return backfillMigration.backfill(connection);
+        }
+
+        log.info("PII blind-index key changed, rebuilding blind indexes");
+        int rebuilt = backfillMigration.rebuild(connection);
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_FINGERPRINT)) {
+            statement.setString(1, fingerprint);
+            statement.executeUpdate();
+        }
+        return rebuilt;
+    }
+
+    private static String storedFingerprint(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_FINGERPRINT);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+}
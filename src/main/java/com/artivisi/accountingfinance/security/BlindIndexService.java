@@ -0,0 +1,156 @@
+package com.artivisi.accountingfinance.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Blind indexes for encrypted PII fields.
+ *
+ * <p>Encrypted columns use a random IV, so equal values have different ciphertexts and
+ * cannot be compared in SQL. Each searchable encrypted field has a blind-index column
+ * next to it: an HMAC-SHA256 of the normalized plaintext, truncated to 128 bits. Equal
+ * values get equal indexes, so lookups and duplicate checks are indexed equality queries;
+ * the HMAC key keeps the index from being reversed by hashing candidate NIK/NPWP values.
+ * Truncation allows rare collisions, so callers compare the decrypted value of the rows
+ * found.
+ *
+ * <p>Values are normalized before hashing: separators (spaces, dots, dashes, slashes)
+ * are removed and letters upper-cased, so {@code 12.345.678.9-012.345} and
+ * {@code 123456789012345} share an index.
+ *
+ * Configuration:
+ * Set app.encryption.blind-index-key (32 bytes, Base64 encoded). If not set, the key is
+ * derived from app.encryption.key. After either key changes, the blind-index columns are
+ * rebuilt at the next start (see {@link BlindIndexRebuildCallback}).
+ */
+@Service
+@Slf4j
+public class BlindIndexService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int INDEX_BYTES = 16;
+    private static final byte[] DERIVATION_LABEL = "pii-blind-index".getBytes(StandardCharsets.UTF_8);
+    // Lower case and dashes: never equal to a normalized value
+    private static final byte[] FINGERPRINT_LABEL = "pii-blind-index-key-fingerprint".getBytes(StandardCharsets.UTF_8);
+    // Used only when no encryption key is configured, where PII is stored in plaintext anyway
+    private static final byte[] UNENCRYPTED_KEY = "unencrypted-pii-blind-index-key!".getBytes(StandardCharsets.UTF_8);
+
+    @Value("${app.encryption.blind-index-key:}")
+    private String blindIndexKeyBase64;
+
+    @Value("${app.encryption.key:}")
+    private String encryptionKeyBase64;
+
+    private Mac prototype;
+
+    @PostConstruct
+    public void init() {
+        try {
+            byte[] key;
+            if (blindIndexKeyBase64 != null && !blindIndexKeyBase64.isBlank()) {
+                key = decodeKey(blindIndexKeyBase64);
+            } else if (encryptionKeyBase64 != null && !encryptionKeyBase64.isBlank()) {
+                key = hmac(decodeKey(encryptionKeyBase64), DERIVATION_LABEL);
+            } else {
+                log.warn("Encryption key not configured - PII blind indexes use a built-in key");
+                key = UNENCRYPTED_KEY;
+            }
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            prototype = mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize blind index", e);
+        }
+    }
+
+    /**
+     * Blind index of a plaintext value, or null for null and blank values.
+     */
+    public String compute(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        try {
+            Mac mac = (Mac) prototype.clone();
+            byte[] digest = mac.doFinal(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, INDEX_BYTES);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC not cloneable", e);
+        }
+    }
+
+    /**
+     * Fingerprint of the blind-index key, to detect that stored indexes were built with another key.
+     * Reveals nothing about the key itself.
+     */
+    public String keyFingerprint() {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return HexFormat.of().formatHex(mac.doFinal(FINGERPRINT_LABEL));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC not cloneable", e);
+        }
+    }
+
+    /**
+     * Blind index for an entity field about to be written. A value loaded from the
+     * database keeps its current index (without being decrypted) unless it has none yet.
+     */
+    public String refresh(EncryptedString value, String currentIndex) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isLoaded() && currentIndex != null) {
+            return currentIndex;
+        }
+        return compute(value.plaintext());
+    }
+
+    /**
+     * Whether two plaintext values are equal after normalization, to confirm a blind-index match.
+     */
+    public static boolean matches(String value, String candidate) {
+        return value != null && candidate != null && normalize(value).equals(normalize(candidate));
+    }
+
+    static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c) && c != '.' && c != '-' && c != '/') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private static byte[] decodeKey(String keyBase64) {
+        byte[] key = Base64.getDecoder().decode(keyBase64);
+        if (key.length != 32) {
+            Arrays.fill(key, (byte) 0);
+            throw new IllegalArgumentException("Blind index key must be exactly 32 bytes");
+        }
+        return key;
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(key, ALGORITHM));
+        return mac.doFinal(data);
+    }
+}
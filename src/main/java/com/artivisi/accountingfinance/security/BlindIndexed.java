@@ -0,0 +1,13 @@
+package com.artivisi.accountingfinance.security;
+
+/**
+ * Entity with blind-index columns next to its encrypted fields, kept up to date by
+ * {@link BlindIndexListener}.
+ */
+public interface BlindIndexed {
+
+    /**
+     * Recompute the blind indexes of changed encrypted fields.
+     */
+    void updateBlindIndexes(BlindIndexService blindIndexService);
+}
@@ -0,0 +1,105 @@
+package com.artivisi.accountingfinance.security;
+
+import org.hibernate.annotations.Immutable;
+
+import java.util.Objects;
+
+/**
+ * Value of a PII field mapped with {@link EncryptedStringConverter}.
+ *
+ * <p>A value loaded from the database keeps the stored column value and is decrypted on
+ * first access, so loading a list of employees to show their names does not decrypt
+ * their NPWP, NIK and account numbers. Writing an unchanged value back stores the
+ * original ciphertext without re-encrypting it.
+ *
+ * <p>Immutable: entities replace the value in their setters, which lets Hibernate detect
+ * changes by reference without decrypting.
+ */
+@Immutable
+public final class EncryptedString {
+
+    private final String stored;
+    private final EncryptedStringConverter converter;
+    private volatile String plaintext;
+
+    private EncryptedString(String stored, EncryptedStringConverter converter, String plaintext) {
+        this.stored = stored;
+        this.converter = converter;
+        this.plaintext = plaintext;
+    }
+
+    /**
+     * Wrap a plaintext value set by the application.
+     */
+    public static EncryptedString of(String plaintext) {
+        return plaintext == null ? null : new EncryptedString(null, null, plaintext);
+    }
+
+    /**
+     * Plaintext of a possibly null value.
+     */
+    public static String plaintextOf(EncryptedString value) {
+        return value == null ? null : value.plaintext();
+    }
+
+    static EncryptedString loaded(String stored, EncryptedStringConverter converter) {
+        return new EncryptedString(stored, converter, null);
+    }
+
+    /**
+     * The decrypted value, decrypted on the first call.
+     */
+    public String plaintext() {
+        String value = plaintext;
+        if (value == null) {
+            value = converter.decrypt(stored);
+            plaintext = value;
+        }
+        return value;
+    }
+
+    /**
+     * Whether the value has been decrypted (or was never encrypted).
+     */
+    public boolean isDecrypted() {
+        return plaintext != null;
+    }
+
+    /**
+     * Whether the value was loaded from the database, as opposed to set by the application.
+     */
+    public boolean isLoaded() {
+        return stored != null;
+    }
+
+    /**
+     * The column value this was loaded from, or null if set by the application.
+     */
+    String stored() {
+        return stored;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EncryptedString other)) {
+            return false;
+        }
+        if (stored != null && stored.equals(other.stored)) {
+            return true;
+        }
+        return plaintext().equals(other.plaintext());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(plaintext());
+    }
+
+    @Override
+    public String toString() {
+        return "EncryptedString[****]";
+    }
+}
@@ -6,13 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.util.Base64;
 
 /**
@@ -23,8 +18,13 @@ import java.util.Base64;
  * - Unique 12-byte IV per encryption (prepended to ciphertext)
  * - 128-bit authentication tag
  *
+ * Loaded values are wrapped in an {@link EncryptedString} and decrypted on first access;
+ * ciphers come from a pooled {@link AesGcmCipherEngine}.
+ *
  * Usage:
- * Add @Convert(converter = EncryptedStringConverter.class) to entity fields.
+ * Declare the entity field as {@link EncryptedString} with
+ * {@code @Convert(converter = EncryptedStringConverter.class)} and expose it through
+ * String getters and setters.
  *
  * Configuration:
  * Set app.encryption.key property or APP_ENCRYPTION_KEY env var (32 bytes, Base64 encoded).
@@ -33,15 +33,11 @@ import java.util.Base64;
 @Converter
 @Component
 @Slf4j
-public class EncryptedStringConverter implements AttributeConverter<String, String> {
+public class EncryptedStringConverter implements AttributeConverter<EncryptedString, String> {
 
-    private static final String ALGORITHM = "AES/GCM/NoPadding";
-    private static final int GCM_IV_LENGTH = 12;
-    private static final int GCM_TAG_LENGTH = 128;
     private static final String PREFIX = "ENC:";
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
-    private SecretKey secretKey;
+    private AesGcmCipherEngine cipherEngine;
     private boolean encryptionEnabled = false;
 
     /**
@@ -63,7 +59,7 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
                 log.error("Encryption key must be exactly 32 bytes (256 bits) for AES-256. Got {} bytes", keyBytes.length);
                 throw new IllegalArgumentException("Invalid encryption key length");
             }
-            secretKey = new SecretKeySpec(keyBytes, "AES");
+            cipherEngine = new AesGcmCipherEngine(new SecretKeySpec(keyBytes, "AES"));
             encryptionEnabled = true;
             log.info("PII field encryption enabled");
         } catch (IllegalArgumentException e) {
@@ -73,43 +69,44 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
     }
 
     @Override
-    public String convertToDatabaseColumn(String attribute) {
-        if (attribute == null || attribute.isBlank()) {
-            return attribute;
+    public String convertToDatabaseColumn(EncryptedString attribute) {
+        if (attribute == null) {
+            return null;
         }
-
-        if (!encryptionEnabled) {
-            return attribute;
+        // Unchanged since loaded: keep the stored ciphertext, but encrypt legacy plaintext
+        String stored = attribute.stored();
+        if (stored != null && (!encryptionEnabled || stored.startsWith(PREFIX))) {
+            return stored;
         }
+        return encrypt(attribute.plaintext());
+    }
 
-        try {
-            // Generate random IV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            SECURE_RANDOM.nextBytes(iv);
-
-            // Initialize cipher
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-
-            // Encrypt
-            byte[] ciphertext = cipher.doFinal(attribute.getBytes(StandardCharsets.UTF_8));
+    @Override
+    public EncryptedString convertToEntityAttribute(String dbData) {
+        return dbData == null ? null : EncryptedString.loaded(dbData, this);
+    }
 
-            // Combine IV + ciphertext
-            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + ciphertext.length);
-            byteBuffer.put(iv);
-            byteBuffer.put(ciphertext);
+    /**
+     * Encrypt a plaintext value into its column form.
+     */
+    public String encrypt(String plaintext) {
+        if (plaintext == null || plaintext.isBlank() || !encryptionEnabled) {
+            return plaintext;
+        }
 
-            // Encode as Base64 with prefix
-            return PREFIX + Base64.getEncoder().encodeToString(byteBuffer.array());
+        try {
+            byte[] ivAndCiphertext = cipherEngine.encrypt(plaintext.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(ivAndCiphertext);
         } catch (Exception e) {
             log.error("Encryption failed: {}", e.getMessage());
             throw new IllegalStateException("Failed to encrypt data", e);
         }
     }
 
-    @Override
-    public String convertToEntityAttribute(String dbData) {
+    /**
+     * Decrypt a column value.
+     */
+    public String decrypt(String dbData) {
         if (dbData == null || dbData.isBlank()) {
             return dbData;
         }
@@ -126,24 +123,8 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
         }
 
         try {
-            // Remove prefix and decode
-            String base64Data = dbData.substring(PREFIX.length());
-            byte[] encryptedData = Base64.getDecoder().decode(base64Data);
-
-            // Extract IV and ciphertext
-            ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedData);
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byteBuffer.get(iv);
-            byte[] ciphertext = new byte[byteBuffer.remaining()];
-            byteBuffer.get(ciphertext);
-
-            // Initialize cipher for decryption
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
-
-            // Decrypt
-            byte[] plaintext = cipher.doFinal(ciphertext);
+            byte[] encryptedData = Base64.getDecoder().decode(dbData.substring(PREFIX.length()));
+            byte[] plaintext = cipherEngine.decrypt(encryptedData, 0, encryptedData.length);
             return new String(plaintext, StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.error("Decryption failed: {}", e.getMessage());
@@ -151,6 +132,13 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
         }
     }
 
+    /**
+     * Whether a column value is plaintext or can be decrypted with the configured key.
+     */
+    public boolean canDecrypt(String dbData) {
+        return dbData == null || !dbData.startsWith(PREFIX) || encryptionEnabled;
+    }
+
     /**
      * Check if encryption is enabled.
      */
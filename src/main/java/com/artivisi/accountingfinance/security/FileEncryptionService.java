@@ -5,27 +5,42 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Objects;
 
 /**
  * Service for encrypting and decrypting files using AES-256-GCM.
  *
  * Security features:
  * - AES-256-GCM authenticated encryption (confidentiality + integrity)
- * - Unique 12-byte IV per encryption (prepended to ciphertext)
- * - 128-bit authentication tag
- * - Streaming support for large files
+ * - Content encrypted in 64 KB segments, each with its own nonce and 128-bit tag
+ * - Segment nonces derive from a random per-file prefix, the segment index and a
+ *   last-segment flag, so reordered, swapped or truncated segments fail authentication
+ * - Streaming encryption and random-access decryption: a byte range is served by
+ *   decrypting only the segments it covers
+ *
+ * Formats (both start with the ENCF marker and a version byte):
+ * - Version 1 (legacy, read only): IV (12 bytes) + one GCM ciphertext of the whole file
+ * - Version 2: SEGMENT_SIZE (4 bytes) + NONCE_PREFIX (7 bytes), then per segment
+ *   CIPHERTEXT + TAG (16 bytes). The 16-byte header is authenticated with every segment.
  *
  * Configuration:
  * Set app.encryption.key property or APP_ENCRYPTION_KEY env var (32 bytes, Base64 encoded).
@@ -35,13 +50,17 @@ import java.util.Base64;
 @Slf4j
 public class FileEncryptionService {
 
-    private static final String ALGORITHM = "AES/GCM/NoPadding";
-    private static final int GCM_IV_LENGTH = 12;
-    private static final int GCM_TAG_LENGTH = 128;
+    private static final int GCM_IV_LENGTH = AesGcmCipherEngine.IV_LENGTH;
     private static final byte[] MAGIC_HEADER = "ENCF".getBytes(StandardCharsets.UTF_8); // Encrypted File marker
-    private static final int VERSION = 1;
+    private static final int VERSION_SINGLE_BLOB = 1;
+    private static final int VERSION_SEGMENTED = 2;
+    private static final int GCM_TAG_BYTES = AesGcmCipherEngine.TAG_LENGTH;
+    private static final int NONCE_PREFIX_LENGTH = 7;
+    private static final int SEGMENTED_HEADER_LENGTH = MAGIC_HEADER.length + 1 + 4 + NONCE_PREFIX_LENGTH;
+    private static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+    static final int SEGMENT_SIZE = 64 * 1024;
 
-    private SecretKey secretKey;
+    private AesGcmCipherEngine cipherEngine;
     private boolean encryptionEnabled = false;
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -63,7 +82,7 @@ public class FileEncryptionService {
                 log.error("Encryption key must be exactly 32 bytes (256 bits) for AES-256. Got {} bytes", keyBytes.length);
                 throw new IllegalArgumentException("Invalid encryption key length");
             }
-            secretKey = new SecretKeySpec(keyBytes, "AES");
+            cipherEngine = new AesGcmCipherEngine(new SecretKeySpec(keyBytes, "AES"));
             encryptionEnabled = true;
             log.info("Document file encryption enabled");
         } catch (IllegalArgumentException e) {
@@ -73,9 +92,7 @@ public class FileEncryptionService {
     }
 
     /**
-     * Encrypt file content.
-     *
-     * Format: MAGIC_HEADER (4 bytes) + VERSION (1 byte) + IV (12 bytes) + CIPHERTEXT
+     * Encrypt file content in the segmented format.
      *
      * @param plaintext The original file content
      * @return Encrypted content with header, or original content if encryption is disabled
@@ -89,29 +106,64 @@ public class FileEncryptionService {
             return plaintext;
         }
 
+        int segments = Math.max(1, (plaintext.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                SEGMENTED_HEADER_LENGTH + plaintext.length + segments * GCM_TAG_BYTES);
         try {
-            // Generate random IV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            secureRandom.nextBytes(iv);
-
-            // Initialize cipher
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-
-            // Encrypt
-            byte[] ciphertext = cipher.doFinal(plaintext);
-
-            // Build output: MAGIC + VERSION + IV + CIPHERTEXT
-            ByteBuffer buffer = ByteBuffer.allocate(
-                    MAGIC_HEADER.length + 1 + GCM_IV_LENGTH + ciphertext.length);
-            buffer.put(MAGIC_HEADER);
-            buffer.put((byte) VERSION);
-            buffer.put(iv);
-            buffer.put(ciphertext);
-
-            return buffer.array();
-        } catch (Exception e) {
+            encrypt(new ByteArrayInputStream(plaintext), out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encrypt file", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encrypt a stream in the segmented format, holding at most two segments in memory.
+     * Copies the stream unchanged if encryption is disabled.
+     *
+     * @param in plaintext, read to the end but not closed
+     * @param out receives the encrypted content, not closed
+     */
+    public void encrypt(InputStream in, OutputStream out) throws IOException {
+        if (!encryptionEnabled) {
+            in.transferTo(out);
+            return;
+        }
+
+        byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        secureRandom.nextBytes(noncePrefix);
+        byte[] header = ByteBuffer.allocate(SEGMENTED_HEADER_LENGTH)
+                .put(MAGIC_HEADER)
+                .put((byte) VERSION_SEGMENTED)
+                .putInt(SEGMENT_SIZE)
+                .put(noncePrefix)
+                .array();
+        out.write(header);
+
+        try (AesGcmCipherEngine.Lease lease = cipherEngine.acquire()) {
+            byte[] current = new byte[SEGMENT_SIZE];
+            byte[] next = new byte[SEGMENT_SIZE];
+            byte[] ciphertext = new byte[SEGMENT_SIZE + GCM_TAG_BYTES];
+            int currentLength = in.readNBytes(current, 0, SEGMENT_SIZE);
+
+            for (int index = 0; ; index++) {
+                // Read ahead to know whether this is the last segment
+                int nextLength = currentLength == SEGMENT_SIZE ? in.readNBytes(next, 0, SEGMENT_SIZE) : 0;
+                boolean last = nextLength == 0;
+
+                Cipher cipher = initSegmentCipher(lease, Cipher.ENCRYPT_MODE, header, noncePrefix, index, last);
+                int written = cipher.doFinal(current, 0, currentLength, ciphertext, 0);
+                out.write(ciphertext, 0, written);
+
+                if (last) {
+                    return;
+                }
+                byte[] swap = current;
+                current = next;
+                next = swap;
+                currentLength = nextLength;
+            }
+        } catch (GeneralSecurityException e) {
             log.error("File encryption failed: {}", e.getMessage());
             throw new IllegalStateException("Failed to encrypt file", e);
         }
@@ -146,31 +198,116 @@ public class FileEncryptionService {
 
             // Read version
             byte version = buffer.get();
-            if (version != VERSION) {
+            if (version == VERSION_SEGMENTED) {
+                return decryptSegmented(encryptedData);
+            }
+            if (version != VERSION_SINGLE_BLOB) {
                 throw new IllegalStateException("Unsupported encryption version: " + version);
             }
 
-            // Extract IV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            buffer.get(iv);
-
-            // Extract ciphertext
-            byte[] ciphertext = new byte[buffer.remaining()];
-            buffer.get(ciphertext);
-
-            // Initialize cipher for decryption
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
-
-            // Decrypt
-            return cipher.doFinal(ciphertext);
+            // IV followed by ciphertext
+            return cipherEngine.decrypt(encryptedData, buffer.position(), buffer.remaining());
         } catch (Exception e) {
             log.error("File decryption failed: {}", e.getMessage());
             throw new IllegalStateException("Failed to decrypt file", e);
         }
     }
 
+    private byte[] decryptSegmented(byte[] encryptedData) throws GeneralSecurityException, IOException {
+        SegmentLayout layout = SegmentLayout.of(encryptedData, encryptedData.length);
+        byte[] plaintext = new byte[Math.toIntExact(layout.plaintextSize())];
+        int written = 0;
+        try (AesGcmCipherEngine.Lease lease = cipherEngine.acquire()) {
+            for (int index = 0; index < layout.segmentCount(); index++) {
+                Cipher cipher = initSegmentCipher(lease, Cipher.DECRYPT_MODE, layout.header(), layout.noncePrefix(),
+                        index, index == layout.segmentCount() - 1);
+                written += cipher.doFinal(encryptedData, Math.toIntExact(layout.segmentOffset(index)),
+                        layout.segmentLength(index), plaintext, written);
+            }
+        }
+        return plaintext;
+    }
+
+    /**
+     * Open a decrypting stream over a stored file. Segmented files are decrypted one
+     * segment at a time from a {@link FileChannel}, and {@link InputStream#skip} seeks
+     * to the segment holding the target position, so reading a byte range decrypts only
+     * the segments it covers. Legacy single-blob files are decrypted in memory, and
+     * unencrypted files are returned as they are.
+     *
+     * @param file the stored file
+     * @return stream of the decrypted content; the caller closes it
+     */
+    public InputStream openDecryptingStream(Path file) throws IOException {
+        byte[] header = readHeader(file);
+        if (!isEncrypted(header)) {
+            return Files.newInputStream(file);
+        }
+        if (header[MAGIC_HEADER.length] != VERSION_SEGMENTED) {
+            return new ByteArrayInputStream(decrypt(Files.readAllBytes(file)));
+        }
+        requireKey();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new SegmentedDecryptingInputStream(channel, SegmentLayout.of(header, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Size of the decrypted content of a stored file, computed from its size and header
+     * without decrypting it.
+     */
+    public long plaintextSize(Path file) throws IOException {
+        byte[] header = readHeader(file);
+        long fileSize = Files.size(file);
+        if (!isEncrypted(header)) {
+            return fileSize;
+        }
+        if (header[MAGIC_HEADER.length] == VERSION_SEGMENTED) {
+            return SegmentLayout.of(header, fileSize).plaintextSize();
+        }
+        return fileSize - (MAGIC_HEADER.length + 1 + GCM_IV_LENGTH + GCM_TAG_BYTES);
+    }
+
+    /**
+     * Check if a stored file starts with the encrypted file marker, reading only its header.
+     */
+    public boolean isEncryptedFile(Path file) throws IOException {
+        return isEncrypted(readHeader(file));
+    }
+
+    private static byte[] readHeader(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            // One byte past the segmented header, the minimum isEncrypted(byte[]) accepts
+            return in.readNBytes(SEGMENTED_HEADER_LENGTH + 1);
+        }
+    }
+
+    private void requireKey() {
+        if (!encryptionEnabled) {
+            log.warn("Encrypted file found but encryption key not configured");
+            throw new IllegalStateException("Cannot decrypt file: encryption key not configured");
+        }
+    }
+
+    /**
+     * Nonce of one segment: random prefix (7 bytes) + segment index (4 bytes) + last-segment flag (1 byte).
+     */
+    private static Cipher initSegmentCipher(AesGcmCipherEngine.Lease lease, int mode, byte[] header,
+                                            byte[] noncePrefix, int index, boolean last) throws GeneralSecurityException {
+        byte[] nonce = ByteBuffer.allocate(GCM_IV_LENGTH)
+                .put(noncePrefix)
+                .putInt(index)
+                .put((byte) (last ? 1 : 0))
+                .array();
+        Cipher cipher = lease.init(mode, nonce, 0);
+        cipher.updateAAD(header);
+        return cipher;
+    }
+
     /**
      * Encrypt an input stream and return encrypted bytes.
      *
@@ -203,7 +340,13 @@ public class FileEncryptionService {
         if (data == null || data.length < MAGIC_HEADER.length + 1 + GCM_IV_LENGTH) {
             return false;
         }
+        return startsWithMagic(data);
+    }
 
+    private static boolean startsWithMagic(byte[] data) {
+        if (data.length < MAGIC_HEADER.length) {
+            return false;
+        }
         for (int i = 0; i < MAGIC_HEADER.length; i++) {
             if (data[i] != MAGIC_HEADER[i]) {
                 return false;
@@ -220,11 +363,142 @@ public class FileEncryptionService {
     }
 
     /**
-     * Get the overhead size added by encryption (header + IV + auth tag).
-     * Useful for calculating encrypted file size.
+     * Get the overhead size added by encryption to content of up to one segment
+     * (header + auth tag). Every further 64 KB segment adds another 16-byte tag.
      */
     public int getEncryptionOverhead() {
-        // MAGIC (4) + VERSION (1) + IV (12) + AUTH_TAG (16)
-        return MAGIC_HEADER.length + 1 + GCM_IV_LENGTH + (GCM_TAG_LENGTH / 8);
+        // MAGIC (4) + VERSION (1) + SEGMENT_SIZE (4) + NONCE_PREFIX (7) + AUTH_TAG (16)
+        return SEGMENTED_HEADER_LENGTH + GCM_TAG_BYTES;
+    }
+
+    /**
+     * Position of the segments in a version 2 file of the given size.
+     */
+    private record SegmentLayout(byte[] header, byte[] noncePrefix, int segmentSize, long fileSize,
+                                 int segmentCount, long plaintextSize) {
+
+        static SegmentLayout of(byte[] header, long fileSize) throws IOException {
+            if (header.length < SEGMENTED_HEADER_LENGTH) {
+                throw new EOFException("Truncated encrypted file header");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header, MAGIC_HEADER.length + 1, 4 + NONCE_PREFIX_LENGTH);
+            int segmentSize = buffer.getInt();
+            if (segmentSize < 1 || segmentSize > MAX_SEGMENT_SIZE) {
+                throw new IOException("Invalid encrypted file segment size: " + segmentSize);
+            }
+            byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+            buffer.get(noncePrefix);
+
+            long body = fileSize - SEGMENTED_HEADER_LENGTH;
+            long fullSegment = (long) segmentSize + GCM_TAG_BYTES;
+            long segmentCount = Math.max(1, (body + fullSegment - 1) / fullSegment);
+            long lastSegment = body - (segmentCount - 1) * fullSegment;
+            if (lastSegment < GCM_TAG_BYTES || segmentCount > Integer.MAX_VALUE) {
+                throw new EOFException("Truncated encrypted file");
+            }
+            return new SegmentLayout(Arrays.copyOf(header, SEGMENTED_HEADER_LENGTH), noncePrefix, segmentSize, fileSize, (int) segmentCount,
+                    body - segmentCount * GCM_TAG_BYTES);
+        }
+
+        long segmentOffset(int index) {
+            return SEGMENTED_HEADER_LENGTH + index * ((long) segmentSize + GCM_TAG_BYTES);
+        }
+
+        int segmentLength(int index) {
+            return (int) Math.min((long) segmentSize + GCM_TAG_BYTES, fileSize - segmentOffset(index));
+        }
+    }
+
+    /**
+     * Decrypts a version 2 file one segment at a time. Skipping only moves the position;
+     * the segment holding it is read and authenticated on the next read. Holds one pooled
+     * cipher until closed.
+     */
+    private final class SegmentedDecryptingInputStream extends InputStream {
+        private final FileChannel channel;
+        private final SegmentLayout layout;
+        private final AesGcmCipherEngine.Lease lease;
+        private final ByteBuffer ciphertext;
+        private final byte[] plaintext;
+        private int loadedSegment = -1;
+        private int loadedLength;
+        private long position;
+
+        SegmentedDecryptingInputStream(FileChannel channel, SegmentLayout layout) {
+            this.channel = channel;
+            this.layout = layout;
+            this.lease = cipherEngine.acquire();
+            this.ciphertext = ByteBuffer.allocate(layout.segmentSize() + GCM_TAG_BYTES);
+            this.plaintext = new byte[layout.segmentSize()];
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (position >= layout.plaintextSize()) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int segment = (int) (position / layout.segmentSize());
+            if (segment != loadedSegment) {
+                load(segment);
+            }
+            int offsetInSegment = (int) (position - (long) segment * layout.segmentSize());
+            int count = Math.min(len, loadedLength - offsetInSegment);
+            System.arraycopy(plaintext, offsetInSegment, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.clamp(n, 0, layout.plaintextSize() - position);
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            int segment = (int) (position / layout.segmentSize());
+            if (segment != loadedSegment) {
+                return 0;
+            }
+            return (int) (loadedLength - (position - (long) segment * layout.segmentSize()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            lease.close();
+            channel.close();
+        }
+
+        private void load(int segment) throws IOException {
+            int length = layout.segmentLength(segment);
+            long offset = layout.segmentOffset(segment);
+            ciphertext.clear().limit(length);
+            while (ciphertext.hasRemaining()) {
+                if (channel.read(ciphertext, offset + ciphertext.position()) < 0) {
+                    throw new EOFException("Truncated encrypted file");
+                }
+            }
+            try {
+                Cipher cipher = initSegmentCipher(lease, Cipher.DECRYPT_MODE, layout.header(), layout.noncePrefix(),
+                        segment, segment == layout.segmentCount() - 1);
+                loadedLength = cipher.doFinal(ciphertext.array(), 0, length, plaintext, 0);
+                loadedSegment = segment;
+            } catch (AEADBadTagException e) {
+                throw new IOException("Encrypted file segment " + segment + " failed authentication", e);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to decrypt file segment " + segment, e);
+            }
+        }
     }
 }
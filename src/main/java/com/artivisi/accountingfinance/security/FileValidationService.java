@@ -63,7 +63,7 @@ public class FileValidationService {
     );
 
     // Maximum bytes to read for magic byte validation
-    private static final int MAX_HEADER_BYTES = 12;
+    public static final int MAX_HEADER_BYTES = 12;
 
     /**
      * Validates that file content matches the declared Content-Type.
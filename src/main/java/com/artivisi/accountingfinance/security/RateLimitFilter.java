@@ -1,5 +1,6 @@
 package com.artivisi.accountingfinance.security;
 
+import com.artivisi.accountingfinance.config.RateLimitConfig;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -84,7 +85,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json;charset=UTF-8");
-            response.setHeader("Retry-After", "60");
+            response.setHeader("Retry-After", String.valueOf(rateLimitService.getResetSeconds(RateLimitConfig.API, clientIp)));
             response.getWriter().write("{\"error\":\"Too many requests\",\"message\":\"Rate limit exceeded\"}");
             return;
         }
@@ -1,38 +1,68 @@
 package com.artivisi.accountingfinance.security;
 
+import com.artivisi.accountingfinance.config.RateLimitConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Simple in-memory rate limiting service.
- * Limits requests per IP address using a sliding window algorithm.
+ * In-memory rate limiting service.
+ * Limits requests per IP address and route using a sliding window counter.
  *
  * Security features:
- * - Configurable rate limits per endpoint type
+ * - Per-route limits from configuration (app.rate-limit.routes.*)
  * - IP-based tracking (works behind reverse proxy with X-Forwarded-For)
- * - Automatic cleanup of expired entries
+ * - Bounded key store: idle keys are evicted periodically, and arbitrary keys
+ *   are dropped when a route reaches app.rate-limit.max-keys
+ * - Allowed and rejected request counters per route
+ *
+ * The window state of each key is packed into a single {@link AtomicLong}, so a
+ * check is one lock-free compare-and-set with no allocation after the first request.
  */
 @Service
 @Slf4j
 public class RateLimitService {
 
-    // Rate limit configuration: max requests per window
-    private static final int LOGIN_MAX_REQUESTS = 10;
-    private static final int LOGIN_WINDOW_SECONDS = 60;
+    // Packed state: [window index: 24 bits][current count: 20 bits][previous count: 20 bits]
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long WINDOW_MASK = (1L << 24) - 1;
+
+    private final Map<String, RouteLimiter> limiters = new LinkedHashMap<>();
+    private final int maxKeys;
+    private final Clock clock;
 
-    private static final int API_MAX_REQUESTS = 100;
-    private static final int API_WINDOW_SECONDS = 60;
+    /**
+     * Rate limiter with the default limits.
+     */
+    public RateLimitService() {
+        this(new RateLimitConfig());
+    }
 
-    private static final int GENERAL_MAX_REQUESTS = 300;
-    private static final int GENERAL_WINDOW_SECONDS = 60;
+    @Autowired
+    public RateLimitService(RateLimitConfig config) {
+        this(config, Clock.systemUTC());
+    }
 
-    private final Map<String, RateLimitInfo> loginLimits = new ConcurrentHashMap<>();
-    private final Map<String, RateLimitInfo> apiLimits = new ConcurrentHashMap<>();
-    private final Map<String, RateLimitInfo> generalLimits = new ConcurrentHashMap<>();
+    RateLimitService(RateLimitConfig config, Clock clock) {
+        if (config.getMaxKeys() < 1) {
+            throw new IllegalArgumentException("app.rate-limit.max-keys must be positive");
+        }
+        this.maxKeys = config.getMaxKeys();
+        this.clock = clock;
+        config.getRoutes().forEach((route, limit) -> limiters.put(route, new RouteLimiter(route, limit)));
+    }
 
     /**
      * Check if login request is allowed for the given IP.
@@ -41,94 +71,117 @@ public class RateLimitService {
      * @return true if request is allowed, false if rate limited
      */
     public boolean isLoginAllowed(String ipAddress) {
-        return isAllowed(loginLimits, ipAddress, LOGIN_MAX_REQUESTS, LOGIN_WINDOW_SECONDS, "LOGIN");
+        return isAllowed(RateLimitConfig.LOGIN, ipAddress);
     }
 
     /**
      * Check if API request is allowed for the given IP.
      */
     public boolean isApiAllowed(String ipAddress) {
-        return isAllowed(apiLimits, ipAddress, API_MAX_REQUESTS, API_WINDOW_SECONDS, "API");
+        return isAllowed(RateLimitConfig.API, ipAddress);
     }
 
     /**
      * Check if general request is allowed for the given IP.
      */
     public boolean isGeneralAllowed(String ipAddress) {
-        return isAllowed(generalLimits, ipAddress, GENERAL_MAX_REQUESTS, GENERAL_WINDOW_SECONDS, "GENERAL");
+        return isAllowed(RateLimitConfig.GENERAL, ipAddress);
     }
 
     /**
      * Get remaining requests for login from the given IP.
      */
     public int getLoginRemaining(String ipAddress) {
-        return getRemaining(loginLimits, ipAddress, LOGIN_MAX_REQUESTS, LOGIN_WINDOW_SECONDS);
+        return getRemaining(RateLimitConfig.LOGIN, ipAddress);
     }
 
     /**
-     * Get seconds until rate limit resets for login.
+     * Get seconds until login is allowed again for the given IP.
      */
     public long getLoginResetSeconds(String ipAddress) {
-        return getResetSeconds(loginLimits, ipAddress, LOGIN_WINDOW_SECONDS);
+        return getResetSeconds(RateLimitConfig.LOGIN, ipAddress);
     }
 
-    private boolean isAllowed(Map<String, RateLimitInfo> limits, String ipAddress,
-                              int maxRequests, int windowSeconds, String type) {
+    /**
+     * Check if a request on the given route is allowed for the given IP.
+     * Only allowed requests are counted.
+     *
+     * @param route the configured route name, e.g. {@code login}
+     * @param ipAddress the client IP address
+     * @return true if request is allowed, false if rate limited
+     * @throws IllegalArgumentException if the route is not configured
+     */
+    public boolean isAllowed(String route, String ipAddress) {
+        RouteLimiter limiter = limiter(route);
         if (ipAddress == null || ipAddress.isBlank()) {
             return true;
         }
 
-        String key = normalizeIp(ipAddress);
-        Instant now = Instant.now();
-
-        RateLimitInfo info = limits.compute(key, (k, existing) -> {
-            if (existing == null || existing.isExpired(now, windowSeconds)) {
-                return new RateLimitInfo(now, 1);
-            }
-            existing.incrementCount();
-            return existing;
-        });
-
-        if (info.getCount() > maxRequests) {
-            log.warn("Rate limit exceeded for {} endpoint from IP: {} ({} requests in {}s)",
-                    type, LogSanitizer.ipAddress(ipAddress), info.getCount(), windowSeconds);
-            return false;
+        if (limiter.tryAcquire(normalizeIp(ipAddress), clock.millis())) {
+            return true;
         }
-
-        return true;
+        if (log.isDebugEnabled()) {
+            log.debug("Rate limit exceeded for {} route from IP: {}", route, LogSanitizer.ipAddress(ipAddress));
+        }
+        return false;
     }
 
-    private int getRemaining(Map<String, RateLimitInfo> limits, String ipAddress,
-                             int maxRequests, int windowSeconds) {
+    /**
+     * Get remaining requests on the given route for the given IP.
+     */
+    public int getRemaining(String route, String ipAddress) {
+        RouteLimiter limiter = limiter(route);
         if (ipAddress == null || ipAddress.isBlank()) {
-            return maxRequests;
-        }
-
-        String key = normalizeIp(ipAddress);
-        RateLimitInfo info = limits.get(key);
-
-        if (info == null || info.isExpired(Instant.now(), windowSeconds)) {
-            return maxRequests;
+            return limiter.maxRequests;
         }
-
-        return Math.max(0, maxRequests - info.getCount());
+        return limiter.remaining(normalizeIp(ipAddress), clock.millis());
     }
 
-    private long getResetSeconds(Map<String, RateLimitInfo> limits, String ipAddress, int windowSeconds) {
+    /**
+     * Get seconds until the given IP may send another request on the route,
+     * or 0 if it is not rate limited.
+     */
+    public long getResetSeconds(String route, String ipAddress) {
+        RouteLimiter limiter = limiter(route);
         if (ipAddress == null || ipAddress.isBlank()) {
             return 0;
         }
+        long waitMillis = limiter.waitMillis(normalizeIp(ipAddress), clock.millis());
+        return Math.ceilDiv(waitMillis, 1000L);
+    }
 
-        String key = normalizeIp(ipAddress);
-        RateLimitInfo info = limits.get(key);
+    /**
+     * Request counters per route since startup.
+     */
+    public List<RouteStatistics> getStatistics() {
+        return limiters.values().stream()
+                .map(l -> new RouteStatistics(l.route, l.allowed.sum(), l.rejected.sum(), l.counters.size()))
+                .toList();
+    }
 
-        if (info == null) {
-            return 0;
+    /**
+     * Remove keys whose window has passed and log requests rejected since the last run.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        long now = clock.millis();
+        for (RouteLimiter limiter : limiters.values()) {
+            limiter.removeIdle(now);
+            long rejected = limiter.rejected.sum();
+            long rejectedSinceLastRun = rejected - limiter.reportedRejected.getAndSet(rejected);
+            if (rejectedSinceLastRun > 0) {
+                log.warn("Rate limit {}: {} requests rejected, {} keys tracked",
+                        limiter.route, rejectedSinceLastRun, limiter.counters.size());
+            }
         }
+    }
 
-        Instant resetTime = info.getWindowStart().plusSeconds(windowSeconds);
-        long remaining = resetTime.getEpochSecond() - Instant.now().getEpochSecond();
-        return Math.max(0, remaining);
+    private RouteLimiter limiter(String route) {
+        RouteLimiter limiter = limiters.get(route);
+        if (limiter == null) {
+            throw new IllegalArgumentException("Unknown rate limit route: " + route);
+        }
+        return limiter;
     }
 
     private String normalizeIp(String ipAddress) {
@@ -139,42 +192,143 @@ public class RateLimitService {
         return ipAddress.toLowerCase();
     }
 
+    private static long pack(long window, long current, long previous) {
+        return ((window & WINDOW_MASK) << (2 * COUNT_BITS)) | (current << COUNT_BITS) | previous;
+    }
+
     /**
-     * Clean up expired entries (can be called periodically by a scheduled job).
+     * Number of whole windows between the packed state and {@code window}.
+     * Idle keys are evicted long before the 24-bit window index wraps.
      */
-    public void cleanup() {
-        Instant now = Instant.now();
-        loginLimits.entrySet().removeIf(e -> e.getValue().isExpired(now, LOGIN_WINDOW_SECONDS));
-        apiLimits.entrySet().removeIf(e -> e.getValue().isExpired(now, API_WINDOW_SECONDS));
-        generalLimits.entrySet().removeIf(e -> e.getValue().isExpired(now, GENERAL_WINDOW_SECONDS));
+    private static long age(long state, long window) {
+        return (window - (state >>> (2 * COUNT_BITS))) & WINDOW_MASK;
+    }
+
+    public record RouteStatistics(String route, long allowed, long rejected, int trackedKeys) {
     }
 
     /**
-     * Internal class to track rate limit information per IP.
+     * Sliding window counter for one route. The estimate for the current window is
+     * {@code current + previous * (time left in window / window length)}, rounded up.
      */
-    private static class RateLimitInfo {
-        private final Instant windowStart;
-        private int count;
+    private final class RouteLimiter {
+        private final String route;
+        private final int maxRequests;
+        private final long windowMillis;
+        private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicLong reportedRejected = new AtomicLong();
+        private final ReentrantLock evictionLock = new ReentrantLock();
+
+        RouteLimiter(String route, RateLimitConfig.Limit limit) {
+            if (limit.getMaxRequests() < 1 || limit.getMaxRequests() > COUNT_MASK || limit.getWindowSeconds() < 1) {
+                throw new IllegalArgumentException("Invalid rate limit for route " + route
+                        + ": max-requests must be 1.." + COUNT_MASK + " and window-seconds positive");
+            }
+            this.route = route;
+            this.maxRequests = limit.getMaxRequests();
+            this.windowMillis = limit.getWindowSeconds() * 1000L;
+        }
+
+        boolean tryAcquire(String key, long now) {
+            AtomicLong counter = counters.get(key);
+            if (counter == null) {
+                counter = register(key, now);
+            }
 
-        RateLimitInfo(Instant windowStart, int count) {
-            this.windowStart = windowStart;
-            this.count = count;
+            long window = now / windowMillis;
+            long elapsed = now % windowMillis;
+            while (true) {
+                long state = counter.get();
+                long current = current(state, window);
+                long previous = previous(state, window);
+                if (estimate(current, previous, elapsed) >= maxRequests) {
+                    rejected.increment();
+                    return false;
+                }
+                if (counter.compareAndSet(state, pack(window, current + 1, previous))) {
+                    allowed.increment();
+                    return true;
+                }
+            }
+        }
+
+        int remaining(String key, long now) {
+            AtomicLong counter = counters.get(key);
+            if (counter == null) {
+                return maxRequests;
+            }
+            long window = now / windowMillis;
+            long state = counter.get();
+            long estimate = estimate(current(state, window), previous(state, window), now % windowMillis);
+            return (int) Math.max(0, maxRequests - estimate);
         }
 
-        Instant getWindowStart() {
-            return windowStart;
+        long waitMillis(String key, long now) {
+            AtomicLong counter = counters.get(key);
+            if (counter == null) {
+                return 0;
+            }
+            long window = now / windowMillis;
+            long elapsed = now % windowMillis;
+            long state = counter.get();
+            long current = current(state, window);
+            long previous = previous(state, window);
+            if (estimate(current, previous, elapsed) < maxRequests) {
+                return 0;
+            }
+            if (current >= maxRequests) {
+                // Wait for the next window, then for this window's weight to drop below the limit
+                return windowMillis - elapsed + unblockedAt(current, maxRequests - 1);
+            }
+            return Math.max(1, unblockedAt(previous, maxRequests - 1 - current) - elapsed);
         }
 
-        int getCount() {
-            return count;
+        void removeIdle(long now) {
+            long window = now / windowMillis;
+            counters.values().removeIf(counter -> age(counter.get(), window) >= 2);
         }
 
-        void incrementCount() {
-            this.count++;
+        private AtomicLong register(String key, long now) {
+            if (counters.size() >= maxKeys && evictionLock.tryLock()) {
+                try {
+                    removeIdle(now);
+                    // Still full with active keys: drop arbitrary keys down to 90% capacity
+                    Iterator<AtomicLong> it = counters.values().iterator();
+                    while (counters.size() > maxKeys - maxKeys / 10 && it.hasNext()) {
+                        it.next();
+                        it.remove();
+                    }
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            return counters.computeIfAbsent(key, k -> new AtomicLong(pack(now / windowMillis, 0, 0)));
         }
 
-        boolean isExpired(Instant now, int windowSeconds) {
-            return windowStart.plusSeconds(windowSeconds).isBefore(now);
+        /**
+         * Elapsed time in a window after which {@code weighted * time left / window}
+         * no longer exceeds {@code budget}.
+         */
+        private long unblockedAt(long weighted, long budget) {
+            return Math.max(0, windowMillis - budget * windowMillis / weighted);
+        }
+
+        private long estimate(long current, long previous, long elapsed) {
+            return current + Math.ceilDiv(previous * (windowMillis - elapsed), windowMillis);
+        }
+
+        private long current(long state, long window) {
+            return age(state, window) == 0 ? (state >>> COUNT_BITS) & COUNT_MASK : 0;
+        }
+
+        private long previous(long state, long window) {
+            long age = age(state, window);
+            if (age == 0) {
+                return state & COUNT_MASK;
+            }
+            return age == 1 ? (state >>> COUNT_BITS) & COUNT_MASK : 0;
         }
     }
 }
@@ -0,0 +1,124 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.AccountPeriodTotalsDto;
+import com.artivisi.accountingfinance.repository.AccountPeriodBalanceRepository;
+import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintenance of the monthly account balance snapshot ({@code account_period_balances}).
+ *
+ * <p>Day-to-day maintenance happens in database triggers on posting and voiding, which
+ * append delta rows. This service folds those deltas, rebuilds the snapshot from scratch
+ * and verifies it against the raw ledger.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class AccountPeriodBalanceService {
+
+    private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
+    private final JournalEntryRepository journalEntryRepository;
+
+    /**
+     * Recompute every snapshot row from journal entries.
+     * Concurrent postings wait until the rebuild commits.
+     *
+     * @return number of snapshot rows written
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        accountPeriodBalanceRepository.lockLedgerForRebuild();
+        accountPeriodBalanceRepository.lockSnapshotForRebuild();
+        int deleted = accountPeriodBalanceRepository.deleteAllSnapshots();
+        int inserted = accountPeriodBalanceRepository.insertSnapshotsFromJournalEntries();
+        log.info("Rebuilt account period balances: {} rows removed, {} rows written in {}ms",
+                deleted, inserted, System.currentTimeMillis() - start);
+        return inserted;
+    }
+
+    /**
+     * Fold the delta rows appended since the last run into one row per account and month.
+     * Postings are not blocked; deltas appended meanwhile are folded by the next run.
+     *
+     * @return number of account-months folded
+     */
+    @Transactional
+    public int compact() {
+        long start = System.currentTimeMillis();
+        int folded = accountPeriodBalanceRepository.compactSnapshots();
+        if (folded > 0) {
+            log.info("Compacted account period balances: {} account-months folded in {}ms",
+                    folded, System.currentTimeMillis() - start);
+        }
+        return folded;
+    }
+
+    /**
+     * Compare snapshot rows with totals computed from journal entries.
+     *
+     * @return one entry per account and month whose snapshot differs from the ledger; empty when consistent
+     */
+    public List<SnapshotDiscrepancy> checkConsistency() {
+        Map<PeriodKey, AccountPeriodTotalsDto> snapshot = index(accountPeriodBalanceRepository.findAllPeriodTotals());
+        Map<PeriodKey, AccountPeriodTotalsDto> ledger = index(journalEntryRepository.sumDebitCreditGroupedByAccountAndMonth());
+
+        Set<PeriodKey> keys = new HashSet<>(snapshot.keySet());
+        keys.addAll(ledger.keySet());
+
+        List<SnapshotDiscrepancy> discrepancies = new ArrayList<>();
+        for (PeriodKey key : keys) {
+            AccountPeriodTotalsDto snapshotRow = snapshot.get(key);
+            AccountPeriodTotalsDto ledgerRow = ledger.get(key);
+
+            BigDecimal snapshotDebit = snapshotRow != null ? snapshotRow.debitTotal() : BigDecimal.ZERO;
+            BigDecimal snapshotCredit = snapshotRow != null ? snapshotRow.creditTotal() : BigDecimal.ZERO;
+            BigDecimal ledgerDebit = ledgerRow != null ? ledgerRow.debitTotal() : BigDecimal.ZERO;
+            BigDecimal ledgerCredit = ledgerRow != null ? ledgerRow.creditTotal() : BigDecimal.ZERO;
+
+            if (snapshotDebit.compareTo(ledgerDebit) != 0 || snapshotCredit.compareTo(ledgerCredit) != 0) {
+                discrepancies.add(new SnapshotDiscrepancy(key.accountId(), key.year(), key.month(),
+                        snapshotDebit, snapshotCredit, ledgerDebit, ledgerCredit));
+            }
+        }
+
+        if (!discrepancies.isEmpty()) {
+            log.warn("Account period balances differ from journal entries in {} account-months", discrepancies.size());
+        }
+        return discrepancies;
+    }
+
+    private Map<PeriodKey, AccountPeriodTotalsDto> index(List<AccountPeriodTotalsDto> rows) {
+        Map<PeriodKey, AccountPeriodTotalsDto> indexed = new HashMap<>();
+        for (AccountPeriodTotalsDto row : rows) {
+            indexed.put(new PeriodKey(row.accountId(), row.periodYear(), row.periodMonth()), row);
+        }
+        return indexed;
+    }
+
+    private record PeriodKey(UUID accountId, int year, int month) {}
+
+    public record SnapshotDiscrepancy(
+            UUID accountId,
+            int year,
+            int month,
+            BigDecimal snapshotDebit,
+            BigDecimal snapshotCredit,
+            BigDecimal ledgerDebit,
+            BigDecimal ledgerCredit
+    ) {}
+}
@@ -2,6 +2,7 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.entity.CompanyBankAccount;
 import com.artivisi.accountingfinance.repository.CompanyBankAccountRepository;
+import com.artivisi.accountingfinance.security.BlindIndexService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import java.util.UUID;
 public class CompanyBankAccountService {
 
     private final CompanyBankAccountRepository bankAccountRepository;
+    private final BlindIndexService blindIndexService;
 
     public List<CompanyBankAccount> findAll() {
         return bankAccountRepository.findAllByOrderByBankNameAsc();
@@ -35,9 +37,22 @@ public class CompanyBankAccountService {
         return bankAccountRepository.findByIsDefaultTrueAndActiveTrue();
     }
 
+    /**
+     * Find a bank account by account number through its blind index.
+     */
+    public Optional<CompanyBankAccount> findByAccountNumber(String accountNumber) {
+        String index = blindIndexService.compute(accountNumber);
+        if (index == null) {
+            return Optional.empty();
+        }
+        return bankAccountRepository.findByAccountNumberBlindIndex(index).stream()
+                .filter(account -> BlindIndexService.matches(accountNumber, account.getAccountNumber()))
+                .findFirst();
+    }
+
     @Transactional
     public CompanyBankAccount create(CompanyBankAccount bankAccount) {
-        if (bankAccountRepository.existsByAccountNumber(bankAccount.getAccountNumber())) {
+        if (findByAccountNumber(bankAccount.getAccountNumber()).isPresent()) {
             throw new IllegalArgumentException("Account number already exists: " + bankAccount.getAccountNumber());
         }
 
@@ -56,7 +71,7 @@ public class CompanyBankAccountService {
 
         // Check if account number is being changed and already exists
         if (!existing.getAccountNumber().equals(updatedAccount.getAccountNumber()) &&
-                bankAccountRepository.existsByAccountNumber(updatedAccount.getAccountNumber())) {
+                findByAccountNumber(updatedAccount.getAccountNumber()).isPresent()) {
             throw new IllegalArgumentException("Account number already exists: " + updatedAccount.getAccountNumber());
         }
 
@@ -7,13 +7,17 @@ import com.artivisi.accountingfinance.repository.CompanyConfigRepository;
 import com.artivisi.accountingfinance.repository.TaxTransactionDetailRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -36,24 +40,23 @@ public class CoretaxExportService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     // Helper methods for cell creation with null handling
-    private void setStringCell(Row row, int col, String value) {
-        row.createCell(col).setCellValue(value != null ? value : "");
+    private void setStringCell(ExcelWriter excel, Row row, int col, String value) {
+        excel.text(row, col, value != null ? value : "");
     }
 
-    private void setStringCell(Row row, int col, String value, String defaultValue) {
-        row.createCell(col).setCellValue(value != null ? value : defaultValue);
+    private void setStringCell(ExcelWriter excel, Row row, int col, String value, String defaultValue) {
+        excel.text(row, col, value != null ? value : defaultValue);
     }
 
-    private void setNumberCell(Row row, int col, BigDecimal value, CellStyle style) {
-        Cell cell = row.createCell(col);
-        cell.setCellValue(value != null ? value.doubleValue() : 0);
-        cell.setCellStyle(style);
+    private void setNumberCell(ExcelWriter excel, Row row, int col, BigDecimal value, CellStyle style) {
+        excel.number(row, col, value != null ? value.doubleValue() : 0, style);
     }
 
-    private void setDateCell(Row row, int col, LocalDate date) {
-        Cell cell = row.createCell(col);
+    private void setDateCell(ExcelWriter excel, Row row, int col, LocalDate date) {
         if (date != null) {
-            cell.setCellValue(date.format(DATE_FORMATTER));
+            excel.text(row, col, date.format(DATE_FORMATTER));
+        } else {
+            row.createCell(col);
         }
     }
 
@@ -61,34 +64,30 @@ public class CoretaxExportService {
      * Export e-Faktur Keluaran (Output VAT) data to Excel format.
      * Format matches DJP's "Sample Faktur PK Template" converter.
      */
-    public byte[] exportEFakturKeluaran(LocalDate startDate, LocalDate endDate) throws IOException {
+    public void exportEFakturKeluaran(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
         List<TaxTransactionDetail> details = taxTransactionDetailRepository.findEFakturKeluaranByDateRange(startDate, endDate);
         CompanyConfig config = getCompanyConfig();
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            createEFakturSheet(workbook, details, config);
-            createEFakturReferenceSheet(workbook);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+        try (ExcelWriter excel = new ExcelWriter()) {
+            CellStyle headerStyle = createHeaderStyle(excel);
+            createEFakturSheet(excel, details, config, headerStyle, createNumberStyle(excel));
+            createEFakturReferenceSheet(excel, headerStyle);
+            excel.write(out);
         }
     }
 
     /**
      * Export e-Faktur Masukan (Input VAT) data to Excel format.
      */
-    public byte[] exportEFakturMasukan(LocalDate startDate, LocalDate endDate) throws IOException {
+    public void exportEFakturMasukan(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
         List<TaxTransactionDetail> details = taxTransactionDetailRepository.findEFakturMasukanByDateRange(startDate, endDate);
         CompanyConfig config = getCompanyConfig();
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            createEFakturSheet(workbook, details, config);
-            createEFakturReferenceSheet(workbook);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+        try (ExcelWriter excel = new ExcelWriter()) {
+            CellStyle headerStyle = createHeaderStyle(excel);
+            createEFakturSheet(excel, details, config, headerStyle, createNumberStyle(excel));
+            createEFakturReferenceSheet(excel, headerStyle);
+            excel.write(out);
         }
     }
 
@@ -96,17 +95,15 @@ public class CoretaxExportService {
      * Export e-Bupot Unifikasi (PPh Withholding) data to Excel format.
      * Format matches DJP's "Bupot Unifikasi" converter template.
      */
-    public byte[] exportBupotUnifikasi(LocalDate startDate, LocalDate endDate) throws IOException {
+    public void exportBupotUnifikasi(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
         List<TaxTransactionDetail> details = taxTransactionDetailRepository.findEBupotUnifikasiByDateRange(startDate, endDate);
         CompanyConfig config = getCompanyConfig();
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            createBupotSheet(workbook, details, config);
-            createBupotReferenceSheet(workbook);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+        try (ExcelWriter excel = new ExcelWriter()) {
+            CellStyle headerStyle = createHeaderStyle(excel);
+            createBupotSheet(excel, details, config, headerStyle, createNumberStyle(excel));
+            createBupotReferenceSheet(excel, headerStyle);
+            excel.write(out);
         }
     }
 
@@ -128,13 +125,12 @@ public class CoretaxExportService {
         );
     }
 
-    private void createEFakturSheet(Workbook workbook, List<TaxTransactionDetail> details, CompanyConfig config) {
-        Sheet sheet = workbook.createSheet("DATA");
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle numberStyle = createNumberStyle(workbook);
+    private void createEFakturSheet(ExcelWriter excel, List<TaxTransactionDetail> details, CompanyConfig config,
+            CellStyle headerStyle, CellStyle numberStyle) {
+        excel.sheet("DATA");
 
         // Header row
-        Row headerRow = sheet.createRow(0);
+        Row headerRow = excel.row();
         String[] headers = {
                 "TrxCode",           // Transaction code (01, 02, 04, 07, 08)
                 "TrxNumber",         // Faktur number
@@ -154,52 +150,41 @@ public class CoretaxExportService {
         };
 
         for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+            excel.text(headerRow, i, headers[i], headerStyle);
         }
 
         // Data rows
-        int rowNum = 1;
         for (TaxTransactionDetail detail : details) {
-            Row row = sheet.createRow(rowNum++);
-            populateEFakturRow(row, detail, config, numberStyle);
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            Row row = excel.row();
+            populateEFakturRow(excel, row, detail, config, numberStyle);
         }
     }
 
-    private void populateEFakturRow(Row row, TaxTransactionDetail detail, CompanyConfig config, CellStyle numberStyle) {
-        setStringCell(row, 0, detail.getTransactionCode(), "01");
-        setStringCell(row, 1, detail.getFakturNumber());
-        setDateCell(row, 2, detail.getFakturDate());
-        setStringCell(row, 3, config.getNpwp());
-        setStringCell(row, 4, config.getNitku());
-        setStringCell(row, 5, detail.getCounterpartyIdType(), "TIN");
-        row.createCell(6).setCellValue(detail.getCounterpartyIdNumber());
-        setStringCell(row, 7, detail.getCounterpartyNitku());
-        setStringCell(row, 8, detail.getCounterpartyName());
-        setStringCell(row, 9, detail.getCounterpartyAddress());
-        row.createCell(10).setCellValue("B"); // B = Jasa (services)
-
-        setNumberCell(row, 11, calculateGross(detail.getDpp(), detail.getPpn()), numberStyle);
-        setNumberCell(row, 12, detail.getDpp(), numberStyle);
-        setNumberCell(row, 13, detail.getPpn(), numberStyle);
-        setNumberCell(row, 14, detail.getPpnbm(), numberStyle);
+    private void populateEFakturRow(ExcelWriter excel, Row row, TaxTransactionDetail detail, CompanyConfig config, CellStyle numberStyle) {
+        setStringCell(excel, row, 0, detail.getTransactionCode(), "01");
+        setStringCell(excel, row, 1, detail.getFakturNumber());
+        setDateCell(excel, row, 2, detail.getFakturDate());
+        setStringCell(excel, row, 3, config.getNpwp());
+        setStringCell(excel, row, 4, config.getNitku());
+        setStringCell(excel, row, 5, detail.getCounterpartyIdType(), "TIN");
+        excel.text(row, 6, detail.getCounterpartyIdNumber());
+        setStringCell(excel, row, 7, detail.getCounterpartyNitku());
+        setStringCell(excel, row, 8, detail.getCounterpartyName());
+        setStringCell(excel, row, 9, detail.getCounterpartyAddress());
+        excel.text(row, 10, "B"); // B = Jasa (services)
+
+        setNumberCell(excel, row, 11, calculateGross(detail.getDpp(), detail.getPpn()), numberStyle);
+        setNumberCell(excel, row, 12, detail.getDpp(), numberStyle);
+        setNumberCell(excel, row, 13, detail.getPpn(), numberStyle);
+        setNumberCell(excel, row, 14, detail.getPpnbm(), numberStyle);
     }
 
-    private void createEFakturReferenceSheet(Workbook workbook) {
-        Sheet sheet = workbook.createSheet("REF");
-        CellStyle headerStyle = createHeaderStyle(workbook);
+    private void createEFakturReferenceSheet(ExcelWriter excel, CellStyle headerStyle) {
+        excel.sheet("REF");
 
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Kode");
-        headerRow.createCell(1).setCellValue("Keterangan");
-        headerRow.getCell(0).setCellStyle(headerStyle);
-        headerRow.getCell(1).setCellStyle(headerStyle);
+        Row headerRow = excel.row();
+        excel.text(headerRow, 0, "Kode", headerStyle);
+        excel.text(headerRow, 1, "Keterangan", headerStyle);
 
         // Transaction codes
         String[][] refs = {
@@ -215,25 +200,20 @@ public class CoretaxExportService {
                 {"B", "Jasa"}
         };
 
-        int rowNum = 1;
         for (String[] ref : refs) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(ref[0]);
-            row.createCell(1).setCellValue(ref[1]);
+            Row row = excel.row();
+            excel.text(row, 0, ref[0]);
+            excel.text(row, 1, ref[1]);
         }
-
-        sheet.autoSizeColumn(0);
-        sheet.autoSizeColumn(1);
     }
 
     @SuppressWarnings("java:S125") // Inline comments document Coretax export field names, not commented-out code
-    private void createBupotSheet(Workbook workbook, List<TaxTransactionDetail> details, CompanyConfig config) {
-        Sheet sheet = workbook.createSheet("DATA");
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        CellStyle numberStyle = createNumberStyle(workbook);
+    private void createBupotSheet(ExcelWriter excel, List<TaxTransactionDetail> details, CompanyConfig config,
+            CellStyle headerStyle, CellStyle numberStyle) {
+        excel.sheet("DATA");
 
         // Header row
-        Row headerRow = sheet.createRow(0);
+        Row headerRow = excel.row();
         String[] headers = {
                 "BupotNumber",       // Bukti potong number
                 "BupotDate",         // Date (DD/MM/YYYY)
@@ -251,52 +231,40 @@ public class CoretaxExportService {
         };
 
         for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+            excel.text(headerRow, i, headers[i], headerStyle);
         }
 
         // Data rows
-        int rowNum = 1;
         for (TaxTransactionDetail detail : details) {
-            Row row = sheet.createRow(rowNum++);
-            populateBupotRow(row, detail, config, numberStyle);
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            Row row = excel.row();
+            populateBupotRow(excel, row, detail, config, numberStyle);
         }
     }
 
-    private void populateBupotRow(Row row, TaxTransactionDetail detail, CompanyConfig config, CellStyle numberStyle) {
-        setStringCell(row, 0, detail.getBupotNumber());
+    private void populateBupotRow(ExcelWriter excel, Row row, TaxTransactionDetail detail, CompanyConfig config, CellStyle numberStyle) {
+        setStringCell(excel, row, 0, detail.getBupotNumber());
         LocalDate txDate = detail.getTransaction() != null ? detail.getTransaction().getTransactionDate() : null;
-        setDateCell(row, 1, txDate);
-        setStringCell(row, 2, config.getNpwp());
-        setStringCell(row, 3, config.getNitku());
-        setStringCell(row, 4, detail.getCounterpartyIdType(), "TIN");
-        row.createCell(5).setCellValue(detail.getCounterpartyIdNumber());
-        setStringCell(row, 6, detail.getCounterpartyNitku());
-        setStringCell(row, 7, detail.getCounterpartyName());
-        setStringCell(row, 8, detail.getTaxObjectCode());
-        setNumberCell(row, 9, detail.getGrossAmount(), numberStyle);
-        setNumberCell(row, 10, detail.getTaxRate(), numberStyle);
-        setNumberCell(row, 11, detail.getTaxAmount(), numberStyle);
-        setStringCell(row, 12, ""); // FacilityType - empty for normal
+        setDateCell(excel, row, 1, txDate);
+        setStringCell(excel, row, 2, config.getNpwp());
+        setStringCell(excel, row, 3, config.getNitku());
+        setStringCell(excel, row, 4, detail.getCounterpartyIdType(), "TIN");
+        excel.text(row, 5, detail.getCounterpartyIdNumber());
+        setStringCell(excel, row, 6, detail.getCounterpartyNitku());
+        setStringCell(excel, row, 7, detail.getCounterpartyName());
+        setStringCell(excel, row, 8, detail.getTaxObjectCode());
+        setNumberCell(excel, row, 9, detail.getGrossAmount(), numberStyle);
+        setNumberCell(excel, row, 10, detail.getTaxRate(), numberStyle);
+        setNumberCell(excel, row, 11, detail.getTaxAmount(), numberStyle);
+        setStringCell(excel, row, 12, ""); // FacilityType - empty for normal
     }
 
-    private void createBupotReferenceSheet(Workbook workbook) {
-        Sheet sheet = workbook.createSheet("REF");
-        CellStyle headerStyle = createHeaderStyle(workbook);
+    private void createBupotReferenceSheet(ExcelWriter excel, CellStyle headerStyle) {
+        excel.sheet("REF");
 
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Kode Objek Pajak");
-        headerRow.createCell(1).setCellValue("Keterangan");
-        headerRow.createCell(2).setCellValue("Tarif Default (%)");
-        headerRow.getCell(0).setCellStyle(headerStyle);
-        headerRow.getCell(1).setCellStyle(headerStyle);
-        headerRow.getCell(2).setCellStyle(headerStyle);
+        Row headerRow = excel.row();
+        excel.text(headerRow, 0, "Kode Objek Pajak", headerStyle);
+        excel.text(headerRow, 1, "Keterangan", headerStyle);
+        excel.text(headerRow, 2, "Tarif Default (%)", headerStyle);
 
         // Common tax object codes
         String[][] refs = {
@@ -314,22 +282,17 @@ public class CoretaxExportService {
                 {"28-423-01", "PPh Final UMKM", "0.5"}
         };
 
-        int rowNum = 1;
         for (String[] ref : refs) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(ref[0]);
-            row.createCell(1).setCellValue(ref[1]);
-            row.createCell(2).setCellValue(ref[2]);
+            Row row = excel.row();
+            excel.text(row, 0, ref[0]);
+            excel.text(row, 1, ref[1]);
+            excel.text(row, 2, ref[2]);
         }
-
-        sheet.autoSizeColumn(0);
-        sheet.autoSizeColumn(1);
-        sheet.autoSizeColumn(2);
     }
 
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        Font font = workbook.createFont();
+    private CellStyle createHeaderStyle(ExcelWriter excel) {
+        CellStyle style = excel.newStyle();
+        Font font = excel.newFont();
         font.setBold(true);
         style.setFont(font);
         style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
@@ -338,10 +301,9 @@ public class CoretaxExportService {
         return style;
     }
 
-    private CellStyle createNumberStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        CreationHelper createHelper = workbook.getCreationHelper();
-        style.setDataFormat(createHelper.createDataFormat().getFormat("#,##0.00"));
+    private CellStyle createNumberStyle(ExcelWriter excel) {
+        CellStyle style = excel.newStyle();
+        style.setDataFormat(excel.dataFormat("#,##0.00"));
         return style;
     }
 
@@ -0,0 +1,136 @@
+package com.artivisi.accountingfinance.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for the CSV files of a data export archive.
+ *
+ * <p>Parses one record at a time, so a file of any size is read with constant memory.
+ * Quoted fields may contain commas, doubled quotes and line breaks. The header row
+ * and rows without any value are skipped.
+ */
+final class CsvRowReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean headerSkipped;
+
+    CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    static CsvRowReader open(Path file) throws IOException {
+        return new CsvRowReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Next data row, or null at the end of the file.
+     *
+     * @throws UncheckedIOException if the underlying file cannot be read
+     */
+    String[] nextRow() {
+        try {
+            List<String> record;
+            while ((record = readRecord()) != null) {
+                if (!headerSkipped) {
+                    headerSkipped = true;
+                } else if (!record.stream().allMatch(String::isEmpty)) {
+                    return record.toArray(new String[0]);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * All remaining data rows. Only for files that are known to be small.
+     */
+    List<String[]> readAll() {
+        List<String[]> rows = new ArrayList<>();
+        String[] row;
+        while ((row = nextRow()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        while (c != -1) {
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n' && next != -1) {
+                        unread();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            int count = reader.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return -1;
+            }
+            position = 0;
+            limit = count;
+        }
+        return buffer[position++];
+    }
+
+    private void unread() {
+        // Only called right after a successful read, so the character is still in the buffer
+        position--;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
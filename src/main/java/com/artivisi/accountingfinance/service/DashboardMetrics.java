@@ -0,0 +1,83 @@
+package com.artivisi.accountingfinance.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of the dashboard widgets and of whole dashboard page loads, since startup.
+ * Recorded from the widget threads without locking.
+ */
+@Component
+public class DashboardMetrics {
+
+    public enum Widget {
+        /** KPI cards and cash and bank breakdown */
+        KPIS,
+        /** Recent posted transactions */
+        RECENT_TRANSACTIONS,
+        /** Amortization summary */
+        AMORTIZATION,
+        /** All widgets of one dashboard page load, loaded in parallel */
+        PAGE
+    }
+
+    private final Map<Widget, WidgetTimer> timers = new EnumMap<>(Widget.class);
+
+    public DashboardMetrics() {
+        for (Widget widget : Widget.values()) {
+            timers.put(widget, new WidgetTimer());
+        }
+    }
+
+    public void record(Widget widget, long nanos) {
+        WidgetTimer timer = timers.get(widget);
+        timer.count.increment();
+        timer.totalNanos.add(nanos);
+        timer.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Record the time elapsed since {@code startNanos}, a {@link System#nanoTime()} value.
+     */
+    public void recordSince(Widget widget, long startNanos) {
+        record(widget, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Count a widget that failed or did not finish in time and was left to load on its own.
+     */
+    public void recordFallback(Widget widget) {
+        timers.get(widget).fallbacks.increment();
+    }
+
+    public List<WidgetStatistics> getStatistics() {
+        return Arrays.stream(Widget.values())
+                .map(widget -> timers.get(widget).statistics(widget))
+                .toList();
+    }
+
+    public record WidgetStatistics(Widget widget, long count, long averageMillis, long maxMillis, long fallbacks) {
+    }
+
+    private static final class WidgetTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder fallbacks = new LongAdder();
+
+        WidgetStatistics statistics(Widget widget) {
+            long n = count.sum();
+            long average = n == 0 ? 0 : totalNanos.sum() / n;
+            return new WidgetStatistics(widget, n,
+                    TimeUnit.NANOSECONDS.toMillis(average), TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                    fallbacks.sum());
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.artivisi.accountingfinance.service;
 
+import com.artivisi.accountingfinance.config.CashFlowConfig;
 import com.artivisi.accountingfinance.entity.AmortizationEntry;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.enums.AccountType;
-import com.artivisi.accountingfinance.enums.NormalBalance;
 import com.artivisi.accountingfinance.repository.AmortizationEntryRepository;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
-import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
+import com.artivisi.accountingfinance.service.LedgerBalanceService.LedgerTotals;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +20,8 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,31 +29,53 @@ import java.util.List;
 public class DashboardService {
 
     private final ChartOfAccountRepository chartOfAccountRepository;
-    private final JournalEntryRepository journalEntryRepository;
+    private final LedgerBalanceService ledgerBalanceService;
     private final TransactionRepository transactionRepository;
     private final AmortizationEntryRepository amortizationEntryRepository;
     private final JournalTemplateRepository journalTemplateRepository;
+    private final ReportCache reportCache;
+    private final CashFlowConfig cashFlowConfig;
 
     // Account codes for specific KPIs
     private static final String PIUTANG_USAHA_CODE = "1.1.04";
     private static final String HUTANG_USAHA_CODE = "2.1.01";
-    private static final List<String> CASH_BANK_CODES = List.of("1.1.01", "1.1.02", "1.1.03");
 
     public DashboardKPI calculateKPIs(YearMonth month) {
+        // The transaction count includes drafts, which do not touch the ledger, so it is not cached
+        long transactionCount = transactionRepository.countByTransactionDateBetween(
+                month.atDay(1), month.atEndOfMonth());
+        return reportCache.get("dashboard-kpi", LedgerBalanceService.BEGINNING_OF_TIME, month.atEndOfMonth(),
+                        List.of(), () -> computeKPIs(month))
+                .withTransactionCount(transactionCount);
+    }
+
+    /**
+     * KPIs from the monthly account totals that posting keeps up to date in the database
+     * (see {@link LedgerBalanceService}): one grouped read per period instead of queries per
+     * account. Revenue and expense are rolled up from the accounts on every read, so changes
+     * to the chart of accounts apply at once.
+     */
+    private DashboardKPI computeKPIs(YearMonth month) {
         LocalDate startDate = month.atDay(1);
         LocalDate endDate = month.atEndOfMonth();
 
         // Previous month for comparison
         YearMonth prevMonth = month.minusMonths(1);
-        LocalDate prevStartDate = prevMonth.atDay(1);
-        LocalDate prevEndDate = prevMonth.atEndOfMonth();
+
+        LedgerTotals monthTotals = ledgerBalanceService.totals(startDate, endDate);
+        LedgerTotals prevMonthTotals = ledgerBalanceService.totals(prevMonth.atDay(1), prevMonth.atEndOfMonth());
+        LedgerTotals balanceTotals = ledgerBalanceService.totalsAsOf(endDate);
+
+        List<ChartOfAccount> accounts = chartOfAccountRepository.findAll();
+        Map<String, ChartOfAccount> accountsByCode = accounts.stream()
+                .collect(Collectors.toMap(ChartOfAccount::getAccountCode, a -> a));
 
         // Calculate revenue and expenses for current and previous month
-        BigDecimal currentRevenue = calculateTotalRevenue(startDate, endDate);
-        BigDecimal prevRevenue = calculateTotalRevenue(prevStartDate, prevEndDate);
+        BigDecimal currentRevenue = sumPositiveBalances(accounts, AccountType.REVENUE, monthTotals);
+        BigDecimal prevRevenue = sumPositiveBalances(accounts, AccountType.REVENUE, prevMonthTotals);
 
-        BigDecimal currentExpense = calculateTotalExpense(startDate, endDate);
-        BigDecimal prevExpense = calculateTotalExpense(prevStartDate, prevEndDate);
+        BigDecimal currentExpense = sumPositiveBalances(accounts, AccountType.EXPENSE, monthTotals);
+        BigDecimal prevExpense = sumPositiveBalances(accounts, AccountType.EXPENSE, prevMonthTotals);
 
         BigDecimal currentNetProfit = currentRevenue.subtract(currentExpense);
         BigDecimal prevNetProfit = prevRevenue.subtract(prevExpense);
@@ -69,16 +94,21 @@ public class DashboardService {
         BigDecimal profitChange = calculateChangePercent(currentNetProfit, prevNetProfit);
         BigDecimal marginChange = currentProfitMargin.subtract(prevProfitMargin); // Points difference
 
-        // Calculate balances as of end of current month
-        BigDecimal cashBalance = calculateCashBalance(endDate);
-        BigDecimal receivablesBalance = calculateAccountBalance(PIUTANG_USAHA_CODE, endDate);
-        BigDecimal payablesBalance = calculateAccountBalance(HUTANG_USAHA_CODE, endDate);
-
-        // Transaction count for current month
-        long transactionCount = transactionRepository.countByTransactionDateBetween(startDate, endDate);
-
-        // Cash/Bank breakdown
-        List<CashBankItem> cashBankItems = calculateCashBankBreakdown(endDate);
+        // Cash/Bank breakdown and balances as of end of current month
+        List<CashBankItem> cashBankItems = new ArrayList<>();
+        BigDecimal cashBalance = BigDecimal.ZERO;
+        for (String code : cashFlowConfig.getCashAccountCodes()) {
+            ChartOfAccount account = accountsByCode.get(code);
+            if (account != null) {
+                BigDecimal balance = balanceTotals.balance(account);
+                cashBalance = cashBalance.add(balance);
+                if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                    cashBankItems.add(new CashBankItem(account.getAccountName(), balance));
+                }
+            }
+        }
+        BigDecimal receivablesBalance = balanceOf(accountsByCode.get(PIUTANG_USAHA_CODE), balanceTotals);
+        BigDecimal payablesBalance = balanceOf(accountsByCode.get(HUTANG_USAHA_CODE), balanceTotals);
 
         return new DashboardKPI(
                 month,
@@ -93,52 +123,21 @@ public class DashboardService {
                 cashBalance,
                 receivablesBalance,
                 payablesBalance,
-                transactionCount,
+                0,
                 cashBankItems
         );
     }
 
-    private BigDecimal calculateTotalRevenue(LocalDate startDate, LocalDate endDate) {
-        List<ChartOfAccount> revenueAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.REVENUE, true);
-
+    /**
+     * Total of the active accounts of a type with a positive balance in their normal direction.
+     */
+    private static BigDecimal sumPositiveBalances(List<ChartOfAccount> accounts, AccountType type, LedgerTotals totals) {
         BigDecimal total = BigDecimal.ZERO;
-        for (ChartOfAccount account : revenueAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.CREDIT
-                    ? credit.subtract(debit)
-                    : debit.subtract(credit);
-
-            if (balance.compareTo(BigDecimal.ZERO) > 0) {
-                total = total.add(balance);
+        for (ChartOfAccount account : accounts) {
+            if (account.getAccountType() != type || !Boolean.TRUE.equals(account.getActive()) || account.getIsHeader()) {
+                continue;
             }
-        }
-        return total;
-    }
-
-    private BigDecimal calculateTotalExpense(LocalDate startDate, LocalDate endDate) {
-        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
-
-        BigDecimal total = BigDecimal.ZERO;
-        for (ChartOfAccount account : expenseAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
-                    ? debit.subtract(credit)
-                    : credit.subtract(debit);
-
+            BigDecimal balance = totals.balance(account);
             if (balance.compareTo(BigDecimal.ZERO) > 0) {
                 total = total.add(balance);
             }
@@ -146,42 +145,8 @@ public class DashboardService {
         return total;
     }
 
-    private BigDecimal calculateCashBalance(LocalDate asOfDate) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (String code : CASH_BANK_CODES) {
-            total = total.add(calculateAccountBalance(code, asOfDate));
-        }
-        return total;
-    }
-
-    private BigDecimal calculateAccountBalance(String accountCode, LocalDate asOfDate) {
-        return chartOfAccountRepository.findByAccountCode(accountCode)
-                .map(account -> {
-                    BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                            account.getId(), LocalDate.of(1900, 1, 1), asOfDate);
-                    BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                            account.getId(), LocalDate.of(1900, 1, 1), asOfDate);
-
-                    if (account.getNormalBalance() == NormalBalance.DEBIT) {
-                        return debit.subtract(credit);
-                    } else {
-                        return credit.subtract(debit);
-                    }
-                })
-                .orElse(BigDecimal.ZERO);
-    }
-
-    private List<CashBankItem> calculateCashBankBreakdown(LocalDate asOfDate) {
-        List<CashBankItem> items = new ArrayList<>();
-        for (String code : CASH_BANK_CODES) {
-            chartOfAccountRepository.findByAccountCode(code).ifPresent(account -> {
-                BigDecimal balance = calculateAccountBalance(code, asOfDate);
-                if (balance.compareTo(BigDecimal.ZERO) != 0) {
-                    items.add(new CashBankItem(account.getAccountName(), balance));
-                }
-            });
-        }
-        return items;
+    private static BigDecimal balanceOf(ChartOfAccount account, LedgerTotals totals) {
+        return account != null ? totals.balance(account) : BigDecimal.ZERO;
     }
 
     private BigDecimal calculateChangePercent(BigDecimal current, BigDecimal previous) {
@@ -212,7 +177,12 @@ public class DashboardService {
             BigDecimal payablesBalance,
             long transactionCount,
             List<CashBankItem> cashBankItems
-    ) {}
+    ) {
+        DashboardKPI withTransactionCount(long count) {
+            return new DashboardKPI(month, revenue, revenueChange, expense, expenseChange, netProfit, profitChange,
+                    profitMargin, marginChange, cashBalance, receivablesBalance, payablesBalance, count, cashBankItems);
+        }
+    }
 
     public record CashBankItem(
             String accountName,
@@ -223,9 +193,8 @@ public class DashboardService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusMonths(1);
         
-        return transactionRepository.findPostedTransactionsBetweenDates(startDate, endDate)
+        return transactionRepository.findRecentPostedWithTemplate(startDate, endDate, PageRequest.of(0, limit))
                 .stream()
-                .limit(limit)
                 .map(tx -> new RecentTransaction(
                         tx.getTransactionNumber(),
                         tx.getDescription(),
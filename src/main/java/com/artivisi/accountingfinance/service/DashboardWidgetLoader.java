@@ -0,0 +1,107 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.service.DashboardMetrics.Widget;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the dashboard widgets for the first render of the page in one request.
+ *
+ * <p>Every widget is computed on its own virtual thread, each in its own read-only
+ * transaction, so the page waits for the slowest widget rather than the sum of them. A
+ * widget that fails or is not ready within {@code app.dashboard.widget-timeout-ms} is
+ * returned as null; the page then loads it with its own request, as on later refreshes.
+ */
+@Service
+@Slf4j
+public class DashboardWidgetLoader {
+
+    public static final int RECENT_TRANSACTION_LIMIT = 10;
+
+    private final DashboardService dashboardService;
+    private final DashboardMetrics metrics;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardWidgetLoader(
+            DashboardService dashboardService,
+            DashboardMetrics metrics,
+            @Value("${app.dashboard.widget-timeout-ms:3000}") long timeoutMillis) {
+        this.dashboardService = dashboardService;
+        this.metrics = metrics;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public DashboardWidgets load(YearMonth month) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        Future<DashboardService.DashboardKPI> kpi = submit(Widget.KPIS,
+                () -> dashboardService.calculateKPIs(month));
+        Future<List<DashboardService.RecentTransaction>> recentTransactions = submit(Widget.RECENT_TRANSACTIONS,
+                () -> dashboardService.getRecentTransactions(RECENT_TRANSACTION_LIMIT));
+        Future<DashboardService.AmortizationSummary> amortization = submit(Widget.AMORTIZATION,
+                dashboardService::getAmortizationSummary);
+
+        DashboardWidgets widgets = new DashboardWidgets(
+                await(Widget.KPIS, kpi, deadline),
+                await(Widget.RECENT_TRANSACTIONS, recentTransactions, deadline),
+                await(Widget.AMORTIZATION, amortization, deadline));
+        metrics.recordSince(Widget.PAGE, start);
+        return widgets;
+    }
+
+    private <T> Future<T> submit(Widget widget, Callable<T> loader) {
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return loader.call();
+            } finally {
+                metrics.recordSince(widget, start);
+            }
+        });
+    }
+
+    private <T> T await(Widget widget, Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard widget {} not ready within {} ms, loading it separately", widget, timeout.toMillis());
+        } catch (ExecutionException e) {
+            log.warn("Dashboard widget {} failed, loading it separately", widget, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        metrics.recordFallback(widget);
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Widgets of one dashboard page load; a null widget is loaded by the page itself.
+     */
+    public record DashboardWidgets(
+            DashboardService.DashboardKPI kpi,
+            List<DashboardService.RecentTransaction> recentTransactions,
+            DashboardService.AmortizationSummary amortizationSummary
+    ) {}
+}
@@ -2,6 +2,7 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.entity.*;
 import com.artivisi.accountingfinance.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
@@ -9,10 +10,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -22,6 +25,10 @@ import java.util.zip.ZipOutputStream;
  *
  * Export files are numbered (01_, 02_, etc.) to define import order.
  * References use natural keys (codes) instead of UUIDs for portability.
+ *
+ * The archive is written straight to the caller's output stream. Ledger, audit and
+ * document tables are read as JPA streams and the persistence context is cleared
+ * periodically, so heap use does not grow with the amount of data exported.
  */
 @Service
 @RequiredArgsConstructor
@@ -32,6 +39,11 @@ public class DataExportService {
     private static final String RECORDS_SUFFIX = " records\n";
     private static final String SORT_TEMPLATE_NAME = "templateName";
 
+    // Rows written (and entities detached) per batch when streaming large tables
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
     // Core repositories
     private final ChartOfAccountRepository accountRepository;
     private final JournalEntryRepository journalEntryRepository;
@@ -72,17 +84,28 @@ public class DataExportService {
 
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final String SORT_BY_CREATED_AT = "createdAt";
 
     /**
-     * Export all company data to a ZIP archive.
-     * Files are numbered to define import order.
+     * Export all company data to an in-memory ZIP archive.
+     * Only suitable for small data sets; prefer {@link #exportAllData(OutputStream)}.
      */
     public byte[] exportAllData() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exportAllData(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Export all company data as a ZIP archive written to the given stream.
+     * Files are numbered to define import order. The stream is closed when done.
+     */
+    public void exportAllData(OutputStream outputStream) throws IOException {
         log.info("Starting full data export");
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+        // Streaming exports clear the persistence context; write pending changes first
+        entityManager.flush();
+
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(outputStream))) {
             // Export metadata
             addManifest(zos);
 
@@ -113,10 +136,10 @@ public class DataExportService {
 
             // 17-20: Transactional data
             addTextEntry(zos, "17_invoices.csv", exportInvoices());
-            addTextEntry(zos, "18_transactions.csv", exportTransactions());
-            addTextEntry(zos, "19_transaction_account_mappings.csv", exportTransactionAccountMappings());
-            addTextEntry(zos, "19a_transaction_variables.csv", exportTransactionVariables());
-            addTextEntry(zos, "20_journal_entries.csv", exportJournalEntries());
+            addStreamedTextEntry(zos, "18_transactions.csv", this::exportTransactions);
+            addStreamedTextEntry(zos, "19_transaction_account_mappings.csv", this::exportTransactionAccountMappings);
+            addStreamedTextEntry(zos, "19a_transaction_variables.csv", this::exportTransactionVariables);
+            addStreamedTextEntry(zos, "20_journal_entries.csv", this::exportJournalEntries);
 
             // 21-24: Payroll and amortization
             addTextEntry(zos, "21_payroll_runs.csv", exportPayrollRuns());
@@ -136,7 +159,7 @@ public class DataExportService {
             addTextEntry(zos, "31_telegram_user_links.csv", exportTelegramUserLinks());
 
             // 32-33: System state
-            addTextEntry(zos, "32_audit_logs.csv", exportAuditLogs());
+            addStreamedTextEntry(zos, "32_audit_logs.csv", this::exportAuditLogs);
             addTextEntry(zos, "33_transaction_sequences.csv", exportTransactionSequences());
 
             // 34: Asset categories (depends on COA)
@@ -149,8 +172,7 @@ public class DataExportService {
             exportDocuments(zos);
         }
 
-        log.info("Full data export completed, size: {} bytes", baos.size());
-        return baos.toByteArray();
+        log.info("Full data export completed");
     }
 
     /**
@@ -245,16 +267,16 @@ public class DataExportService {
             if (logoPath != null && !logoPath.isBlank()) {
                 try {
                     Path filePath = documentStorageService.getRootLocation().resolve(logoPath);
-                    if (Files.exists(filePath)) {
-                        byte[] content = Files.readAllBytes(filePath);
-                        String zipPath = "company_logo/" + logoPath;
-                        addBinaryEntry(zos, zipPath, content);
+                    String zipPath = "company_logo/" + logoPath;
+                    if (addFileEntry(zos, zipPath, filePath)) {
                         log.info("Exported company logo: {}", logoPath);
                     } else {
                         log.warn("Company logo file not found: {}", filePath);
                     }
-                } catch (Exception e) {
+                } catch (InvalidPathException e) {
                     log.warn("Failed to export company logo: {}", e.getMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
             }
         });
@@ -615,101 +637,115 @@ public class DataExportService {
     // ============================================
     // 18: Transactions
     // ============================================
-    private String exportTransactions() {
+    private void exportTransactions(Writer out) throws IOException {
         StringBuilder csv = new StringBuilder();
         // Added transaction_id (UUID) to handle drafts with null transaction_number
         csv.append("transaction_id,transaction_number,transaction_date,template_name,project_code,amount,description,");
         csv.append("reference_number,notes,status,void_reason,void_notes,voided_at,voided_by,posted_at,posted_by,created_at\n");
 
-        List<Transaction> transactions = transactionRepository.findAll(Sort.by(SORT_BY_CREATED_AT));
-        for (Transaction t : transactions) {
-            csv.append(t.getId()).append(",");
-            csv.append(escapeCsv(t.getTransactionNumber())).append(",");
-            csv.append(t.getTransactionDate() != null ? t.getTransactionDate().format(DATE_FORMATTER) : "").append(",");
-            csv.append(t.getJournalTemplate() != null ? escapeCsv(t.getJournalTemplate().getTemplateName()) : "").append(",");
-            csv.append(t.getProject() != null ? escapeCsv(t.getProject().getCode()) : "").append(",");
-            csv.append(t.getAmount()).append(",");
-            csv.append(escapeCsv(t.getDescription())).append(",");
-            csv.append(escapeCsv(t.getReferenceNumber())).append(",");
-            csv.append(escapeCsv(t.getNotes())).append(",");
-            csv.append(t.getStatus()).append(",");
-            csv.append(t.getVoidReason() != null ? t.getVoidReason() : "").append(",");
-            csv.append(escapeCsv(t.getVoidNotes())).append(",");
-            csv.append(t.getVoidedAt() != null ? t.getVoidedAt().format(DATETIME_FORMATTER) : "").append(",");
-            csv.append(escapeCsv(t.getVoidedBy())).append(",");
-            csv.append(t.getPostedAt() != null ? t.getPostedAt().format(DATETIME_FORMATTER) : "").append(",");
-            csv.append(escapeCsv(t.getPostedBy())).append(",");
-            csv.append(t.getCreatedAt() != null ? t.getCreatedAt().format(DATETIME_FORMATTER) : "").append("\n");
+        try (Stream<Transaction> transactions = transactionRepository.streamAllForExport()) {
+            long rows = 0;
+            for (Iterator<Transaction> it = transactions.iterator(); it.hasNext(); ) {
+                Transaction t = it.next();
+                csv.append(t.getId()).append(",");
+                csv.append(escapeCsv(t.getTransactionNumber())).append(",");
+                csv.append(t.getTransactionDate() != null ? t.getTransactionDate().format(DATE_FORMATTER) : "").append(",");
+                csv.append(t.getJournalTemplate() != null ? escapeCsv(t.getJournalTemplate().getTemplateName()) : "").append(",");
+                csv.append(t.getProject() != null ? escapeCsv(t.getProject().getCode()) : "").append(",");
+                csv.append(t.getAmount()).append(",");
+                csv.append(escapeCsv(t.getDescription())).append(",");
+                csv.append(escapeCsv(t.getReferenceNumber())).append(",");
+                csv.append(escapeCsv(t.getNotes())).append(",");
+                csv.append(t.getStatus()).append(",");
+                csv.append(t.getVoidReason() != null ? t.getVoidReason() : "").append(",");
+                csv.append(escapeCsv(t.getVoidNotes())).append(",");
+                csv.append(t.getVoidedAt() != null ? t.getVoidedAt().format(DATETIME_FORMATTER) : "").append(",");
+                csv.append(escapeCsv(t.getVoidedBy())).append(",");
+                csv.append(t.getPostedAt() != null ? t.getPostedAt().format(DATETIME_FORMATTER) : "").append(",");
+                csv.append(escapeCsv(t.getPostedBy())).append(",");
+                csv.append(t.getCreatedAt() != null ? t.getCreatedAt().format(DATETIME_FORMATTER) : "").append("\n");
+                flushBatch(out, csv, ++rows);
+            }
         }
-        return csv.toString();
+        out.append(csv);
     }
 
     // ============================================
     // 19: Transaction Account Mappings
     // ============================================
-    private String exportTransactionAccountMappings() {
+    private void exportTransactionAccountMappings(Writer out) throws IOException {
         StringBuilder csv = new StringBuilder();
         // Use transaction_id (UUID) as primary key for linking (handles null transaction_number)
         csv.append("transaction_id,transaction_number,template_name,line_order,account_code,amount\n");
 
-        List<Transaction> transactions = transactionRepository.findAll(Sort.by(SORT_BY_CREATED_AT));
-        for (Transaction t : transactions) {
-            for (TransactionAccountMapping tam : t.getAccountMappings()) {
+        try (Stream<TransactionAccountMapping> mappings = transactionRepository.streamAccountMappingsForExport()) {
+            long rows = 0;
+            for (Iterator<TransactionAccountMapping> it = mappings.iterator(); it.hasNext(); ) {
+                TransactionAccountMapping tam = it.next();
+                Transaction t = tam.getTransaction();
                 csv.append(t.getId()).append(",");
                 csv.append(escapeCsv(t.getTransactionNumber())).append(",");
                 csv.append(t.getJournalTemplate() != null ? escapeCsv(t.getJournalTemplate().getTemplateName()) : "").append(",");
                 csv.append(tam.getTemplateLine() != null ? tam.getTemplateLine().getLineOrder() : "").append(",");
                 csv.append(tam.getAccount() != null ? escapeCsv(tam.getAccount().getAccountCode()) : "").append(",");
                 csv.append(tam.getAmount() != null ? tam.getAmount() : "").append("\n");
+                flushBatch(out, csv, ++rows);
             }
         }
-        return csv.toString();
+        out.append(csv);
     }
 
     // ============================================
     // 19a: Transaction Variables (for DETAILED templates)
     // ============================================
-    private String exportTransactionVariables() {
+    private void exportTransactionVariables(Writer out) throws IOException {
         StringBuilder csv = new StringBuilder();
         csv.append("transaction_id,transaction_number,variable_name,variable_value\n");
 
-        List<Transaction> transactions = transactionRepository.findAll(Sort.by(SORT_BY_CREATED_AT));
-        for (Transaction t : transactions) {
-            for (TransactionVariable tv : t.getVariables()) {
+        try (Stream<TransactionVariable> variables = transactionRepository.streamVariablesForExport()) {
+            long rows = 0;
+            for (Iterator<TransactionVariable> it = variables.iterator(); it.hasNext(); ) {
+                TransactionVariable tv = it.next();
+                Transaction t = tv.getTransaction();
                 csv.append(t.getId()).append(",");
                 csv.append(escapeCsv(t.getTransactionNumber())).append(",");
                 csv.append(escapeCsv(tv.getVariableName())).append(",");
                 csv.append(tv.getVariableValue()).append("\n");
+                flushBatch(out, csv, ++rows);
             }
         }
-        return csv.toString();
+        out.append(csv);
     }
 
     // ============================================
     // 20: Journal Entries
     // ============================================
-    private String exportJournalEntries() {
+    private void exportJournalEntries(Writer out) throws IOException {
         StringBuilder csv = new StringBuilder();
         // Use transaction_id (UUID) as primary key for linking (handles null transaction_number)
         csv.append("journal_number,journal_date,transaction_id,transaction_number,description,status,");
         csv.append("account_code,debit_amount,credit_amount,posted_at,voided_at,void_reason\n");
 
-        List<JournalEntry> entries = journalEntryRepository.findAll(Sort.by("journalNumber"));
-        for (JournalEntry je : entries) {
-            csv.append(escapeCsv(je.getJournalNumber())).append(",");
-            csv.append(je.getJournalDate().format(DATE_FORMATTER)).append(",");
-            csv.append(je.getTransaction().getId()).append(",");
-            csv.append(escapeCsv(je.getTransaction().getTransactionNumber())).append(",");
-            csv.append(escapeCsv(je.getDescription())).append(",");
-            csv.append(je.getStatus()).append(",");
-            csv.append(je.getAccount() != null ? escapeCsv(je.getAccount().getAccountCode()) : "").append(",");
-            csv.append(je.getDebitAmount()).append(",");
-            csv.append(je.getCreditAmount()).append(",");
-            csv.append(je.getPostedAt() != null ? je.getPostedAt().format(DATETIME_FORMATTER) : "").append(",");
-            csv.append(je.getVoidedAt() != null ? je.getVoidedAt().format(DATETIME_FORMATTER) : "").append(",");
-            csv.append(escapeCsv(je.getVoidReason())).append("\n");
+        try (Stream<JournalEntry> entries = journalEntryRepository.streamAllForExport()) {
+            long rows = 0;
+            for (Iterator<JournalEntry> it = entries.iterator(); it.hasNext(); ) {
+                JournalEntry je = it.next();
+                csv.append(escapeCsv(je.getJournalNumber())).append(",");
+                csv.append(je.getJournalDate().format(DATE_FORMATTER)).append(",");
+                csv.append(je.getTransaction().getId()).append(",");
+                csv.append(escapeCsv(je.getTransaction().getTransactionNumber())).append(",");
+                csv.append(escapeCsv(je.getDescription())).append(",");
+                csv.append(je.getStatus()).append(",");
+                csv.append(je.getAccount() != null ? escapeCsv(je.getAccount().getAccountCode()) : "").append(",");
+                csv.append(je.getDebitAmount()).append(",");
+                csv.append(je.getCreditAmount()).append(",");
+                csv.append(je.getPostedAt() != null ? je.getPostedAt().format(DATETIME_FORMATTER) : "").append(",");
+                csv.append(je.getVoidedAt() != null ? je.getVoidedAt().format(DATETIME_FORMATTER) : "").append(",");
+                csv.append(escapeCsv(je.getVoidReason())).append("\n");
+                flushBatch(out, csv, ++rows);
+            }
         }
-        return csv.toString();
+        out.append(csv);
     }
 
     // ============================================
@@ -977,20 +1013,24 @@ public class DataExportService {
     // ============================================
     // 32: Audit Logs
     // ============================================
-    private String exportAuditLogs() {
+    private void exportAuditLogs(Writer out) throws IOException {
         StringBuilder csv = new StringBuilder();
         csv.append("timestamp,username,action,entity_type,entity_id,ip_address\n");
 
-        List<AuditLog> logs = auditLogRepository.findAll(Sort.by(Sort.Direction.DESC, SORT_BY_CREATED_AT));
-        for (AuditLog log : logs) {
-            csv.append(log.getCreatedAt() != null ? log.getCreatedAt().format(DATETIME_FORMATTER) : "").append(",");
-            csv.append(log.getUser() != null ? escapeCsv(log.getUser().getUsername()) : "").append(",");
-            csv.append(escapeCsv(log.getAction())).append(",");
-            csv.append(escapeCsv(log.getEntityType())).append(",");
-            csv.append(log.getEntityId() != null ? log.getEntityId().toString() : "").append(",");
-            csv.append(escapeCsv(log.getIpAddress())).append("\n");
+        try (Stream<AuditLog> logs = auditLogRepository.streamAllForExport()) {
+            long rows = 0;
+            for (Iterator<AuditLog> it = logs.iterator(); it.hasNext(); ) {
+                AuditLog log = it.next();
+                csv.append(log.getCreatedAt() != null ? log.getCreatedAt().format(DATETIME_FORMATTER) : "").append(",");
+                csv.append(log.getUser() != null ? escapeCsv(log.getUser().getUsername()) : "").append(",");
+                csv.append(escapeCsv(log.getAction())).append(",");
+                csv.append(escapeCsv(log.getEntityType())).append(",");
+                csv.append(log.getEntityId() != null ? log.getEntityId().toString() : "").append(",");
+                csv.append(escapeCsv(log.getIpAddress())).append("\n");
+                flushBatch(out, csv, ++rows);
+            }
         }
-        return csv.toString();
+        out.append(csv);
     }
 
     // ============================================
@@ -1038,47 +1078,113 @@ public class DataExportService {
     // Documents (files + index)
     // ============================================
     private void exportDocuments(ZipOutputStream zos) throws IOException {
-        List<Document> documents = documentRepository.findAll();
-        for (Document doc : documents) {
-            try {
-                Path filePath = documentStorageService.getRootLocation().resolve(doc.getStoragePath());
-                if (Files.exists(filePath)) {
-                    byte[] content = Files.readAllBytes(filePath);
-                    String path = "documents/" + doc.getStoragePath();
-                    addBinaryEntry(zos, path, content);
+        // First pass: copy files without loading them into memory. Documents with the same
+        // content share a blob, which is written once and listed in the index for each document.
+        Set<String> exportedPaths = new HashSet<>();
+        try (Stream<Document> documents = documentRepository.streamAllForExport()) {
+            long rows = 0;
+            for (Iterator<Document> it = documents.iterator(); it.hasNext(); ) {
+                Document doc = it.next();
+                try {
+                    Path filePath = documentStorageService.getRootLocation().resolve(doc.getStoragePath());
+                    if (!exportedPaths.contains(doc.getStoragePath())
+                            && addFileEntry(zos, "documents/" + doc.getStoragePath(), filePath)) {
+                        exportedPaths.add(doc.getStoragePath());
+                    }
+                } catch (InvalidPathException e) {
+                    log.warn("Failed to export document {}: {}", doc.getId(), e.getMessage());
+                }
+                if (++rows % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
                 }
-            } catch (Exception e) {
-                log.warn("Failed to export document {}: {}", doc.getId(), e.getMessage());
             }
         }
 
-        // Add document index
+        // Second pass: document index
+        addStreamedTextEntry(zos, "documents/index.csv", this::exportDocumentIndex);
+    }
+
+    private void exportDocumentIndex(Writer out) throws IOException {
         StringBuilder index = new StringBuilder();
         index.append("storage_path,original_filename,content_type,file_size,transaction_number,journal_number,uploaded_at\n");
-        for (Document doc : documents) {
-            index.append(escapeCsv(doc.getStoragePath())).append(",");
-            index.append(escapeCsv(doc.getOriginalFilename())).append(",");
-            index.append(escapeCsv(doc.getContentType())).append(",");
-            index.append(doc.getFileSize()).append(",");
-            index.append(doc.getTransaction() != null ? escapeCsv(doc.getTransaction().getTransactionNumber()) : "").append(",");
-            index.append(doc.getJournalEntry() != null ? escapeCsv(doc.getJournalEntry().getJournalNumber()) : "").append(",");
-            index.append(doc.getCreatedAt() != null ? doc.getCreatedAt().format(DATETIME_FORMATTER) : "").append("\n");
+        try (Stream<Document> documents = documentRepository.streamAllForExport()) {
+            long rows = 0;
+            for (Iterator<Document> it = documents.iterator(); it.hasNext(); ) {
+                Document doc = it.next();
+                index.append(escapeCsv(doc.getStoragePath())).append(",");
+                index.append(escapeCsv(doc.getOriginalFilename())).append(",");
+                index.append(escapeCsv(doc.getContentType())).append(",");
+                index.append(doc.getFileSize()).append(",");
+                index.append(doc.getTransaction() != null ? escapeCsv(doc.getTransaction().getTransactionNumber()) : "").append(",");
+                index.append(doc.getJournalEntry() != null ? escapeCsv(doc.getJournalEntry().getJournalNumber()) : "").append(",");
+                index.append(doc.getCreatedAt() != null ? doc.getCreatedAt().format(DATETIME_FORMATTER) : "").append("\n");
+                flushBatch(out, index, ++rows);
+            }
         }
-        addTextEntry(zos, "documents/index.csv", index.toString());
+        out.append(index);
     }
 
     private void addTextEntry(ZipOutputStream zos, String filename, String content) throws IOException {
         zos.putNextEntry(new ZipEntry(filename));
-        zos.write(content.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        zos.write(content.getBytes(StandardCharsets.UTF_8));
         zos.closeEntry();
     }
 
-    private void addBinaryEntry(ZipOutputStream zos, String filename, byte[] content) throws IOException {
+    /**
+     * Add a text entry whose content is written incrementally by {@code body}.
+     */
+    private void addStreamedTextEntry(ZipOutputStream zos, String filename, CsvBody body) throws IOException {
         zos.putNextEntry(new ZipEntry(filename));
-        zos.write(content);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zos, StandardCharsets.UTF_8));
+        body.write(writer);
+        writer.flush(); // Not closed: that would close the ZIP stream
         zos.closeEntry();
     }
 
+    /**
+     * Copy a file into the archive through a small buffer.
+     *
+     * <p>The file is opened before the entry, so a missing or unreadable file is skipped
+     * without leaving an empty entry. A read error after that would leave a truncated entry,
+     * so it is thrown and aborts the export instead of producing an incomplete archive.
+     *
+     * @return false if the file does not exist or cannot be read
+     */
+    private boolean addFileEntry(ZipOutputStream zos, String filename, Path file) throws IOException {
+        InputStream in;
+        try {
+            if (!Files.isRegularFile(file)) {
+                return false;
+            }
+            in = Files.newInputStream(file);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable file {}: {}", file, e.getMessage());
+            return false;
+        }
+        try (in) {
+            zos.putNextEntry(new ZipEntry(filename));
+            in.transferTo(zos);
+            zos.closeEntry();
+        }
+        return true;
+    }
+
+    /**
+     * Write buffered rows and detach exported entities once per batch.
+     */
+    private void flushBatch(Writer out, StringBuilder csv, long rows) throws IOException {
+        if (rows % STREAM_BATCH_SIZE == 0) {
+            out.append(csv);
+            csv.setLength(0);
+            entityManager.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CsvBody {
+        void write(Writer out) throws IOException;
+    }
+
     private String escapeCsv(String value) {
         if (value == null) {
             return "";
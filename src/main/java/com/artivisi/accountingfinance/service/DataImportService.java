@@ -7,6 +7,8 @@ import com.artivisi.accountingfinance.security.LogSanitizer;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,19 +41,17 @@ public class DataImportService {
     private final EntityManager entityManager;
     private final DocumentStorageService documentStorageService;
     private final PasswordEncoder passwordEncoder;
+    private final ReportCache reportCache;
 
     // Core repositories
     private final ChartOfAccountRepository accountRepository;
-    private final JournalEntryRepository journalEntryRepository;
     private final TransactionRepository transactionRepository;
     private final ClientRepository clientRepository;
     private final ProjectRepository projectRepository;
     private final InvoiceRepository invoiceRepository;
     private final EmployeeRepository employeeRepository;
     private final PayrollRunRepository payrollRunRepository;
-    private final PayrollDetailRepository payrollDetailRepository;
     private final DocumentRepository documentRepository;
-    private final AuditLogRepository auditLogRepository;
     private final CompanyConfigRepository companyConfigRepository;
 
     // Additional repositories
@@ -68,13 +68,12 @@ public class DataImportService {
     private final ProjectMilestoneRepository milestoneRepository;
     private final ProjectPaymentTermRepository paymentTermRepository;
     private final AmortizationScheduleRepository amortizationScheduleRepository;
-    private final AmortizationEntryRepository amortizationEntryRepository;
-    private final TaxTransactionDetailRepository taxTransactionDetailRepository;
     private final DraftTransactionRepository draftTransactionRepository;
     private final UserRepository userRepository;
     private final UserTemplatePreferenceRepository userTemplatePreferenceRepository;
     private final TelegramUserLinkRepository telegramUserLinkRepository;
     private final TransactionSequenceRepository transactionSequenceRepository;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
     private final AssetCategoryRepository assetCategoryRepository;
 
     // Manufacturing/Inventory repositories
@@ -82,14 +81,23 @@ public class DataImportService {
     private final ProductRepository productRepository;
     private final BillOfMaterialRepository billOfMaterialRepository;
     private final ProductionOrderRepository productionOrderRepository;
-    private final InventoryTransactionRepository inventoryTransactionRepository;
     private final InventoryBalanceRepository inventoryBalanceRepository;
 
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // Rows per JDBC batch and persistence context flush for the large tables
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
     // Import function registry (initialized lazily to allow instance method references)
-    private Map<String, ToIntFunction<String>> importFunctions;
+    private Map<String, ToIntFunction<CsvRowReader>> importFunctions;
+
+    // Rows persisted since the last flush, and progress of the running import
+    private final List<Object> pendingBatch = new ArrayList<>();
+    // Transaction references handed out since the last flush, detached with the batch
+    private final Set<Transaction> pendingReferences = Collections.newSetFromMap(new IdentityHashMap<>());
+    private ProgressTracker progress;
 
     // Reference maps for O(1) lookups (populated during import)
     private Map<String, ChartOfAccount> accountMap;
@@ -100,7 +108,10 @@ public class DataImportService {
     private Map<String, SalaryComponent> salaryComponentMap;
     private Map<String, User> userMap;
     private Map<String, PayrollRun> payrollRunMap;
-    private Map<UUID, Transaction> transactionMap;  // Keyed by UUID to handle null transaction_number
+    // Exported transaction id -> imported id. Only ids are kept, so imported transactions can be
+    // detached per batch; related rows link to them through getReferenceById. Keyed by UUID to
+    // handle null transaction_number.
+    private Map<UUID, UUID> transactionIdMap;
     private Map<String, AmortizationSchedule> amortizationScheduleMap;
     private Map<TaxDeadlineType, TaxDeadline> taxDeadlineMap;
     private Map<String, ProjectMilestone> milestoneMap;
@@ -115,76 +126,112 @@ public class DataImportService {
      */
     @Transactional
     public ImportResult importAllData(byte[] zipData) throws IOException {
+        return importAllData(new ByteArrayInputStream(zipData));
+    }
+
+    /**
+     * Import data from a ZIP archive stream, logging progress.
+     */
+    @Transactional
+    public ImportResult importAllData(InputStream zipStream) throws IOException {
+        return importAllData(zipStream, this::logProgress);
+    }
+
+    /**
+     * Import data from a ZIP archive stream.
+     *
+     * <p>Archive entries are spooled to a temporary directory instead of memory, then each
+     * CSV file is parsed row by row and inserted in JDBC batches of {@code app.import.batch-size}
+     * rows. The large tables (transactions, journal entries, payroll details, audit logs, ...)
+     * are detached from the persistence context after every batch, so memory stays bounded
+     * regardless of archive size.
+     *
+     * @param progressListener notified after every batch and at the end of every file
+     */
+    @Transactional
+    public ImportResult importAllData(InputStream zipStream, Consumer<ImportProgress> progressListener) throws IOException {
         log.info("Starting data import");
         long startTime = System.currentTimeMillis();
 
-        // Extract ZIP contents
-        Map<String, String> csvFiles = new HashMap<>();
-        Map<String, byte[]> documentFiles = new HashMap<>();
-        extractZip(zipData, csvFiles, documentFiles);
+        Path workDir = Files.createTempDirectory("data-import-");
+        try {
+            // Extract ZIP contents
+            Map<String, Path> csvFiles = new HashMap<>();
+            Map<String, Path> documentFiles = new HashMap<>();
+            extractZip(zipStream, workDir, csvFiles, documentFiles);
+
+            // Determine which files have actual data (more than just header)
+            Set<String> filesWithData = new HashSet<>();
+            for (Map.Entry<String, Path> e : csvFiles.entrySet()) {
+                if (hasData(e.getValue())) {
+                    filesWithData.add(e.getKey());
+                }
+            }
+
+            log.info("Files with data: {}", LogSanitizer.sanitize(filesWithData.toString()));
 
-        // Determine which files have actual data (more than just header)
-        Set<String> filesWithData = csvFiles.entrySet().stream()
-                .filter(e -> hasData(e.getValue()))
-                .map(Map.Entry::getKey)
-                .collect(java.util.stream.Collectors.toSet());
+            // Truncate only tables that will be imported
+            truncateTablesForFiles(filesWithData);
+            reportCache.invalidateAll();
 
-        log.info("Files with data: {}", LogSanitizer.sanitize(filesWithData.toString()));
+            // Initialize reference maps with existing data
+            initializeMapsFromDatabase();
 
-        // Truncate only tables that will be imported
-        truncateTablesForFiles(filesWithData);
+            // Batch inserts of this import's session only
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            progress = new ProgressTracker(progressListener);
 
-        // Initialize reference maps with existing data
-        initializeMapsFromDatabase();
+            // Import in filename order (dependency order)
+            int totalRecords = 0;
+            List<String> sortedFiles = filesWithData.stream().sorted().toList();
 
-        // Import in filename order (dependency order)
-        int totalRecords = 0;
-        List<String> sortedFiles = filesWithData.stream().sorted().toList();
+            for (String filename : sortedFiles) {
+                progress.startFile(filename);
+                int count = importCsvFile(filename, csvFiles.get(filename));
+                totalRecords += count;
+                progress.finishFile(count);
+            }
 
-        for (String filename : sortedFiles) {
-            String content = csvFiles.get(filename);
-            int count = importCsvFile(filename, content);
-            totalRecords += count;
-            log.info("Imported {} records from {}", count, LogSanitizer.filename(filename));
-        }
+            // Imported journal numbers may be ahead of the journal number sequence
+            sequenceNumberAllocator.realign();
 
-        // Import document files
-        int documentCount = importDocumentFiles(documentFiles);
-        log.info("Imported {} document files", documentCount);
+            // Import document files
+            int documentCount = importDocumentFiles(documentFiles);
+            log.info("Imported {} document files", documentCount);
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Data import completed in {}ms, {} total records", duration, totalRecords);
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("Data import completed in {}ms, {} total records", duration, totalRecords);
 
-        return new ImportResult(totalRecords, documentCount, duration);
+            return new ImportResult(totalRecords, documentCount, duration);
+        } finally {
+            pendingBatch.clear();
+            pendingReferences.clear();
+            progress = null;
+            deleteRecursively(workDir);
+        }
     }
 
     /**
-     * Check if CSV content has actual data rows (not just header).
+     * Check if a CSV file has actual data rows (not just header).
      */
-    private boolean hasData(String csvContent) {
-        if (csvContent == null || csvContent.isBlank()) return false;
-        // Count non-empty lines after header
-        String[] lines = csvContent.split("\n");
-        int dataLines = 0;
-        for (int i = 1; i < lines.length; i++) {
-            if (!lines[i].trim().isEmpty()) {
-                dataLines++;
-            }
+    private boolean hasData(Path csvFile) throws IOException {
+        try (CsvRowReader csv = CsvRowReader.open(csvFile)) {
+            return csv.nextRow() != null;
         }
-        return dataLines > 0;
     }
 
-    private void extractZip(byte[] zipData, Map<String, String> csvFiles, Map<String, byte[]> documentFiles) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+    private void extractZip(InputStream zipStream, Path workDir, Map<String, Path> csvFiles, Map<String, Path> documentFiles) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(zipStream))) {
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
-                processZipEntry(entry, zis, csvFiles, documentFiles);
+                processZipEntry(entry, zis, workDir, csvFiles, documentFiles);
                 zis.closeEntry();
             }
         }
     }
 
-    private void processZipEntry(ZipEntry entry, ZipInputStream zis, Map<String, String> csvFiles, Map<String, byte[]> documentFiles) throws IOException {
+    private void processZipEntry(ZipEntry entry, ZipInputStream zis, Path workDir,
+                                 Map<String, Path> csvFiles, Map<String, Path> documentFiles) throws IOException {
         if (entry.isDirectory()) {
             return;
         }
@@ -197,26 +244,42 @@ public class DataImportService {
             return;
         }
 
-        byte[] content = zis.readAllBytes();
-        classifyAndStoreEntry(name, content, csvFiles, documentFiles);
+        // Spool under a generated name; the entry name is only used as a map key
+        Path spooled = Files.createTempFile(workDir, "entry-", ".tmp");
+        Files.copy(zis, spooled, StandardCopyOption.REPLACE_EXISTING);
+        classifyAndStoreEntry(name, spooled, csvFiles, documentFiles);
     }
 
     private boolean isPathTraversal(String name) {
         return name.contains("..") || name.startsWith("/") || name.startsWith("\\");
     }
 
-    private void classifyAndStoreEntry(String name, byte[] content, Map<String, String> csvFiles, Map<String, byte[]> documentFiles) {
+    private void classifyAndStoreEntry(String name, Path content, Map<String, Path> csvFiles, Map<String, Path> documentFiles) {
         if (name.endsWith(".csv") && !name.startsWith("documents/") && !name.startsWith("company_logo/")) {
-            csvFiles.put(name, new String(content, StandardCharsets.UTF_8));
+            csvFiles.put(name, content);
         } else if (name.startsWith("documents/") && !name.equals("documents/index.csv")) {
             documentFiles.put(name.substring("documents/".length()), content);
         } else if (name.equals("documents/index.csv")) {
-            csvFiles.put(name, new String(content, StandardCharsets.UTF_8));
+            csvFiles.put(name, content);
         } else if (name.startsWith("company_logo/")) {
             documentFiles.put("company_logo:" + name.substring("company_logo/".length()), content);
         }
     }
 
+    private void deleteRecursively(Path directory) {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete import work file {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not clean up import work directory {}: {}", directory, e.getMessage());
+        }
+    }
+
     // Whitelist of allowed table names for TRUNCATE operations (SQL injection prevention)
     // Only these table names are allowed in native SQL queries
     private static final Set<String> ALLOWED_TABLES = Set.of(
@@ -396,9 +459,9 @@ public class DataImportService {
             payrollRunMap.put(pr.getPayrollPeriod(), pr);
         }
 
-        transactionMap = new HashMap<>();
-        for (Transaction t : transactionRepository.findAll()) {
-            transactionMap.put(t.getId(), t);
+        transactionIdMap = new HashMap<>();
+        for (UUID id : transactionRepository.findAllIds()) {
+            transactionIdMap.put(id, id);
         }
 
         amortizationScheduleMap = new HashMap<>();
@@ -502,22 +565,24 @@ public class DataImportService {
         importFunctions.put("41_inventory_balances.csv", this::importInventoryBalances);
     }
 
-    private int importCsvFile(String filename, String content) {
-        try {
-            // Skip document index (handled separately) and manifest
-            if ("documents/index.csv".equals(filename)) {
-                return 0;
-            }
-
-            ToIntFunction<String> importFunction = importFunctions.get(filename);
-            if (importFunction != null) {
-                return importFunction.applyAsInt(content);
-            }
+    private int importCsvFile(String filename, Path file) {
+        // Skip document index (handled separately) and manifest
+        if ("documents/index.csv".equals(filename)) {
+            return 0;
+        }
 
+        ToIntFunction<CsvRowReader> importFunction = importFunctions.get(filename);
+        if (importFunction == null) {
             if (!"MANIFEST.md".equals(filename)) {
                 log.warn("Unknown file in import: {}", LogSanitizer.filename(filename));
             }
             return 0;
+        }
+
+        try (CsvRowReader csv = CsvRowReader.open(file)) {
+            int count = importFunction.applyAsInt(csv);
+            flushBatch();
+            return count;
         } catch (Exception e) {
             log.error("Error importing file {}: {}", LogSanitizer.filename(filename), e.getMessage(), e);
             throw new IllegalStateException("Failed to import " + filename + ": " + e.getMessage(), e);
@@ -525,85 +590,85 @@ public class DataImportService {
     }
 
     // ============================================
-    // CSV Parsing Utilities
+    // Batched Persistence
     // ============================================
-    private List<String[]> parseCsv(String content) {
-        CsvParseState state = new CsvParseState();
 
-        int i = 0;
-        while (i < content.length()) {
-            char c = content.charAt(i);
-            int nextIndex = state.inQuotes
-                    ? processQuotedChar(state, content, i, c)
-                    : processUnquotedChar(state, content, i, c);
-            i = nextIndex + 1;
+    /**
+     * Persist an imported row. Every {@code batchSize} rows the pending inserts are flushed
+     * as JDBC batches and the new entities are detached, together with the transaction
+     * references they point to, so the persistence context does not grow with the file.
+     * Reference entities in the lookup maps stay managed.
+     */
+    private void persistBatched(Object entity) {
+        entityManager.persist(entity);
+        pendingBatch.add(entity);
+        if (pendingBatch.size() >= batchSize) {
+            flushBatch();
         }
-
-        finalizeLastRow(state);
-        return state.rows;
     }
 
-    private static class CsvParseState {
-        List<String[]> rows = new ArrayList<>();
-        List<String> currentRow = new ArrayList<>();
-        StringBuilder field = new StringBuilder();
-        boolean inQuotes = false;
-        boolean isFirstRow = true;
+    private void flushBatch() {
+        if (pendingBatch.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        pendingBatch.forEach(entityManager::detach);
+        pendingReferences.forEach(entityManager::detach);
+        progress.batchWritten(pendingBatch.size());
+        pendingBatch.clear();
+        pendingReferences.clear();
     }
 
-    private int processQuotedChar(CsvParseState state, String content, int i, char c) {
-        if (c == '"') {
-            if (i + 1 < content.length() && content.charAt(i + 1) == '"') {
-                state.field.append('"');
-                return i + 1; // Skip escaped quote
-            }
-            state.inQuotes = false;
+    private void logProgress(ImportProgress p) {
+        if (p.fileCompleted()) {
+            log.info("Imported {} records from {} ({} rows/s overall)",
+                    p.fileRows(), LogSanitizer.filename(p.file()), p.rowsPerSecond());
         } else {
-            state.field.append(c);
+            log.debug("Importing {}: {} rows written ({} rows/s overall)",
+                    LogSanitizer.filename(p.file()), p.fileRows(), p.rowsPerSecond());
         }
-        return i;
     }
 
-    private int processUnquotedChar(CsvParseState state, String content, int i, char c) {
-        if (c == '"') {
-            state.inQuotes = true;
-        } else if (c == ',') {
-            state.currentRow.add(state.field.toString());
-            state.field = new StringBuilder();
-        } else if (c == '\n' || c == '\r') {
-            i = handleNewline(state, content, i, c);
-        } else {
-            state.field.append(c);
+    /**
+     * Row counts of a running import, published to the progress listener.
+     */
+    private static final class ProgressTracker {
+        private final Consumer<ImportProgress> listener;
+        private final long startNanos = System.nanoTime();
+        private String file;
+        private long fileRows;
+        private long completedRows;
+
+        ProgressTracker(Consumer<ImportProgress> listener) {
+            this.listener = listener;
         }
-        return i;
-    }
 
-    private int handleNewline(CsvParseState state, String content, int i, char c) {
-        if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') {
-            i++; // Skip \n in \r\n
+        void startFile(String filename) {
+            file = filename;
+            fileRows = 0;
         }
-        state.currentRow.add(state.field.toString());
-        state.field = new StringBuilder();
-        addRowIfValid(state);
-        state.currentRow = new ArrayList<>();
-        return i;
-    }
 
-    private void addRowIfValid(CsvParseState state) {
-        if (state.isFirstRow) {
-            state.isFirstRow = false;
-        } else if (!state.currentRow.isEmpty() && !state.currentRow.stream().allMatch(String::isEmpty)) {
-            state.rows.add(state.currentRow.toArray(new String[0]));
+        void batchWritten(int rows) {
+            fileRows += rows;
+            publish(false);
+        }
+
+        void finishFile(int rows) {
+            fileRows = rows;
+            completedRows += rows;
+            publish(true);
         }
-    }
 
-    private void finalizeLastRow(CsvParseState state) {
-        if (!state.currentRow.isEmpty() || !state.field.isEmpty()) {
-            state.currentRow.add(state.field.toString());
-            addRowIfValid(state);
+        private void publish(boolean fileCompleted) {
+            long totalRows = fileCompleted ? completedRows : completedRows + fileRows;
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            listener.accept(new ImportProgress(file, fileRows, totalRows, elapsedMs, fileCompleted));
         }
     }
 
+    // ============================================
+    // CSV Parsing Utilities
+    // ============================================
     private String getField(String[] row, int index) {
         if (index >= row.length) return "";
         return row[index].trim();
@@ -695,8 +760,8 @@ public class DataImportService {
     // Import Methods
     // ============================================
 
-    private int importCompanyConfig(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importCompanyConfig(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         if (rows.isEmpty()) return 0;
 
         String[] row = rows.get(0);
@@ -735,8 +800,8 @@ public class DataImportService {
         return 1;
     }
 
-    private int importChartOfAccounts(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importChartOfAccounts(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         List<ChartOfAccount> accounts = new ArrayList<>();
         Map<String, String> parentCodes = new HashMap<>();
 
@@ -782,8 +847,8 @@ public class DataImportService {
         return accounts.size();
     }
 
-    private int importSalaryComponents(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importSalaryComponents(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             SalaryComponent sc = new SalaryComponent();
@@ -806,8 +871,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importJournalTemplates(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importJournalTemplates(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         int imported = 0;
 
         for (String[] row : rows) {
@@ -845,8 +910,8 @@ public class DataImportService {
         return true;
     }
 
-    private int importJournalTemplateLines(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importJournalTemplateLines(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         int imported = 0;
 
         for (String[] row : rows) {
@@ -888,8 +953,8 @@ public class DataImportService {
         return true;
     }
 
-    private int importJournalTemplateTags(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importJournalTemplateTags(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         int imported = 0;
 
         for (String[] row : rows) {
@@ -913,8 +978,8 @@ public class DataImportService {
         return true;
     }
 
-    private int importClients(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importClients(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,contact_person,email,phone,address,npwp,nik,nitku,active,created_at
         for (String[] row : rows) {
             Client c = new Client();
@@ -936,8 +1001,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProjects(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProjects(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,client_code,status,start_date,end_date,budget_amount,contract_value,description,created_at
         for (String[] row : rows) {
             Project p = new Project();
@@ -962,8 +1027,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProjectMilestones(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProjectMilestones(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             String projectCode = getField(row, 0);
@@ -986,8 +1051,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProjectPaymentTerms(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProjectPaymentTerms(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             String projectCode = getField(row, 0);
@@ -1020,8 +1085,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importFiscalPeriods(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importFiscalPeriods(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             FiscalPeriod fp = new FiscalPeriod();
@@ -1038,8 +1103,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importTaxDeadlines(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTaxDeadlines(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: deadline_type,name,description,due_day,use_last_day_of_month,reminder_days_before,active
         for (String[] row : rows) {
             TaxDeadline td = new TaxDeadline();
@@ -1058,8 +1123,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importCompanyBankAccounts(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importCompanyBankAccounts(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             CompanyBankAccount ba = new CompanyBankAccount();
@@ -1075,8 +1140,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importMerchantMappings(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importMerchantMappings(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             MerchantMapping mm = new MerchantMapping();
@@ -1096,8 +1161,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importEmployees(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importEmployees(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             Employee e = new Employee();
@@ -1129,8 +1194,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importEmployeeSalaryComponents(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importEmployeeSalaryComponents(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             String employeeId = getField(row, 0);
@@ -1153,8 +1218,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importInvoices(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importInvoices(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: invoice_number,invoice_date,due_date,client_code,project_code,status,amount,notes,created_at
         for (String[] row : rows) {
             Invoice inv = new Invoice();
@@ -1183,11 +1248,13 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importTransactions(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTransactions(CsvRowReader csv) {
         // CSV columns: transaction_id,transaction_number,transaction_date,template_name,project_code,amount,description,
         //   reference_number,notes,status,void_reason,void_notes,voided_at,voided_by,posted_at,posted_by,created_at
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             Transaction t = new Transaction();
             // Column 0 is transaction_id (UUID) - used for linking, not set on entity (auto-generated)
             String txId = getField(row, 0);
@@ -1222,15 +1289,28 @@ public class DataImportService {
             t.setPostedBy(getField(row, 15));
             // column 16 = created_at (ignored, auto-generated)
 
-            transactionRepository.save(t);
+            persistBatched(t);
             // Map by original UUID from export for linking related records
-            transactionMap.put(UUID.fromString(txId), t);
+            transactionIdMap.put(UUID.fromString(txId), t.getId());
         }
-        return rows.size();
+        return count;
     }
 
-    private int importTransactionAccountMappings(String content) {
-        List<String[]> rows = parseCsv(content);
+    /**
+     * Reference to the imported transaction of an exported transaction id, or null if it was not
+     * imported. The reference is not loaded from the database.
+     */
+    private Transaction importedTransaction(String exportedId) {
+        UUID id = transactionIdMap.get(UUID.fromString(exportedId));
+        if (id == null) {
+            return null;
+        }
+        Transaction reference = transactionRepository.getReferenceById(id);
+        pendingReferences.add(reference);
+        return reference;
+    }
+
+    private int importTransactionAccountMappings(CsvRowReader csv) {
         // CSV columns: transaction_id,transaction_number,template_name,line_order,account_code,amount
         // Need to get template lines by template + line_order
         Map<String, JournalTemplateLine> lineMap = new HashMap<>();
@@ -1239,9 +1319,12 @@ public class DataImportService {
             lineMap.put(key, line);
         }
 
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String txId = getField(row, 0);
-            Transaction tx = transactionMap.get(UUID.fromString(txId));
+            Transaction tx = importedTransaction(txId);
             if (tx == null) continue;
 
             String templateName = getField(row, 2);
@@ -1258,40 +1341,42 @@ public class DataImportService {
                 tam.setTemplateLine(line);
                 tam.setAccount(account);
                 tam.setAmount(parseBigDecimal(getField(row, 5)));
-                entityManager.persist(tam);
+                persistBatched(tam);
             }
         }
-        entityManager.flush();
-        return rows.size();
+        return count;
     }
 
-    private int importTransactionVariables(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTransactionVariables(CsvRowReader csv) {
         // CSV columns: transaction_id,transaction_number,variable_name,variable_value
 
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String txId = getField(row, 0);
-            Transaction tx = transactionMap.get(UUID.fromString(txId));
+            Transaction tx = importedTransaction(txId);
             if (tx == null) continue;
 
             TransactionVariable tv = new TransactionVariable();
             tv.setTransaction(tx);
             tv.setVariableName(getField(row, 2));
             tv.setVariableValue(parseBigDecimal(getField(row, 3)));
-            entityManager.persist(tv);
+            persistBatched(tv);
         }
-        entityManager.flush();
-        return rows.size();
+        return count;
     }
 
-    private int importJournalEntries(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importJournalEntries(CsvRowReader csv) {
         // CSV columns: journal_number,journal_date,transaction_id,transaction_number,description,status,
         //   account_code,debit_amount,credit_amount,posted_at,voided_at,void_reason
 
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String txId = getField(row, 2);
-            Transaction transaction = transactionMap.get(UUID.fromString(txId));
+            Transaction transaction = importedTransaction(txId);
             if (transaction == null) {
                 log.warn("Transaction not found for journal entry, txId: {}", txId);
                 continue;
@@ -1311,13 +1396,13 @@ public class DataImportService {
             je.setVoidedAt(parseDateTime(getField(row, 10)));
             je.setVoidReason(getField(row, 11));
 
-            journalEntryRepository.save(je);
+            persistBatched(je);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importPayrollRuns(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importPayrollRuns(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: payroll_period,period_start,period_end,status,total_gross,total_deductions,total_net_pay,
         //   total_company_bpjs,total_pph21,employee_count,notes,posted_at,cancelled_at,cancel_reason,created_at
         for (String[] row : rows) {
@@ -1344,10 +1429,11 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importPayrollDetails(String content) {
-        List<String[]> rows = parseCsv(content);
-
-        for (String[] row : rows) {
+    private int importPayrollDetails(CsvRowReader csv) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String period = getField(row, 0);
             PayrollRun run = payrollRunMap.get(period);
             String employeeId = getField(row, 1);
@@ -1370,13 +1456,13 @@ public class DataImportService {
             pd.setBpjsJkm(parseBigDecimal(getField(row, 12)));
             pd.setPph21(parseBigDecimal(getField(row, 13)));
 
-            payrollDetailRepository.save(pd);
+            persistBatched(pd);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importAmortizationSchedules(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importAmortizationSchedules(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             AmortizationSchedule as = new AmortizationSchedule();
@@ -1407,10 +1493,11 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importAmortizationEntries(String content) {
-        List<String[]> rows = parseCsv(content);
-
-        for (String[] row : rows) {
+    private int importAmortizationEntries(CsvRowReader csv) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String scheduleCode = getField(row, 0);
             AmortizationSchedule schedule = amortizationScheduleMap.get(scheduleCode);
             if (schedule == null) continue;
@@ -1425,19 +1512,21 @@ public class DataImportService {
             ae.setJournalNumber(getField(row, 6));
             ae.setPostedAt(parseDateTime(getField(row, 7)));
 
-            amortizationEntryRepository.save(ae);
+            persistBatched(ae);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importTaxTransactionDetails(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTaxTransactionDetails(CsvRowReader csv) {
         // CSV columns: transaction_id,transaction_number,tax_type,counterparty_name,counterparty_npwp,counterparty_nik,
         //   counterparty_nitku,tax_object_code,dpp,tax_amount,faktur_number,faktur_date
 
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             String txId = getField(row, 0);
-            Transaction tx = transactionMap.get(UUID.fromString(txId));
+            Transaction tx = importedTransaction(txId);
             if (tx == null) continue;
 
             TaxTransactionDetail ttd = new TaxTransactionDetail();
@@ -1453,13 +1542,13 @@ public class DataImportService {
             ttd.setFakturNumber(getField(row, 10));
             ttd.setFakturDate(parseDate(getField(row, 11)));
 
-            taxTransactionDetailRepository.save(ttd);
+            persistBatched(ttd);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importTaxDeadlineCompletions(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTaxDeadlineCompletions(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             TaxDeadlineType type = TaxDeadlineType.valueOf(getField(row, 0));
@@ -1480,8 +1569,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importDraftTransactions(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importDraftTransactions(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             DraftTransaction dt = new DraftTransaction();
@@ -1508,8 +1597,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importUsers(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importUsers(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: username,full_name,email,active,created_at
         // Note: password is NOT exported for security reasons
         // Users will need to reset their password after import
@@ -1532,8 +1621,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importUserRoles(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importUserRoles(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: username,role,created_by,created_at
         for (String[] row : rows) {
             String username = getField(row, 0);
@@ -1549,8 +1638,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importUserTemplatePreferences(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importUserTemplatePreferences(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             String username = getField(row, 0);
@@ -1571,8 +1660,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importTelegramUserLinks(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTelegramUserLinks(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
 
         for (String[] row : rows) {
             TelegramUserLink tul = new TelegramUserLink();
@@ -1591,10 +1680,11 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importAuditLogs(String content) {
-        List<String[]> rows = parseCsv(content);
-
-        for (String[] row : rows) {
+    private int importAuditLogs(CsvRowReader csv) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             AuditLog auditLog = new AuditLog();
             String username = getField(row, 1);
             if (!username.isEmpty()) {
@@ -1608,13 +1698,13 @@ public class DataImportService {
             }
             auditLog.setIpAddress(getField(row, 5));
 
-            auditLogRepository.save(auditLog);
+            persistBatched(auditLog);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importTransactionSequences(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importTransactionSequences(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: sequence_type,prefix,year,last_number
         for (String[] row : rows) {
             TransactionSequence ts = new TransactionSequence();
@@ -1628,8 +1718,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importAssetCategories(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importAssetCategories(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,description,depreciation_method,useful_life_months,depreciation_rate,
         //              asset_account_code,accumulated_depreciation_account_code,depreciation_expense_account_code,active
         for (String[] row : rows) {
@@ -1675,8 +1765,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProductCategories(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProductCategories(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,description,parent_code,active
         for (String[] row : rows) {
             ProductCategory pc = new ProductCategory();
@@ -1702,8 +1792,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProducts(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProducts(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,description,unit,category_code,costing_method,track_inventory,minimum_stock,
         //              selling_price,inventory_account_code,cogs_account_code,sales_account_code,active
         for (String[] row : rows) {
@@ -1734,8 +1824,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importBillOfMaterials(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importBillOfMaterials(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: code,name,description,product_code,output_quantity,active
         for (String[] row : rows) {
             BillOfMaterial bom = new BillOfMaterial();
@@ -1766,8 +1856,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importBomLines(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importBomLines(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: bom_code,component_product_code,quantity,line_order
         for (String[] row : rows) {
             String bomCode = getField(row, 0);
@@ -1799,8 +1889,8 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importProductionOrders(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importProductionOrders(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: order_number,bom_code,quantity,order_date,planned_completion_date,actual_completion_date,
         //              status,total_cost,unit_cost,notes
         for (String[] row : rows) {
@@ -1822,11 +1912,13 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importInventoryTransactions(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importInventoryTransactions(CsvRowReader csv) {
         // CSV columns: product_code,transaction_date,transaction_type,quantity,unit_cost,total_cost,
         //              balance_after,total_cost_after,unit_price,reference_number,notes
-        for (String[] row : rows) {
+        int count = 0;
+        String[] row;
+        while ((row = csv.nextRow()) != null) {
+            count++;
             InventoryTransaction it = new InventoryTransaction();
             it.setReferenceNumber(getField(row, 9));
             it.setNotes(getField(row, 10));
@@ -1841,13 +1933,13 @@ public class DataImportService {
             setBigDecimalField(row, 7, it::setTotalCostAfter);
             setBigDecimalField(row, 8, it::setUnitPrice);
 
-            inventoryTransactionRepository.save(it);
+            persistBatched(it);
         }
-        return rows.size();
+        return count;
     }
 
-    private int importInventoryBalances(String content) {
-        List<String[]> rows = parseCsv(content);
+    private int importInventoryBalances(CsvRowReader csv) {
+        List<String[]> rows = csv.readAll();
         // CSV columns: product_code,quantity,total_cost,average_cost
         for (String[] row : rows) {
             InventoryBalance ib = new InventoryBalance();
@@ -1877,7 +1969,7 @@ public class DataImportService {
         return rows.size();
     }
 
-    private int importDocumentFiles(Map<String, byte[]> documentFiles) throws IOException {
+    private int importDocumentFiles(Map<String, Path> documentFiles) throws IOException {
         int count = 0;
         Path rootLocation = documentStorageService.getRootLocation();
 
@@ -1885,9 +1977,9 @@ public class DataImportService {
             throw new IllegalStateException("Document storage not initialized");
         }
 
-        for (Map.Entry<String, byte[]> entry : documentFiles.entrySet()) {
+        for (Map.Entry<String, Path> entry : documentFiles.entrySet()) {
             String key = entry.getKey();
-            byte[] content = entry.getValue();
+            Path content = entry.getValue();
 
             String storagePath;
             if (key.startsWith("company_logo:")) {
@@ -1907,7 +1999,7 @@ public class DataImportService {
                 Files.createDirectories(parent);
             }
 
-            Files.write(targetPath, content);
+            Files.copy(content, targetPath, StandardCopyOption.REPLACE_EXISTING);
             count++;
         }
         return count;
@@ -1915,4 +2007,13 @@ public class DataImportService {
 
     // Result record
     public record ImportResult(int totalRecords, int documentCount, long durationMs) {}
+
+    /**
+     * Progress of a running import: rows written to the current file and in total so far.
+     */
+    public record ImportProgress(String file, long fileRows, long totalRows, long elapsedMs, boolean fileCompleted) {
+        public long rowsPerSecond() {
+            return elapsedMs > 0 ? totalRows * 1000 / elapsedMs : totalRows;
+        }
+    }
 }
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -33,10 +34,24 @@ public class DataSubjectService {
     private static final String ERR_EMPLOYEE_NOT_FOUND = "Employee not found: ";
 
     private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
     private final PayrollDetailRepository payrollDetailRepository;
     private final UserRepository userRepository;
     private final SecurityAuditService securityAuditService;
 
+    /**
+     * Find the data subject of a request identified by NIK KTP or NPWP.
+     * Uses the blind indexes, so no other employee's data is decrypted.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Employee> findByIdentityNumber(String nikOrNpwp) {
+        if (nikOrNpwp == null || nikOrNpwp.isBlank()) {
+            return Optional.empty();
+        }
+        return employeeService.findByNikKtp(nikOrNpwp)
+                .or(() -> employeeService.findByNpwp(nikOrNpwp));
+    }
+
     /**
      * Export all personal data for a data subject (employee).
      * Implements GDPR Art. 15 (Right to Access) and Art. 20 (Data Portability).
@@ -0,0 +1,232 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.entity.DepreciationEntry;
+import com.artivisi.accountingfinance.entity.DepreciationEntryStatus;
+import com.artivisi.accountingfinance.entity.FixedAsset;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.entity.JournalTemplateLine;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.entity.TransactionAccountMapping;
+import com.artivisi.accountingfinance.enums.JournalPosition;
+import com.artivisi.accountingfinance.enums.SequenceType;
+import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.repository.DepreciationEntryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Monthly depreciation run for all fixed assets.
+ *
+ * <p>Entries are generated set-based by {@link FixedAssetService#createDepreciationEntries},
+ * then posted in chunks of {@code app.depreciation.chunk-size} entries. Each chunk is one
+ * database transaction: the depreciation template is loaded once, journal lines are built in
+ * memory, and transactions, journal lines and asset updates are written as JDBC batches.
+ * Transaction numbers for the chunk are taken with one gap-free sequence update at the end.
+ *
+ * <p>A failing chunk is rolled back and its entries are posted one by one, so a single
+ * bad asset does not hold back the rest of the run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DepreciationBatchService {
+
+    private final FixedAssetService fixedAssetService;
+    private final DepreciationEntryRepository depreciationEntryRepository;
+    private final JournalTemplateService journalTemplateService;
+    private final FormulaEvaluator formulaEvaluator;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.depreciation.chunk-size:200}")
+    private int chunkSize;
+
+    /**
+     * Generate the entries for a period and post every pending entry up to its end.
+     */
+    public BatchResult run(YearMonth period, String postedBy) {
+        int generated = new TransactionTemplate(transactionManager)
+                .execute(status -> fixedAssetService.createDepreciationEntries(period));
+        BatchResult posted = postPending(period, postedBy);
+        return new BatchResult(generated, posted.postedCount(), posted.errorCount(), posted.chunks());
+    }
+
+    /**
+     * Post all pending depreciation entries with a period end up to the given period,
+     * oldest period first.
+     */
+    public BatchResult postPending(YearMonth period, String postedBy) {
+        List<UUID> pendingIds = depreciationEntryRepository.findPendingIdsUpTo(period.atEndOfMonth());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<ChunkResult> chunks = new ArrayList<>();
+        int postedCount = 0;
+        int errorCount = 0;
+
+        for (int from = 0; from < pendingIds.size(); from += chunkSize) {
+            List<UUID> chunk = pendingIds.subList(from, Math.min(from + chunkSize, pendingIds.size()));
+            long start = System.nanoTime();
+            int posted;
+            int errors = 0;
+            boolean retriedIndividually = false;
+
+            try {
+                posted = transactionTemplate.execute(status -> postChunk(chunk, postedBy));
+            } catch (RuntimeException e) {
+                log.warn("Depreciation chunk {} failed, posting its {} entries one by one: {}",
+                        chunks.size() + 1, chunk.size(), e.getMessage());
+                retriedIndividually = true;
+                posted = 0;
+                for (UUID entryId : chunk) {
+                    if (tryPostDepreciationEntry(entryId, postedBy)) {
+                        posted++;
+                    } else {
+                        errors++;
+                    }
+                }
+            }
+
+            ChunkResult result = new ChunkResult(chunks.size() + 1, chunk.size(), posted, errors,
+                    (System.nanoTime() - start) / 1_000_000, retriedIndividually);
+            chunks.add(result);
+            postedCount += posted;
+            errorCount += errors;
+            log.info("Depreciation chunk {}: {} entries, {} posted, {} errors in {} ms",
+                    result.chunk(), result.size(), result.postedCount(), result.errorCount(), result.millis());
+        }
+
+        return new BatchResult(0, postedCount, errorCount, chunks);
+    }
+
+    private boolean tryPostDepreciationEntry(UUID entryId, String postedBy) {
+        try {
+            fixedAssetService.postDepreciationEntry(entryId, postedBy);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to post depreciation entry {}: {}", entryId, e.getMessage());
+            return false;
+        }
+    }
+
+    private int postChunk(List<UUID> entryIds, String postedBy) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+
+        List<DepreciationEntry> entries = depreciationEntryRepository.findPendingByIdsWithAccounts(entryIds);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        JournalTemplate template = journalTemplateService.findByIdWithLines(FixedAssetService.DEPRECIATION_TEMPLATE_ID);
+        int year = LocalDate.now().getYear();
+        LocalDateTime postedAt = LocalDateTime.now();
+
+        List<Transaction> transactions = new ArrayList<>(entries.size());
+        for (DepreciationEntry entry : entries) {
+            transactions.add(buildTransaction(entry, template, year));
+        }
+
+        // Gap-free numbers last: the sequence row stays locked until the chunk commits
+        List<String> transactionNumbers = sequenceNumberAllocator.next(SequenceType.TRANSACTION, year, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            DepreciationEntry entry = entries.get(i);
+            Transaction transaction = transactions.get(i);
+            transaction.setTransactionNumber(transactionNumbers.get(i));
+            transaction.setStatus(TransactionStatus.POSTED);
+            transaction.setPostedAt(postedAt);
+            transaction.setPostedBy(postedBy);
+            entityManager.persist(transaction);
+
+            entry.setStatus(DepreciationEntryStatus.POSTED);
+            entry.setTransaction(transaction);
+            entry.setPostedAt(postedAt);
+            entry.getFixedAsset().recordDepreciation(entry.getDepreciationAmount(), entry.getPeriodEnd());
+        }
+
+        journalTemplateService.recordUsage(template.getId(), entries.size());
+        return entries.size();
+    }
+
+    private Transaction buildTransaction(DepreciationEntry entry, JournalTemplate template, int year) {
+        FixedAsset asset = entry.getFixedAsset();
+        FormulaContext context = FormulaContext.of(
+                entry.getDepreciationAmount(),
+                Map.of("depreciationAmount", entry.getDepreciationAmount())
+        );
+
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(template);
+        transaction.setTransactionDate(entry.getPeriodEnd());
+        transaction.setAmount(entry.getDepreciationAmount());
+        transaction.setDescription("Penyusutan " + asset.getName() + " - " + entry.getPeriodDisplayName());
+        transaction.setReferenceNumber("DEP-" + asset.getAssetCode() + "-" + entry.getPeriodNumber());
+
+        String journalNumber = sequenceNumberAllocator.next(SequenceType.JOURNAL, year);
+        int lineIndex = 0;
+        BigDecimal totalDebit = BigDecimal.ZERO;
+        BigDecimal totalCredit = BigDecimal.ZERO;
+
+        for (JournalTemplateLine line : template.getLines()) {
+            ChartOfAccount account = FixedAssetService.depreciationAccount(line, asset);
+            if (account != null) {
+                TransactionAccountMapping mapping = new TransactionAccountMapping();
+                mapping.setTemplateLine(line);
+                mapping.setAccount(account);
+                transaction.addAccountMapping(mapping);
+            } else {
+                account = line.getAccount();
+            }
+            BigDecimal amount = formulaEvaluator.evaluate(line.getFormula(), context);
+
+            JournalEntry journalEntry = new JournalEntry();
+            journalEntry.setJournalNumber(journalNumber + "-" + String.format("%02d", ++lineIndex));
+            journalEntry.setAccount(account);
+            if (line.getPosition() == JournalPosition.DEBIT) {
+                journalEntry.setDebitAmount(amount);
+                journalEntry.setCreditAmount(BigDecimal.ZERO);
+                totalDebit = totalDebit.add(amount);
+            } else {
+                journalEntry.setDebitAmount(BigDecimal.ZERO);
+                journalEntry.setCreditAmount(amount);
+                totalCredit = totalCredit.add(amount);
+            }
+            transaction.addJournalEntry(journalEntry);
+        }
+
+        if (totalDebit.compareTo(totalCredit) != 0) {
+            throw new IllegalStateException(
+                    String.format("Journal not balanced: Debit=%s, Credit=%s", totalDebit, totalCredit));
+        }
+        return transaction;
+    }
+
+    public record BatchResult(int generatedCount, int postedCount, int errorCount, List<ChunkResult> chunks) {
+        public boolean hasErrors() {
+            return errorCount > 0;
+        }
+    }
+
+    /**
+     * Outcome and wall time of one posting chunk. {@code retriedIndividually} is set when the
+     * chunk transaction failed and its entries were posted one by one.
+     */
+    public record ChunkResult(int chunk, int size, int postedCount, int errorCount, long millis,
+                              boolean retriedIndividually) {
+    }
+}
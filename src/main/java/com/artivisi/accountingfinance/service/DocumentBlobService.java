@@ -0,0 +1,246 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Document;
+import com.artivisi.accountingfinance.repository.DocumentRepository;
+import com.artivisi.accountingfinance.security.FileEncryptionService;
+import com.artivisi.accountingfinance.security.LogSanitizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintenance of the content-addressed document blob store.
+ *
+ * <p>A blob is referenced by every live document row whose storage path points at it.
+ * Blobs are never deleted when a document is deleted: a concurrent upload of the same
+ * content may be about to reuse them. Garbage collection removes blobs that no live
+ * document references and that have not been written or reused for the grace period.
+ *
+ * <p>Documents stored before content addressing are moved into the blob store in batches:
+ * the file's content is checked against the recorded checksum, linked (or copied) to its
+ * blob path, the rows are repointed, and the old file is removed. A document whose file is
+ * missing or does not match its checksum is marked with {@code blob_migration_failed_at}
+ * and left out of later runs until the mark is cleared.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentBlobService {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentStorageService documentStorageService;
+    private final FileEncryptionService fileEncryptionService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.documents.gc-grace-hours:24}")
+    private long gcGraceHours;
+
+    @Value("${app.storage.documents.migration-batch-size:100}")
+    private int migrationBatchSize;
+
+    /**
+     * Delete blobs (and abandoned upload temp files) that no live document references
+     * and that are older than the grace period.
+     */
+    public GcResult collectGarbage() throws IOException {
+        Path blobRoot = documentStorageService.getRootLocation().resolve(DocumentStorageService.BLOB_DIRECTORY);
+        if (!Files.isDirectory(blobRoot)) {
+            return new GcResult(0, 0, 0);
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gcGraceHours));
+        int scanned = 0;
+        int deleted = 0;
+        long freedBytes = 0;
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(blobRoot)) {
+            for (Path entry : entries) {
+                if (!Files.isDirectory(entry)) {
+                    // Temp files of uploads that never completed
+                    if (isFileName(entry, DocumentStorageService.TEMP_FILE_PREFIX) && isOlderThan(entry, cutoff)) {
+                        freedBytes += deleteFile(entry);
+                    }
+                    continue;
+                }
+                String shardPrefix = DocumentStorageService.BLOB_DIRECTORY + "/" + entry.getFileName() + "/";
+                Set<String> referenced = documentRepository.findStoragePathsStartingWith(shardPrefix);
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(entry)) {
+                    for (Path blob : blobs) {
+                        scanned++;
+                        // Age is checked last, right before deleting, to narrow the window for a reuse
+                        if (!referenced.contains(shardPrefix + blob.getFileName()) && isOlderThan(blob, cutoff)) {
+                            freedBytes += deleteFile(blob);
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        }
+
+        log.info("Document blob GC: {} blobs scanned, {} deleted, {} KB freed", scanned, deleted, freedBytes / 1024);
+        return new GcResult(scanned, deleted, freedBytes);
+    }
+
+    /**
+     * Move up to one batch of documents stored before content addressing into the blob
+     * store, continuing after {@code after} (null to start from the beginning).
+     */
+    public MigrationBatch migrateBatch(UUID after) {
+        List<Document> documents = documentRepository.findNotContentAddressedAfter(
+                after != null ? after : new UUID(0L, 0L), Limit.of(migrationBatchSize));
+        int migrated = 0;
+        int skipped = 0;
+        for (Document document : documents) {
+            if (migrate(document)) {
+                migrated++;
+            } else {
+                skipped++;
+            }
+        }
+        UUID last = documents.isEmpty() ? after : documents.getLast().getId();
+        return new MigrationBatch(migrated, skipped, last, documents.size() < migrationBatchSize);
+    }
+
+    /**
+     * Move every document stored before content addressing into the blob store.
+     */
+    public MigrationBatch migrateAll() {
+        int migrated = 0;
+        int skipped = 0;
+        MigrationBatch batch;
+        UUID after = null;
+        do {
+            batch = migrateBatch(after);
+            migrated += batch.migrated();
+            skipped += batch.skipped();
+            after = batch.lastId();
+        } while (!batch.completed());
+
+        if (migrated > 0 || skipped > 0) {
+            log.info("Document blob migration: {} documents moved, {} skipped", migrated, skipped);
+        }
+        return new MigrationBatch(migrated, skipped, after, true);
+    }
+
+    private boolean migrate(Document document) {
+        String legacyPath = document.getStoragePath();
+        String checksum = document.getChecksumSha256();
+        try {
+            Path legacyFile = documentStorageService.getRootLocation().resolve(legacyPath).normalize();
+            if (!legacyFile.startsWith(documentStorageService.getRootLocation()) || !Files.isRegularFile(legacyFile)) {
+                log.warn("Document {} file missing, not migrated: {}", document.getId(), LogSanitizer.sanitize(legacyPath));
+                markFailed(document);
+                return false;
+            }
+            String blobPath = DocumentStorageService.blobPath(checksum);
+            if (!checksum.equals(contentChecksum(legacyFile))) {
+                log.warn("Document {} content does not match its checksum, not migrated", document.getId());
+                markFailed(document);
+                return false;
+            }
+
+            Path blobFile = documentStorageService.getRootLocation().resolve(blobPath);
+            linkOrCopy(legacyFile, blobFile);
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    documentRepository.moveStoragePath(legacyPath, blobPath, checksum));
+            Files.deleteIfExists(legacyFile);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to migrate document {}: {}", document.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void markFailed(Document document) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                documentRepository.markBlobMigrationFailed(document.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Make the existing encrypted file available at its blob path without re-encrypting:
+     * a hard link when the file system supports it, otherwise a copy moved into place.
+     */
+    private static void linkOrCopy(Path legacyFile, Path blobFile) throws IOException {
+        Files.createDirectories(blobFile.getParent());
+        if (Files.exists(blobFile)) {
+            Files.setLastModifiedTime(blobFile, FileTime.from(Instant.now()));
+            return;
+        }
+        try {
+            Files.createLink(blobFile, legacyFile);
+            Files.setLastModifiedTime(blobFile, FileTime.from(Instant.now()));
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently with the same content
+            Files.setLastModifiedTime(blobFile, FileTime.from(Instant.now()));
+        } catch (UnsupportedOperationException | IOException e) {
+            Path temp = Files.createTempFile(blobFile.getParent(), DocumentStorageService.TEMP_FILE_PREFIX, ".tmp");
+            try {
+                Files.copy(legacyFile, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, blobFile, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private String contentChecksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+        try (InputStream in = fileEncryptionService.openDecryptingStream(file);
+             OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean isFileName(Path path, String prefix) {
+        Path name = path.getFileName();
+        return name != null && name.toString().startsWith(prefix);
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+    }
+
+    private static long deleteFile(Path path) throws IOException {
+        long size = Files.size(path);
+        return Files.deleteIfExists(path) ? size : 0;
+    }
+
+    public record GcResult(int scanned, int deleted, long freedBytes) {
+    }
+
+    /**
+     * Outcome of a migration run; {@code lastId} is where the next batch continues.
+     */
+    public record MigrationBatch(int migrated, int skipped, UUID lastId, boolean completed) {
+    }
+}
@@ -103,13 +103,17 @@ public class DocumentService {
     public void delete(UUID id) throws IOException {
         Document document = findById(id);
 
-        // Delete file from storage
-        storageService.delete(document.getStoragePath());
-
         // Soft delete the record
         document.softDelete();
         documentRepository.save(document);
 
+        // Shared blobs are removed by DocumentBlobService once no document references them;
+        // files stored before content addressing belong to this document alone
+        String storagePath = document.getStoragePath();
+        if (!DocumentStorageService.isBlobPath(storagePath) && documentRepository.countByStoragePath(storagePath) == 0) {
+            storageService.delete(storagePath);
+        }
+
         log.info("Deleted document {}", LogSanitizer.sanitize(id.toString()));
     }
 
@@ -119,19 +123,17 @@ public class DocumentService {
     }
 
     private Document createDocument(MultipartFile file, String uploadedBy) throws IOException {
-        // Validate and store file
-        storageService.validateFile(file);
-        String storagePath = storageService.store(file);
-        String checksum = storageService.calculateChecksum(file);
+        // Validate, hash and store the file in one pass over the upload; identical content shares a blob
+        DocumentStorageService.StoredFile stored = storageService.storeDocument(file);
 
         // Create document record
         Document document = new Document();
-        document.setFilename(storagePath.substring(storagePath.lastIndexOf('/') + 1));
+        document.setFilename(stored.filename());
         document.setOriginalFilename(file.getOriginalFilename());
         document.setContentType(file.getContentType());
-        document.setFileSize(file.getSize());
-        document.setStoragePath(storagePath);
-        document.setChecksumSha256(checksum);
+        document.setFileSize(stored.size());
+        document.setStoragePath(stored.storagePath());
+        document.setChecksumSha256(stored.checksumSha256());
         document.setUploadedBy(uploadedBy);
 
         return document;
@@ -139,16 +141,15 @@ public class DocumentService {
 
     @Transactional
     public Document saveFromBytes(byte[] bytes, String filename, String contentType, String uploadedBy) throws IOException {
-        String storagePath = storageService.storeFromBytes(bytes, filename, contentType);
-        String checksum = storageService.calculateChecksumFromBytes(bytes);
+        DocumentStorageService.StoredFile stored = storageService.storeDocument(bytes, filename, contentType);
 
         Document document = new Document();
-        document.setFilename(storagePath.substring(storagePath.lastIndexOf('/') + 1));
+        document.setFilename(stored.filename());
         document.setOriginalFilename(filename);
         document.setContentType(contentType);
-        document.setFileSize((long) bytes.length);
-        document.setStoragePath(storagePath);
-        document.setChecksumSha256(checksum);
+        document.setFileSize(stored.size());
+        document.setStoragePath(stored.storagePath());
+        document.setChecksumSha256(stored.checksumSha256());
         document.setUploadedBy(uploadedBy);
 
         Document saved = documentRepository.save(document);
@@ -8,26 +8,41 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DocumentStorageService {
 
+    static final String BLOB_DIRECTORY = "blobs";
+    static final String TEMP_FILE_PREFIX = ".upload-";
+    private static final Pattern CHECKSUM_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
     private final FileValidationService fileValidationService;
     private final FileEncryptionService fileEncryptionService;
 
@@ -64,47 +79,165 @@ public class DocumentStorageService {
     }
 
     /**
-     * Store a file and return the storage path relative to root.
-     * Files are encrypted before saving if encryption is enabled.
+     * Store a file under a new random path and return its storage path relative to root,
+     * checksum and size. Used for files owned by a single record, e.g. the company logo.
+     * The upload stream is read once: validated, hashed and encrypted in a single pass.
      */
-    public String store(MultipartFile file) throws IOException {
-        validateFile(file);
+    public StoredFile store(MultipartFile file) throws IOException {
+        validateMetadata(file);
 
-        String originalFilename = file.getOriginalFilename();
-        String extension = getExtension(originalFilename);
-        String storedFilename = UUID.randomUUID().toString() + extension;
+        String extension = getExtension(file.getOriginalFilename());
 
         // Organize by year/month
         LocalDate today = LocalDate.now();
         String subPath = String.format("%d/%02d", today.getYear(), today.getMonthValue());
-        Path targetDirectory = rootLocation.resolve(subPath);
-        Files.createDirectories(targetDirectory);
+        String relativePath = subPath + "/" + UUID.randomUUID() + extension;
+        Path targetPath = resolveWithinRoot(relativePath);
+        Files.createDirectories(targetPath.getParent());
 
-        Path targetPath = targetDirectory.resolve(storedFilename).normalize();
+        UploadedContent content;
+        try (InputStream in = file.getInputStream()) {
+            content = writeTemp(in, file.getContentType(), targetPath.getParent());
+        }
+        moveIntoPlace(content.tempPath(), targetPath);
 
-        // Prevent path traversal attacks
-        if (!targetPath.startsWith(rootLocation)) {
-            throw new SecurityException("Access denied: path traversal attempt detected");
+        logStored(file.getOriginalFilename(), targetPath, false);
+        return new StoredFile(relativePath, content.checksum(), content.size(), false);
+    }
+
+    /**
+     * Store a document in the content-addressed blob store. The blob path is derived from
+     * the SHA-256 checksum of the content, so identical uploads share one encrypted blob;
+     * the documents rows pointing at a blob are its references.
+     */
+    public StoredFile storeDocument(MultipartFile file) throws IOException {
+        validateMetadata(file);
+
+        try (InputStream in = file.getInputStream()) {
+            return storeBlob(in, file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    /**
+     * Store document content from a byte array in the content-addressed blob store.
+     */
+    public StoredFile storeDocument(byte[] bytes, String filename, String contentType) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("File content is empty");
+        }
+
+        if (bytes.length > maxFileSize) {
+            throw new IllegalArgumentException(
+                    String.format("File size %d exceeds maximum allowed size %d bytes",
+                            bytes.length, maxFileSize));
+        }
+
+        if (contentType == null || !allowedContentTypes.contains(contentType)) {
+            throw new IllegalArgumentException(
+                    String.format("File type '%s' is not allowed. Allowed types: %s",
+                            contentType, allowedTypes));
+        }
+
+        return storeBlob(new ByteArrayInputStream(bytes), filename, contentType);
+    }
+
+    private StoredFile storeBlob(InputStream source, String originalFilename, String contentType) throws IOException {
+        Path blobDirectory = rootLocation.resolve(BLOB_DIRECTORY);
+        Files.createDirectories(blobDirectory);
+
+        // The checksum, and so the target, is only known once the content has been read
+        UploadedContent content = writeTemp(source, contentType, blobDirectory);
+        String relativePath = blobPath(content.checksum());
+        Path targetPath = resolveWithinRoot(relativePath);
+
+        if (Files.exists(targetPath)) {
+            // Same content already stored; refresh its age so garbage collection keeps it
+            Files.deleteIfExists(content.tempPath());
+            Files.setLastModifiedTime(targetPath, FileTime.from(Instant.now()));
+            log.debug("Deduplicated upload {} -> {}", LogSanitizer.filename(originalFilename), relativePath);
+            return new StoredFile(relativePath, content.checksum(), content.size(), true);
+        }
+
+        Files.createDirectories(targetPath.getParent());
+        moveIntoPlace(content.tempPath(), targetPath);
+        logStored(originalFilename, targetPath, true);
+        return new StoredFile(relativePath, content.checksum(), content.size(), false);
+    }
+
+    /**
+     * Single-pass upload pipeline. Magic bytes are checked on the first block, then the
+     * same stream is hashed and encrypted into a temp file in {@code directory}, on the same
+     * file system as the target so it can be moved into place atomically.
+     */
+    private UploadedContent writeTemp(InputStream source, String contentType, Path directory) throws IOException {
+        byte[] head = source.readNBytes(FileValidationService.MAX_HEADER_BYTES);
+        if (!fileValidationService.validateMagicBytes(head, contentType)) {
+            throw new IllegalArgumentException(
+                    "File content does not match declared type. Possible content-type spoofing detected.");
+        }
+
+        MessageDigest digest = sha256();
+        SizeLimitedInputStream in = new SizeLimitedInputStream(
+                new DigestInputStream(new SequenceInputStream(new ByteArrayInputStream(head), source), digest),
+                maxFileSize);
+        Path tempPath = Files.createTempFile(directory, TEMP_FILE_PREFIX, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempPath)) {
+                fileEncryptionService.encrypt(in, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
         }
+        return new UploadedContent(tempPath, bytesToHex(digest.digest()), in.getCount());
+    }
 
-        // Read file content and encrypt before saving
-        byte[] fileContent = file.getBytes();
-        byte[] contentToStore = fileEncryptionService.encrypt(fileContent);
-        Files.write(targetPath, contentToStore);
+    private static void moveIntoPlace(Path tempPath, Path targetPath) throws IOException {
+        try {
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
 
+    private void logStored(String originalFilename, Path targetPath, boolean blob) {
         if (fileEncryptionService.isEncryptionEnabled()) {
-            log.debug("Stored encrypted file: {} -> {}", LogSanitizer.filename(originalFilename), LogSanitizer.sanitize(targetPath.toString()));
+            log.debug("Stored encrypted {}: {} -> {}", blob ? "blob" : "file", LogSanitizer.filename(originalFilename), LogSanitizer.sanitize(targetPath.toString()));
         } else {
-            log.debug("Stored file (unencrypted): {} -> {}", LogSanitizer.filename(originalFilename), LogSanitizer.sanitize(targetPath.toString()));
+            log.debug("Stored {} (unencrypted): {} -> {}", blob ? "blob" : "file", LogSanitizer.filename(originalFilename), LogSanitizer.sanitize(targetPath.toString()));
+        }
+    }
+
+    /**
+     * Storage path of the blob holding content with the given SHA-256 checksum,
+     * sharded by its first two hex digits: {@code blobs/ab/ab12...}.
+     */
+    public static String blobPath(String checksum) {
+        if (checksum == null || !CHECKSUM_PATTERN.matcher(checksum).matches()) {
+            throw new IllegalArgumentException("Invalid SHA-256 checksum: " + checksum);
         }
+        return BLOB_DIRECTORY + "/" + checksum.substring(0, 2) + "/" + checksum;
+    }
 
-        // Return relative path from root
-        return subPath + "/" + storedFilename;
+    public static boolean isBlobPath(String relativePath) {
+        return relativePath != null && relativePath.startsWith(BLOB_DIRECTORY + "/");
+    }
+
+    private Path resolveWithinRoot(String relativePath) {
+        Path path = rootLocation.resolve(relativePath).normalize();
+
+        // Prevent path traversal attacks
+        if (!path.startsWith(rootLocation)) {
+            throw new SecurityException("Access denied: path traversal attempt detected");
+        }
+        return path;
     }
 
     /**
      * Load a file as Resource.
-     * Files are decrypted if they were encrypted.
+     * Encrypted files are decrypted while the resource is read, one segment at a time,
+     * and skipping ahead decrypts only the segments a byte range covers.
      */
     public Resource loadAsResource(String relativePath) {
         try {
@@ -119,23 +252,14 @@ public class DocumentStorageService {
                 throw new IllegalStateException("Could not read file: " + relativePath);
             }
 
-            // Read encrypted content and decrypt
-            byte[] encryptedContent = Files.readAllBytes(filePath);
-            byte[] decryptedContent = fileEncryptionService.decrypt(encryptedContent);
-
-            // Return as ByteArrayResource
-            return new ByteArrayResource(decryptedContent) {
-                @Override
-                public String getFilename() {
-                    Path fileName = filePath.getFileName();
-                    if (fileName == null) {
-                        throw new IllegalStateException("Cannot get filename from path: " + filePath);
-                    }
-                    return fileName.toString();
-                }
-            };
+            // Fail before the response is committed rather than while streaming it
+            if (!fileEncryptionService.isEncryptionEnabled() && fileEncryptionService.isEncryptedFile(filePath)) {
+                throw new IllegalStateException("Cannot decrypt file: encryption key not configured");
+            }
+
+            return new DecryptingFileResource(filePath, fileEncryptionService.plaintextSize(filePath));
         } catch (IOException e) {
-            throw new java.io.UncheckedIOException("Could not read file: " + relativePath, e);
+            throw new UncheckedIOException("Could not read file: " + relativePath, e);
         }
     }
 
@@ -155,22 +279,9 @@ public class DocumentStorageService {
     }
 
     /**
-     * Calculate SHA-256 checksum of a file.
+     * Validate size, declared type and name of a file. Content is checked while storing.
      */
-    public String calculateChecksum(MultipartFile file) throws IOException {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(file.getBytes());
-            return bytesToHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
-        }
-    }
-
-    /**
-     * Validate file before storage.
-     */
-    public void validateFile(MultipartFile file) {
+    private void validateMetadata(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
@@ -192,16 +303,6 @@ public class DocumentStorageService {
         if (filename == null || filename.contains("..")) {
             throw new IllegalArgumentException("Invalid filename: " + filename);
         }
-
-        // Magic byte validation to prevent content-type spoofing
-        try {
-            if (!fileValidationService.validateMagicBytes(file, contentType)) {
-                throw new IllegalArgumentException(
-                        "File content does not match declared type. Possible content-type spoofing detected.");
-            }
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Could not validate file content: " + e.getMessage());
-        }
     }
 
     /**
@@ -256,70 +357,9 @@ public class DocumentStorageService {
         return rootLocation;
     }
 
-    /**
-     * Store file from byte array.
-     * Files are encrypted before saving if encryption is enabled.
-     */
-    public String storeFromBytes(byte[] bytes, String filename, String contentType) throws IOException {
-        if (bytes == null || bytes.length == 0) {
-            throw new IllegalArgumentException("File content is empty");
-        }
-
-        if (bytes.length > maxFileSize) {
-            throw new IllegalArgumentException(
-                    String.format("File size %d exceeds maximum allowed size %d bytes",
-                            bytes.length, maxFileSize));
-        }
-
-        if (contentType == null || !allowedContentTypes.contains(contentType)) {
-            throw new IllegalArgumentException(
-                    String.format("File type '%s' is not allowed. Allowed types: %s",
-                            contentType, allowedTypes));
-        }
-
-        // Magic byte validation to prevent content-type spoofing
-        if (!fileValidationService.validateMagicBytes(bytes, contentType)) {
-            throw new IllegalArgumentException(
-                    "File content does not match declared type. Possible content-type spoofing detected.");
-        }
-
-        String extension = getExtension(filename);
-        String storedFilename = UUID.randomUUID().toString() + extension;
-
-        // Organize by year/month
-        LocalDate today = LocalDate.now();
-        String subPath = String.format("%d/%02d", today.getYear(), today.getMonthValue());
-        Path targetDirectory = rootLocation.resolve(subPath);
-        Files.createDirectories(targetDirectory);
-
-        Path targetPath = targetDirectory.resolve(storedFilename).normalize();
-
-        // Prevent path traversal attacks
-        if (!targetPath.startsWith(rootLocation)) {
-            throw new SecurityException("Access denied: path traversal attempt detected");
-        }
-
-        // Encrypt before saving
-        byte[] contentToStore = fileEncryptionService.encrypt(bytes);
-        Files.write(targetPath, contentToStore);
-
-        if (fileEncryptionService.isEncryptionEnabled()) {
-            log.debug("Stored encrypted file from bytes: {} -> {}", LogSanitizer.filename(filename), targetPath);
-        } else {
-            log.debug("Stored file from bytes (unencrypted): {} -> {}", LogSanitizer.filename(filename), targetPath);
-        }
-
-        return subPath + "/" + storedFilename;
-    }
-
-    /**
-     * Calculate SHA-256 checksum from byte array.
-     */
-    public String calculateChecksumFromBytes(byte[] bytes) {
+    private static MessageDigest sha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(bytes);
-            return bytesToHex(hash);
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
@@ -351,7 +391,123 @@ public class DocumentStorageService {
      * Check if the file at the given path is encrypted.
      */
     public boolean isFileEncrypted(String relativePath) throws IOException {
-        byte[] rawContent = loadRawContent(relativePath);
-        return fileEncryptionService.isEncrypted(rawContent);
+        Path filePath = rootLocation.resolve(relativePath).normalize();
+
+        // Prevent path traversal attacks
+        if (!filePath.startsWith(rootLocation)) {
+            throw new SecurityException("Access denied: path traversal attempt detected");
+        }
+
+        return fileEncryptionService.isEncryptedFile(filePath);
+    }
+
+    /**
+     * Storage path relative to root, SHA-256 checksum and size of the original content of a stored file.
+     * {@code deduplicated} is set when the content was already stored and the existing blob is reused.
+     */
+    public record StoredFile(String storagePath, String checksumSha256, long size, boolean deduplicated) {
+
+        public String filename() {
+            return storagePath.substring(storagePath.lastIndexOf('/') + 1);
+        }
+    }
+
+    private record UploadedContent(Path tempPath, String checksum, long size) {
+    }
+
+    /**
+     * Counts the bytes read and rejects content larger than the configured maximum.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long count;
+
+        private SizeLimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            throw new UnsupportedOperationException("Upload content must be read, not skipped");
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > maxSize) {
+                throw new IllegalArgumentException(
+                        String.format("File size exceeds maximum allowed size %d bytes", maxSize));
+            }
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Stored file whose content is decrypted as it is read. The length is known up front,
+     * so Spring MVC can answer Range requests by skipping into the stream.
+     */
+    private final class DecryptingFileResource extends AbstractResource {
+        private final Path filePath;
+        private final long contentLength;
+
+        private DecryptingFileResource(Path filePath, long contentLength) {
+            this.filePath = filePath;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return fileEncryptionService.openDecryptingStream(filePath);
+        }
+
+        @Override
+        public boolean exists() {
+            return Files.exists(filePath);
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return Files.getLastModifiedTime(filePath).toMillis();
+        }
+
+        @Override
+        public String getFilename() {
+            Path fileName = filePath.getFileName();
+            if (fileName == null) {
+                throw new IllegalStateException("Cannot get filename from path: " + filePath);
+            }
+            return fileName.toString();
+        }
+
+        @Override
+        public String getDescription() {
+            return "Stored document [" + filePath + "]";
+        }
     }
 }
@@ -7,6 +7,7 @@ import com.artivisi.accountingfinance.entity.MerchantMapping;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
 import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import com.artivisi.accountingfinance.service.telegram.ReceiptPipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,22 +31,28 @@ public class DraftTransactionService {
 
     private final DraftTransactionRepository draftRepository;
     private final MerchantMappingRepository merchantMappingRepository;
+    private final MerchantMatcherIndex merchantMatcherIndex;
     private final Optional<VisionOcrService> visionOcrService;
     private final ReceiptParserService receiptParserService;
     private final TransactionService transactionService;
+    private final ReceiptPipelineMetrics metrics;
 
     @Autowired
     public DraftTransactionService(
             DraftTransactionRepository draftRepository,
             MerchantMappingRepository merchantMappingRepository,
+            MerchantMatcherIndex merchantMatcherIndex,
             Optional<VisionOcrService> visionOcrService,
             ReceiptParserService receiptParserService,
-            TransactionService transactionService) {
+            TransactionService transactionService,
+            ReceiptPipelineMetrics metrics) {
         this.draftRepository = draftRepository;
         this.merchantMappingRepository = merchantMappingRepository;
+        this.merchantMatcherIndex = merchantMatcherIndex;
         this.visionOcrService = visionOcrService;
         this.receiptParserService = receiptParserService;
         this.transactionService = transactionService;
+        this.metrics = metrics;
     }
 
     public DraftTransaction processReceiptImage(byte[] imageBytes, Document document,
@@ -56,14 +63,18 @@ public class DraftTransactionService {
             log.error("VisionOcrService is not available");
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, "OCR service is not configured");
         }
+        long ocrStart = System.nanoTime();
         VisionOcrService.OcrResult ocrResult = visionOcrService.get().extractText(imageBytes);
+        metrics.recordSince(ReceiptPipelineMetrics.Stage.OCR, ocrStart);
         if (!ocrResult.success()) {
             log.error("OCR failed: {}", ocrResult.errorMessage());
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, ocrResult.errorMessage());
         }
 
         // 2. Parse receipt
+        long parseStart = System.nanoTime();
         ReceiptParserService.ParsedReceipt parsed = receiptParserService.parse(ocrResult.text());
+        metrics.recordSince(ReceiptPipelineMetrics.Stage.PARSE, parseStart);
         if (parsed == null) {
             log.warn("Receipt parsing returned null for OCR text");
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, "Failed to parse receipt");
@@ -125,27 +136,19 @@ public class DraftTransactionService {
             return null;
         }
 
-        // Try exact match first
-        List<MerchantMapping> exactMatches = merchantMappingRepository.findExactMatches(merchantName);
-        if (!exactMatches.isEmpty()) {
-            return exactMatches.getFirst();
+        Optional<UUID> match = merchantMatcherIndex.findMatch(merchantName);
+        if (match.isEmpty()) {
+            return null;
         }
-
-        // Try contains match
-        List<MerchantMapping> containsMatches = merchantMappingRepository.findContainsMatches(merchantName);
-        if (!containsMatches.isEmpty()) {
-            return containsMatches.getFirst();
+        Optional<MerchantMapping> mapping = merchantMappingRepository.findById(match.get());
+        if (mapping.isEmpty()) {
+            // Deleted without going through JPA, e.g. truncated by a data import
+            merchantMatcherIndex.invalidate();
+            return merchantMatcherIndex.findMatch(merchantName)
+                    .flatMap(merchantMappingRepository::findById)
+                    .orElse(null);
         }
-
-        // Try regex matches
-        List<MerchantMapping> regexMappings = merchantMappingRepository.findByMatchType(MerchantMapping.MatchType.REGEX);
-        for (MerchantMapping mapping : regexMappings) {
-            if (mapping.matches(merchantName)) {
-                return mapping;
-            }
-        }
-
-        return null;
+        return mapping.get();
     }
 
     public DraftTransaction findById(UUID id) {
@@ -3,6 +3,7 @@ package com.artivisi.accountingfinance.service;
 import com.artivisi.accountingfinance.entity.Employee;
 import com.artivisi.accountingfinance.entity.EmploymentStatus;
 import com.artivisi.accountingfinance.repository.EmployeeRepository;
+import com.artivisi.accountingfinance.security.BlindIndexService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,7 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +22,7 @@ import java.util.UUID;
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final BlindIndexService blindIndexService;
 
     public Employee findById(UUID id) {
         return employeeRepository.findById(id)
@@ -49,6 +53,45 @@ public class EmployeeService {
         return employeeRepository.findByEmploymentStatus(status);
     }
 
+    /**
+     * Find an employee by NPWP through its blind index, ignoring separators.
+     */
+    public Optional<Employee> findByNpwp(String npwp) {
+        return findByBlindIndex(npwp, employeeRepository::findByNpwpBlindIndex, Employee::getNpwp)
+                .stream().findFirst();
+    }
+
+    /**
+     * Find an employee by NIK KTP through its blind index.
+     */
+    public Optional<Employee> findByNikKtp(String nikKtp) {
+        return findByBlindIndex(nikKtp, employeeRepository::findByNikKtpBlindIndex, Employee::getNikKtp)
+                .stream().findFirst();
+    }
+
+    /**
+     * Find the employees paid to a bank account number through its blind index,
+     * e.g. to match the lines of a bank transfer file.
+     */
+    public List<Employee> findByBankAccountNumber(String bankAccountNumber) {
+        return findByBlindIndex(bankAccountNumber, employeeRepository::findByBankAccountNumberBlindIndex,
+                Employee::getBankAccountNumber);
+    }
+
+    /**
+     * Blind-index hits whose decrypted value matches; the truncated index allows rare collisions.
+     */
+    private List<Employee> findByBlindIndex(String value, Function<String, List<Employee>> query,
+                                            Function<Employee, String> field) {
+        String index = blindIndexService.compute(value);
+        if (index == null) {
+            return List.of();
+        }
+        return query.apply(index).stream()
+                .filter(employee -> BlindIndexService.matches(value, field.apply(employee)))
+                .toList();
+    }
+
     @Transactional
     public Employee create(Employee employee) {
         validateNewEmployee(employee);
@@ -134,10 +177,11 @@ public class EmployeeService {
 
         // Check for duplicate NPWP
         if (excludeId != null) {
-            employeeRepository.findByNpwpExcludingId(npwp, excludeId).ifPresent(e -> {
-                throw new IllegalArgumentException("NPWP sudah digunakan oleh karyawan lain: " + e.getName());
-            });
-        } else if (employeeRepository.existsByNpwp(npwp)) {
+            findByBlindIndex(npwp, index -> employeeRepository.findByNpwpBlindIndexExcludingId(index, excludeId),
+                    Employee::getNpwp).stream().findFirst().ifPresent(e -> {
+                        throw new IllegalArgumentException("NPWP sudah digunakan oleh karyawan lain: " + e.getName());
+                    });
+        } else if (findByNpwp(npwp).isPresent()) {
             throw new IllegalArgumentException("NPWP sudah digunakan oleh karyawan lain");
         }
     }
@@ -0,0 +1,313 @@
+package com.artivisi.accountingfinance.service;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Streaming writer for Excel exports.
+ *
+ * <p>Backed by an {@link SXSSFWorkbook}: only the last {@link #ROW_WINDOW} rows of a sheet
+ * are kept in memory, older rows go to a compressed temporary file, and {@link #write}
+ * streams the workbook to the output. Memory use therefore does not grow with the number
+ * of rows, but rows must be written top to bottom.
+ *
+ * <p>The report cell styles are created once per workbook. Column widths are estimated
+ * from the length of the values written through this class, since measuring every cell
+ * like {@code autoSizeColumn} would cost more than writing it.
+ */
+final class ExcelWriter implements Closeable {
+
+    static final int ROW_WINDOW = 100;
+
+    private static final String NUMBER_FORMAT = "#,##0";
+    private static final String DATE_FORMAT = "dd/MM/yyyy";
+    private static final int MAX_COLUMN_CHARS = 255;
+    private static final int PADDING_CHARS = 2;
+
+    /**
+     * Cell styles shared by the report exports.
+     */
+    enum Style {
+        /** Bold 14pt, centred: company and report name. */
+        TITLE,
+        /** Centred: report period. */
+        SUBTITLE,
+        /** Bold on grey with borders, centred: column headers. */
+        HEADER,
+        /** Bold on grey: section rows. */
+        SECTION,
+        /** Bordered text. */
+        TEXT,
+        /** Bordered, right-aligned {@code #,##0}. */
+        NUMBER,
+        /** Bold on grey with borders, {@code #,##0}: total rows. */
+        TOTAL,
+        /** Bordered {@code dd/MM/yyyy}. */
+        DATE,
+        /** Bordered, right-aligned {@code 0.00%}. */
+        PERCENT
+    }
+
+    private final SXSSFWorkbook workbook;
+    private final Map<Style, CellStyle> styles = new EnumMap<>(Style.class);
+    private SXSSFSheet sheet;
+    private int[] widths;
+    private int rowNum;
+
+    ExcelWriter() {
+        workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+    }
+
+    /**
+     * Start a new sheet; following rows go to it.
+     */
+    void sheet(String name) {
+        finishSheet();
+        sheet = workbook.createSheet(name);
+        widths = new int[16];
+        rowNum = 0;
+    }
+
+    /**
+     * Next row of the current sheet.
+     */
+    Row row() {
+        return sheet.createRow(rowNum++);
+    }
+
+    void skipRows(int rows) {
+        rowNum += rows;
+    }
+
+    /**
+     * Company, report name and period rows merged across {@code columns}, then an empty row.
+     */
+    void reportHeader(String company, String title, String period, int columns) {
+        mergedRow(company, Style.TITLE, columns);
+        mergedRow(title, Style.TITLE, columns);
+        mergedRow(period, Style.SUBTITLE, columns);
+        rowNum++;
+    }
+
+    private void mergedRow(String value, Style style, int columns) {
+        Row row = row();
+        Cell cell = row.createCell(0);
+        cell.setCellValue(value);
+        cell.setCellStyle(style(style));
+        // Merged cells are not counted for column width, as with autoSizeColumn
+        sheet.addMergedRegion(new CellRangeAddress(row.getRowNum(), row.getRowNum(), 0, columns - 1));
+    }
+
+    /**
+     * A row of column headers in {@link Style#HEADER}.
+     */
+    void headerRow(String... headers) {
+        Row row = row();
+        for (int i = 0; i < headers.length; i++) {
+            text(row, i, headers[i], Style.HEADER);
+        }
+    }
+
+    Cell text(Row row, int column, String value) {
+        return text(row, column, value, (CellStyle) null);
+    }
+
+    Cell text(Row row, int column, String value, Style style) {
+        return text(row, column, value, style(style));
+    }
+
+    Cell text(Row row, int column, String value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+        fit(column, value != null ? value.length() : 0, style);
+        return cell;
+    }
+
+    /**
+     * Number cell as in the reports: left blank (but styled) when the value is null or zero.
+     */
+    Cell amount(Row row, int column, BigDecimal value, Style style) {
+        Cell cell = row.createCell(column);
+        if (value != null && value.compareTo(BigDecimal.ZERO) != 0) {
+            cell.setCellValue(value.doubleValue());
+            fit(column, numberLength(value.doubleValue()), style(style));
+        }
+        cell.setCellStyle(style(style));
+        return cell;
+    }
+
+    Cell number(Row row, int column, double value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+        fit(column, numberLength(value), style);
+        return cell;
+    }
+
+    Cell date(Row row, int column, LocalDate value, Style style) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value);
+            fit(column, DATE_FORMAT.length(), style(style));
+        }
+        cell.setCellStyle(style(style));
+        return cell;
+    }
+
+    /**
+     * The shared cell style, created on first use.
+     */
+    CellStyle style(Style style) {
+        return styles.computeIfAbsent(style, this::createStyle);
+    }
+
+    /**
+     * A new cell style for formats not in {@link Style}; create it once per workbook.
+     */
+    CellStyle newStyle() {
+        return workbook.createCellStyle();
+    }
+
+    Font newFont() {
+        return workbook.createFont();
+    }
+
+    short dataFormat(String format) {
+        return workbook.createDataFormat().getFormat(format);
+    }
+
+    /**
+     * Write the workbook to {@code out}. The stream is not closed.
+     */
+    void write(OutputStream out) throws IOException {
+        finishSheet();
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Delete the temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void fit(int column, int chars, CellStyle style) {
+        if (column >= widths.length) {
+            widths = Arrays.copyOf(widths, Math.max(column + 1, widths.length * 2));
+        }
+        // Bold text is about one character wider
+        int width = style != null && workbook.getFontAt(style.getFontIndex()).getBold() ? chars + 1 : chars;
+        if (width > widths[column]) {
+            widths[column] = width;
+        }
+    }
+
+    private void finishSheet() {
+        if (sheet == null) {
+            return;
+        }
+        for (int column = 0; column < widths.length; column++) {
+            if (widths[column] > 0) {
+                sheet.setColumnWidth(column, Math.min(widths[column] + PADDING_CHARS, MAX_COLUMN_CHARS) * 256);
+            }
+        }
+        sheet = null;
+    }
+
+    private static int numberLength(double value) {
+        String digits = Long.toString(Math.abs(Math.round(value)));
+        // Grouping separators and sign of #,##0
+        return digits.length() + (digits.length() - 1) / 3 + (value < 0 ? 1 : 0);
+    }
+
+    private CellStyle createStyle(Style style) {
+        CellStyle cellStyle = workbook.createCellStyle();
+        switch (style) {
+            case TITLE -> {
+                Font font = workbook.createFont();
+                font.setBold(true);
+                font.setFontHeightInPoints((short) 14);
+                cellStyle.setFont(font);
+                cellStyle.setAlignment(HorizontalAlignment.CENTER);
+            }
+            case SUBTITLE -> cellStyle.setAlignment(HorizontalAlignment.CENTER);
+            case HEADER -> {
+                cellStyle.setFont(boldFont());
+                grey(cellStyle);
+                borders(cellStyle);
+                cellStyle.setAlignment(HorizontalAlignment.CENTER);
+            }
+            case SECTION -> {
+                cellStyle.setFont(boldFont());
+                grey(cellStyle);
+            }
+            case TEXT -> borders(cellStyle);
+            case NUMBER -> {
+                borders(cellStyle);
+                cellStyle.setAlignment(HorizontalAlignment.RIGHT);
+                cellStyle.setDataFormat(dataFormat(NUMBER_FORMAT));
+            }
+            case TOTAL -> {
+                cellStyle.setFont(boldFont());
+                grey(cellStyle);
+                borders(cellStyle);
+                cellStyle.setDataFormat(dataFormat(NUMBER_FORMAT));
+            }
+            case DATE -> {
+                borders(cellStyle);
+                cellStyle.setDataFormat(dataFormat(DATE_FORMAT));
+            }
+            case PERCENT -> {
+                borders(cellStyle);
+                cellStyle.setAlignment(HorizontalAlignment.RIGHT);
+                cellStyle.setDataFormat(dataFormat("0.00%"));
+            }
+        }
+        return cellStyle;
+    }
+
+    private Font boldFont() {
+        Font font = workbook.createFont();
+        font.setBold(true);
+        return font;
+    }
+
+    private static void grey(CellStyle style) {
+        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+    }
+
+    private static void borders(CellStyle style) {
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.UUID;
 public class FiscalPeriodService {
 
     private final FiscalPeriodRepository fiscalPeriodRepository;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
 
     public FiscalPeriod findById(UUID id) {
         return fiscalPeriodRepository.findById(id)
@@ -68,6 +69,8 @@ public class FiscalPeriodService {
         period.setMonth(month);
         period.setStatus(FiscalPeriodStatus.OPEN);
 
+        // Journal numbering of the year is set up with its periods, not by its first posting
+        sequenceNumberAllocator.prepareYear(year);
         return fiscalPeriodRepository.save(period);
     }
 
@@ -79,6 +82,7 @@ public class FiscalPeriodService {
                     period.setYear(year);
                     period.setMonth(month);
                     period.setStatus(FiscalPeriodStatus.OPEN);
+                    sequenceNumberAllocator.prepareYear(year);
                     return fiscalPeriodRepository.save(period);
                 });
     }
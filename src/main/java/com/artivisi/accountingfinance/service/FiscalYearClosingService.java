@@ -4,13 +4,12 @@ import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Transaction;
-import com.artivisi.accountingfinance.entity.TransactionSequence;
+import com.artivisi.accountingfinance.enums.SequenceType;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
-import com.artivisi.accountingfinance.repository.TransactionSequenceRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,7 +57,7 @@ public class FiscalYearClosingService {
     private final ReportService reportService;
     private final TransactionRepository transactionRepository;
     private final JournalTemplateRepository journalTemplateRepository;
-    private final TransactionSequenceRepository transactionSequenceRepository;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
 
     /**
      * Check if closing entries already exist for a year.
@@ -334,21 +333,7 @@ public class FiscalYearClosingService {
     }
 
     private String generateTransactionNumber(int year) {
-        TransactionSequence sequence = transactionSequenceRepository
-                .findBySequenceTypeAndYearForUpdate("SEQ_TYPE_FISCAL_CLOSING", year)
-                .orElseGet(() -> {
-                    TransactionSequence newSeq = new TransactionSequence();
-                    newSeq.setSequenceType("SEQ_TYPE_FISCAL_CLOSING");
-                    newSeq.setPrefix("FC");
-                    newSeq.setYear(year);
-                    newSeq.setLastNumber(0);
-                    return newSeq;
-                });
-
-        sequence.setLastNumber(sequence.getLastNumber() + 1);
-        transactionSequenceRepository.save(sequence);
-
-        return String.format("FC-%d-%04d", year, sequence.getLastNumber());
+        return sequenceNumberAllocator.next(SequenceType.FISCAL_CLOSING, year);
     }
 
     private String generateJournalNumber(LocalDate date) {
@@ -17,10 +17,13 @@ import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.DepreciationEntryRepository;
 import com.artivisi.accountingfinance.repository.FixedAssetRepository;
 import com.artivisi.accountingfinance.security.LogSanitizer;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,6 +37,7 @@ import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -44,7 +48,7 @@ public class FixedAssetService {
     private static final Logger log = LoggerFactory.getLogger(FixedAssetService.class);
 
     // Template IDs from V004 seed data
-    private static final UUID DEPRECIATION_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000016");
+    static final UUID DEPRECIATION_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000016");
     private static final UUID DISPOSAL_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000017");
 
     private final FixedAssetRepository fixedAssetRepository;
@@ -53,6 +57,10 @@ public class FixedAssetService {
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalTemplateService journalTemplateService;
     private final TransactionService transactionService;
+    private final EntityManager entityManager;
+
+    @Value("${app.depreciation.chunk-size:200}")
+    private int batchSize;
 
     // ============================================
     // Asset CRUD Operations
@@ -239,6 +247,19 @@ public class FixedAssetService {
      */
     @Transactional
     public List<DepreciationEntry> generateDepreciationEntries(YearMonth period) {
+        createDepreciationEntries(period);
+        return depreciationEntryRepository.findAllPendingWithDetails();
+    }
+
+    /**
+     * Create PENDING depreciation entries for every asset that has none for the period.
+     * Existing entries are looked up with one query and the new entries are inserted
+     * in JDBC batches of {@code app.depreciation.chunk-size}.
+     *
+     * @return number of entries created
+     */
+    @Transactional
+    public int createDepreciationEntries(YearMonth period) {
         LocalDate periodStart = period.atDay(1);
         LocalDate periodEnd = period.atEndOfMonth();
 
@@ -246,14 +267,18 @@ public class FixedAssetService {
 
         if (assets.isEmpty()) {
             log.info("No assets need depreciation for period {}", period);
-            return List.of();
+            return 0;
         }
 
         log.info("Generating depreciation for {} assets in period {}", assets.size(), period);
 
+        Set<UUID> assetsWithEntry = depreciationEntryRepository.findAssetIdsByPeriodEnd(periodEnd);
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        LocalDateTime generatedAt = LocalDateTime.now();
+        int created = 0;
+
         for (FixedAsset asset : assets) {
-            // Check if entry already exists for this period
-            if (depreciationEntryRepository.findByAssetIdAndPeriodEnd(asset.getId(), periodEnd).isPresent()) {
+            if (assetsWithEntry.contains(asset.getId())) {
                 log.debug("Depreciation entry already exists for asset {} in period {}",
                         LogSanitizer.sanitize(asset.getAssetCode()), period);
                 continue;
@@ -269,7 +294,6 @@ public class FixedAssetService {
 
             // Only create entry if depreciation amount is positive
             if (depreciationAmount.compareTo(BigDecimal.ZERO) > 0) {
-                // Create depreciation entry
                 DepreciationEntry entry = new DepreciationEntry();
                 entry.setFixedAsset(asset);
                 entry.setPeriodNumber(asset.getDepreciationPeriodsCompleted() + 1);
@@ -279,14 +303,16 @@ public class FixedAssetService {
                 entry.setAccumulatedDepreciation(asset.getAccumulatedDepreciation().add(depreciationAmount));
                 entry.setBookValue(asset.getBookValue().subtract(depreciationAmount));
                 entry.setStatus(DepreciationEntryStatus.PENDING);
-                entry.setGeneratedAt(LocalDateTime.now());
+                entry.setGeneratedAt(generatedAt);
 
-                depreciationEntryRepository.save(entry);
-                log.debug("Generated depreciation entry for asset {}: {}", asset.getAssetCode(), depreciationAmount);
+                entityManager.persist(entry);
+                created++;
             }
         }
 
-        return depreciationEntryRepository.findAllPendingWithDetails();
+        entityManager.flush();
+        log.info("Generated {} depreciation entries for period {}", created, period);
+        return created;
     }
 
     /**
@@ -325,24 +351,10 @@ public class FixedAssetService {
 
         // Create account mappings for dynamic accounts (lines with NULL account and account_hint)
         Map<UUID, UUID> accountMappings = new HashMap<>();
-        // Map template lines with account_hint to asset-specific accounts
         for (JournalTemplateLine line : template.getLines()) {
-            if (line.getAccount() == null && line.getAccountHint() != null) {
-                switch (line.getAccountHint()) {
-                    case "AKUM_PENYUSUTAN":
-                        accountMappings.put(line.getId(), asset.getAccumulatedDepreciationAccount().getId());
-                        break;
-                    case "BEBAN_PENYUSUTAN":
-                        accountMappings.put(line.getId(), asset.getDepreciationExpenseAccount().getId());
-                        break;
-                    case "ASET_TETAP":
-                        accountMappings.put(line.getId(), asset.getAssetAccount().getId());
-                        break;
-                    default:
-                        log.warn("Unrecognized account hint '{}' in depreciation template line {}",
-                                LogSanitizer.sanitize(line.getAccountHint()), line.getId());
-                        break;
-                }
+            ChartOfAccount account = depreciationAccount(line, asset);
+            if (account != null) {
+                accountMappings.put(line.getId(), account.getId());
             }
         }
 
@@ -367,25 +379,23 @@ public class FixedAssetService {
     }
 
     /**
-     * Post all pending depreciation entries for a period.
+     * Asset-specific account for a depreciation template line that has no account but an
+     * account hint, or null if the line uses its own account.
      */
-    @Transactional
-    public int postAllPendingDepreciation(YearMonth period, String postedBy) {
-        LocalDate periodEnd = period.atEndOfMonth();
-
-        List<DepreciationEntry> pendingEntries = depreciationEntryRepository.findAllPending()
-                .stream()
-                .filter(e -> !e.getPeriodEnd().isAfter(periodEnd))
-                .toList();
-
-        int count = 0;
-        for (DepreciationEntry entry : pendingEntries) {
-            doPostDepreciationEntry(entry, postedBy);
-            count++;
+    static ChartOfAccount depreciationAccount(JournalTemplateLine line, FixedAsset asset) {
+        if (line.getAccount() != null || line.getAccountHint() == null) {
+            return null;
         }
-
-        log.info("Posted {} depreciation entries for period up to {}", count, period);
-        return count;
+        return switch (line.getAccountHint()) {
+            case "AKUM_PENYUSUTAN" -> asset.getAccumulatedDepreciationAccount();
+            case "BEBAN_PENYUSUTAN" -> asset.getDepreciationExpenseAccount();
+            case "ASET_TETAP" -> asset.getAssetAccount();
+            default -> {
+                log.warn("Unrecognized account hint '{}' in depreciation template line {}",
+                        LogSanitizer.sanitize(line.getAccountHint()), line.getId());
+                yield null;
+            }
+        };
     }
 
     /**
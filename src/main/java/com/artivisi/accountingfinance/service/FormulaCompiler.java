@@ -0,0 +1,315 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.ExpressionState;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpDivide;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.OpMultiply;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.BinaryOperator;
+import java.util.function.IntPredicate;
+
+/**
+ * Compiles parsed template formulas into trees of {@link BigDecimal} operations.
+ *
+ * <p>Covers the arithmetic, comparison, logical and ternary operators used by journal
+ * templates, with variables read straight from {@link FormulaContext}. Numeric semantics
+ * follow SpEL exactly: an operation involving a {@code BigDecimal} converts the other
+ * operand with {@code new BigDecimal(number.toString())}, and division keeps the larger
+ * operand scale with {@code HALF_EVEN}. Sub-expressions without variables are folded
+ * once by SpEL itself.
+ *
+ * <p>Anything else (method calls, indexers, strings, non-decimal arithmetic on dynamic
+ * values) is not compiled, and the caller keeps using SpEL for that formula.
+ */
+final class FormulaCompiler {
+
+    private static final String VAR_AMOUNT = "amount";
+
+    private FormulaCompiler() {
+    }
+
+    /**
+     * A compiled formula. Returns the raw result before scaling, exactly as SpEL would.
+     * Throws {@link FallbackException} when the input cannot be handled natively
+     * (missing or null variable), in which case the caller evaluates with SpEL.
+     */
+    @FunctionalInterface
+    interface CompiledFormula {
+        Number evaluate(FormulaContext context);
+    }
+
+    /**
+     * Signals that SpEL must evaluate this input so that its error reporting applies.
+     */
+    static final class FallbackException extends RuntimeException {
+
+        private static final FallbackException INSTANCE = new FallbackException();
+
+        private FallbackException() {
+            super("Formula requires SpEL evaluation", null, false, false);
+        }
+    }
+
+    /**
+     * Compile a parsed formula.
+     *
+     * @param expression the parsed SpEL expression
+     * @param evaluationContext context used to fold constant sub-expressions
+     * @return the compiled formula, or null if the formula is not supported
+     */
+    static CompiledFormula compile(Expression expression, EvaluationContext evaluationContext) {
+        if (!(expression instanceof SpelExpression spelExpression)) {
+            return null;
+        }
+
+        Node root = compile(spelExpression.getAST(), evaluationContext);
+        return switch (root) {
+            case Decimal decimal -> decimal.op()::apply;
+            case Numeric numeric -> numeric.op()::apply;
+            case Constant(Number value) -> context -> value;
+            case null, default -> null;
+        };
+    }
+
+    private static Node compile(SpelNode node, EvaluationContext evaluationContext) {
+        if (node instanceof Literal literal) {
+            Object value = literal.getLiteralValue().getValue();
+            return value instanceof Integer || value instanceof Long
+                    || value instanceof Double || value instanceof Boolean
+                    ? new Constant(value) : null;
+        }
+
+        if (node instanceof PropertyOrFieldReference reference) {
+            String name = reference.getName();
+            return new Decimal(context -> variable(context, name));
+        }
+
+        Node[] children = new Node[node.getChildCount()];
+        boolean allConstant = true;
+        for (int i = 0; i < children.length; i++) {
+            children[i] = compile(node.getChild(i), evaluationContext);
+            if (children[i] == null) {
+                return null;
+            }
+            allConstant &= children[i] instanceof Constant;
+        }
+
+        if (allConstant && isSupportedOperator(node)) {
+            return fold(node, evaluationContext);
+        }
+
+        return switch (node) {
+            case OpPlus _ when children.length == 1 -> children[0] instanceof Decimal ? children[0] : null;
+            case OpMinus _ when children.length == 1 -> children[0] instanceof Decimal decimal
+                    ? new Decimal(context -> decimal.op().apply(context).negate()) : null;
+            case OpPlus _ -> arithmetic(children, BigDecimal::add);
+            case OpMinus _ -> arithmetic(children, BigDecimal::subtract);
+            case OpMultiply _ -> arithmetic(children, BigDecimal::multiply);
+            case OpDivide _ -> arithmetic(children, (left, right) ->
+                    left.divide(right, Math.max(left.scale(), right.scale()), RoundingMode.HALF_EVEN));
+            case OpGT _ -> comparison(children, result -> result > 0);
+            case OpGE _ -> comparison(children, result -> result >= 0);
+            case OpLT _ -> comparison(children, result -> result < 0);
+            case OpLE _ -> comparison(children, result -> result <= 0);
+            case OpEQ _ -> comparison(children, result -> result == 0);
+            case OpNE _ -> comparison(children, result -> result != 0);
+            case OpAnd _ -> logical(children, true);
+            case OpOr _ -> logical(children, false);
+            case OperatorNot _ -> not(children[0]);
+            case Ternary _ -> ternary(children);
+            default -> null;
+        };
+    }
+
+    private static boolean isSupportedOperator(SpelNode node) {
+        return node instanceof OpPlus || node instanceof OpMinus || node instanceof OpMultiply
+                || node instanceof OpDivide || node instanceof OpGT || node instanceof OpGE
+                || node instanceof OpLT || node instanceof OpLE || node instanceof OpEQ
+                || node instanceof OpNE || node instanceof OpAnd || node instanceof OpOr
+                || node instanceof OperatorNot || node instanceof Ternary;
+    }
+
+    private static Node fold(SpelNode node, EvaluationContext evaluationContext) {
+        try {
+            Object value = node.getValue(new ExpressionState(evaluationContext));
+            return value instanceof Number || value instanceof Boolean ? new Constant(value) : null;
+        } catch (EvaluationException | ArithmeticException _) {
+            return null;
+        }
+    }
+
+    private static Node arithmetic(Node[] children, BinaryOperator<BigDecimal> operator) {
+        if (!(children[0] instanceof Decimal) && !(children[1] instanceof Decimal)) {
+            return null;
+        }
+        DecimalOp left = decimalOp(children[0]);
+        DecimalOp right = decimalOp(children[1]);
+        if (left == null || right == null) {
+            return null;
+        }
+        return new Decimal(context -> operator.apply(left.apply(context), right.apply(context)));
+    }
+
+    private static Node comparison(Node[] children, IntPredicate test) {
+        if (!(children[0] instanceof Decimal) && !(children[1] instanceof Decimal)) {
+            return null;
+        }
+        DecimalOp left = decimalOp(children[0]);
+        DecimalOp right = decimalOp(children[1]);
+        if (left == null || right == null) {
+            return null;
+        }
+        return new Logical(context -> test.test(left.apply(context).compareTo(right.apply(context))));
+    }
+
+    private static Node logical(Node[] children, boolean and) {
+        BooleanOp left = booleanOp(children[0]);
+        BooleanOp right = booleanOp(children[1]);
+        if (left == null || right == null) {
+            return null;
+        }
+        return and
+                ? new Logical(context -> left.apply(context) && right.apply(context))
+                : new Logical(context -> left.apply(context) || right.apply(context));
+    }
+
+    private static Node not(Node child) {
+        BooleanOp operand = booleanOp(child);
+        return operand != null ? new Logical(context -> !operand.apply(context)) : null;
+    }
+
+    private static Node ternary(Node[] children) {
+        BooleanOp condition = booleanOp(children[0]);
+        if (condition == null) {
+            return null;
+        }
+        if (children[0] instanceof Constant(Boolean value)) {
+            return value ? children[1] : children[2];
+        }
+
+        if (children[1] instanceof Decimal(DecimalOp whenTrue) && children[2] instanceof Decimal(DecimalOp whenFalse)) {
+            return new Decimal(context -> condition.apply(context) ? whenTrue.apply(context) : whenFalse.apply(context));
+        }
+
+        BooleanOp booleanTrue = booleanOp(children[1]);
+        BooleanOp booleanFalse = booleanOp(children[2]);
+        if (booleanTrue != null && booleanFalse != null) {
+            return new Logical(context -> condition.apply(context) ? booleanTrue.apply(context) : booleanFalse.apply(context));
+        }
+
+        // Branches of different numeric types: keep each branch's own type, as SpEL does
+        NumberOp numberTrue = numberOp(children[1]);
+        NumberOp numberFalse = numberOp(children[2]);
+        if (numberTrue != null && numberFalse != null) {
+            return new Numeric(context -> condition.apply(context) ? numberTrue.apply(context) : numberFalse.apply(context));
+        }
+        return null;
+    }
+
+    private static BigDecimal variable(FormulaContext context, String name) {
+        BigDecimal value = VAR_AMOUNT.equals(name) ? context.amount() : context.variables().get(name);
+        if (value == null) {
+            throw FallbackException.INSTANCE;
+        }
+        return value;
+    }
+
+    /**
+     * Same conversion SpEL applies to the non-BigDecimal operand of a BigDecimal operation.
+     */
+    private static BigDecimal toDecimal(Number number) {
+        return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+    }
+
+    private static DecimalOp decimalOp(Node node) {
+        return switch (node) {
+            case Decimal decimal -> decimal.op();
+            case Numeric numeric -> context -> toDecimal(numeric.op().apply(context));
+            case Constant(Number value) -> {
+                try {
+                    BigDecimal decimal = toDecimal(value);
+                    yield context -> decimal;
+                } catch (NumberFormatException _) {
+                    // NaN or infinite double constant
+                    yield null;
+                }
+            }
+            default -> null;
+        };
+    }
+
+    private static NumberOp numberOp(Node node) {
+        return switch (node) {
+            case Decimal decimal -> decimal.op()::apply;
+            case Numeric numeric -> numeric.op();
+            case Constant(Number value) -> context -> value;
+            default -> null;
+        };
+    }
+
+    private static BooleanOp booleanOp(Node node) {
+        return switch (node) {
+            case Logical logical -> logical.op();
+            case Constant(Boolean value) -> context -> value;
+            default -> null;
+        };
+    }
+
+    @FunctionalInterface
+    private interface DecimalOp {
+        BigDecimal apply(FormulaContext context);
+    }
+
+    @FunctionalInterface
+    private interface NumberOp {
+        Number apply(FormulaContext context);
+    }
+
+    @FunctionalInterface
+    private interface BooleanOp {
+        boolean apply(FormulaContext context);
+    }
+
+    /**
+     * Compiled sub-expression, typed by what SpEL would produce for it.
+     */
+    private sealed interface Node permits Constant, Decimal, Numeric, Logical {
+    }
+
+    /** Value without variables, folded at compile time. */
+    private record Constant(Object value) implements Node {
+    }
+
+    /** Always a BigDecimal at runtime. */
+    private record Decimal(DecimalOp op) implements Node {
+    }
+
+    /** A number whose type depends on a runtime condition. */
+    private record Numeric(NumberOp op) implements Node {
+    }
+
+    /** A boolean condition. */
+    private record Logical(BooleanOp op) implements Node {
+    }
+}
@@ -18,6 +18,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Unified formula evaluation service using SpEL.
@@ -34,13 +37,48 @@ import java.util.List;
  * </ul>
  *
  * <p>Per Decision #13: Uses SimpleEvaluationContext for secure sandbox evaluation.
+ *
+ * <p>Parsed expressions are cached by formula text, so repeated evaluation of the same
+ * template line (payroll runs, posting, previews) skips parsing. Parsed SpEL expressions
+ * are thread-safe and independent of the template they came from.
+ *
+ * <p>Formulas built from arithmetic, comparison and ternary operators are additionally
+ * compiled by {@link FormulaCompiler} into native BigDecimal operations with the same
+ * results as SpEL; other formulas, and inputs the compiled form cannot handle, are
+ * evaluated by SpEL.
  */
 @Service
 public class FormulaEvaluator {
 
     private static final String VAR_AMOUNT = "amount";
+
+    /** Upper bound on cached formulas; the cache is cleared when exceeded. */
+    static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    // Interpreted mode: MapPropertyAccessor and BigDecimal operators are not compilable by SpEL
     private final ExpressionParser parser = new SpelExpressionParser();
 
+    // The root object is passed per call, so one read-only context serves all evaluations
+    private final EvaluationContext evaluationContext = SimpleEvaluationContext
+            .forPropertyAccessors(new MapPropertyAccessor())
+            .build();
+
+    private final Map<String, CachedFormula> expressionCache = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final boolean compileFormulas;
+
+    public FormulaEvaluator() {
+        this(true);
+    }
+
+    /**
+     * @param compileFormulas false to evaluate every formula with SpEL (used to compare both engines)
+     */
+    FormulaEvaluator(boolean compileFormulas) {
+        this.compileFormulas = compileFormulas;
+    }
+
     /**
      * Evaluate a formula expression with the given context.
      *
@@ -77,14 +115,17 @@ public class FormulaEvaluator {
         }
 
         try {
-            // Use custom PropertyAccessor to expose variables map as properties
-            SimpleEvaluationContext evalContext = SimpleEvaluationContext
-                    .forPropertyAccessors(new MapPropertyAccessor())
-                    .withRootObject(context)
-                    .build();
+            CachedFormula cached = parse(trimmed);
+            if (cached.compiled() != null) {
+                try {
+                    return toBigDecimal(cached.compiled().evaluate(context));
+                } catch (FormulaCompiler.FallbackException | ArithmeticException | NumberFormatException _) {
+                    // Let SpEL evaluate and report the problem exactly as before
+                }
+            }
 
-            Expression expression = parser.parseExpression(trimmed);
-            Object result = expression.getValue(evalContext);
+            // Custom PropertyAccessor exposes the variables map as properties of the root object
+            Object result = cached.expression().getValue(evaluationContext, context);
 
             return toBigDecimal(result);
         } catch (SpelParseException e) {
@@ -94,6 +135,50 @@ public class FormulaEvaluator {
         }
     }
     
+    /**
+     * Parsed (and if possible compiled) formula, from the cache when available.
+     *
+     * @throws SpelParseException if the formula is not valid SpEL; invalid formulas are not cached
+     */
+    private CachedFormula parse(String formula) {
+        CachedFormula cached = expressionCache.get(formula);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        Expression expression = parser.parseExpression(formula);
+        FormulaCompiler.CompiledFormula compiled = compileFormulas
+                ? FormulaCompiler.compile(expression, evaluationContext)
+                : null;
+        cached = new CachedFormula(expression, compiled);
+        if (expressionCache.size() >= MAX_CACHED_EXPRESSIONS) {
+            expressionCache.clear();
+        }
+        expressionCache.put(formula, cached);
+        return cached;
+    }
+
+    private record CachedFormula(Expression expression, FormulaCompiler.CompiledFormula compiled) {}
+
+    /**
+     * Drop all cached expressions. Called when journal templates change so that
+     * formulas of superseded template versions do not linger.
+     */
+    public void clearCache() {
+        expressionCache.clear();
+    }
+
+    /**
+     * Expression cache hit/miss counters since startup.
+     */
+    public CacheStats getCacheStats() {
+        return new CacheStats(cacheHits.sum(), cacheMisses.sum(), expressionCache.size());
+    }
+
+    public record CacheStats(long hits, long misses, int size) {}
+
     /**
      * Custom PropertyAccessor that allows SpEL to access both FormulaContext fields
      * and variables from the Map as direct properties.
@@ -191,7 +276,7 @@ public class FormulaEvaluator {
 
         // Try to parse the expression
         try {
-            parser.parseExpression(trimmed);
+            parse(trimmed);
         } catch (SpelParseException e) {
             errors.add("Syntax error: " + e.getMessage());
             return errors;
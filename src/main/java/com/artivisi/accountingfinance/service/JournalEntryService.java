@@ -5,26 +5,30 @@ import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.NormalBalance;
+import com.artivisi.accountingfinance.enums.SequenceType;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
-import com.artivisi.accountingfinance.repository.TransactionSequenceRepository;
-import com.artivisi.accountingfinance.entity.TransactionSequence;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Year;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,7 +44,7 @@ public class JournalEntryService {
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final TransactionRepository transactionRepository;
     private final JournalTemplateRepository journalTemplateRepository;
-    private final TransactionSequenceRepository transactionSequenceRepository;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
 
     // Helper to calculate balance based on account's normal balance
     private BigDecimal calculateBalance(NormalBalance normalBalance, BigDecimal debit, BigDecimal credit) {
@@ -176,16 +180,91 @@ public class JournalEntryService {
             return openingBalance;
         }
 
-        List<JournalEntry> priorEntries = journalEntryRepository
-                .findPostedEntriesByAccountAndDateRange(accountId, startDate, endDate);
+        // Summed in the database over the rows before this page; no entities are loaded
+        BigDecimal priorNet = journalEntryRepository.sumNetOfFirstLedgerLines(
+                accountId, startDate, endDate, pageable.getOffset());
+        return updateBalance(normalBalance, openingBalance, priorNet, BigDecimal.ZERO);
+    }
+
+    /**
+     * General ledger page addressed by a keyset cursor instead of a page number.
+     *
+     * <p>Lines are fetched with a seek predicate on (transaction date, created at, journal number, id),
+     * so any page costs the same as the first one. The running balance of the page starts from one
+     * SUM query over the lines before it; the first page starts from the opening balance and the last
+     * page is derived backwards from the closing balance.
+     */
+    public GeneralLedgerSlice getGeneralLedgerSlice(UUID accountId, LocalDate startDate, LocalDate endDate,
+            LedgerPageRequest request) {
+        ChartOfAccount account = chartOfAccountRepository.findById(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        NormalBalance normalBalance = account.getNormalBalance();
+
+        BigDecimal openingDebit = journalEntryRepository.sumDebitBeforeDate(accountId, startDate);
+        BigDecimal openingCredit = journalEntryRepository.sumCreditBeforeDate(accountId, startDate);
+        BigDecimal openingBalance = calculateBalance(normalBalance, openingDebit, openingCredit);
+
+        BigDecimal totalDebit = journalEntryRepository.sumDebitByAccountAndDateRange(accountId, startDate, endDate);
+        BigDecimal totalCredit = journalEntryRepository.sumCreditByAccountAndDateRange(accountId, startDate, endDate);
+        BigDecimal closingBalance = updateBalance(normalBalance, openingBalance, totalDebit, totalCredit);
+
+        // One extra row tells whether another page follows in the direction of travel
+        Pageable limit = PageRequest.of(0, request.size() + 1);
+        LedgerCursor cursor = request.cursor();
+        List<JournalEntry> fetched;
+        if (request.backward()) {
+            fetched = cursor == null
+                    ? journalEntryRepository.findLedgerLinesLast(accountId, startDate, endDate, limit)
+                    : journalEntryRepository.findLedgerLinesBefore(accountId, startDate, endDate,
+                            cursor.transactionDate(), cursor.createdAt(), cursor.journalNumber(), cursor.id(), limit);
+        } else {
+            fetched = cursor == null
+                    ? journalEntryRepository.findLedgerLinesFirst(accountId, startDate, endDate, limit)
+                    : journalEntryRepository.findLedgerLinesAfter(accountId, startDate, endDate,
+                            cursor.transactionDate(), cursor.createdAt(), cursor.journalNumber(), cursor.id(), limit);
+        }
+
+        boolean more = fetched.size() > request.size();
+        List<JournalEntry> entries = new ArrayList<>(more ? fetched.subList(0, request.size()) : fetched);
+        if (request.backward()) {
+            Collections.reverse(entries);
+        }
+        boolean hasPrevious = request.backward() ? more : cursor != null;
+        boolean hasNext = request.backward() ? cursor != null : more;
+
+        BigDecimal pageStartBalance;
+        if (entries.isEmpty() || !hasPrevious) {
+            pageStartBalance = openingBalance;
+        } else if (!hasNext) {
+            pageStartBalance = closingBalance;
+            for (JournalEntry entry : entries) {
+                pageStartBalance = updateBalance(normalBalance, pageStartBalance,
+                        entry.getCreditAmount(), entry.getDebitAmount());
+            }
+        } else {
+            LedgerCursor first = LedgerCursor.of(entries.getFirst());
+            BigDecimal priorNet = journalEntryRepository.sumNetOfLedgerLinesBefore(accountId, startDate, endDate,
+                    first.transactionDate(), first.createdAt(), first.journalNumber(), first.id());
+            pageStartBalance = updateBalance(normalBalance, openingBalance, priorNet, BigDecimal.ZERO);
+        }
 
-        BigDecimal balance = openingBalance;
-        int skipCount = (int) pageable.getOffset();
-        for (int i = 0; i < Math.min(skipCount, priorEntries.size()); i++) {
-            JournalEntry entry = priorEntries.get(i);
-            balance = updateBalance(normalBalance, balance, entry.getDebitAmount(), entry.getCreditAmount());
+        List<LedgerLineItem> lineItems = new ArrayList<>();
+        BigDecimal runningBalance = pageStartBalance;
+        for (JournalEntry entry : entries) {
+            runningBalance = updateBalance(normalBalance, runningBalance, entry.getDebitAmount(), entry.getCreditAmount());
+            lineItems.add(new LedgerLineItem(entry, runningBalance));
         }
-        return balance;
+
+        return new GeneralLedgerSlice(
+                account,
+                openingBalance,
+                totalDebit,
+                totalCredit,
+                closingBalance,
+                lineItems,
+                hasPrevious ? LedgerCursor.of(entries.getFirst()).encode() : null,
+                hasNext ? LedgerCursor.of(entries.getLast()).encode() : null
+        );
     }
 
     private List<LedgerLineItem> buildLineItems(Page<JournalEntry> entriesPage, NormalBalance normalBalance,
@@ -228,6 +307,89 @@ public class JournalEntryService {
             BigDecimal runningBalance
     ) {}
 
+    public record GeneralLedgerSlice(
+            ChartOfAccount account,
+            BigDecimal openingBalance,
+            BigDecimal totalDebit,
+            BigDecimal totalCredit,
+            BigDecimal closingBalance,
+            List<LedgerLineItem> entries,
+            String previousCursor,
+            String nextCursor
+    ) {
+        public boolean hasPrevious() {
+            return previousCursor != null;
+        }
+
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
+
+    /**
+     * Which slice of the general ledger to fetch: the lines after the cursor, or with
+     * {@code backward} the lines before it. Without a cursor this is the first or the last page.
+     */
+    public record LedgerPageRequest(LedgerCursor cursor, boolean backward, int size) {
+
+        public static final int MAX_SIZE = 500;
+
+        public LedgerPageRequest {
+            if (size < 1 || size > MAX_SIZE) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+            }
+        }
+
+        public static LedgerPageRequest first(int size) {
+            return new LedgerPageRequest(null, false, size);
+        }
+
+        public static LedgerPageRequest last(int size) {
+            return new LedgerPageRequest(null, true, size);
+        }
+
+        public static LedgerPageRequest after(LedgerCursor cursor, int size) {
+            return new LedgerPageRequest(cursor, false, size);
+        }
+
+        public static LedgerPageRequest before(LedgerCursor cursor, int size) {
+            return new LedgerPageRequest(cursor, true, size);
+        }
+    }
+
+    /**
+     * Position of a line in general ledger order, exchanged with clients as an opaque token.
+     */
+    public record LedgerCursor(LocalDate transactionDate, LocalDateTime createdAt, String journalNumber, UUID id) {
+
+        private static final String SEPARATOR = "|";
+
+        public static LedgerCursor of(JournalEntry entry) {
+            Transaction transaction = entry.getTransaction();
+            return new LedgerCursor(transaction.getTransactionDate(), transaction.getCreatedAt(), entry.getJournalNumber(),
+                    entry.getId());
+        }
+
+        public String encode() {
+            String raw = transactionDate + SEPARATOR + createdAt + SEPARATOR + id + SEPARATOR + journalNumber;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static LedgerCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 4);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Invalid ledger cursor");
+                }
+                return new LedgerCursor(LocalDate.parse(parts[0]), LocalDateTime.parse(parts[1]), parts[3],
+                        UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid ledger cursor", e);
+            }
+        }
+    }
+
     // ========== Account Impact Calculation ==========
 
     /**
@@ -564,38 +726,17 @@ public class JournalEntryService {
     }
 
     /**
-     * Generate next journal number in format JE-YYYY-NNNN
+     * Generate next journal number in format JE-YYYY-NNNN, shared with posted transactions
      */
     private String generateJournalNumber() {
-        String year = String.valueOf(Year.now().getValue());
-        String prefix = "JE-" + year + "-%";
-
-        Integer maxSeq = journalEntryRepository.findMaxSequenceByPrefix(prefix);
-        int nextSeq = (maxSeq == null) ? 1 : maxSeq + 1;
-
-        return String.format("JE-%s-%04d", year, nextSeq);
+        return sequenceNumberAllocator.next(SequenceType.JOURNAL, Year.now().getValue());
     }
 
     /**
      * Generate next transaction number in format MJ-YYYY-NNNN (MJ = Manual Journal)
      */
     private String generateTransactionNumber() {
-        int year = LocalDate.now().getYear();
-        TransactionSequence sequence = transactionSequenceRepository
-                .findBySequenceTypeAndYearForUpdate("MANUAL_JOURNAL", year)
-                .orElseGet(() -> {
-                    TransactionSequence newSeq = new TransactionSequence();
-                    newSeq.setSequenceType("MANUAL_JOURNAL");
-                    newSeq.setPrefix("MJ");
-                    newSeq.setYear(year);
-                    newSeq.setLastNumber(0);
-                    return newSeq;
-                });
-
-        sequence.setLastNumber(sequence.getLastNumber() + 1);
-        transactionSequenceRepository.save(sequence);
-
-        return String.format("MJ-%d-%04d", year, sequence.getLastNumber());
+        return sequenceNumberAllocator.next(SequenceType.MANUAL_JOURNAL, LocalDate.now().getYear());
     }
 
     private String getCurrentUsername() {
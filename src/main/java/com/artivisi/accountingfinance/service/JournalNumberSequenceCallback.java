@@ -0,0 +1,54 @@
+package com.artivisi.accountingfinance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Flyway callback that creates the journal number sequences ahead of posting.
+ *
+ * <p>Runs after every migrate run, i.e. at every start, so rows added by later migrations
+ * (such as seed data) and a start in a new year are covered. Creates the missing sequences
+ * of the years with transactions, fiscal periods or journal numbers, and of the current and
+ * next year. The daily {@code JournalNumberSequenceScheduler} covers the year change of a
+ * running instance.
+ */
+@Component
+@Slf4j
+public class JournalNumberSequenceCallback implements Callback {
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT prepare_journal_number_sequences()")) {
+            int created = resultSet.next() ? resultSet.getInt(1) : 0;
+            if (created > 0) {
+                log.info("Created journal number sequences for {} years", created);
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Failed to prepare journal number sequences", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "journal number sequences";
+    }
+}
@@ -9,6 +9,7 @@ import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateLineRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateTagRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +36,7 @@ public class JournalTemplateService {
     private final JournalTemplateTagRepository journalTemplateTagRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final FormulaEvaluator formulaEvaluator;
+    private final EntityManager entityManager;
 
     public List<JournalTemplate> findAll() {
         return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByTemplateNameAsc(true);
@@ -126,6 +128,7 @@ public class JournalTemplateService {
         }
 
         validateTemplateLines(existing);
+        formulaEvaluator.clearCache();
         return journalTemplateRepository.save(existing);
     }
 
@@ -181,6 +184,7 @@ public class JournalTemplateService {
         }
 
         validateTemplateLines(newVersion);
+        formulaEvaluator.clearCache();
         return journalTemplateRepository.save(newVersion);
     }
 
@@ -218,10 +222,17 @@ public class JournalTemplateService {
 
     @Transactional
     public void recordUsage(UUID id) {
+        recordUsage(id, 1);
+    }
+
+    /**
+     * Count {@code count} uses of the template, e.g. for a batch of postings.
+     */
+    @Transactional
+    public void recordUsage(UUID id, int count) {
         JournalTemplate template = findById(id);
-        template.setUsageCount(template.getUsageCount() + 1);
-        template.setLastUsedAt(LocalDateTime.now());
-        journalTemplateRepository.save(template);
+        journalTemplateRepository.incrementUsage(id, count, LocalDateTime.now());
+        entityManager.refresh(template);
     }
 
     @Transactional
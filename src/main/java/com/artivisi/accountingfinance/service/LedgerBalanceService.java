@@ -0,0 +1,150 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.AccountTotalsDto;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.enums.NormalBalance;
+import com.artivisi.accountingfinance.repository.AccountPeriodBalanceRepository;
+import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based balance engine for financial reports.
+ *
+ * <p>Aggregates posted journal entries per account with grouped queries, so a report
+ * needs a fixed number of queries per date range instead of two queries per account.
+ * Whole months inside the range are read from the {@code account_period_balances}
+ * snapshot; only the partial months at either edge are scanned from journal entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LedgerBalanceService {
+
+    /** Lower bound used for cumulative (inception-to-date) balances. */
+    public static final LocalDate BEGINNING_OF_TIME = LocalDate.of(1900, 1, 1);
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
+
+    /**
+     * Debit/credit totals of posted entries for every account within the date range (inclusive).
+     * Equivalent to {@link #scanTotals} but reads whole months from the monthly snapshot.
+     */
+    public LedgerTotals totals(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return LedgerTotals.EMPTY;
+        }
+
+        YearMonth firstFullMonth = startDate.getDayOfMonth() == 1
+                ? YearMonth.from(startDate)
+                : YearMonth.from(startDate).plusMonths(1);
+        YearMonth lastFullMonth = endDate.equals(YearMonth.from(endDate).atEndOfMonth())
+                ? YearMonth.from(endDate)
+                : YearMonth.from(endDate).minusMonths(1);
+
+        if (firstFullMonth.isAfter(lastFullMonth)) {
+            return scanTotals(startDate, endDate);
+        }
+
+        LedgerTotals totals = snapshotTotals(firstFullMonth, lastFullMonth);
+        if (startDate.isBefore(firstFullMonth.atDay(1))) {
+            totals = totals.plus(scanTotals(startDate, firstFullMonth.atDay(1).minusDays(1)));
+        }
+        if (endDate.isAfter(lastFullMonth.atEndOfMonth())) {
+            totals = totals.plus(scanTotals(lastFullMonth.plusMonths(1).atDay(1), endDate));
+        }
+        return totals;
+    }
+
+    /**
+     * Totals computed directly from journal entries, bypassing the monthly snapshot.
+     */
+    public LedgerTotals scanTotals(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return LedgerTotals.EMPTY;
+        }
+        return LedgerTotals.of(journalEntryRepository.sumDebitCreditGroupedByAccount(startDate, endDate));
+    }
+
+    private LedgerTotals snapshotTotals(YearMonth fromMonth, YearMonth toMonth) {
+        return LedgerTotals.of(accountPeriodBalanceRepository.sumGroupedByAccountBetweenPeriods(
+                toPeriod(fromMonth), toPeriod(toMonth)));
+    }
+
+    private static int toPeriod(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    /**
+     * Cumulative debit/credit totals of posted entries up to and including the given date.
+     */
+    public LedgerTotals totalsAsOf(LocalDate asOfDate) {
+        return totals(BEGINNING_OF_TIME, asOfDate);
+    }
+
+    /**
+     * Balance in the account's normal-balance direction.
+     */
+    public static BigDecimal balance(NormalBalance normalBalance, BigDecimal debit, BigDecimal credit) {
+        return normalBalance == NormalBalance.DEBIT
+                ? debit.subtract(credit)
+                : credit.subtract(debit);
+    }
+
+    /**
+     * Immutable per-account totals for one or more date ranges.
+     */
+    public record LedgerTotals(Map<UUID, AccountTotalsDto> byAccount) {
+
+        public static final LedgerTotals EMPTY = new LedgerTotals(Map.of());
+
+        public LedgerTotals {
+            byAccount = Map.copyOf(byAccount);
+        }
+
+        public static LedgerTotals of(List<AccountTotalsDto> rows) {
+            Map<UUID, AccountTotalsDto> byAccount = new HashMap<>();
+            for (AccountTotalsDto row : rows) {
+                byAccount.put(row.accountId(), row);
+            }
+            return new LedgerTotals(byAccount);
+        }
+
+        public BigDecimal debit(UUID accountId) {
+            AccountTotalsDto row = byAccount.get(accountId);
+            return row != null ? row.debitTotal() : BigDecimal.ZERO;
+        }
+
+        public BigDecimal credit(UUID accountId) {
+            AccountTotalsDto row = byAccount.get(accountId);
+            return row != null ? row.creditTotal() : BigDecimal.ZERO;
+        }
+
+        public BigDecimal balance(ChartOfAccount account) {
+            return LedgerBalanceService.balance(account.getNormalBalance(),
+                    debit(account.getId()), credit(account.getId()));
+        }
+
+        /**
+         * Combines totals of two adjacent date ranges into totals of their union.
+         */
+        public LedgerTotals plus(LedgerTotals other) {
+            Map<UUID, AccountTotalsDto> merged = new HashMap<>(byAccount);
+            other.byAccount.forEach((accountId, row) -> merged.merge(accountId, row,
+                    (a, b) -> new AccountTotalsDto(accountId,
+                            a.debitTotal().add(b.debitTotal()),
+                            a.creditTotal().add(b.creditTotal()))));
+            return new LedgerTotals(merged);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.TransactionStatus;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that tells {@link ReportCache} about writes the cached reports depend on.
+ * Posted and voided transactions drop the reports over their date. Accounts, templates, clients
+ * and projects are shown in or group the reports, so writing one drops all of them.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerChangeListener {
+
+    private final ObjectProvider<ReportCache> reportCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityWritten(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            // Drafts are not in the ledger
+            if (transaction.getStatus() != TransactionStatus.DRAFT && transaction.getTransactionDate() != null) {
+                reportCache.getObject().ledgerChanged(transaction.getTransactionDate());
+            }
+        } else {
+            reportCache.getObject().invalidateAll();
+        }
+    }
+}
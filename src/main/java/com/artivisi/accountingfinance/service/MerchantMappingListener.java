@@ -0,0 +1,32 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps {@link MerchantMatcherIndex} in step with merchant mapping writes.
+ * The index is looked up on use: it depends on a repository, which needs the entity manager
+ * factory this listener is created for.
+ */
+@Component
+@RequiredArgsConstructor
+public class MerchantMappingListener {
+
+    private final ObjectProvider<MerchantMatcherIndex> merchantMatcherIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void mappingWritten(MerchantMapping mapping) {
+        merchantMatcherIndex.getObject().mappingChanged(mapping, false);
+    }
+
+    @PostRemove
+    public void mappingRemoved(MerchantMapping mapping) {
+        merchantMatcherIndex.getObject().mappingChanged(mapping, true);
+    }
+}
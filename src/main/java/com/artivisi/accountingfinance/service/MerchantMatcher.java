@@ -0,0 +1,245 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.MerchantMatchRuleDto;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable matcher from merchant names to merchant mappings.
+ *
+ * <p>Matching follows the priority of {@link MerchantMapping.MatchType}: an EXACT rule
+ * (case-insensitive equality) wins over a CONTAINS rule (case-insensitive substring), which
+ * wins over a REGEX rule (case-insensitive {@code find}). Within a type the first rule in
+ * the list given to {@link #build} wins. A lookup is one hash probe, one pass of an
+ * Aho-Corasick automaton over the name for all CONTAINS patterns, then the precompiled
+ * regexes in order.
+ *
+ * <p>CONTAINS patterns are matched literally; {@code %} and {@code _} are no longer
+ * LIKE wildcards. A REGEX rule that does not compile is skipped.
+ */
+public final class MerchantMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantMatcher.class);
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final UUID[] ids;
+    private final Map<UUID, MerchantMatchRuleDto> rulesById;
+    private final Map<String, Integer> exact;
+    private final ContainsAutomaton contains;
+    private final Pattern[] regexes;
+    private final int[] regexRanks;
+
+    private MerchantMatcher(List<MerchantMatchRuleDto> rules) {
+        ids = new UUID[rules.size()];
+        rulesById = HashMap.newHashMap(rules.size());
+        exact = new HashMap<>();
+        ContainsAutomaton.Builder containsBuilder = new ContainsAutomaton.Builder();
+        List<Pattern> compiled = new ArrayList<>();
+        List<Integer> ranks = new ArrayList<>();
+
+        for (int rank = 0; rank < rules.size(); rank++) {
+            MerchantMatchRuleDto rule = rules.get(rank);
+            ids[rank] = rule.id();
+            rulesById.put(rule.id(), rule);
+            if (rule.merchantPattern() == null || rule.matchType() == null) {
+                continue;
+            }
+            switch (rule.matchType()) {
+                case EXACT -> exact.putIfAbsent(lower(rule.merchantPattern()), rank);
+                case CONTAINS -> containsBuilder.add(lower(rule.merchantPattern()), rank);
+                case REGEX -> {
+                    try {
+                        compiled.add(Pattern.compile(rule.merchantPattern(), Pattern.CASE_INSENSITIVE));
+                        ranks.add(rank);
+                    } catch (PatternSyntaxException e) {
+                        log.warn("Skipping merchant mapping {} with invalid regex: {}", rule.id(), e.getDescription());
+                    }
+                }
+            }
+        }
+        contains = containsBuilder.build();
+        regexes = compiled.toArray(Pattern[]::new);
+        regexRanks = ranks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Build a matcher from rules in priority order.
+     */
+    public static MerchantMatcher build(List<MerchantMatchRuleDto> rules) {
+        return new MerchantMatcher(rules);
+    }
+
+    /**
+     * Id of the mapping matching the merchant name, if any.
+     */
+    public Optional<UUID> match(String merchantName) {
+        if (merchantName == null) {
+            return Optional.empty();
+        }
+        String name = lower(merchantName);
+        Integer rank = exact.get(name);
+        if (rank == null) {
+            int containsRank = contains.firstMatch(name);
+            if (containsRank != NO_MATCH) {
+                rank = containsRank;
+            }
+        }
+        if (rank == null) {
+            for (int i = 0; i < regexes.length; i++) {
+                if (regexes[i].matcher(merchantName).find()) {
+                    rank = regexRanks[i];
+                    break;
+                }
+            }
+        }
+        return rank == null ? Optional.empty() : Optional.of(ids[rank]);
+    }
+
+    /**
+     * Whether the matcher holds the mapping with this pattern and match type.
+     */
+    public boolean contains(UUID id, String merchantPattern, MerchantMapping.MatchType matchType) {
+        MerchantMatchRuleDto rule = rulesById.get(id);
+        return rule != null && rule.matchType() == matchType
+                && Objects.equals(rule.merchantPattern(), merchantPattern);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Aho-Corasick automaton over the CONTAINS patterns. Each state stores the lowest rank of
+     * the patterns ending there or at any state on its failure chain, so one pass over the
+     * name finds the highest-priority pattern it contains.
+     */
+    private static final class ContainsAutomaton {
+        private final char[][] keys;
+        private final int[][] next;
+        private final int[] fail;
+        private final int[] best;
+
+        private ContainsAutomaton(char[][] keys, int[][] next, int[] fail, int[] best) {
+            this.keys = keys;
+            this.next = next;
+            this.fail = fail;
+            this.best = best;
+        }
+
+        int firstMatch(String text) {
+            int state = 0;
+            int result = best[0];
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int target = child(state, c);
+                while (target < 0 && state != 0) {
+                    state = fail[state];
+                    target = child(state, c);
+                }
+                state = Math.max(target, 0);
+                if (best[state] < result) {
+                    result = best[state];
+                }
+            }
+            return result;
+        }
+
+        private int child(int state, char c) {
+            int index = Arrays.binarySearch(keys[state], c);
+            return index < 0 ? -1 : next[state][index];
+        }
+
+        static final class Builder {
+            private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            private final List<Integer> ranks = new ArrayList<>();
+
+            Builder() {
+                addState();
+            }
+
+            void add(String pattern, int rank) {
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    Integer target = children.get(state).get(pattern.charAt(i));
+                    if (target == null) {
+                        target = addState();
+                        children.get(state).put(pattern.charAt(i), target);
+                    }
+                    state = target;
+                }
+                ranks.set(state, Math.min(ranks.get(state), rank));
+            }
+
+            private int addState() {
+                children.add(new TreeMap<>());
+                ranks.add(NO_MATCH);
+                return children.size() - 1;
+            }
+
+            ContainsAutomaton build() {
+                int size = children.size();
+                char[][] keys = new char[size][];
+                int[][] next = new int[size][];
+                for (int state = 0; state < size; state++) {
+                    TreeMap<Character, Integer> edges = children.get(state);
+                    keys[state] = new char[edges.size()];
+                    next[state] = new int[edges.size()];
+                    int i = 0;
+                    for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                        keys[state][i] = edge.getKey();
+                        next[state][i] = edge.getValue();
+                        i++;
+                    }
+                }
+
+                int[] fail = new int[size];
+                int[] best = new int[size];
+                best[0] = ranks.get(0);
+                ContainsAutomaton automaton = new ContainsAutomaton(keys, next, fail, best);
+                // Breadth-first, so the failure state of every state is finished before it
+                ArrayDeque<Integer> queue = new ArrayDeque<>();
+                for (int child : next[0]) {
+                    fail[child] = 0;
+                    best[child] = Math.min(ranks.get(child), best[0]);
+                    queue.add(child);
+                }
+                while (!queue.isEmpty()) {
+                    int state = queue.poll();
+                    for (int i = 0; i < keys[state].length; i++) {
+                        char c = keys[state][i];
+                        int child = next[state][i];
+                        int f = fail[state];
+                        int target = automaton.child(f, c);
+                        while (target < 0 && f != 0) {
+                            f = fail[f];
+                            target = automaton.child(f, c);
+                        }
+                        fail[child] = Math.max(target, 0);
+                        best[child] = Math.min(ranks.get(child), best[fail[child]]);
+                        queue.add(child);
+                    }
+                }
+                return automaton;
+            }
+        }
+    }
+}
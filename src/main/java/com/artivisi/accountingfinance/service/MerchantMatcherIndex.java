@@ -0,0 +1,96 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory {@link MerchantMatcher} over all merchant mappings, used to suggest a template
+ * for receipts without querying the mappings for every receipt.
+ *
+ * <p>Built on first use and rebuilt after a mapping is added, removed, or has its pattern
+ * or match type changed ({@link MerchantMappingListener}). The matcher is dropped right away,
+ * so the writing transaction sees its own changes, and again when that transaction ends.
+ * A matcher loaded while a change was being committed is not kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantMatcherIndex {
+
+    private final MerchantMappingRepository merchantMappingRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot current;
+
+    /**
+     * Id of the mapping for a merchant name, if any.
+     */
+    public Optional<UUID> findMatch(String merchantName) {
+        return matcher().match(merchantName);
+    }
+
+    /**
+     * Drop the current matcher; the next lookup loads the mappings again.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Called after a mapping is written. Changes that do not affect matching, such as the
+     * match count updated on every approval, keep the current matcher.
+     */
+    void mappingChanged(MerchantMapping mapping, boolean removed) {
+        Snapshot snapshot = current;
+        if (!removed && snapshot != null && snapshot.generation() == generation.get()
+                && snapshot.matcher().contains(mapping.getId(), mapping.getMerchantPattern(), mapping.getMatchType())) {
+            return;
+        }
+        invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    MerchantMatcher matcher() {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.generation() == generation.get()) {
+            return snapshot.matcher();
+        }
+        rebuildLock.lock();
+        try {
+            long loading = generation.get();
+            snapshot = current;
+            if (snapshot != null && snapshot.generation() == loading) {
+                return snapshot.matcher();
+            }
+            MerchantMatcher matcher = MerchantMatcher.build(merchantMappingRepository.findMatchRules());
+            if (generation.get() == loading) {
+                current = new Snapshot(loading, matcher);
+            }
+            log.debug("Merchant matcher index built with {} mappings", matcher.size());
+            return matcher;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private record Snapshot(long generation, MerchantMatcher matcher) {
+    }
+}
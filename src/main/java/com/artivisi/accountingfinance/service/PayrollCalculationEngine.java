@@ -0,0 +1,188 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Employee;
+import com.artivisi.accountingfinance.entity.PayrollDetail;
+import com.artivisi.accountingfinance.entity.PayrollRun;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Calculates and stores the payroll details of a run.
+ *
+ * <p>BPJS and PPh 21 only depend on the salary, the risk class and the employee's tax status,
+ * so the employees are split into {@code app.payroll.workers} contiguous partitions that are
+ * calculated on virtual threads without touching the database. The details come back in the
+ * order of the employees, the same as calculating them one by one.
+ *
+ * <p>The details are then inserted as JDBC batches of {@code app.payroll.batch-size} rows,
+ * flushed after every batch.
+ */
+@Service
+@Slf4j
+public class PayrollCalculationEngine {
+
+    private final BpjsCalculationService bpjsCalculationService;
+    private final Pph21CalculationService pph21CalculationService;
+    private final EntityManager entityManager;
+    private final int workers;
+    private final int batchSize;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PayrollCalculationEngine(
+            BpjsCalculationService bpjsCalculationService,
+            Pph21CalculationService pph21CalculationService,
+            EntityManager entityManager,
+            @Value("${app.payroll.workers:0}") int workers,
+            @Value("${app.payroll.batch-size:500}") int batchSize) {
+        this.bpjsCalculationService = bpjsCalculationService;
+        this.pph21CalculationService = pph21CalculationService;
+        this.entityManager = entityManager;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Payroll details of the employees, in the same order.
+     */
+    public List<PayrollDetail> calculate(List<Employee> employees, BigDecimal baseSalary, int jkkRiskClass,
+                                         Consumer<PayrollProgress> progress) {
+        long start = System.nanoTime();
+        int partitions = Math.min(workers, employees.size());
+        if (partitions <= 1) {
+            List<PayrollDetail> details = calculatePartition(employees, baseSalary, jkkRiskClass);
+            progress.accept(PayrollProgress.of(Stage.CALCULATE, details.size(), employees.size(), start));
+            return details;
+        }
+
+        int partitionSize = (employees.size() + partitions - 1) / partitions;
+        List<Future<List<PayrollDetail>>> futures = new ArrayList<>(partitions);
+        for (int from = 0; from < employees.size(); from += partitionSize) {
+            List<Employee> partition = employees.subList(from, Math.min(from + partitionSize, employees.size()));
+            futures.add(executor.submit(() -> calculatePartition(partition, baseSalary, jkkRiskClass)));
+        }
+
+        List<PayrollDetail> details = new ArrayList<>(employees.size());
+        try {
+            for (Future<List<PayrollDetail>> future : futures) {
+                details.addAll(await(future));
+                progress.accept(PayrollProgress.of(Stage.CALCULATE, details.size(), employees.size(), start));
+            }
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+        return details;
+    }
+
+    /**
+     * Add the details to the run and insert them, flushing every {@code app.payroll.batch-size} rows.
+     */
+    public void persist(PayrollRun payrollRun, List<PayrollDetail> details, Consumer<PayrollProgress> progress) {
+        long start = System.nanoTime();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        for (int i = 0; i < details.size(); i++) {
+            PayrollDetail detail = details.get(i);
+            payrollRun.addDetail(detail);
+            entityManager.persist(detail);
+            if ((i + 1) % batchSize == 0 || i == details.size() - 1) {
+                entityManager.flush();
+                progress.accept(PayrollProgress.of(Stage.PERSIST, i + 1, details.size(), start));
+            }
+        }
+    }
+
+    /**
+     * Payroll detail of a single employee, not yet attached to a run.
+     */
+    public PayrollDetail calculateEmployee(Employee employee, BigDecimal baseSalary, int jkkRiskClass) {
+        PayrollDetail detail = new PayrollDetail();
+        detail.setEmployee(employee);
+        detail.setBaseSalary(baseSalary);
+        detail.setGrossSalary(baseSalary); // For now, gross = base (can add allowances later)
+        detail.setJkkRiskClass(jkkRiskClass);
+
+        // Calculate BPJS
+        var bpjsResult = bpjsCalculationService.calculate(baseSalary, jkkRiskClass);
+        detail.setBpjsKesCompany(bpjsResult.kesehatanCompany());
+        detail.setBpjsKesEmployee(bpjsResult.kesehatanEmployee());
+        detail.setBpjsJkk(bpjsResult.jkk());
+        detail.setBpjsJkm(bpjsResult.jkm());
+        detail.setBpjsJhtCompany(bpjsResult.jhtCompany());
+        detail.setBpjsJhtEmployee(bpjsResult.jhtEmployee());
+        detail.setBpjsJpCompany(bpjsResult.jpCompany());
+        detail.setBpjsJpEmployee(bpjsResult.jpEmployee());
+
+        // Calculate PPh 21
+        boolean hasNpwp = employee.getNpwp() != null && !employee.getNpwp().isBlank();
+        var pph21Result = pph21CalculationService.calculate(baseSalary, employee.getPtkpStatus(), hasNpwp);
+        detail.setPph21(pph21Result.monthlyPph21());
+
+        // Calculate totals
+        detail.calculateTotals();
+
+        return detail;
+    }
+
+    private List<PayrollDetail> calculatePartition(List<Employee> employees, BigDecimal baseSalary, int jkkRiskClass) {
+        List<PayrollDetail> details = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            details.add(calculateEmployee(employee, baseSalary, jkkRiskClass));
+        }
+        return details;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Kalkulasi payroll dibatalkan", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Kalkulasi payroll gagal", e.getCause());
+        }
+    }
+
+    public enum Stage {
+        LOAD, CALCULATE, PERSIST
+    }
+
+    /**
+     * Progress within a stage of a payroll calculation. The last report of a stage has
+     * {@code processed == total} and the wall time of the whole stage.
+     */
+    public record PayrollProgress(Stage stage, int processed, int total, long elapsedMs) {
+
+        static PayrollProgress of(Stage stage, int processed, int total, long startNanos) {
+            return new PayrollProgress(stage, processed, total, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+
+        public boolean completed() {
+            return processed == total;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.PayrollDetail;
+import com.artivisi.accountingfinance.entity.PayrollRun;
+import com.artivisi.accountingfinance.service.PayrollReportService.RenderedPdf;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Year-end and month-end document runs: the 1721-A1 of every employee for a year, or the
+ * payslips of every employee in a payroll run, as one ZIP archive.
+ *
+ * <p>The data is loaded up front with one query per run, then the PDFs are rendered on
+ * virtual threads, at most {@code app.payroll.workers} ahead of the archive. Entries are
+ * written in employee order as they complete, straight to the given stream, so neither
+ * the archive nor all the PDFs are held in memory.
+ */
+@Service
+@Slf4j
+public class PayrollDocumentBatchService {
+
+    private final PayrollService payrollService;
+    private final PayrollReportService payrollReportService;
+    private final int workers;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PayrollDocumentBatchService(
+            PayrollService payrollService,
+            PayrollReportService payrollReportService,
+            @Value("${app.payroll.workers:0}") int workers) {
+        this.payrollService = payrollService;
+        this.payrollReportService = payrollReportService;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Write the 1721-A1 of every employee with posted payroll in the year to {@code out} as a ZIP.
+     */
+    public BatchResult writeBuktiPotongArchive(int year, OutputStream out) throws IOException {
+        List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(year);
+        BatchResult result = writeArchive(summaries,
+                s -> "1721-A1-" + s.employee().getEmployeeId() + "-" + year + ".pdf",
+                payrollReportService::renderBuktiPotong1721A1,
+                out);
+        log.info("Generated {} 1721-A1 for {}: {} pages in {} ms ({} pages/s)",
+                result.documents(), year, result.pages(), result.millis(), result.pagesPerSecond());
+        return result;
+    }
+
+    /**
+     * Write the payslip of every employee in the payroll run to {@code out} as a ZIP.
+     */
+    public BatchResult writePayslipArchive(PayrollRun payrollRun, OutputStream out) throws IOException {
+        List<PayrollDetail> details = payrollService.getPayrollDetails(payrollRun.getId());
+        BatchResult result = writeArchive(details,
+                d -> "slip-gaji-" + d.getEmployeeId() + "-" + payrollRun.getPayrollPeriod() + ".pdf",
+                d -> payrollReportService.renderPayslip(payrollRun, d),
+                out);
+        log.info("Generated {} payslips for {}: {} pages in {} ms ({} pages/s)",
+                result.documents(), payrollRun.getPayrollPeriod(), result.pages(), result.millis(),
+                result.pagesPerSecond());
+        return result;
+    }
+
+    private <T> BatchResult writeArchive(List<T> items, Function<T, String> filename,
+                                         Function<T, RenderedPdf> renderer, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        int pages = 0;
+        Deque<Future<RenderedPdf>> pending = new ArrayDeque<>(workers);
+        ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(out));
+        try {
+            int next = 0;
+            for (int written = 0; written < items.size(); written++) {
+                // Keep the workers busy while the oldest document is written
+                while (next < items.size() && pending.size() < workers) {
+                    T item = items.get(next++);
+                    pending.add(executor.submit(() -> renderer.apply(item)));
+                }
+                RenderedPdf pdf = await(pending.removeFirst());
+                zos.putNextEntry(new ZipEntry(filename.apply(items.get(written))));
+                zos.write(pdf.pdf());
+                zos.closeEntry();
+                pages += pdf.pages();
+            }
+            // Completes the archive without closing the caller's stream
+            zos.finish();
+            zos.flush();
+        } finally {
+            pending.forEach(f -> f.cancel(true));
+        }
+        return new BatchResult(items.size(), pages, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static RenderedPdf await(Future<RenderedPdf> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Pembuatan dokumen dibatalkan", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Pembuatan dokumen gagal", e.getCause());
+        }
+    }
+
+    /**
+     * Size and wall time of a document run.
+     */
+    public record BatchResult(int documents, int pages, long millis) {
+        public long pagesPerSecond() {
+            return millis > 0 ? pages * 1000L / millis : pages;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.artivisi.accountingfinance.service;
 import com.artivisi.accountingfinance.entity.PayrollDetail;
 import com.artivisi.accountingfinance.entity.PayrollRun;
 import com.artivisi.accountingfinance.exception.ReportGenerationException;
+import com.artivisi.accountingfinance.service.ExcelWriter.Style;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
@@ -15,23 +16,13 @@ import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.DataFormat;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -52,14 +43,23 @@ public class PayrollReportService {
     private static final String BPJS_KESEHATAN = "BPJS Kesehatan";
     private static final String NUMBER_PATTERN = "#,##0";
     private static final String PERIODE_PREFIX = "Periode ";
-    private static final DecimalFormat NUMBER_FORMAT;
+    // DecimalFormat is not thread-safe, and documents are rendered in parallel
+    private static final ThreadLocal<DecimalFormat> NUMBER_FORMAT;
+    // Shared by all documents and rendering threads; fonts and colors are never modified after creation
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 14, Font.BOLD);
+    private static final Font SUBTITLE_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL);
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 9, Font.BOLD);
+    private static final Font NORMAL_FONT = new Font(Font.HELVETICA, 9, Font.NORMAL);
+    private static final Font BOLD_FONT = new Font(Font.HELVETICA, 9, Font.BOLD);
+    private static final Font SMALL_FONT = new Font(Font.HELVETICA, 7, Font.ITALIC);
+    private static final Color HIGHLIGHT_COLOR = new Color(230, 230, 230);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.of("id", "ID"));
 
     static {
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.of("id", "ID"));
         symbols.setGroupingSeparator('.');
         symbols.setDecimalSeparator(',');
-        NUMBER_FORMAT = new DecimalFormat(NUMBER_PATTERN, symbols);
+        NUMBER_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat(NUMBER_PATTERN, symbols));
     }
 
     private final PayrollService payrollService;
@@ -111,63 +111,48 @@ public class PayrollReportService {
         }
     }
 
-    public byte[] exportPayrollSummaryToExcel(PayrollRun payrollRun, List<PayrollDetail> details) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Rekap Gaji");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "REKAP GAJI KARYAWAN",
+    public void exportPayrollSummaryToExcel(PayrollRun payrollRun, List<PayrollDetail> details, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Rekap Gaji");
+            excel.reportHeader(COMPANY_NAME, "REKAP GAJI KARYAWAN",
                     PERIODE_PREFIX + payrollRun.getPeriodDisplayName(), 8);
 
             // Summary
-            rowNum = addExcelSummary(workbook, sheet, rowNum, payrollRun);
-            rowNum++; // Empty row
+            addExcelSummary(excel, payrollRun);
+            excel.skipRows(1);
 
             // Headers
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            String[] headers = {"No", "Nama Karyawan", "NIK", "Gaji Bruto", "BPJS Karyawan", PPH_21, TOTAL_POTONGAN, "Gaji Neto"};
-            for (int i = 0; i < headers.length; i++) {
-                createCell(headerRow, i, headers[i], headerStyle);
-            }
-
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
+            excel.headerRow("No", "Nama Karyawan", "NIK", "Gaji Bruto", "BPJS Karyawan", PPH_21, TOTAL_POTONGAN, "Gaji Neto");
 
             int no = 1;
             for (PayrollDetail detail : details) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, String.valueOf(no++), textStyle);
-                createCell(row, 1, detail.getEmployeeName(), textStyle);
-                createCell(row, 2, detail.getEmployeeId(), textStyle);
-                createNumericCell(row, 3, detail.getGrossSalary(), numberStyle);
-                createNumericCell(row, 4, detail.getTotalEmployeeBpjs(), numberStyle);
-                createNumericCell(row, 5, detail.getPph21(), numberStyle);
-                createNumericCell(row, 6, detail.getTotalDeductions(), numberStyle);
-                createNumericCell(row, 7, detail.getNetPay(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, String.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, detail.getEmployeeName(), Style.TEXT);
+                excel.text(row, 2, detail.getEmployeeId(), Style.TEXT);
+                excel.amount(row, 3, detail.getGrossSalary(), Style.NUMBER);
+                excel.amount(row, 4, detail.getTotalEmployeeBpjs(), Style.NUMBER);
+                excel.amount(row, 5, detail.getPph21(), Style.NUMBER);
+                excel.amount(row, 6, detail.getTotalDeductions(), Style.NUMBER);
+                excel.amount(row, 7, detail.getNetPay(), Style.NUMBER);
             }
 
             // Total row
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, TOTAL_LABEL, totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createNumericCell(totalRow, 3, payrollRun.getTotalGross(), totalStyle);
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, TOTAL_LABEL, Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.amount(totalRow, 3, payrollRun.getTotalGross(), Style.TOTAL);
 
             BigDecimal totalEmployeeBpjs = details.stream()
                 .map(PayrollDetail::getTotalEmployeeBpjs)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
-            createNumericCell(totalRow, 4, totalEmployeeBpjs, totalStyle);
-            createNumericCell(totalRow, 5, payrollRun.getTotalPph21(), totalStyle);
-            createNumericCell(totalRow, 6, payrollRun.getTotalDeductions(), totalStyle);
-            createNumericCell(totalRow, 7, payrollRun.getTotalNetPay(), totalStyle);
+            excel.amount(totalRow, 4, totalEmployeeBpjs, Style.TOTAL);
+            excel.amount(totalRow, 5, payrollRun.getTotalPph21(), Style.TOTAL);
+            excel.amount(totalRow, 6, payrollRun.getTotalDeductions(), Style.TOTAL);
+            excel.amount(totalRow, 7, payrollRun.getTotalNetPay(), Style.TOTAL);
 
-            autoSizeColumns(sheet, 8);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Payroll Summary Excel", e);
             throw new ReportGenerationException("Failed to generate Excel: " + e.getMessage(), e);
@@ -208,7 +193,7 @@ public class PayrollReportService {
 
             PdfPCell labelCell = new PdfPCell(new Phrase(TOTAL_LABEL, getBoldFont()));
             labelCell.setPadding(5);
-            labelCell.setBackgroundColor(new Color(230, 230, 230));
+            labelCell.setBackgroundColor(HIGHLIGHT_COLOR);
             labelCell.setBorderWidth(1f);
             table.addCell(labelCell);
 
@@ -217,14 +202,14 @@ public class PayrollReportService {
             PdfPCell grossCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalGross()), getBoldFont()));
             grossCell.setPadding(5);
             grossCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            grossCell.setBackgroundColor(new Color(230, 230, 230));
+            grossCell.setBackgroundColor(HIGHLIGHT_COLOR);
             grossCell.setBorderWidth(1f);
             table.addCell(grossCell);
 
             PdfPCell pphCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalPph21()), getBoldFont()));
             pphCell.setPadding(5);
             pphCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            pphCell.setBackgroundColor(new Color(230, 230, 230));
+            pphCell.setBackgroundColor(HIGHLIGHT_COLOR);
             pphCell.setBorderWidth(1f);
             table.addCell(pphCell);
 
@@ -249,49 +234,34 @@ public class PayrollReportService {
         }
     }
 
-    public byte[] exportPph21ReportToExcel(PayrollRun payrollRun, List<PayrollDetail> details) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet(PPH_21);
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN PPh 21 BULANAN",
+    public void exportPph21ReportToExcel(PayrollRun payrollRun, List<PayrollDetail> details, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet(PPH_21);
+            excel.reportHeader(COMPANY_NAME, "LAPORAN PPh 21 BULANAN",
                     "Masa Pajak " + payrollRun.getPeriodDisplayName(), 6);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            String[] headers = {"No", "Nama", "NPWP", "Penghasilan Bruto", PPH_21, STATUS_PTKP};
-            for (int i = 0; i < headers.length; i++) {
-                createCell(headerRow, i, headers[i], headerStyle);
-            }
-
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
+            excel.headerRow("No", "Nama", "NPWP", "Penghasilan Bruto", PPH_21, STATUS_PTKP);
 
             int no = 1;
             for (PayrollDetail detail : details) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, String.valueOf(no++), textStyle);
-                createCell(row, 1, detail.getEmployeeName(), textStyle);
-                createCell(row, 2, detail.getEmployee().getNpwp() != null ? detail.getEmployee().getNpwp() : "-", textStyle);
-                createNumericCell(row, 3, detail.getGrossSalary(), numberStyle);
-                createNumericCell(row, 4, detail.getPph21(), numberStyle);
-                createCell(row, 5, detail.getEmployee().getPtkpStatus().name(), textStyle);
+                Row row = excel.row();
+                excel.text(row, 0, String.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, detail.getEmployeeName(), Style.TEXT);
+                excel.text(row, 2, detail.getEmployee().getNpwp() != null ? detail.getEmployee().getNpwp() : "-", Style.TEXT);
+                excel.amount(row, 3, detail.getGrossSalary(), Style.NUMBER);
+                excel.amount(row, 4, detail.getPph21(), Style.NUMBER);
+                excel.text(row, 5, detail.getEmployee().getPtkpStatus().name(), Style.TEXT);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, TOTAL_LABEL, totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createNumericCell(totalRow, 3, payrollRun.getTotalGross(), totalStyle);
-            createNumericCell(totalRow, 4, payrollRun.getTotalPph21(), totalStyle);
-            createCell(totalRow, 5, "", totalStyle);
-
-            autoSizeColumns(sheet, 6);
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, TOTAL_LABEL, Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.amount(totalRow, 3, payrollRun.getTotalGross(), Style.TOTAL);
+            excel.amount(totalRow, 4, payrollRun.getTotalPph21(), Style.TOTAL);
+            excel.text(totalRow, 5, "", Style.TOTAL);
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating PPh 21 Report Excel", e);
             throw new ReportGenerationException("Failed to generate Excel: " + e.getMessage(), e);
@@ -394,60 +364,42 @@ public class PayrollReportService {
         }
     }
 
-    public byte[] exportBpjsReportToExcel(PayrollRun payrollRun, List<PayrollDetail> details) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
+    public void exportBpjsReportToExcel(PayrollRun payrollRun, List<PayrollDetail> details, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
             // BPJS Kesehatan Sheet
-            Sheet kesSheet = workbook.createSheet(BPJS_KESEHATAN);
-            int rowNum = 0;
-            rowNum = addExcelHeader(workbook, kesSheet, rowNum, "BPJS KESEHATAN",
+            excel.sheet(BPJS_KESEHATAN);
+            excel.reportHeader(COMPANY_NAME, "BPJS KESEHATAN",
                     PERIODE_PREFIX + payrollRun.getPeriodDisplayName(), 5);
 
-            Row kesHeaderRow = kesSheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            String[] kesHeaders = {"No", "Nama", "Gaji", "Perusahaan (4%)", "Karyawan (1%)"};
-            for (int i = 0; i < kesHeaders.length; i++) {
-                createCell(kesHeaderRow, i, kesHeaders[i], headerStyle);
-            }
-
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
+            excel.headerRow("No", "Nama", "Gaji", "Perusahaan (4%)", "Karyawan (1%)");
 
             int no = 1;
             BigDecimal totalKesCompany = BigDecimal.ZERO;
             BigDecimal totalKesEmployee = BigDecimal.ZERO;
             for (PayrollDetail detail : details) {
-                Row row = kesSheet.createRow(rowNum++);
-                createCell(row, 0, String.valueOf(no++), textStyle);
-                createCell(row, 1, detail.getEmployeeName(), textStyle);
-                createNumericCell(row, 2, detail.getGrossSalary(), numberStyle);
-                createNumericCell(row, 3, detail.getBpjsKesCompany(), numberStyle);
-                createNumericCell(row, 4, detail.getBpjsKesEmployee(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, String.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, detail.getEmployeeName(), Style.TEXT);
+                excel.amount(row, 2, detail.getGrossSalary(), Style.NUMBER);
+                excel.amount(row, 3, detail.getBpjsKesCompany(), Style.NUMBER);
+                excel.amount(row, 4, detail.getBpjsKesEmployee(), Style.NUMBER);
                 totalKesCompany = totalKesCompany.add(detail.getBpjsKesCompany());
                 totalKesEmployee = totalKesEmployee.add(detail.getBpjsKesEmployee());
             }
 
-            Row kesTotalRow = kesSheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(kesTotalRow, 0, "", totalStyle);
-            createCell(kesTotalRow, 1, TOTAL_LABEL, totalStyle);
-            createCell(kesTotalRow, 2, "", totalStyle);
-            createNumericCell(kesTotalRow, 3, totalKesCompany, totalStyle);
-            createNumericCell(kesTotalRow, 4, totalKesEmployee, totalStyle);
-            autoSizeColumns(kesSheet, 5);
+            Row kesTotalRow = excel.row();
+            excel.text(kesTotalRow, 0, "", Style.TOTAL);
+            excel.text(kesTotalRow, 1, TOTAL_LABEL, Style.TOTAL);
+            excel.text(kesTotalRow, 2, "", Style.TOTAL);
+            excel.amount(kesTotalRow, 3, totalKesCompany, Style.TOTAL);
+            excel.amount(kesTotalRow, 4, totalKesEmployee, Style.TOTAL);
 
             // BPJS Ketenagakerjaan Sheet
-            Sheet tkSheet = workbook.createSheet("BPJS Ketenagakerjaan");
-            rowNum = 0;
-            rowNum = addExcelHeader(workbook, tkSheet, rowNum, "BPJS KETENAGAKERJAAN",
+            excel.sheet("BPJS Ketenagakerjaan");
+            excel.reportHeader(COMPANY_NAME, "BPJS KETENAGAKERJAAN",
                     PERIODE_PREFIX + payrollRun.getPeriodDisplayName(), 9);
 
-            Row tkHeaderRow = tkSheet.createRow(rowNum++);
-            String[] tkHeaders = {"No", "Nama", "Gaji", "JKK", "JKM", "JHT (P)", "JHT (K)", "JP (P)", "JP (K)"};
-            for (int i = 0; i < tkHeaders.length; i++) {
-                createCell(tkHeaderRow, i, tkHeaders[i], headerStyle);
-            }
+            excel.headerRow("No", "Nama", "Gaji", "JKK", "JKM", "JHT (P)", "JHT (K)", "JP (P)", "JP (K)");
 
             no = 1;
             BigDecimal totalJkk = BigDecimal.ZERO;
@@ -458,16 +410,16 @@ public class PayrollReportService {
             BigDecimal totalJpE = BigDecimal.ZERO;
 
             for (PayrollDetail detail : details) {
-                Row row = tkSheet.createRow(rowNum++);
-                createCell(row, 0, String.valueOf(no++), textStyle);
-                createCell(row, 1, detail.getEmployeeName(), textStyle);
-                createNumericCell(row, 2, detail.getGrossSalary(), numberStyle);
-                createNumericCell(row, 3, detail.getBpjsJkk(), numberStyle);
-                createNumericCell(row, 4, detail.getBpjsJkm(), numberStyle);
-                createNumericCell(row, 5, detail.getBpjsJhtCompany(), numberStyle);
-                createNumericCell(row, 6, detail.getBpjsJhtEmployee(), numberStyle);
-                createNumericCell(row, 7, detail.getBpjsJpCompany(), numberStyle);
-                createNumericCell(row, 8, detail.getBpjsJpEmployee(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, String.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, detail.getEmployeeName(), Style.TEXT);
+                excel.amount(row, 2, detail.getGrossSalary(), Style.NUMBER);
+                excel.amount(row, 3, detail.getBpjsJkk(), Style.NUMBER);
+                excel.amount(row, 4, detail.getBpjsJkm(), Style.NUMBER);
+                excel.amount(row, 5, detail.getBpjsJhtCompany(), Style.NUMBER);
+                excel.amount(row, 6, detail.getBpjsJhtEmployee(), Style.NUMBER);
+                excel.amount(row, 7, detail.getBpjsJpCompany(), Style.NUMBER);
+                excel.amount(row, 8, detail.getBpjsJpEmployee(), Style.NUMBER);
 
                 totalJkk = totalJkk.add(detail.getBpjsJkk());
                 totalJkm = totalJkm.add(detail.getBpjsJkm());
@@ -477,20 +429,18 @@ public class PayrollReportService {
                 totalJpE = totalJpE.add(detail.getBpjsJpEmployee());
             }
 
-            Row tkTotalRow = tkSheet.createRow(rowNum);
-            createCell(tkTotalRow, 0, "", totalStyle);
-            createCell(tkTotalRow, 1, TOTAL_LABEL, totalStyle);
-            createCell(tkTotalRow, 2, "", totalStyle);
-            createNumericCell(tkTotalRow, 3, totalJkk, totalStyle);
-            createNumericCell(tkTotalRow, 4, totalJkm, totalStyle);
-            createNumericCell(tkTotalRow, 5, totalJhtC, totalStyle);
-            createNumericCell(tkTotalRow, 6, totalJhtE, totalStyle);
-            createNumericCell(tkTotalRow, 7, totalJpC, totalStyle);
-            createNumericCell(tkTotalRow, 8, totalJpE, totalStyle);
-            autoSizeColumns(tkSheet, 9);
-
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row tkTotalRow = excel.row();
+            excel.text(tkTotalRow, 0, "", Style.TOTAL);
+            excel.text(tkTotalRow, 1, TOTAL_LABEL, Style.TOTAL);
+            excel.text(tkTotalRow, 2, "", Style.TOTAL);
+            excel.amount(tkTotalRow, 3, totalJkk, Style.TOTAL);
+            excel.amount(tkTotalRow, 4, totalJkm, Style.TOTAL);
+            excel.amount(tkTotalRow, 5, totalJhtC, Style.TOTAL);
+            excel.amount(tkTotalRow, 6, totalJhtE, Style.TOTAL);
+            excel.amount(tkTotalRow, 7, totalJpC, Style.TOTAL);
+            excel.amount(tkTotalRow, 8, totalJpE, Style.TOTAL);
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating BPJS Report Excel", e);
             throw new ReportGenerationException("Failed to generate Excel: " + e.getMessage(), e);
@@ -500,9 +450,13 @@ public class PayrollReportService {
     // ==================== PAYSLIP ====================
 
     public byte[] generatePayslipPdf(PayrollRun payrollRun, PayrollDetail detail) {
+        return renderPayslip(payrollRun, detail).pdf();
+    }
+
+    RenderedPdf renderPayslip(PayrollRun payrollRun, PayrollDetail detail) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             Document document = new Document(PageSize.A5);
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
             document.open();
 
             // Header
@@ -566,14 +520,14 @@ public class PayrollReportService {
 
             PdfPCell netLabel = new PdfPCell(new Phrase("GAJI BERSIH", getBoldFont()));
             netLabel.setPadding(8);
-            netLabel.setBackgroundColor(new Color(230, 230, 230));
+            netLabel.setBackgroundColor(HIGHLIGHT_COLOR);
             netLabel.setBorderWidth(1f);
             netTable.addCell(netLabel);
 
             PdfPCell netValue = new PdfPCell(new Phrase("Rp " + formatNumber(detail.getNetPay()), getBoldFont()));
             netValue.setPadding(8);
             netValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            netValue.setBackgroundColor(new Color(230, 230, 230));
+            netValue.setBackgroundColor(HIGHLIGHT_COLOR);
             netValue.setBorderWidth(1f);
             netTable.addCell(netValue);
 
@@ -585,9 +539,10 @@ public class PayrollReportService {
             footer.setSpacingBefore(20);
             document.add(footer);
 
+            int pages = writer.getPageNumber();
             document.close();
 
-            return baos.toByteArray();
+            return new RenderedPdf(baos.toByteArray(), pages);
         } catch (DocumentException | IOException e) {
             log.error("Error generating Payslip PDF for employee: {}", detail.getEmployeeId(), e);
             throw new ReportGenerationException("Failed to generate PDF: " + e.getMessage(), e);
@@ -597,9 +552,13 @@ public class PayrollReportService {
     // ==================== BUKTI POTONG 1721-A1 ====================
 
     public byte[] generateBuktiPotong1721A1(PayrollService.YearlyPayrollSummary summary) {
+        return renderBuktiPotong1721A1(summary).pdf();
+    }
+
+    RenderedPdf renderBuktiPotong1721A1(PayrollService.YearlyPayrollSummary summary) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             Document document = new Document(PageSize.A4);
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
             document.open();
 
             var employee = summary.employee();
@@ -695,14 +654,14 @@ public class PayrollReportService {
 
             PdfPCell labelCell = new PdfPCell(new Phrase("16. PPh PASAL 21 YANG TELAH DIPOTONG", getBoldFont()));
             labelCell.setPadding(8);
-            labelCell.setBackgroundColor(new Color(230, 230, 230));
+            labelCell.setBackgroundColor(HIGHLIGHT_COLOR);
             labelCell.setBorderWidth(1f);
             summaryTable.addCell(labelCell);
 
             PdfPCell valueCell = new PdfPCell(new Phrase("Rp " + formatNumber(summary.totalPph21()), getBoldFont()));
             valueCell.setPadding(8);
             valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            valueCell.setBackgroundColor(new Color(230, 230, 230));
+            valueCell.setBackgroundColor(HIGHLIGHT_COLOR);
             valueCell.setBorderWidth(1f);
             summaryTable.addCell(valueCell);
 
@@ -717,9 +676,10 @@ public class PayrollReportService {
             note.setAlignment(Element.ALIGN_CENTER);
             document.add(note);
 
+            int pages = writer.getPageNumber();
             document.close();
 
-            return baos.toByteArray();
+            return new RenderedPdf(baos.toByteArray(), pages);
         } catch (DocumentException | IOException e) {
             log.error("Error generating 1721-A1 for employee: {}", summary.employee().getEmployeeId(), e);
             throw new ReportGenerationException("Failed to generate PDF: " + e.getMessage(), e);
@@ -749,32 +709,32 @@ public class PayrollReportService {
         if (value == null || value.compareTo(BigDecimal.ZERO) == 0) {
             return "-";
         }
-        return NUMBER_FORMAT.format(value);
+        return NUMBER_FORMAT.get().format(value);
     }
 
     // PDF Fonts
     private Font getTitleFont() {
-        return new Font(Font.HELVETICA, 14, Font.BOLD);
+        return TITLE_FONT;
     }
 
     private Font getSubtitleFont() {
-        return new Font(Font.HELVETICA, 10, Font.NORMAL);
+        return SUBTITLE_FONT;
     }
 
     private Font getHeaderFont() {
-        return new Font(Font.HELVETICA, 9, Font.BOLD);
+        return HEADER_FONT;
     }
 
     private Font getNormalFont() {
-        return new Font(Font.HELVETICA, 9, Font.NORMAL);
+        return NORMAL_FONT;
     }
 
     private Font getBoldFont() {
-        return new Font(Font.HELVETICA, 9, Font.BOLD);
+        return BOLD_FONT;
     }
 
     private Font getSmallFont() {
-        return new Font(Font.HELVETICA, 7, Font.ITALIC);
+        return SMALL_FONT;
     }
 
     private void addReportHeader(Document document, String title, String subtitle, String period)
@@ -837,7 +797,7 @@ public class PayrollReportService {
     private PdfPCell createEmptyCell() {
         PdfPCell cell = new PdfPCell(new Phrase("", getNormalFont()));
         cell.setPadding(5);
-        cell.setBackgroundColor(new Color(230, 230, 230));
+        cell.setBackgroundColor(HIGHLIGHT_COLOR);
         cell.setBorderWidth(1f);
         return cell;
     }
@@ -852,7 +812,7 @@ public class PayrollReportService {
 
         PdfPCell labelCell = new PdfPCell(new Phrase(TOTAL_LABEL, getBoldFont()));
         labelCell.setPadding(5);
-        labelCell.setBackgroundColor(new Color(230, 230, 230));
+        labelCell.setBackgroundColor(HIGHLIGHT_COLOR);
         labelCell.setBorderWidth(1f);
         table.addCell(labelCell);
 
@@ -861,35 +821,35 @@ public class PayrollReportService {
         PdfPCell grossCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalGross()), getBoldFont()));
         grossCell.setPadding(5);
         grossCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        grossCell.setBackgroundColor(new Color(230, 230, 230));
+        grossCell.setBackgroundColor(HIGHLIGHT_COLOR);
         grossCell.setBorderWidth(1f);
         table.addCell(grossCell);
 
         PdfPCell bpjsCell = new PdfPCell(new Phrase(formatNumber(totalEmployeeBpjs), getBoldFont()));
         bpjsCell.setPadding(5);
         bpjsCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        bpjsCell.setBackgroundColor(new Color(230, 230, 230));
+        bpjsCell.setBackgroundColor(HIGHLIGHT_COLOR);
         bpjsCell.setBorderWidth(1f);
         table.addCell(bpjsCell);
 
         PdfPCell pphCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalPph21()), getBoldFont()));
         pphCell.setPadding(5);
         pphCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        pphCell.setBackgroundColor(new Color(230, 230, 230));
+        pphCell.setBackgroundColor(HIGHLIGHT_COLOR);
         pphCell.setBorderWidth(1f);
         table.addCell(pphCell);
 
         PdfPCell dedCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalDeductions()), getBoldFont()));
         dedCell.setPadding(5);
         dedCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        dedCell.setBackgroundColor(new Color(230, 230, 230));
+        dedCell.setBackgroundColor(HIGHLIGHT_COLOR);
         dedCell.setBorderWidth(1f);
         table.addCell(dedCell);
 
         PdfPCell netCell = new PdfPCell(new Phrase(formatNumber(payrollRun.getTotalNetPay()), getBoldFont()));
         netCell.setPadding(5);
         netCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        netCell.setBackgroundColor(new Color(230, 230, 230));
+        netCell.setBackgroundColor(HIGHLIGHT_COLOR);
         netCell.setBorderWidth(1f);
         table.addCell(netCell);
     }
@@ -900,7 +860,7 @@ public class PayrollReportService {
 
         PdfPCell labelCell = new PdfPCell(new Phrase(TOTAL_LABEL, getBoldFont()));
         labelCell.setPadding(5);
-        labelCell.setBackgroundColor(new Color(230, 230, 230));
+        labelCell.setBackgroundColor(HIGHLIGHT_COLOR);
         labelCell.setBorderWidth(1f);
         table.addCell(labelCell);
 
@@ -909,14 +869,14 @@ public class PayrollReportService {
         PdfPCell companyCell = new PdfPCell(new Phrase(formatNumber(company), getBoldFont()));
         companyCell.setPadding(5);
         companyCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        companyCell.setBackgroundColor(new Color(230, 230, 230));
+        companyCell.setBackgroundColor(HIGHLIGHT_COLOR);
         companyCell.setBorderWidth(1f);
         table.addCell(companyCell);
 
         PdfPCell employeeCell = new PdfPCell(new Phrase(formatNumber(employee), getBoldFont()));
         employeeCell.setPadding(5);
         employeeCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        employeeCell.setBackgroundColor(new Color(230, 230, 230));
+        employeeCell.setBackgroundColor(HIGHLIGHT_COLOR);
         employeeCell.setBorderWidth(1f);
         table.addCell(employeeCell);
     }
@@ -928,7 +888,7 @@ public class PayrollReportService {
 
         PdfPCell labelCell = new PdfPCell(new Phrase(TOTAL_LABEL, getBoldFont()));
         labelCell.setPadding(5);
-        labelCell.setBackgroundColor(new Color(230, 230, 230));
+        labelCell.setBackgroundColor(HIGHLIGHT_COLOR);
         labelCell.setBorderWidth(1f);
         table.addCell(labelCell);
 
@@ -938,7 +898,7 @@ public class PayrollReportService {
             PdfPCell cell = new PdfPCell(new Phrase(formatNumber(val), getBoldFont()));
             cell.setPadding(5);
             cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            cell.setBackgroundColor(new Color(230, 230, 230));
+            cell.setBackgroundColor(HIGHLIGHT_COLOR);
             cell.setBorderWidth(1f);
             table.addCell(cell);
         }
@@ -970,125 +930,16 @@ public class PayrollReportService {
     }
 
     // Excel Helpers
-    private int addExcelHeader(Workbook workbook, Sheet sheet, int startRow, String title, String period, int columns) {
-        CellStyle titleStyle = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font titleFont = workbook.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 14);
-        titleStyle.setFont(titleFont);
-        titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-        Row companyRow = sheet.createRow(startRow++);
-        Cell companyCell = companyRow.createCell(0);
-        companyCell.setCellValue(COMPANY_NAME);
-        companyCell.setCellStyle(titleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        Row titleRow = sheet.createRow(startRow++);
-        Cell titleCell = titleRow.createCell(0);
-        titleCell.setCellValue(title);
-        titleCell.setCellStyle(titleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        CellStyle subtitleStyle = workbook.createCellStyle();
-        subtitleStyle.setAlignment(HorizontalAlignment.CENTER);
-        Row periodRow = sheet.createRow(startRow++);
-        Cell periodCell = periodRow.createCell(0);
-        periodCell.setCellValue(period);
-        periodCell.setCellStyle(subtitleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        startRow++; // Empty row
-        return startRow;
-    }
-
-    private int addExcelSummary(Workbook workbook, Sheet sheet, int startRow, PayrollRun payrollRun) {
-        CellStyle textStyle = createTextStyle(workbook);
-
-        Row countRow = sheet.createRow(startRow++);
-        createCell(countRow, 0, "Jumlah Karyawan: " + payrollRun.getEmployeeCount(), textStyle);
-
-        Row grossRow = sheet.createRow(startRow++);
-        createCell(grossRow, 0, "Total Bruto: Rp " + formatNumber(payrollRun.getTotalGross()), textStyle);
-
-        Row dedRow = sheet.createRow(startRow++);
-        createCell(dedRow, 0, TOTAL_POTONGAN + ": Rp " + formatNumber(payrollRun.getTotalDeductions()), textStyle);
-
-        Row netRow = sheet.createRow(startRow++);
-        createCell(netRow, 0, "Total Neto: Rp " + formatNumber(payrollRun.getTotalNetPay()), textStyle);
-
-        return startRow;
-    }
-
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        return style;
-    }
-
-    private CellStyle createTextStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        return style;
-    }
-
-    private CellStyle createNumberStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.RIGHT);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat(NUMBER_PATTERN));
-        return style;
+    private void addExcelSummary(ExcelWriter excel, PayrollRun payrollRun) {
+        excel.text(excel.row(), 0, "Jumlah Karyawan: " + payrollRun.getEmployeeCount(), Style.TEXT);
+        excel.text(excel.row(), 0, "Total Bruto: Rp " + formatNumber(payrollRun.getTotalGross()), Style.TEXT);
+        excel.text(excel.row(), 0, TOTAL_POTONGAN + ": Rp " + formatNumber(payrollRun.getTotalDeductions()), Style.TEXT);
+        excel.text(excel.row(), 0, "Total Neto: Rp " + formatNumber(payrollRun.getTotalNetPay()), Style.TEXT);
     }
 
-    private CellStyle createTotalStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat(NUMBER_PATTERN));
-        return style;
-    }
-
-    private void createCell(Row row, int column, String value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        cell.setCellValue(value);
-        cell.setCellStyle(style);
-    }
-
-    private void createNumericCell(Row row, int column, BigDecimal value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        if (value != null && value.compareTo(BigDecimal.ZERO) != 0) {
-            cell.setCellValue(value.doubleValue());
-        }
-        cell.setCellStyle(style);
-    }
-
-    private void autoSizeColumns(Sheet sheet, int columnCount) {
-        for (int i = 0; i < columnCount; i++) {
-            sheet.autoSizeColumn(i);
-        }
+    /**
+     * A rendered PDF and its page count.
+     */
+    record RenderedPdf(byte[] pdf, int pages) {
     }
 }
@@ -1,6 +1,7 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.dto.YearlyPayrollTotalsDto;
 import com.artivisi.accountingfinance.entity.Employee;
 import com.artivisi.accountingfinance.entity.EmploymentStatus;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
@@ -13,6 +14,8 @@ import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.PayrollDetailRepository;
 import com.artivisi.accountingfinance.repository.PayrollRunRepository;
 import com.artivisi.accountingfinance.security.LogSanitizer;
+import com.artivisi.accountingfinance.service.PayrollCalculationEngine.PayrollProgress;
+import com.artivisi.accountingfinance.service.PayrollCalculationEngine.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -23,10 +26,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -44,8 +51,7 @@ public class PayrollService {
     private final PayrollDetailRepository payrollDetailRepository;
     private final EmployeeRepository employeeRepository;
     private final JournalTemplateRepository journalTemplateRepository;
-    private final BpjsCalculationService bpjsCalculationService;
-    private final Pph21CalculationService pph21CalculationService;
+    private final PayrollCalculationEngine payrollCalculationEngine;
     private final TransactionService transactionService;
 
     public PayrollService(
@@ -53,15 +59,13 @@ public class PayrollService {
             PayrollDetailRepository payrollDetailRepository,
             EmployeeRepository employeeRepository,
             JournalTemplateRepository journalTemplateRepository,
-            BpjsCalculationService bpjsCalculationService,
-            Pph21CalculationService pph21CalculationService,
+            PayrollCalculationEngine payrollCalculationEngine,
             TransactionService transactionService) {
         this.payrollRunRepository = payrollRunRepository;
         this.payrollDetailRepository = payrollDetailRepository;
         this.employeeRepository = employeeRepository;
         this.journalTemplateRepository = journalTemplateRepository;
-        this.bpjsCalculationService = bpjsCalculationService;
-        this.pph21CalculationService = pph21CalculationService;
+        this.payrollCalculationEngine = payrollCalculationEngine;
         this.transactionService = transactionService;
     }
 
@@ -84,6 +88,16 @@ public class PayrollService {
      * Calculate payroll for all active employees.
      */
     public PayrollRun calculatePayroll(UUID payrollRunId, BigDecimal baseSalary, int jkkRiskClass) {
+        return calculatePayroll(payrollRunId, baseSalary, jkkRiskClass, PayrollService::logProgress);
+    }
+
+    /**
+     * Calculate payroll for all active employees, reporting the progress of every stage to
+     * {@code progressListener}. See {@link PayrollCalculationEngine}.
+     */
+    public PayrollRun calculatePayroll(UUID payrollRunId, BigDecimal baseSalary, int jkkRiskClass,
+                                       Consumer<PayrollProgress> progressListener) {
+        long start = System.nanoTime();
         PayrollRun payrollRun = payrollRunRepository.findById(payrollRunId)
             .orElseThrow(() -> new IllegalArgumentException(PAYROLL_RUN_NOT_FOUND));
 
@@ -91,9 +105,10 @@ public class PayrollService {
             throw new IllegalStateException("Payroll tidak dapat dikalkulasi karena status: " + payrollRun.getStatus());
         }
 
-        // Clear existing details
-        payrollDetailRepository.deleteByPayrollRun(payrollRun);
-        payrollRun.clearDetails();
+        // Clear existing details in one statement; this clears the persistence context
+        payrollDetailRepository.deleteAllByPayrollRunId(payrollRunId);
+        payrollRun = payrollRunRepository.findById(payrollRunId)
+            .orElseThrow(() -> new IllegalArgumentException(PAYROLL_RUN_NOT_FOUND));
 
         // Get active employees
         List<Employee> activeEmployees = employeeRepository.findByActiveTrueAndEmploymentStatus(EmploymentStatus.ACTIVE);
@@ -101,52 +116,31 @@ public class PayrollService {
         if (activeEmployees.isEmpty()) {
             throw new IllegalStateException("Tidak ada karyawan aktif untuk diproses");
         }
+        progressListener.accept(new PayrollProgress(Stage.LOAD, activeEmployees.size(), activeEmployees.size(),
+            (System.nanoTime() - start) / 1_000_000));
 
-        // Calculate for each employee
-        for (Employee employee : activeEmployees) {
-            PayrollDetail detail = calculateEmployeePayroll(employee, baseSalary, jkkRiskClass);
-            payrollRun.addDetail(detail);
-        }
+        List<PayrollDetail> details = payrollCalculationEngine.calculate(
+            activeEmployees, baseSalary, jkkRiskClass, progressListener);
+        payrollCalculationEngine.persist(payrollRun, details, progressListener);
 
         // Update totals
         payrollRun.calculateTotals();
         payrollRun.setStatus(PayrollStatus.CALCULATED);
 
-        log.info("Calculated payroll for {} employees, period {}", activeEmployees.size(), payrollRun.getPayrollPeriod());
+        log.info("Calculated payroll for {} employees, period {}, in {} ms on {} workers",
+            activeEmployees.size(), payrollRun.getPayrollPeriod(), (System.nanoTime() - start) / 1_000_000,
+            payrollCalculationEngine.getWorkers());
 
         return payrollRunRepository.save(payrollRun);
     }
 
-    /**
-     * Calculate payroll for a single employee.
-     */
-    private PayrollDetail calculateEmployeePayroll(Employee employee, BigDecimal baseSalary, int jkkRiskClass) {
-        PayrollDetail detail = new PayrollDetail();
-        detail.setEmployee(employee);
-        detail.setBaseSalary(baseSalary);
-        detail.setGrossSalary(baseSalary); // For now, gross = base (can add allowances later)
-        detail.setJkkRiskClass(jkkRiskClass);
-
-        // Calculate BPJS
-        var bpjsResult = bpjsCalculationService.calculate(baseSalary, jkkRiskClass);
-        detail.setBpjsKesCompany(bpjsResult.kesehatanCompany());
-        detail.setBpjsKesEmployee(bpjsResult.kesehatanEmployee());
-        detail.setBpjsJkk(bpjsResult.jkk());
-        detail.setBpjsJkm(bpjsResult.jkm());
-        detail.setBpjsJhtCompany(bpjsResult.jhtCompany());
-        detail.setBpjsJhtEmployee(bpjsResult.jhtEmployee());
-        detail.setBpjsJpCompany(bpjsResult.jpCompany());
-        detail.setBpjsJpEmployee(bpjsResult.jpEmployee());
-
-        // Calculate PPh 21
-        boolean hasNpwp = employee.getNpwp() != null && !employee.getNpwp().isBlank();
-        var pph21Result = pph21CalculationService.calculate(baseSalary, employee.getPtkpStatus(), hasNpwp);
-        detail.setPph21(pph21Result.monthlyPph21());
-
-        // Calculate totals
-        detail.calculateTotals();
-
-        return detail;
+    private static void logProgress(PayrollProgress progress) {
+        if (progress.completed()) {
+            log.info("Payroll {}: {} employees in {} ms", progress.stage(), progress.total(), progress.elapsedMs());
+        } else {
+            log.debug("Payroll {}: {} of {} employees after {} ms",
+                progress.stage(), progress.processed(), progress.total(), progress.elapsedMs());
+        }
     }
 
     /**
@@ -364,6 +358,29 @@ public class PayrollService {
         );
     }
 
+    /**
+     * Yearly totals of every employee with posted payroll in the year, from one grouped
+     * query, ordered by employee ID. Same figures as {@link #getYearlyPayrollSummary}.
+     */
+    @Transactional(readOnly = true)
+    public List<YearlyPayrollSummary> getYearlyPayrollSummaries(int year) {
+        List<YearlyPayrollTotalsDto> totals = payrollDetailRepository.sumPostedByEmployeeAndYear(String.valueOf(year));
+        Map<UUID, Employee> employees = employeeRepository.findAllById(
+                totals.stream().map(YearlyPayrollTotalsDto::employeeId).toList()).stream()
+            .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        return totals.stream()
+            .map(t -> new YearlyPayrollSummary(
+                employees.get(t.employeeId()),
+                year,
+                (int) t.monthCount(),
+                t.totalGross(),
+                t.totalBpjsEmployee(),
+                t.totalPph21()))
+            .sorted(Comparator.comparing(s -> s.employee().getEmployeeId()))
+            .toList();
+    }
+
     /**
      * Record for yearly payroll summary.
      */
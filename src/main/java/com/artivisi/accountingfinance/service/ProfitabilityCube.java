@@ -0,0 +1,90 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.enums.NormalBalance;
+import com.artivisi.accountingfinance.service.ProjectProfitabilityService.ProfitabilityLineItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Balances of the revenue and expense accounts per project, filled from one grouped
+ * ledger query for all the projects of a report.
+ *
+ * <p>Each cell is the balance of an account on its normal side, so revenue and expense
+ * are both positive in the usual case. Lines on other accounts (cash, receivables,
+ * inactive or header accounts) are ignored.
+ */
+final class ProfitabilityCube {
+
+    // In account code order, so line items come out sorted
+    private final Map<UUID, ChartOfAccount> accounts;
+    private final Map<UUID, Map<UUID, BigDecimal>> balances = new HashMap<>();
+
+    ProfitabilityCube(Map<UUID, ChartOfAccount> accounts) {
+        this.accounts = accounts;
+    }
+
+    void add(UUID projectId, UUID accountId, BigDecimal debit, BigDecimal credit) {
+        ChartOfAccount account = accounts.get(accountId);
+        if (account == null) {
+            return;
+        }
+        BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
+                ? debit.subtract(credit)
+                : credit.subtract(debit);
+        balances.computeIfAbsent(projectId, p -> new HashMap<>()).merge(accountId, balance, BigDecimal::add);
+    }
+
+    /**
+     * Accounts of {@code type} with a non-zero balance in the project, in account code order.
+     */
+    List<ProfitabilityLineItem> items(UUID projectId, AccountType type) {
+        Map<UUID, BigDecimal> project = balances.getOrDefault(projectId, Map.of());
+        List<ProfitabilityLineItem> items = new ArrayList<>();
+        for (ChartOfAccount account : accounts.values()) {
+            BigDecimal balance = project.get(account.getId());
+            if (account.getAccountType() == type && balance != null && balance.signum() != 0) {
+                items.add(new ProfitabilityLineItem(account, balance));
+            }
+        }
+        return items;
+    }
+
+    BigDecimal total(UUID projectId, AccountType type) {
+        return sum(projectId, type, false);
+    }
+
+    BigDecimal total(Collection<UUID> projectIds, AccountType type) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (UUID projectId : projectIds) {
+            total = total.add(total(projectId, type));
+        }
+        return total;
+    }
+
+    /**
+     * Total of the accounts of {@code type} with a positive balance; credits that exceed the
+     * debits of an expense account do not reduce spending.
+     */
+    BigDecimal positiveTotal(UUID projectId, AccountType type) {
+        return sum(projectId, type, true);
+    }
+
+    private BigDecimal sum(UUID projectId, AccountType type, boolean positiveOnly) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<UUID, BigDecimal> cell : balances.getOrDefault(projectId, Map.of()).entrySet()) {
+            BigDecimal balance = cell.getValue();
+            if (accounts.get(cell.getKey()).getAccountType() == type && (!positiveOnly || balance.signum() > 0)) {
+                total = total.add(balance);
+            }
+        }
+        return total;
+    }
+}
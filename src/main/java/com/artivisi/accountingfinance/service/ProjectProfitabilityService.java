@@ -1,26 +1,33 @@
 package com.artivisi.accountingfinance.service;
 
+import com.artivisi.accountingfinance.dto.ProjectAccountPeriodTotalsDto;
+import com.artivisi.accountingfinance.dto.ProjectAccountTotalsDto;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.Client;
 import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.enums.AccountType;
-import com.artivisi.accountingfinance.enums.NormalBalance;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.ClientRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.ProjectRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,117 +38,96 @@ public class ProjectProfitabilityService {
     private final ClientRepository clientRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalEntryRepository journalEntryRepository;
+    private final ReportCache reportCache;
 
     public ProjectProfitabilityReport calculateProjectProfitability(UUID projectId, LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("project-profitability", startDate, endDate, List.of(projectId),
+                () -> computeProjectProfitability(projectId, startDate, endDate));
+    }
+
+    private ProjectProfitabilityReport computeProjectProfitability(UUID projectId, LocalDate startDate, LocalDate endDate) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
+        // The report outlives this session and shows the client name
+        Hibernate.initialize(project.getClient());
 
-        List<ChartOfAccount> revenueAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.REVENUE, true);
-        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
-
-        List<ProfitabilityLineItem> revenueItems = new ArrayList<>();
-        List<ProfitabilityLineItem> expenseItems = new ArrayList<>();
-
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        BigDecimal totalExpense = BigDecimal.ZERO;
-
-        // Calculate revenue by project
-        for (ChartOfAccount account : revenueAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.CREDIT
-                    ? credit.subtract(debit)
-                    : debit.subtract(credit);
-
-            if (balance.compareTo(BigDecimal.ZERO) != 0) {
-                revenueItems.add(new ProfitabilityLineItem(account, balance));
-                totalRevenue = totalRevenue.add(balance);
-            }
-        }
-
-        // Calculate expenses by project
-        for (ChartOfAccount account : expenseAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
-                    ? debit.subtract(credit)
-                    : credit.subtract(debit);
-
-            if (balance.compareTo(BigDecimal.ZERO) != 0) {
-                expenseItems.add(new ProfitabilityLineItem(account, balance));
-                totalExpense = totalExpense.add(balance);
-            }
-        }
+        ProfitabilityCube cube = cube(List.of(projectId), startDate, endDate);
 
+        BigDecimal totalRevenue = cube.total(projectId, AccountType.REVENUE);
+        BigDecimal totalExpense = cube.total(projectId, AccountType.EXPENSE);
         BigDecimal grossProfit = totalRevenue.subtract(totalExpense);
-        BigDecimal profitMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
-                ? grossProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
 
         return new ProjectProfitabilityReport(
                 project, startDate, endDate,
-                revenueItems, expenseItems,
+                cube.items(projectId, AccountType.REVENUE), cube.items(projectId, AccountType.EXPENSE),
                 totalRevenue, totalExpense,
-                grossProfit, profitMargin
+                grossProfit, margin(grossProfit, totalRevenue)
         );
     }
 
     public ClientProfitabilityReport calculateClientProfitability(UUID clientId, LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("client-profitability", startDate, endDate, List.of(clientId),
+                () -> computeClientProfitability(clientId, startDate, endDate));
+    }
+
+    private ClientProfitabilityReport computeClientProfitability(UUID clientId, LocalDate startDate, LocalDate endDate) {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new EntityNotFoundException("Client not found: " + clientId));
 
         List<Project> projects = projectRepository.findByClientId(clientId);
+        ProfitabilityCube cube = cube(projects.stream().map(Project::getId).toList(), startDate, endDate);
+
+        return clientProfitability(client, projects, cube, startDate, endDate);
+    }
+
+    private ClientProfitabilityReport clientProfitability(Client client, List<Project> projects, ProfitabilityCube cube,
+                                                          LocalDate startDate, LocalDate endDate) {
         List<ProjectProfitabilitySummary> projectSummaries = new ArrayList<>();
 
         BigDecimal totalRevenue = BigDecimal.ZERO;
         BigDecimal totalProfit = BigDecimal.ZERO;
 
         for (Project project : projects) {
-            ProjectProfitabilityReport report = calculateProjectProfitability(project.getId(), startDate, endDate);
-            if (report.totalRevenue().compareTo(BigDecimal.ZERO) > 0 ||
-                report.totalExpense().compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal revenue = cube.total(project.getId(), AccountType.REVENUE);
+            BigDecimal expense = cube.total(project.getId(), AccountType.EXPENSE);
+            if (revenue.compareTo(BigDecimal.ZERO) > 0 || expense.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal profit = revenue.subtract(expense);
                 projectSummaries.add(new ProjectProfitabilitySummary(
                         project,
-                        report.totalRevenue(),
-                        report.grossProfit(),
-                        report.profitMargin()
+                        revenue,
+                        profit,
+                        margin(profit, revenue)
                 ));
-                totalRevenue = totalRevenue.add(report.totalRevenue());
-                totalProfit = totalProfit.add(report.grossProfit());
+                totalRevenue = totalRevenue.add(revenue);
+                totalProfit = totalProfit.add(profit);
             }
         }
 
-        BigDecimal overallMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
-                ? totalProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
         return new ClientProfitabilityReport(
                 client, startDate, endDate,
                 projectSummaries,
-                totalRevenue, totalProfit, overallMargin
+                totalRevenue, totalProfit, margin(totalProfit, totalRevenue)
         );
     }
 
     public List<ClientRankingItem> getClientRanking(LocalDate startDate, LocalDate endDate, int limit) {
+        return reportCache.get("client-ranking", startDate, endDate, List.of(limit),
+                () -> computeClientRanking(startDate, endDate, limit));
+    }
+
+    private List<ClientRankingItem> computeClientRanking(LocalDate startDate, LocalDate endDate, int limit) {
         List<Client> clients = clientRepository.findByActiveTrue();
-        List<ClientRankingItem> rankings = new ArrayList<>();
+        List<Project> projects = projectRepository.findByClientActiveTrue();
+        ProfitabilityCube cube = cube(projects.stream().map(Project::getId).toList(), startDate, endDate);
+        Map<UUID, List<Project>> projectsByClient = projects.stream()
+                .collect(Collectors.groupingBy(p -> p.getClient().getId()));
 
+        List<ClientRankingItem> rankings = new ArrayList<>();
         BigDecimal grandTotalRevenue = BigDecimal.ZERO;
 
         for (Client client : clients) {
-            ClientProfitabilityReport report = calculateClientProfitability(client.getId(), startDate, endDate);
+            ClientProfitabilityReport report = clientProfitability(client,
+                    projectsByClient.getOrDefault(client.getId(), List.of()), cube, startDate, endDate);
             if (report.totalRevenue().compareTo(BigDecimal.ZERO) > 0) {
                 rankings.add(new ClientRankingItem(
                         client,
@@ -186,29 +172,8 @@ public class ProjectProfitabilityService {
         BigDecimal contractValue = project.getContractValue() != null ? project.getContractValue() : BigDecimal.ZERO;
 
         // Calculate total spent (expenses) for this project
-        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
-
-        BigDecimal totalSpent = BigDecimal.ZERO;
-        LocalDate startDate = LocalDate.of(1900, 1, 1);
-        LocalDate endDate = LocalDate.now();
-
-        for (ChartOfAccount account : expenseAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
-                    ? debit.subtract(credit)
-                    : credit.subtract(debit);
-
-            if (balance.compareTo(BigDecimal.ZERO) > 0) {
-                totalSpent = totalSpent.add(balance);
-            }
-        }
+        ProfitabilityCube cube = cube(List.of(projectId), LocalDate.of(1900, 1, 1), LocalDate.now());
+        BigDecimal totalSpent = cube.positiveTotal(projectId, AccountType.EXPENSE);
 
         // Calculate progress from milestones
         int progress = project.getProgressPercent();
@@ -251,6 +216,87 @@ public class ProjectProfitabilityService {
         );
     }
 
+    /**
+     * Revenue, expense and profit of a project for every month from {@code startDate} to
+     * {@code endDate}, including months without activity, for trend charts.
+     */
+    public List<MonthlyProfitability> calculateProjectMonthlyTrend(UUID projectId, LocalDate startDate, LocalDate endDate) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new EntityNotFoundException("Project not found: " + projectId);
+        }
+        return reportCache.get("project-profitability-trend", startDate, endDate, List.of(projectId),
+                () -> monthlyTrend(List.of(projectId), startDate, endDate));
+    }
+
+    /**
+     * Monthly revenue, expense and profit over all projects of a client.
+     */
+    public List<MonthlyProfitability> calculateClientMonthlyTrend(UUID clientId, LocalDate startDate, LocalDate endDate) {
+        if (!clientRepository.existsById(clientId)) {
+            throw new EntityNotFoundException("Client not found: " + clientId);
+        }
+        return reportCache.get("client-profitability-trend", startDate, endDate, List.of(clientId),
+                () -> monthlyTrend(projectRepository.findByClientId(clientId).stream().map(Project::getId).toList(),
+                        startDate, endDate));
+    }
+
+    private List<MonthlyProfitability> monthlyTrend(List<UUID> projectIds, LocalDate startDate, LocalDate endDate) {
+        Map<UUID, ChartOfAccount> accounts = profitAndLossAccounts();
+        Map<YearMonth, ProfitabilityCube> months = new HashMap<>();
+        if (!projectIds.isEmpty()) {
+            for (ProjectAccountPeriodTotalsDto row : journalEntryRepository
+                    .sumDebitCreditGroupedByProjectAccountAndMonth(projectIds, startDate, endDate)) {
+                months.computeIfAbsent(YearMonth.of(row.periodYear(), row.periodMonth()),
+                                m -> new ProfitabilityCube(accounts))
+                        .add(row.projectId(), row.accountId(), row.debitTotal(), row.creditTotal());
+            }
+        }
+
+        List<MonthlyProfitability> trend = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            ProfitabilityCube cube = months.get(month);
+            BigDecimal revenue = cube != null ? cube.total(projectIds, AccountType.REVENUE) : BigDecimal.ZERO;
+            BigDecimal expense = cube != null ? cube.total(projectIds, AccountType.EXPENSE) : BigDecimal.ZERO;
+            trend.add(new MonthlyProfitability(month, revenue, expense, revenue.subtract(expense)));
+        }
+        return trend;
+    }
+
+    /**
+     * Balances of the given projects from one grouped query over the ledger.
+     */
+    private ProfitabilityCube cube(List<UUID> projectIds, LocalDate startDate, LocalDate endDate) {
+        ProfitabilityCube cube = new ProfitabilityCube(profitAndLossAccounts());
+        if (!projectIds.isEmpty()) {
+            for (ProjectAccountTotalsDto row : journalEntryRepository
+                    .sumDebitCreditGroupedByProjectAndAccount(projectIds, startDate, endDate)) {
+                cube.add(row.projectId(), row.accountId(), row.debitTotal(), row.creditTotal());
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * Active revenue and expense accounts that can hold lines, in account code order.
+     */
+    private Map<UUID, ChartOfAccount> profitAndLossAccounts() {
+        Map<UUID, ChartOfAccount> accounts = new LinkedHashMap<>();
+        for (AccountType type : List.of(AccountType.REVENUE, AccountType.EXPENSE)) {
+            for (ChartOfAccount account : chartOfAccountRepository.findByAccountTypeAndActiveOrderByAccountCodeAsc(type, true)) {
+                if (!account.getIsHeader()) {
+                    accounts.put(account.getId(), account);
+                }
+            }
+        }
+        return accounts;
+    }
+
+    private static BigDecimal margin(BigDecimal profit, BigDecimal revenue) {
+        return revenue.compareTo(BigDecimal.ZERO) > 0
+                ? profit.multiply(BigDecimal.valueOf(100)).divide(revenue, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
     // DTOs
     public record ProjectProfitabilityReport(
             Project project,
@@ -294,6 +340,13 @@ public class ProjectProfitabilityService {
             BigDecimal revenuePercentage
     ) {}
 
+    public record MonthlyProfitability(
+            YearMonth month,
+            BigDecimal revenue,
+            BigDecimal expense,
+            BigDecimal profit
+    ) {}
+
     public record CostOverrunReport(
             Project project,
             BigDecimal budget,
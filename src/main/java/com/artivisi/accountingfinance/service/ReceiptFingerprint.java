@@ -0,0 +1,152 @@
+package com.artivisi.accountingfinance.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Identifies the receipt format from keywords in the first lines of the OCR text.
+ *
+ * <p>Every receipt app prints its name at the top, so only the first {@code headerLines}
+ * non-blank lines are read. All keywords are found in one pass with a trie walked from
+ * each word start, case-insensitively; a keyword must start a word, so "bsi" is not found
+ * in "subsidi". The first rule whose keywords were all found gives the format.
+ */
+public final class ReceiptFingerprint {
+
+    private static final int ALPHABET = 128;
+
+    /**
+     * A format and the keywords that must all appear in the header. Keywords are ASCII.
+     */
+    public record Rule(String type, List<String> keywords) {
+
+        public static Rule of(String type, String... keywords) {
+            return new Rule(type, List.of(keywords));
+        }
+    }
+
+    private final int headerLines;
+    private final String[] types;
+    private final long[] required;
+    private final int[][] next;
+    private final long[] found;
+
+    /**
+     * @param rules in priority order
+     */
+    public ReceiptFingerprint(int headerLines, List<Rule> rules) {
+        if (headerLines < 1) {
+            throw new IllegalArgumentException("headerLines must be positive");
+        }
+        this.headerLines = headerLines;
+
+        Map<String, Integer> keywordIds = new LinkedHashMap<>();
+        types = new String[rules.size()];
+        required = new long[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if (rule.keywords().isEmpty()) {
+                throw new IllegalArgumentException("Rule for " + rule.type() + " has no keywords");
+            }
+            types[i] = rule.type();
+            for (String keyword : rule.keywords()) {
+                String key = keyword.toLowerCase(Locale.ROOT);
+                Integer id = keywordIds.computeIfAbsent(key, _ -> keywordIds.size());
+                if (id >= Long.SIZE) {
+                    throw new IllegalArgumentException("At most " + Long.SIZE + " distinct keywords are supported");
+                }
+                required[i] |= 1L << id;
+            }
+        }
+
+        List<int[]> states = new ArrayList<>();
+        List<Long> terminal = new ArrayList<>();
+        states.add(newState());
+        terminal.add(0L);
+        for (Map.Entry<String, Integer> keyword : keywordIds.entrySet()) {
+            String key = keyword.getKey();
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Keyword is not ASCII: " + key);
+                }
+                if (states.get(state)[c] == 0) {
+                    states.add(newState());
+                    terminal.add(0L);
+                    states.get(state)[c] = states.size() - 1;
+                }
+                state = states.get(state)[c];
+            }
+            terminal.set(state, terminal.get(state) | 1L << keyword.getValue());
+        }
+        next = states.toArray(int[][]::new);
+        found = terminal.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int[] newState() {
+        // 0 is the root, which is never a target, so it doubles as "no edge"
+        return new int[ALPHABET];
+    }
+
+    /**
+     * Type of the first rule matching the header, or null if none does.
+     */
+    public String detect(String text) {
+        long keywords = 0;
+        int lines = 0;
+        boolean blank = true;
+        for (int i = 0; i < text.length() && lines < headerLines; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                if (!blank) {
+                    lines++;
+                }
+                blank = true;
+            } else if (!Character.isWhitespace(c)) {
+                blank = false;
+                if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    keywords |= keywordsAt(text, i);
+                }
+            }
+        }
+        for (int rule = 0; rule < types.length; rule++) {
+            if ((keywords & required[rule]) == required[rule]) {
+                return types[rule];
+            }
+        }
+        return null;
+    }
+
+    private long keywordsAt(String text, int start) {
+        long keywords = 0;
+        int state = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else if (c >= ALPHABET) {
+                break;
+            }
+            state = next[state][c];
+            if (state == 0) {
+                break;
+            }
+            keywords |= found[state];
+        }
+        return keywords;
+    }
+
+    /**
+     * Types named by the rules, in rule order and with repeats.
+     */
+    public List<String> types() {
+        return List.of(types);
+    }
+}
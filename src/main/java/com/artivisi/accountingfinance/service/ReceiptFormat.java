@@ -0,0 +1,21 @@
+package com.artivisi.accountingfinance.service;
+
+/**
+ * Field extractor for one receipt layout.
+ *
+ * <p>{@link ReceiptParserService} runs only the format that {@link ReceiptFingerprint}
+ * picks for a receipt, so an extractor can assume the layout it was written for. The
+ * built-in formats are in {@link ReceiptFormats}.
+ */
+public interface ReceiptFormat {
+
+    /**
+     * Receipt type this format handles, as reported in {@link ReceiptParserService.ParsedReceipt#receiptType()}.
+     */
+    String type();
+
+    /**
+     * Extract the fields with a confidence score for each.
+     */
+    ReceiptParserService.ParsedReceipt parse(String text);
+}
@@ -0,0 +1,292 @@
+package com.artivisi.accountingfinance.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Built-in receipt formats: Bank Jago, CIMB OCTO, GoPay, BYOND/BSI, and a generic format
+ * for receipts no fingerprint rule matches. All patterns are compiled once.
+ */
+public final class ReceiptFormats {
+
+    public static final String JAGO = "jago";
+    public static final String CIMB = "cimb";
+    public static final String GOPAY = "gopay";
+    public static final String BYOND = "byond";
+    public static final String UNKNOWN = "unknown";
+
+    static final int HEADER_LINES = 8;
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE;
+    private static final String RUPIAH_AMOUNT = "Rp\\s*([\\d.,]+)";
+    private static final String DATE_DMY = "(\\d{1,2}\\s+\\w+\\s+\\d{4})";
+
+    private static final Pattern RUPIAH = Pattern.compile(RUPIAH_AMOUNT, FLAGS);
+    private static final Pattern DMY = Pattern.compile(DATE_DMY, FLAGS);
+
+    private static final Pattern JAGO_MERCHANT = Pattern.compile("Acquirer Name\\s*\\n?\\s*([A-Za-z\\s]+?)(?:\\n|Fee)", FLAGS);
+    private static final Pattern JAGO_REFERENCE = Pattern.compile("Reference Number\\s*\\n?\\s*([a-z0-9]+)", FLAGS);
+
+    private static final Pattern CIMB_AMOUNT = Pattern.compile("IDR\\s*([\\d,\\.]+)", FLAGS);
+    private static final Pattern CIMB_DATE = Pattern.compile("Transaction Time\\s*\\n?\\s*" + DATE_DMY, FLAGS);
+    private static final Pattern CIMB_REFERENCE = Pattern.compile("(\\d{12})\\s*$", FLAGS);
+    private static final Pattern UPPERCASE_NAME = Pattern.compile("[A-Z][A-Z\\s]+");
+
+    private static final Pattern GOPAY_MERCHANT = Pattern.compile("Ditransfer ke\\s+(.+)\\n", FLAGS);
+    private static final Pattern GOPAY_DATE = Pattern.compile("Tanggal\\s*\\n?\\s*" + DATE_DMY, FLAGS);
+    private static final Pattern GOPAY_REFERENCE = Pattern.compile("ID transaksi\\s*\\n?\\s*([a-z0-9]+)", FLAGS);
+
+    private static final Pattern BYOND_MERCHANT = Pattern.compile("Nama Merchant\\s*\\n?\\s*(.+)\\n", FLAGS);
+    private static final Pattern BYOND_REFERENCE = Pattern.compile("Nomor Transaksi\\s*\\n?\\s*(FT[A-Z0-9]+)", FLAGS);
+
+    private static final Pattern GENERIC_AMOUNT = Pattern.compile("(?:Rp|IDR)\\s*([\\d.,]+)", FLAGS);
+    private static final Pattern GENERIC_TOTAL = Pattern.compile("TOTAL\\s*(?:Rp|IDR)?\\s*([\\d.,]+)", FLAGS);
+    private static final Pattern GENERIC_NUMERIC_DATE = Pattern.compile("(\\d{1,2}[/\\-]\\d{1,2}[/\\-]\\d{2,4})", FLAGS);
+    private static final Pattern NUMERIC_LINE = Pattern.compile("[\\d\\s/\\-:]+");
+
+    private static final Pattern DAY_MONTH_NAME_YEAR = Pattern.compile("(\\d{1,2})\\s+(\\w+)\\s+(\\d{4})");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D");
+    private static final DateTimeFormatter DD_MM_YYYY_SLASH = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DD_MM_YYYY_DASH = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter YYYY_MM_DD = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final Map<String, Integer> INDONESIAN_MONTHS = Map.ofEntries(
+            Map.entry("januari", 1), Map.entry("jan", 1),
+            Map.entry("februari", 2), Map.entry("feb", 2),
+            Map.entry("maret", 3), Map.entry("mar", 3),
+            Map.entry("april", 4), Map.entry("apr", 4),
+            Map.entry("mei", 5), Map.entry("may", 5),
+            Map.entry("juni", 6), Map.entry("jun", 6),
+            Map.entry("juli", 7), Map.entry("jul", 7),
+            Map.entry("agustus", 8), Map.entry("agu", 8), Map.entry("aug", 8),
+            Map.entry("september", 9), Map.entry("sep", 9),
+            Map.entry("oktober", 10), Map.entry("okt", 10), Map.entry("oct", 10),
+            Map.entry("november", 11), Map.entry("nov", 11),
+            Map.entry("desember", 12), Map.entry("des", 12), Map.entry("dec", 12)
+    );
+
+    private static final Confidence JAGO_CONFIDENCE = new Confidence("0.85", "0.95", "0.90");
+    private static final Confidence CIMB_CONFIDENCE = new Confidence("0.80", "0.90", "0.85");
+    private static final Confidence GOPAY_CONFIDENCE = new Confidence("0.90", "0.95", "0.90");
+    private static final Confidence BYOND_CONFIDENCE = new Confidence("0.85", "0.90", "0.85");
+    private static final Confidence GENERIC_CONFIDENCE = new Confidence("0.50", "0.70", "0.60");
+    private static final BigDecimal AMOUNT_WEIGHT = new BigDecimal("0.40");
+    private static final BigDecimal DATE_WEIGHT = new BigDecimal("0.30");
+    private static final BigDecimal MERCHANT_WEIGHT = new BigDecimal("0.30");
+
+    private ReceiptFormats() {
+    }
+
+    /**
+     * Fingerprint rules in priority order. A BYOND receipt also says BSI and a Jago
+     * Syariah receipt may mention other banks, so the more specific rules come first.
+     */
+    public static ReceiptFingerprint fingerprint() {
+        return new ReceiptFingerprint(HEADER_LINES, List.of(
+                ReceiptFingerprint.Rule.of(BYOND, "byond"),
+                ReceiptFingerprint.Rule.of(JAGO, "jago", "syariah"),
+                ReceiptFingerprint.Rule.of(CIMB, "octo"),
+                ReceiptFingerprint.Rule.of(GOPAY, "gopay"),
+                ReceiptFingerprint.Rule.of(JAGO, "jago"),
+                ReceiptFingerprint.Rule.of(CIMB, "cimb"),
+                ReceiptFingerprint.Rule.of(BYOND, "bsi")));
+    }
+
+    public static List<ReceiptFormat> formats() {
+        return List.of(
+                new BuiltInFormat(JAGO, ReceiptFormats::parseJago),
+                new BuiltInFormat(CIMB, ReceiptFormats::parseCimb),
+                new BuiltInFormat(GOPAY, ReceiptFormats::parseGopay),
+                new BuiltInFormat(BYOND, ReceiptFormats::parseByond));
+    }
+
+    /**
+     * Format for receipts no fingerprint rule matches.
+     */
+    public static ReceiptFormat generic() {
+        return new BuiltInFormat(UNKNOWN, ReceiptFormats::parseGeneric);
+    }
+
+    private record BuiltInFormat(String type, Function<String, ReceiptParserService.ParsedReceipt> parser)
+            implements ReceiptFormat {
+
+        @Override
+        public ReceiptParserService.ParsedReceipt parse(String text) {
+            return parser.apply(text);
+        }
+    }
+
+    private record Confidence(BigDecimal merchant, BigDecimal amount, BigDecimal date) {
+
+        Confidence(String merchant, String amount, String date) {
+            this(new BigDecimal(merchant), new BigDecimal(amount), new BigDecimal(date));
+        }
+    }
+
+    private static ReceiptParserService.ParsedReceipt parseJago(String text) {
+        return receipt(JAGO, text, JAGO_CONFIDENCE,
+                find(JAGO_MERCHANT, text),
+                parseAmount(find(RUPIAH, text)),
+                parseDate(find(DMY, text)),
+                find(JAGO_REFERENCE, text));
+    }
+
+    private static ReceiptParserService.ParsedReceipt parseCimb(String text) {
+        return receipt(CIMB, text, CIMB_CONFIDENCE,
+                findCimbRecipient(text),
+                parseAmount(find(CIMB_AMOUNT, text)),
+                parseDate(find(CIMB_DATE, text)),
+                find(CIMB_REFERENCE, text));
+    }
+
+    private static ReceiptParserService.ParsedReceipt parseGopay(String text) {
+        return receipt(GOPAY, text, GOPAY_CONFIDENCE,
+                find(GOPAY_MERCHANT, text),
+                parseAmount(find(RUPIAH, text)),
+                parseDate(find(GOPAY_DATE, text)),
+                find(GOPAY_REFERENCE, text));
+    }
+
+    private static ReceiptParserService.ParsedReceipt parseByond(String text) {
+        return receipt(BYOND, text, BYOND_CONFIDENCE,
+                find(BYOND_MERCHANT, text),
+                parseAmount(find(RUPIAH, text)),
+                parseDate(find(DMY, text)),
+                find(BYOND_REFERENCE, text));
+    }
+
+    private static ReceiptParserService.ParsedReceipt parseGeneric(String text) {
+        BigDecimal amount = parseAmount(find(GENERIC_AMOUNT, text));
+        if (amount == null) {
+            amount = parseAmount(find(GENERIC_TOTAL, text));
+        }
+
+        LocalDate date = parseDate(find(GENERIC_NUMERIC_DATE, text));
+        if (date == null) {
+            date = parseDate(find(DMY, text));
+        }
+
+        return receipt(UNKNOWN, text, GENERIC_CONFIDENCE, findFirstMerchantLine(text), amount, date, null);
+    }
+
+    private static ReceiptParserService.ParsedReceipt receipt(
+            String type, String text, Confidence confidence,
+            String merchant, BigDecimal amount, LocalDate date, String reference) {
+        BigDecimal merchantConf = merchant != null ? confidence.merchant() : BigDecimal.ZERO;
+        BigDecimal amountConf = amount != null ? confidence.amount() : BigDecimal.ZERO;
+        BigDecimal dateConf = date != null ? confidence.date() : BigDecimal.ZERO;
+
+        return new ReceiptParserService.ParsedReceipt(
+                type, merchant, amount, date, reference, text,
+                merchantConf, amountConf, dateConf,
+                overallConfidence(merchantConf, amountConf, dateConf));
+    }
+
+    private static String find(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+
+    static BigDecimal parseAmount(String amountStr) {
+        if (amountStr == null) return null;
+
+        try {
+            // Remove thousands separators and normalize decimal
+            String normalized = amountStr
+                    .replace(".", "")  // Remove thousand separator (Indonesian)
+                    .replace(",", "."); // Convert decimal separator
+
+            // Handle case like "10,000,00000" -> remove trailing zeros after comma
+            if (normalized.contains(".") && normalized.length() - normalized.indexOf(".") > 3) {
+                normalized = normalized.substring(0, normalized.indexOf(".") + 3);
+            }
+
+            return new BigDecimal(normalized);
+        } catch (NumberFormatException _) {
+            // Try alternative parsing
+            try {
+                return new BigDecimal(NON_DIGIT.matcher(amountStr).replaceAll(""));
+            } catch (NumberFormatException _) {
+                return null;
+            }
+        }
+    }
+
+    static LocalDate parseDate(String dateStr) {
+        if (dateStr == null) return null;
+
+        // Indonesian or English month name: "26 Nov 2025", "5 Agustus 2025"
+        Matcher m = DAY_MONTH_NAME_YEAR.matcher(dateStr);
+        if (m.find()) {
+            Integer month = INDONESIAN_MONTHS.get(m.group(2).toLowerCase(Locale.ROOT));
+            if (month != null) {
+                try {
+                    return LocalDate.of(Integer.parseInt(m.group(3)), month, Integer.parseInt(m.group(1)));
+                } catch (DateTimeException _) {
+                    return null;
+                }
+            }
+        }
+
+        // Only try the formatters whose separator is in the text, so most misses throw nothing
+        if (dateStr.indexOf('/') >= 0) {
+            return tryParse(dateStr, DD_MM_YYYY_SLASH);
+        }
+        if (dateStr.indexOf('-') >= 0) {
+            LocalDate parsed = tryParse(dateStr, DD_MM_YYYY_DASH);
+            return parsed != null ? parsed : tryParse(dateStr, YYYY_MM_DD);
+        }
+        return null;
+    }
+
+    private static LocalDate tryParse(String dateStr, DateTimeFormatter formatter) {
+        try {
+            return LocalDate.parse(dateStr, formatter);
+        } catch (DateTimeParseException _) {
+            return null;
+        }
+    }
+
+    private static String findCimbRecipient(String text) {
+        // Look for name pattern after IDR amount
+        String[] lines = text.split("\n");
+        for (int i = 0; i < lines.length - 1; i++) {
+            if (lines[i].contains("IDR")) {
+                String nextLine = lines[i + 1].trim();
+                if (UPPERCASE_NAME.matcher(nextLine).matches()) {
+                    return nextLine;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String findFirstMerchantLine(String text) {
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.length() > 3 && !NUMERIC_LINE.matcher(trimmed).matches()) {
+                return trimmed;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal overallConfidence(BigDecimal merchant, BigDecimal amount, BigDecimal date) {
+        // Weighted average: amount (40%), date (30%), merchant (30%)
+        BigDecimal weighted = amount.multiply(AMOUNT_WEIGHT)
+                .add(date.multiply(DATE_WEIGHT))
+                .add(merchant.multiply(MERCHANT_WEIGHT));
+
+        return weighted.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,240 @@
+package com.artivisi.accountingfinance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Results of the ledger reports, kept until a posted or voided transaction falls in their date range.
+ *
+ * <p>Every report is cached with the range of transaction dates it reads: {@code [start, end]}
+ * for period reports, and from {@link LedgerBalanceService#BEGINNING_OF_TIME} for balances as
+ * of a date. When a transaction is posted or voided ({@link LedgerChangeListener}) only the
+ * reports whose range contains its date are dropped, once the writing transaction ends. Changes
+ * to accounts, templates, clients and projects drop everything.
+ *
+ * <p>The ledger version counts changes. A report is only stored if the version did not move
+ * while it was computed, so a result read before a change commits is never kept after it.
+ *
+ * <p>Reports are only served from the cache outside read-write transactions: those may hold
+ * ledger changes not flushed yet, which the cache cannot know about. The least recently used
+ * report is dropped beyond {@code app.report-cache.max-entries}.
+ */
+@Service
+@Slf4j
+public class ReportCache {
+
+    private final int maxEntries;
+    private final AtomicLong ledgerVersion = new AtomicLong();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final Object pendingKey = new Object();
+
+    // Access ordered, so iteration starts at the least recently used report
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ReportCache(@Value("${app.report-cache.max-entries:500}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached result of a report reading transactions dated {@code from} to {@code to}, or the result
+     * of {@code loader} if there is none.
+     *
+     * @param params parameters of the report besides the dates, with value equality
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String report, LocalDate from, LocalDate to, List<?> params, Supplier<T> loader) {
+        if (!usable()) {
+            return loader.get();
+        }
+        Counters reportCounters = counters(report);
+        Key key = new Key(report, from, to, params);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                reportCounters.hits.increment();
+                return (T) entry.result();
+            }
+        }
+        reportCounters.misses.increment();
+
+        long version = ledgerVersion.get();
+        T result = loader.get();
+        synchronized (entries) {
+            if (ledgerVersion.get() == version) {
+                entries.put(key, new Entry(from, to, result));
+                evictOverflow();
+            }
+        }
+        return result;
+    }
+
+    public long getLedgerVersion() {
+        return ledgerVersion.get();
+    }
+
+    /**
+     * Called when a transaction dated {@code date} is posted or voided. Reports over the date are
+     * dropped when the writing transaction ends, or right away without one.
+     */
+    public void ledgerChanged(LocalDate date) {
+        ledgerVersion.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().add(date);
+        } else {
+            evict(date, date);
+        }
+    }
+
+    /**
+     * Drop every report, for changes that are not tied to a transaction date.
+     */
+    public void invalidateAll() {
+        ledgerVersion.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().all = true;
+        }
+        clear();
+    }
+
+    /**
+     * Changes of the current transaction, applied once when it ends rather than on every write.
+     */
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending != null) {
+            return pending;
+        }
+        PendingChanges created = new PendingChanges();
+        TransactionSynchronizationManager.bindResource(pendingKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                ledgerVersion.incrementAndGet();
+                if (created.all) {
+                    clear();
+                } else {
+                    evict(created.min, created.max);
+                }
+            }
+        });
+        return created;
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public List<ReportStatistics> getStatistics() {
+        return counters.entrySet().stream()
+                .map(e -> e.getValue().statistics(e.getKey()))
+                .sorted(Comparator.comparing(ReportStatistics::report))
+                .toList();
+    }
+
+    private static boolean usable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Counters counters(String report) {
+        return counters.computeIfAbsent(report, r -> new Counters());
+    }
+
+    private void evict(LocalDate from, LocalDate to) {
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry> e = it.next();
+                if (e.getValue().overlaps(from, to)) {
+                    it.remove();
+                    counters(e.getKey().report()).invalidations.increment();
+                    evicted++;
+                }
+            }
+        }
+        log.debug("Ledger changed from {} to {}, dropped {} cached reports", from, to, evicted);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            it.remove();
+            counters(eldest.getKey().report()).evictions.increment();
+        }
+    }
+
+    /**
+     * @param hits          results served from the cache
+     * @param misses        results computed
+     * @param hitRate       hits out of all requests, 0 to 1
+     * @param invalidations results dropped because the ledger changed in their range
+     * @param evictions     results dropped to stay within the size limit
+     */
+    public record ReportStatistics(String report, long hits, long misses, double hitRate,
+                                   long invalidations, long evictions) {
+    }
+
+    private record Key(String report, LocalDate from, LocalDate to, List<?> params) {
+    }
+
+    private record Entry(LocalDate from, LocalDate to, Object result) {
+
+        boolean overlaps(LocalDate changedFrom, LocalDate changedTo) {
+            return !from.isAfter(changedTo) && !to.isBefore(changedFrom);
+        }
+    }
+
+    private static final class PendingChanges {
+        private LocalDate min;
+        private LocalDate max;
+        private boolean all;
+
+        void add(LocalDate date) {
+            if (min == null || date.isBefore(min)) {
+                min = date;
+            }
+            if (max == null || date.isAfter(max)) {
+                max = date;
+            }
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        ReportStatistics statistics(String report) {
+            long h = hits.sum();
+            long m = misses.sum();
+            double hitRate = h + m == 0 ? 0 : (double) h / (h + m);
+            return new ReportStatistics(report, h, m, hitRate, invalidations.sum(), evictions.sum());
+        }
+    }
+}
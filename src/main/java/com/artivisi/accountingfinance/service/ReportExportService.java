@@ -1,6 +1,8 @@
 package com.artivisi.accountingfinance.service;
 
+import com.artivisi.accountingfinance.enums.CashFlowMethod;
 import com.artivisi.accountingfinance.exception.ReportGenerationException;
+import com.artivisi.accountingfinance.service.ExcelWriter.Style;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
@@ -13,23 +15,13 @@ import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.DataFormat;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -127,44 +119,29 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportTrialBalanceToExcel(ReportService.TrialBalanceReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Neraca Saldo");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "NERACA SALDO",
+    public void exportTrialBalanceToExcel(ReportService.TrialBalanceReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Neraca Saldo");
+            excel.reportHeader(COMPANY_NAME, "NERACA SALDO",
                     LABEL_PER_TANGGAL + report.asOfDate().format(DATE_FORMAT), 4);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "Kode", headerStyle);
-            createCell(headerRow, 1, "Nama Akun", headerStyle);
-            createCell(headerRow, 2, "Debit", headerStyle);
-            createCell(headerRow, 3, "Kredit", headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
+            excel.headerRow("Kode", "Nama Akun", "Debit", "Kredit");
 
             for (ReportService.TrialBalanceItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, item.account().getAccountCode(), textStyle);
-                createCell(row, 1, item.account().getAccountName(), textStyle);
-                createNumericCell(row, 2, item.debitBalance(), numberStyle);
-                createNumericCell(row, 3, item.creditBalance(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, item.account().getAccountCode(), Style.TEXT);
+                excel.text(row, 1, item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 2, item.debitBalance(), Style.NUMBER);
+                excel.amount(row, 3, item.creditBalance(), Style.NUMBER);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, TOTAL_LABEL, totalStyle);
-            createNumericCell(totalRow, 2, report.totalDebit(), totalStyle);
-            createNumericCell(totalRow, 3, report.totalCredit(), totalStyle);
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, TOTAL_LABEL, Style.TOTAL);
+            excel.amount(totalRow, 2, report.totalDebit(), Style.TOTAL);
+            excel.amount(totalRow, 3, report.totalCredit(), Style.TOTAL);
 
-            autoSizeColumns(sheet, 4);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Trial Balance Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -227,71 +204,60 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportBalanceSheetToExcel(ReportService.BalanceSheetReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Laporan Posisi Keuangan");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN POSISI KEUANGAN",
+    public void exportBalanceSheetToExcel(ReportService.BalanceSheetReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Laporan Posisi Keuangan");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN POSISI KEUANGAN",
                     LABEL_PER_TANGGAL + report.asOfDate().format(DATE_FORMAT), 2);
 
-            CellStyle sectionStyle = createSectionStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle totalStyle = createTotalStyle(workbook);
-
             // ASSETS
-            Row assetHeader = sheet.createRow(rowNum++);
-            createCell(assetHeader, 0, "ASET", sectionStyle);
+            Row assetHeader = excel.row();
+            excel.text(assetHeader, 0, "ASET", Style.SECTION);
             for (ReportService.BalanceSheetItem item : report.assetItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.account().getAccountName(), textStyle);
-                createNumericCell(row, 1, item.balance(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 1, item.balance(), Style.NUMBER);
             }
-            Row assetTotal = sheet.createRow(rowNum++);
-            createCell(assetTotal, 0, "Total Aset", totalStyle);
-            createNumericCell(assetTotal, 1, report.totalAssets(), totalStyle);
-            rowNum++;
+            Row assetTotal = excel.row();
+            excel.text(assetTotal, 0, "Total Aset", Style.TOTAL);
+            excel.amount(assetTotal, 1, report.totalAssets(), Style.TOTAL);
+            excel.skipRows(1);
 
             // LIABILITIES
-            Row liabilityHeader = sheet.createRow(rowNum++);
-            createCell(liabilityHeader, 0, "LIABILITAS", sectionStyle);
+            Row liabilityHeader = excel.row();
+            excel.text(liabilityHeader, 0, "LIABILITAS", Style.SECTION);
             for (ReportService.BalanceSheetItem item : report.liabilityItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.account().getAccountName(), textStyle);
-                createNumericCell(row, 1, item.balance(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 1, item.balance(), Style.NUMBER);
             }
-            Row liabilityTotal = sheet.createRow(rowNum++);
-            createCell(liabilityTotal, 0, "Total Liabilitas", totalStyle);
-            createNumericCell(liabilityTotal, 1, report.totalLiabilities(), totalStyle);
-            rowNum++;
+            Row liabilityTotal = excel.row();
+            excel.text(liabilityTotal, 0, "Total Liabilitas", Style.TOTAL);
+            excel.amount(liabilityTotal, 1, report.totalLiabilities(), Style.TOTAL);
+            excel.skipRows(1);
 
             // EQUITY
-            Row equityHeader = sheet.createRow(rowNum++);
-            createCell(equityHeader, 0, "EKUITAS", sectionStyle);
+            Row equityHeader = excel.row();
+            excel.text(equityHeader, 0, "EKUITAS", Style.SECTION);
             for (ReportService.BalanceSheetItem item : report.equityItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.account().getAccountName(), textStyle);
-                createNumericCell(row, 1, item.balance(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 1, item.balance(), Style.NUMBER);
             }
-            Row earningsRow = sheet.createRow(rowNum++);
-            createCell(earningsRow, 0, "  Laba Tahun Berjalan", textStyle);
-            createNumericCell(earningsRow, 1, report.currentYearEarnings(), numberStyle);
-            Row equityTotal = sheet.createRow(rowNum++);
-            createCell(equityTotal, 0, "Total Ekuitas", totalStyle);
-            createNumericCell(equityTotal, 1, report.totalEquity(), totalStyle);
-            rowNum++;
+            Row earningsRow = excel.row();
+            excel.text(earningsRow, 0, "  Laba Tahun Berjalan", Style.TEXT);
+            excel.amount(earningsRow, 1, report.currentYearEarnings(), Style.NUMBER);
+            Row equityTotal = excel.row();
+            excel.text(equityTotal, 0, "Total Ekuitas", Style.TOTAL);
+            excel.amount(equityTotal, 1, report.totalEquity(), Style.TOTAL);
+            excel.skipRows(1);
 
             // TOTAL
-            Row grandTotal = sheet.createRow(rowNum);
-            createCell(grandTotal, 0, "TOTAL_LIABILITIES_EQUITY", totalStyle);
-            createNumericCell(grandTotal, 1, report.totalLiabilities().add(report.totalEquity()), totalStyle);
+            Row grandTotal = excel.row();
+            excel.text(grandTotal, 0, TOTAL_LIABILITIES_EQUITY, Style.TOTAL);
+            excel.amount(grandTotal, 1, report.totalLiabilities().add(report.totalEquity()), Style.TOTAL);
 
-            autoSizeColumns(sheet, 2);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Balance Sheet Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -344,56 +310,45 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportIncomeStatementToExcel(ReportService.IncomeStatementReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Laporan Laba Rugi");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN LABA RUGI",
+    public void exportIncomeStatementToExcel(ReportService.IncomeStatementReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Laporan Laba Rugi");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN LABA RUGI",
                     LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT), 2);
 
-            CellStyle sectionStyle = createSectionStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle totalStyle = createTotalStyle(workbook);
-
             // REVENUE
-            Row revenueHeader = sheet.createRow(rowNum++);
-            createCell(revenueHeader, 0, "PENDAPATAN", sectionStyle);
+            Row revenueHeader = excel.row();
+            excel.text(revenueHeader, 0, "PENDAPATAN", Style.SECTION);
             for (ReportService.IncomeStatementItem item : report.revenueItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.account().getAccountName(), textStyle);
-                createNumericCell(row, 1, item.balance(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 1, item.balance(), Style.NUMBER);
             }
-            Row revenueTotal = sheet.createRow(rowNum++);
-            createCell(revenueTotal, 0, "Total Pendapatan", totalStyle);
-            createNumericCell(revenueTotal, 1, report.totalRevenue(), totalStyle);
-            rowNum++;
+            Row revenueTotal = excel.row();
+            excel.text(revenueTotal, 0, "Total Pendapatan", Style.TOTAL);
+            excel.amount(revenueTotal, 1, report.totalRevenue(), Style.TOTAL);
+            excel.skipRows(1);
 
             // EXPENSES
-            Row expenseHeader = sheet.createRow(rowNum++);
-            createCell(expenseHeader, 0, "BEBAN OPERASIONAL", sectionStyle);
+            Row expenseHeader = excel.row();
+            excel.text(expenseHeader, 0, "BEBAN OPERASIONAL", Style.SECTION);
             for (ReportService.IncomeStatementItem item : report.expenseItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.account().getAccountName(), textStyle);
-                createNumericCell(row, 1, item.balance().negate(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.account().getAccountName(), Style.TEXT);
+                excel.amount(row, 1, item.balance().negate(), Style.NUMBER);
             }
-            Row expenseTotal = sheet.createRow(rowNum++);
-            createCell(expenseTotal, 0, "Total Beban", totalStyle);
-            createNumericCell(expenseTotal, 1, report.totalExpense().negate(), totalStyle);
-            rowNum++;
+            Row expenseTotal = excel.row();
+            excel.text(expenseTotal, 0, "Total Beban", Style.TOTAL);
+            excel.amount(expenseTotal, 1, report.totalExpense().negate(), Style.TOTAL);
+            excel.skipRows(1);
 
             // NET INCOME
             String netIncomeLabel = report.netIncome().compareTo(BigDecimal.ZERO) >= 0 ? "LABA BERSIH" : "RUGI BERSIH";
-            Row netIncomeRow = sheet.createRow(rowNum);
-            createCell(netIncomeRow, 0, netIncomeLabel, totalStyle);
-            createNumericCell(netIncomeRow, 1, report.netIncome(), totalStyle);
+            Row netIncomeRow = excel.row();
+            excel.text(netIncomeRow, 0, netIncomeLabel, Style.TOTAL);
+            excel.amount(netIncomeRow, 1, report.netIncome(), Style.TOTAL);
 
-            autoSizeColumns(sheet, 2);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Income Statement Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -402,6 +357,12 @@ public class ReportExportService {
 
     // ==================== CASH FLOW STATEMENT ====================
 
+    private static String operatingSectionTitle(ReportService.CashFlowReport report) {
+        return report.method() == CashFlowMethod.INDIRECT
+                ? "ARUS KAS DARI AKTIVITAS OPERASI (METODE TIDAK LANGSUNG)"
+                : "ARUS KAS DARI AKTIVITAS OPERASI";
+    }
+
     public byte[] exportCashFlowToPdf(ReportService.CashFlowReport report) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             Document document = new Document(PageSize.A4);
@@ -417,7 +378,7 @@ public class ReportExportService {
             table.setSpacingBefore(20);
 
             // OPERATING ACTIVITIES
-            addSectionHeader(table, "ARUS KAS DARI AKTIVITAS OPERASI");
+            addSectionHeader(table, operatingSectionTitle(report));
             for (ReportService.CashFlowItem item : report.operatingItems()) {
                 addTableCell(table, "  " + item.description(), Element.ALIGN_LEFT);
                 addTableCell(table, formatCashFlowNumber(item.amount()), Element.ALIGN_RIGHT);
@@ -457,76 +418,65 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportCashFlowToExcel(ReportService.CashFlowReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Laporan Arus Kas");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN ARUS KAS",
+    public void exportCashFlowToExcel(ReportService.CashFlowReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Laporan Arus Kas");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN ARUS KAS",
                     LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT), 2);
 
-            CellStyle sectionStyle = createSectionStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle totalStyle = createTotalStyle(workbook);
-
             // OPERATING ACTIVITIES
-            Row operatingHeader = sheet.createRow(rowNum++);
-            createCell(operatingHeader, 0, "ARUS KAS DARI AKTIVITAS OPERASI", sectionStyle);
+            Row operatingHeader = excel.row();
+            excel.text(operatingHeader, 0, operatingSectionTitle(report), Style.SECTION);
             for (ReportService.CashFlowItem item : report.operatingItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.description(), textStyle);
-                createNumericCell(row, 1, item.amount(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.description(), Style.TEXT);
+                excel.amount(row, 1, item.amount(), Style.NUMBER);
             }
-            Row operatingTotal = sheet.createRow(rowNum++);
-            createCell(operatingTotal, 0, "Arus Kas Bersih dari Operasi", totalStyle);
-            createNumericCell(operatingTotal, 1, report.operatingTotal(), totalStyle);
-            rowNum++;
+            Row operatingTotal = excel.row();
+            excel.text(operatingTotal, 0, "Arus Kas Bersih dari Operasi", Style.TOTAL);
+            excel.amount(operatingTotal, 1, report.operatingTotal(), Style.TOTAL);
+            excel.skipRows(1);
 
             // INVESTING ACTIVITIES
-            Row investingHeader = sheet.createRow(rowNum++);
-            createCell(investingHeader, 0, "ARUS KAS DARI AKTIVITAS INVESTASI", sectionStyle);
+            Row investingHeader = excel.row();
+            excel.text(investingHeader, 0, "ARUS KAS DARI AKTIVITAS INVESTASI", Style.SECTION);
             for (ReportService.CashFlowItem item : report.investingItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.description(), textStyle);
-                createNumericCell(row, 1, item.amount(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.description(), Style.TEXT);
+                excel.amount(row, 1, item.amount(), Style.NUMBER);
             }
-            Row investingTotal = sheet.createRow(rowNum++);
-            createCell(investingTotal, 0, "Arus Kas Bersih dari Investasi", totalStyle);
-            createNumericCell(investingTotal, 1, report.investingTotal(), totalStyle);
-            rowNum++;
+            Row investingTotal = excel.row();
+            excel.text(investingTotal, 0, "Arus Kas Bersih dari Investasi", Style.TOTAL);
+            excel.amount(investingTotal, 1, report.investingTotal(), Style.TOTAL);
+            excel.skipRows(1);
 
             // FINANCING ACTIVITIES
-            Row financingHeader = sheet.createRow(rowNum++);
-            createCell(financingHeader, 0, "ARUS KAS DARI AKTIVITAS PENDANAAN", sectionStyle);
+            Row financingHeader = excel.row();
+            excel.text(financingHeader, 0, "ARUS KAS DARI AKTIVITAS PENDANAAN", Style.SECTION);
             for (ReportService.CashFlowItem item : report.financingItems()) {
-                Row row = sheet.createRow(rowNum++);
-                createCell(row, 0, "  " + item.description(), textStyle);
-                createNumericCell(row, 1, item.amount(), numberStyle);
+                Row row = excel.row();
+                excel.text(row, 0, "  " + item.description(), Style.TEXT);
+                excel.amount(row, 1, item.amount(), Style.NUMBER);
             }
-            Row financingTotal = sheet.createRow(rowNum++);
-            createCell(financingTotal, 0, "Arus Kas Bersih dari Pendanaan", totalStyle);
-            createNumericCell(financingTotal, 1, report.financingTotal(), totalStyle);
-            rowNum++;
+            Row financingTotal = excel.row();
+            excel.text(financingTotal, 0, "Arus Kas Bersih dari Pendanaan", Style.TOTAL);
+            excel.amount(financingTotal, 1, report.financingTotal(), Style.TOTAL);
+            excel.skipRows(1);
 
             // SUMMARY
-            Row netChangeRow = sheet.createRow(rowNum++);
-            createCell(netChangeRow, 0, "Kenaikan/(Penurunan) Bersih Kas", totalStyle);
-            createNumericCell(netChangeRow, 1, report.netCashChange(), totalStyle);
+            Row netChangeRow = excel.row();
+            excel.text(netChangeRow, 0, "Kenaikan/(Penurunan) Bersih Kas", Style.TOTAL);
+            excel.amount(netChangeRow, 1, report.netCashChange(), Style.TOTAL);
 
-            Row beginningRow = sheet.createRow(rowNum++);
-            createCell(beginningRow, 0, "Saldo Kas Awal Periode", textStyle);
-            createNumericCell(beginningRow, 1, report.beginningCashBalance(), numberStyle);
+            Row beginningRow = excel.row();
+            excel.text(beginningRow, 0, "Saldo Kas Awal Periode", Style.TEXT);
+            excel.amount(beginningRow, 1, report.beginningCashBalance(), Style.NUMBER);
 
-            Row endingRow = sheet.createRow(rowNum);
-            createCell(endingRow, 0, "SALDO KAS AKHIR PERIODE", totalStyle);
-            createNumericCell(endingRow, 1, report.endingCashBalance(), totalStyle);
+            Row endingRow = excel.row();
+            excel.text(endingRow, 0, "SALDO KAS AKHIR PERIODE", Style.TOTAL);
+            excel.amount(endingRow, 1, report.endingCashBalance(), Style.TOTAL);
 
-            autoSizeColumns(sheet, 2);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Cash Flow Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -620,66 +570,42 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportDepreciationToExcel(DepreciationReportService.DepreciationReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Laporan Penyusutan");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN PENYUSUTAN ASET TETAP",
+    public void exportDepreciationToExcel(DepreciationReportService.DepreciationReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Laporan Penyusutan");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN PENYUSUTAN ASET TETAP",
                     "Tahun " + report.year(), 10);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "No", headerStyle);
-            createCell(headerRow, 1, "Nama Aset", headerStyle);
-            createCell(headerRow, 2, COL_KATEGORI, headerStyle);
-            createCell(headerRow, 3, "Tgl Perolehan", headerStyle);
-            createCell(headerRow, 4, "Harga Perolehan", headerStyle);
-            createCell(headerRow, 5, "Masa Manfaat", headerStyle);
-            createCell(headerRow, 6, "Metode", headerStyle);
-            createCell(headerRow, 7, "Penyusutan Tahun Ini", headerStyle);
-            createCell(headerRow, 8, "Akum. Penyusutan", headerStyle);
-            createCell(headerRow, 9, "Nilai Buku", headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
+            excel.headerRow("No", "Nama Aset", COL_KATEGORI, "Tgl Perolehan", "Harga Perolehan", "Masa Manfaat", "Metode", "Penyusutan Tahun Ini", "Akum. Penyusutan", "Nilai Buku");
 
             int no = 1;
             for (DepreciationReportService.DepreciationReportItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createNumericCell(row, 0, java.math.BigDecimal.valueOf(no++), textStyle);
-                createCell(row, 1, item.assetName(), textStyle);
-                createCell(row, 2, item.categoryName(), textStyle);
-                Cell dateCell = row.createCell(3);
-                dateCell.setCellValue(java.sql.Date.valueOf(item.purchaseDate()));
-                dateCell.setCellStyle(dateStyle);
-                createNumericCell(row, 4, item.purchaseCost(), numberStyle);
-                createCell(row, 5, item.usefulLifeYears() + " tahun", textStyle);
-                createCell(row, 6, item.depreciationMethod(), textStyle);
-                createNumericCell(row, 7, item.depreciationThisYear(), numberStyle);
-                createNumericCell(row, 8, item.accumulatedDepreciation(), numberStyle);
-                createNumericCell(row, 9, item.bookValue(), numberStyle);
+                Row row = excel.row();
+                excel.amount(row, 0, java.math.BigDecimal.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, item.assetName(), Style.TEXT);
+                excel.text(row, 2, item.categoryName(), Style.TEXT);
+                excel.date(row, 3, item.purchaseDate(), Style.DATE);
+                excel.amount(row, 4, item.purchaseCost(), Style.NUMBER);
+                excel.text(row, 5, item.usefulLifeYears() + " tahun", Style.TEXT);
+                excel.text(row, 6, item.depreciationMethod(), Style.TEXT);
+                excel.amount(row, 7, item.depreciationThisYear(), Style.NUMBER);
+                excel.amount(row, 8, item.accumulatedDepreciation(), Style.NUMBER);
+                excel.amount(row, 9, item.bookValue(), Style.NUMBER);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, "", totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createCell(totalRow, 3, TOTAL_LABEL, totalStyle);
-            createNumericCell(totalRow, 4, report.totalPurchaseCost(), totalStyle);
-            createCell(totalRow, 5, "", totalStyle);
-            createCell(totalRow, 6, "", totalStyle);
-            createNumericCell(totalRow, 7, report.totalDepreciationThisYear(), totalStyle);
-            createNumericCell(totalRow, 8, report.totalAccumulatedDepreciation(), totalStyle);
-            createNumericCell(totalRow, 9, report.totalBookValue(), totalStyle);
-
-            autoSizeColumns(sheet, 10);
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, "", Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.text(totalRow, 3, TOTAL_LABEL, Style.TOTAL);
+            excel.amount(totalRow, 4, report.totalPurchaseCost(), Style.TOTAL);
+            excel.text(totalRow, 5, "", Style.TOTAL);
+            excel.text(totalRow, 6, "", Style.TOTAL);
+            excel.amount(totalRow, 7, report.totalDepreciationThisYear(), Style.TOTAL);
+            excel.amount(totalRow, 8, report.totalAccumulatedDepreciation(), Style.TOTAL);
+            excel.amount(totalRow, 9, report.totalBookValue(), Style.TOTAL);
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Depreciation Report Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -755,57 +681,38 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportStockBalanceToExcel(InventoryReportService.StockBalanceReport report, LocalDate asOfDate) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Saldo Stok");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN SALDO STOK",
+    public void exportStockBalanceToExcel(InventoryReportService.StockBalanceReport report, LocalDate asOfDate, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Saldo Stok");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN SALDO STOK",
                     LABEL_PER_TANGGAL + asOfDate.format(DATE_FORMAT), 8);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "No", headerStyle);
-            createCell(headerRow, 1, "Kode", headerStyle);
-            createCell(headerRow, 2, COL_NAMA_PRODUK, headerStyle);
-            createCell(headerRow, 3, COL_KATEGORI, headerStyle);
-            createCell(headerRow, 4, COL_SATUAN, headerStyle);
-            createCell(headerRow, 5, "Qty", headerStyle);
-            createCell(headerRow, 6, COL_HARGA_RATA_RATA, headerStyle);
-            createCell(headerRow, 7, COL_NILAI, headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
+            excel.headerRow("No", "Kode", COL_NAMA_PRODUK, COL_KATEGORI, COL_SATUAN, "Qty", COL_HARGA_RATA_RATA, COL_NILAI);
 
             int no = 1;
             for (InventoryReportService.StockBalanceItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createNumericCell(row, 0, BigDecimal.valueOf(no++), textStyle);
-                createCell(row, 1, item.productCode(), textStyle);
-                createCell(row, 2, item.productName(), textStyle);
-                createCell(row, 3, item.categoryName(), textStyle);
-                createCell(row, 4, item.unit(), textStyle);
-                createNumericCell(row, 5, item.quantity(), numberStyle);
-                createNumericCell(row, 6, item.averageCost(), numberStyle);
-                createNumericCell(row, 7, item.totalValue(), numberStyle);
+                Row row = excel.row();
+                excel.amount(row, 0, BigDecimal.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, item.productCode(), Style.TEXT);
+                excel.text(row, 2, item.productName(), Style.TEXT);
+                excel.text(row, 3, item.categoryName(), Style.TEXT);
+                excel.text(row, 4, item.unit(), Style.TEXT);
+                excel.amount(row, 5, item.quantity(), Style.NUMBER);
+                excel.amount(row, 6, item.averageCost(), Style.NUMBER);
+                excel.amount(row, 7, item.totalValue(), Style.NUMBER);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, "", totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createCell(totalRow, 3, "", totalStyle);
-            createCell(totalRow, 4, TOTAL_LABEL, totalStyle);
-            createNumericCell(totalRow, 5, report.totalQuantity(), totalStyle);
-            createCell(totalRow, 6, "", totalStyle);
-            createNumericCell(totalRow, 7, report.totalValue(), totalStyle);
-
-            autoSizeColumns(sheet, 8);
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, "", Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.text(totalRow, 3, "", Style.TOTAL);
+            excel.text(totalRow, 4, TOTAL_LABEL, Style.TOTAL);
+            excel.amount(totalRow, 5, report.totalQuantity(), Style.TOTAL);
+            excel.text(totalRow, 6, "", Style.TOTAL);
+            excel.amount(totalRow, 7, report.totalValue(), Style.TOTAL);
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Stock Balance Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -874,74 +781,51 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportStockMovementToExcel(InventoryReportService.StockMovementReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Mutasi Stok");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN MUTASI STOK",
+    public void exportStockMovementToExcel(InventoryReportService.StockMovementReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Mutasi Stok");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN MUTASI STOK",
                     LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT), 9);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "No", headerStyle);
-            createCell(headerRow, 1, "Tanggal", headerStyle);
-            createCell(headerRow, 2, "Kode", headerStyle);
-            createCell(headerRow, 3, COL_NAMA_PRODUK, headerStyle);
-            createCell(headerRow, 4, "Tipe", headerStyle);
-            createCell(headerRow, 5, "Qty", headerStyle);
-            createCell(headerRow, 6, "Harga", headerStyle);
-            createCell(headerRow, 7, COL_NILAI, headerStyle);
-            createCell(headerRow, 8, "Saldo", headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
+            excel.headerRow("No", "Tanggal", "Kode", COL_NAMA_PRODUK, "Tipe", "Qty", "Harga", COL_NILAI, "Saldo");
 
             int no = 1;
             for (InventoryReportService.StockMovementItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createNumericCell(row, 0, BigDecimal.valueOf(no++), textStyle);
-                Cell dateCell = row.createCell(1);
-                dateCell.setCellValue(java.sql.Date.valueOf(item.transactionDate()));
-                dateCell.setCellStyle(dateStyle);
-                createCell(row, 2, item.productCode(), textStyle);
-                createCell(row, 3, item.productName(), textStyle);
-                createCell(row, 4, item.transactionTypeLabel(), textStyle);
-                createNumericCell(row, 5, item.quantity(), numberStyle);
-                createNumericCell(row, 6, item.unitCost(), numberStyle);
-                createNumericCell(row, 7, item.totalCost(), numberStyle);
-                createNumericCell(row, 8, item.balanceAfter(), numberStyle);
+                Row row = excel.row();
+                excel.amount(row, 0, BigDecimal.valueOf(no++), Style.TEXT);
+                excel.date(row, 1, item.transactionDate(), Style.DATE);
+                excel.text(row, 2, item.productCode(), Style.TEXT);
+                excel.text(row, 3, item.productName(), Style.TEXT);
+                excel.text(row, 4, item.transactionTypeLabel(), Style.TEXT);
+                excel.amount(row, 5, item.quantity(), Style.NUMBER);
+                excel.amount(row, 6, item.unitCost(), Style.NUMBER);
+                excel.amount(row, 7, item.totalCost(), Style.NUMBER);
+                excel.amount(row, 8, item.balanceAfter(), Style.NUMBER);
             }
 
             // Summary
-            rowNum += 2;
-            CellStyle totalStyle = createTotalStyle(workbook);
+            excel.skipRows(2);
 
-            Row summaryHeader = sheet.createRow(rowNum++);
-            createCell(summaryHeader, 0, "Ringkasan", totalStyle);
+            Row summaryHeader = excel.row();
+            excel.text(summaryHeader, 0, "Ringkasan", Style.TOTAL);
 
-            Row inboundQtyRow = sheet.createRow(rowNum++);
-            createCell(inboundQtyRow, 0, "Total Masuk (Qty)", textStyle);
-            createNumericCell(inboundQtyRow, 1, report.totalInboundQty(), numberStyle);
+            Row inboundQtyRow = excel.row();
+            excel.text(inboundQtyRow, 0, "Total Masuk (Qty)", Style.TEXT);
+            excel.amount(inboundQtyRow, 1, report.totalInboundQty(), Style.NUMBER);
 
-            Row outboundQtyRow = sheet.createRow(rowNum++);
-            createCell(outboundQtyRow, 0, "Total Keluar (Qty)", textStyle);
-            createNumericCell(outboundQtyRow, 1, report.totalOutboundQty(), numberStyle);
+            Row outboundQtyRow = excel.row();
+            excel.text(outboundQtyRow, 0, "Total Keluar (Qty)", Style.TEXT);
+            excel.amount(outboundQtyRow, 1, report.totalOutboundQty(), Style.NUMBER);
 
-            Row inboundValueRow = sheet.createRow(rowNum++);
-            createCell(inboundValueRow, 0, "Total Masuk (Nilai)", textStyle);
-            createNumericCell(inboundValueRow, 1, report.totalInboundValue(), numberStyle);
+            Row inboundValueRow = excel.row();
+            excel.text(inboundValueRow, 0, "Total Masuk (Nilai)", Style.TEXT);
+            excel.amount(inboundValueRow, 1, report.totalInboundValue(), Style.NUMBER);
 
-            Row outboundValueRow = sheet.createRow(rowNum);
-            createCell(outboundValueRow, 0, "Total Keluar (Nilai)", textStyle);
-            createNumericCell(outboundValueRow, 1, report.totalOutboundValue(), numberStyle);
+            Row outboundValueRow = excel.row();
+            excel.text(outboundValueRow, 0, "Total Keluar (Nilai)", Style.TEXT);
+            excel.amount(outboundValueRow, 1, report.totalOutboundValue(), Style.NUMBER);
 
-            autoSizeColumns(sheet, 9);
-            workbook.write(baos);
-            return baos.toByteArray();
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Stock Movement Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -1004,57 +888,38 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportValuationToExcel(InventoryReportService.ValuationReport report, LocalDate asOfDate) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Penilaian Persediaan");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN PENILAIAN PERSEDIAAN",
+    public void exportValuationToExcel(InventoryReportService.ValuationReport report, LocalDate asOfDate, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Penilaian Persediaan");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN PENILAIAN PERSEDIAAN",
                     LABEL_PER_TANGGAL + asOfDate.format(DATE_FORMAT), 8);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "No", headerStyle);
-            createCell(headerRow, 1, "Kode", headerStyle);
-            createCell(headerRow, 2, COL_NAMA_PRODUK, headerStyle);
-            createCell(headerRow, 3, COL_KATEGORI, headerStyle);
-            createCell(headerRow, 4, COL_SATUAN, headerStyle);
-            createCell(headerRow, 5, "Qty", headerStyle);
-            createCell(headerRow, 6, COL_HARGA_RATA_RATA, headerStyle);
-            createCell(headerRow, 7, COL_NILAI, headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
+            excel.headerRow("No", "Kode", COL_NAMA_PRODUK, COL_KATEGORI, COL_SATUAN, "Qty", COL_HARGA_RATA_RATA, COL_NILAI);
 
             int no = 1;
             for (InventoryReportService.ValuationItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createNumericCell(row, 0, BigDecimal.valueOf(no++), textStyle);
-                createCell(row, 1, item.productCode(), textStyle);
-                createCell(row, 2, item.productName(), textStyle);
-                createCell(row, 3, item.categoryName(), textStyle);
-                createCell(row, 4, item.unit(), textStyle);
-                createNumericCell(row, 5, item.quantity(), numberStyle);
-                createNumericCell(row, 6, item.averageCost(), numberStyle);
-                createNumericCell(row, 7, item.totalValue(), numberStyle);
+                Row row = excel.row();
+                excel.amount(row, 0, BigDecimal.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, item.productCode(), Style.TEXT);
+                excel.text(row, 2, item.productName(), Style.TEXT);
+                excel.text(row, 3, item.categoryName(), Style.TEXT);
+                excel.text(row, 4, item.unit(), Style.TEXT);
+                excel.amount(row, 5, item.quantity(), Style.NUMBER);
+                excel.amount(row, 6, item.averageCost(), Style.NUMBER);
+                excel.amount(row, 7, item.totalValue(), Style.NUMBER);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, "", totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createCell(totalRow, 3, "", totalStyle);
-            createCell(totalRow, 4, "", totalStyle);
-            createCell(totalRow, 5, "", totalStyle);
-            createCell(totalRow, 6, TOTAL_LABEL, totalStyle);
-            createNumericCell(totalRow, 7, report.totalValue(), totalStyle);
-
-            autoSizeColumns(sheet, 8);
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, "", Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.text(totalRow, 3, "", Style.TOTAL);
+            excel.text(totalRow, 4, "", Style.TOTAL);
+            excel.text(totalRow, 5, "", Style.TOTAL);
+            excel.text(totalRow, 6, TOTAL_LABEL, Style.TOTAL);
+            excel.amount(totalRow, 7, report.totalValue(), Style.TOTAL);
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Valuation Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -1146,63 +1011,41 @@ public class ReportExportService {
         }
     }
 
-    public byte[] exportProductProfitabilityToExcel(InventoryReportService.ProfitabilityReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Profitabilitas Produk");
-            int rowNum = 0;
-
-            rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN PROFITABILITAS PRODUK",
+    public void exportProductProfitabilityToExcel(InventoryReportService.ProfitabilityReport report, OutputStream out) {
+        try (ExcelWriter excel = new ExcelWriter()) {
+            excel.sheet("Profitabilitas Produk");
+            excel.reportHeader(COMPANY_NAME, "LAPORAN PROFITABILITAS PRODUK",
                     LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT), 9);
 
-            Row headerRow = sheet.createRow(rowNum++);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            createCell(headerRow, 0, "No", headerStyle);
-            createCell(headerRow, 1, "Kode", headerStyle);
-            createCell(headerRow, 2, COL_NAMA_PRODUK, headerStyle);
-            createCell(headerRow, 3, COL_KATEGORI, headerStyle);
-            createCell(headerRow, 4, "Qty Terjual", headerStyle);
-            createCell(headerRow, 5, "Pendapatan", headerStyle);
-            createCell(headerRow, 6, "HPP", headerStyle);
-            createCell(headerRow, 7, "Margin", headerStyle);
-            createCell(headerRow, 8, "Margin %", headerStyle);
-
-            CellStyle numberStyle = createNumberStyle(workbook);
-            CellStyle textStyle = createTextStyle(workbook);
-            CellStyle percentStyle = createPercentStyle(workbook);
+            excel.headerRow("No", "Kode", COL_NAMA_PRODUK, COL_KATEGORI, "Qty Terjual", "Pendapatan", "HPP", "Margin", "Margin %");
 
             int no = 1;
             for (InventoryReportService.ProfitabilityItem item : report.items()) {
-                Row row = sheet.createRow(rowNum++);
-                createNumericCell(row, 0, BigDecimal.valueOf(no++), textStyle);
-                createCell(row, 1, item.productCode(), textStyle);
-                createCell(row, 2, item.productName(), textStyle);
-                createCell(row, 3, item.categoryName(), textStyle);
-                createNumericCell(row, 4, item.quantitySold(), numberStyle);
-                createNumericCell(row, 5, item.revenue(), numberStyle);
-                createNumericCell(row, 6, item.cogs(), numberStyle);
-                createNumericCell(row, 7, item.margin(), numberStyle);
-                createNumericCell(row, 8, item.marginPercent().divide(BigDecimal.valueOf(100)), percentStyle);
+                Row row = excel.row();
+                excel.amount(row, 0, BigDecimal.valueOf(no++), Style.TEXT);
+                excel.text(row, 1, item.productCode(), Style.TEXT);
+                excel.text(row, 2, item.productName(), Style.TEXT);
+                excel.text(row, 3, item.categoryName(), Style.TEXT);
+                excel.amount(row, 4, item.quantitySold(), Style.NUMBER);
+                excel.amount(row, 5, item.revenue(), Style.NUMBER);
+                excel.amount(row, 6, item.cogs(), Style.NUMBER);
+                excel.amount(row, 7, item.margin(), Style.NUMBER);
+                excel.amount(row, 8, item.marginPercent().divide(BigDecimal.valueOf(100)), Style.PERCENT);
             }
 
-            Row totalRow = sheet.createRow(rowNum);
-            CellStyle totalStyle = createTotalStyle(workbook);
-            createCell(totalRow, 0, "", totalStyle);
-            createCell(totalRow, 1, "", totalStyle);
-            createCell(totalRow, 2, "", totalStyle);
-            createCell(totalRow, 3, TOTAL_LABEL, totalStyle);
-            createNumericCell(totalRow, 4, report.totalQuantitySold(), totalStyle);
-            createNumericCell(totalRow, 5, report.totalRevenue(), totalStyle);
-            createNumericCell(totalRow, 6, report.totalCogs(), totalStyle);
-            createNumericCell(totalRow, 7, report.totalMargin(), totalStyle);
-            Cell percentTotalCell = totalRow.createCell(8);
-            percentTotalCell.setCellValue(report.getTotalMarginPercent().divide(BigDecimal.valueOf(100)).doubleValue());
-            percentTotalCell.setCellStyle(percentStyle);
-
-            autoSizeColumns(sheet, 9);
-            workbook.write(baos);
-            return baos.toByteArray();
+            Row totalRow = excel.row();
+            excel.text(totalRow, 0, "", Style.TOTAL);
+            excel.text(totalRow, 1, "", Style.TOTAL);
+            excel.text(totalRow, 2, "", Style.TOTAL);
+            excel.text(totalRow, 3, TOTAL_LABEL, Style.TOTAL);
+            excel.amount(totalRow, 4, report.totalQuantitySold(), Style.TOTAL);
+            excel.amount(totalRow, 5, report.totalRevenue(), Style.TOTAL);
+            excel.amount(totalRow, 6, report.totalCogs(), Style.TOTAL);
+            excel.amount(totalRow, 7, report.totalMargin(), Style.TOTAL);
+            excel.number(totalRow, 8, report.getTotalMarginPercent().divide(BigDecimal.valueOf(100)).doubleValue(),
+                    excel.style(Style.PERCENT));
+
+            excel.write(out);
         } catch (IOException e) {
             log.error("Error generating Product Profitability Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
@@ -1327,143 +1170,4 @@ public class ReportExportService {
             table.addCell(creditCell);
         }
     }
-
-    // Excel Helpers
-
-    private int addExcelHeader(Workbook workbook, Sheet sheet, int startRow, String title, String period, int columns) {
-        CellStyle titleStyle = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font titleFont = workbook.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 14);
-        titleStyle.setFont(titleFont);
-        titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-        Row companyRow = sheet.createRow(startRow++);
-        Cell companyCell = companyRow.createCell(0);
-        companyCell.setCellValue(COMPANY_NAME);
-        companyCell.setCellStyle(titleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        Row titleRow = sheet.createRow(startRow++);
-        Cell titleCell = titleRow.createCell(0);
-        titleCell.setCellValue(title);
-        titleCell.setCellStyle(titleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        CellStyle subtitleStyle = workbook.createCellStyle();
-        subtitleStyle.setAlignment(HorizontalAlignment.CENTER);
-        Row periodRow = sheet.createRow(startRow++);
-        Cell periodCell = periodRow.createCell(0);
-        periodCell.setCellValue(period);
-        periodCell.setCellStyle(subtitleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(startRow - 1, startRow - 1, 0, columns - 1));
-
-        startRow++; // Empty row
-        return startRow;
-    }
-
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        return style;
-    }
-
-    private CellStyle createSectionStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        return style;
-    }
-
-    private CellStyle createTextStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        return style;
-    }
-
-    private CellStyle createNumberStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.RIGHT);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat(EXCEL_NUMBER_FORMAT));
-        return style;
-    }
-
-    private CellStyle createTotalStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat(EXCEL_NUMBER_FORMAT));
-        return style;
-    }
-
-    private CellStyle createDateStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat(DATE_PATTERN_DMY));
-        return style;
-    }
-
-    private CellStyle createPercentStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setAlignment(HorizontalAlignment.RIGHT);
-        DataFormat format = workbook.createDataFormat();
-        style.setDataFormat(format.getFormat("0.00%"));
-        return style;
-    }
-
-    private void createCell(Row row, int column, String value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        cell.setCellValue(value);
-        cell.setCellStyle(style);
-    }
-
-    private void createNumericCell(Row row, int column, BigDecimal value, CellStyle style) {
-        Cell cell = row.createCell(column);
-        if (value != null && value.compareTo(BigDecimal.ZERO) != 0) {
-            cell.setCellValue(value.doubleValue());
-        }
-        cell.setCellStyle(style);
-    }
-
-    private void autoSizeColumns(Sheet sheet, int columnCount) {
-        for (int i = 0; i < columnCount; i++) {
-            sheet.autoSizeColumn(i);
-        }
-    }
 }
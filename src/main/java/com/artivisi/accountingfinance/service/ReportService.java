@@ -1,14 +1,15 @@
 package com.artivisi.accountingfinance.service;
 
+import com.artivisi.accountingfinance.config.CashFlowConfig;
+import com.artivisi.accountingfinance.dto.CashFlowTotalsDto;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
-import com.artivisi.accountingfinance.entity.JournalEntry;
-import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.AccountType;
 import com.artivisi.accountingfinance.enums.CashFlowCategory;
+import com.artivisi.accountingfinance.enums.CashFlowMethod;
 import com.artivisi.accountingfinance.enums.NormalBalance;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
-import com.artivisi.accountingfinance.repository.TransactionRepository;
+import com.artivisi.accountingfinance.service.LedgerBalanceService.LedgerTotals;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +21,8 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,19 +32,29 @@ public class ReportService {
 
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalEntryRepository journalEntryRepository;
-    private final TransactionRepository transactionRepository;
+    private final CashFlowConfig cashFlowConfig;
+    private final LedgerBalanceService ledgerBalanceService;
+    private final ReportCache reportCache;
 
-    // Cash/Bank account codes for cash flow calculation
-    private static final List<String> CASH_BANK_CODES = List.of("1.1.01", "1.1.02", "1.1.03");
+    // Indirect method operating items
+    private static final String NET_INCOME_LABEL = "Laba Bersih";
+    private static final String NON_OPERATING_INCOME_LABEL = "Laba/Rugi dari Aktivitas Investasi dan Pendanaan";
+    private static final String CHANGE_IN_PREFIX = "Perubahan ";
 
     public TrialBalanceReport generateTrialBalance(LocalDate asOfDate) {
+        return reportCache.get("trial-balance", LedgerBalanceService.BEGINNING_OF_TIME, asOfDate, List.of(),
+                () -> computeTrialBalance(asOfDate));
+    }
+
+    private TrialBalanceReport computeTrialBalance(LocalDate asOfDate) {
         List<ChartOfAccount> accounts = chartOfAccountRepository.findAllTransactableAccounts();
+        LedgerTotals totals = ledgerBalanceService.totalsAsOf(asOfDate);
         List<TrialBalanceItem> items = new ArrayList<>();
         BigDecimal totalDebit = BigDecimal.ZERO;
         BigDecimal totalCredit = BigDecimal.ZERO;
 
         for (ChartOfAccount account : accounts) {
-            TrialBalanceItem item = calculateTrialBalanceItem(account, asOfDate);
+            TrialBalanceItem item = calculateTrialBalanceItem(account, totals);
             if (item != null) {
                 items.add(item);
                 totalDebit = totalDebit.add(item.debitBalance());
@@ -52,13 +65,8 @@ public class ReportService {
         return new TrialBalanceReport(asOfDate, items, totalDebit, totalCredit);
     }
 
-    private TrialBalanceItem calculateTrialBalanceItem(ChartOfAccount account, LocalDate asOfDate) {
-        BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                account.getId(), LocalDate.of(1900, 1, 1), asOfDate);
-        BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                account.getId(), LocalDate.of(1900, 1, 1), asOfDate);
-
-        BigDecimal balance = calculateBalance(account.getNormalBalance(), debit, credit);
+    private TrialBalanceItem calculateTrialBalanceItem(ChartOfAccount account, LedgerTotals totals) {
+        BigDecimal balance = totals.balance(account);
 
         if (balance.compareTo(BigDecimal.ZERO) == 0) {
             return null;
@@ -68,12 +76,6 @@ public class ReportService {
         return new TrialBalanceItem(account, debitCredit[0], debitCredit[1]);
     }
 
-    private BigDecimal calculateBalance(NormalBalance normalBalance, BigDecimal debit, BigDecimal credit) {
-        return normalBalance == NormalBalance.DEBIT
-                ? debit.subtract(credit)
-                : credit.subtract(debit);
-    }
-
     private BigDecimal[] splitBalanceToDebitCredit(NormalBalance normalBalance, BigDecimal balance) {
         boolean isPositive = balance.compareTo(BigDecimal.ZERO) > 0;
         BigDecimal debitBalance = BigDecimal.ZERO;
@@ -96,13 +98,26 @@ public class ReportService {
     }
 
     public IncomeStatementReport generateIncomeStatement(LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("income-statement", startDate, endDate, List.of(),
+                () -> computeIncomeStatement(startDate, endDate));
+    }
+
+    private IncomeStatementReport computeIncomeStatement(LocalDate startDate, LocalDate endDate) {
         List<ChartOfAccount> revenueAccounts = chartOfAccountRepository
                 .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.REVENUE, true);
         List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
                 .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
 
-        List<IncomeStatementItem> revenueItems = calculateAccountBalances(revenueAccounts, startDate, endDate);
-        List<IncomeStatementItem> expenseItems = calculateAccountBalances(expenseAccounts, startDate, endDate);
+        return buildIncomeStatement(startDate, endDate, revenueAccounts, expenseAccounts,
+                ledgerBalanceService.totals(startDate, endDate));
+    }
+
+    private IncomeStatementReport buildIncomeStatement(LocalDate startDate, LocalDate endDate,
+                                                       List<ChartOfAccount> revenueAccounts,
+                                                       List<ChartOfAccount> expenseAccounts,
+                                                       LedgerTotals totals) {
+        List<IncomeStatementItem> revenueItems = calculateAccountBalances(revenueAccounts, totals);
+        List<IncomeStatementItem> expenseItems = calculateAccountBalances(expenseAccounts, totals);
 
         BigDecimal totalRevenue = revenueItems.stream()
                 .map(IncomeStatementItem::balance)
@@ -119,18 +134,34 @@ public class ReportService {
     }
 
     public BalanceSheetReport generateBalanceSheet(LocalDate asOfDate) {
+        return reportCache.get("balance-sheet", LedgerBalanceService.BEGINNING_OF_TIME, asOfDate, List.of(),
+                () -> computeBalanceSheet(asOfDate));
+    }
+
+    private BalanceSheetReport computeBalanceSheet(LocalDate asOfDate) {
         List<ChartOfAccount> assetAccounts = chartOfAccountRepository
                 .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.ASSET, true);
         List<ChartOfAccount> liabilityAccounts = chartOfAccountRepository
                 .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.LIABILITY, true);
         List<ChartOfAccount> equityAccounts = chartOfAccountRepository
                 .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EQUITY, true);
+        List<ChartOfAccount> revenueAccounts = chartOfAccountRepository
+                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.REVENUE, true);
+        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
+                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
 
-        LocalDate periodStart = LocalDate.of(1900, 1, 1);
+        LocalDate fiscalYearStart = asOfDate.withDayOfYear(1);
+        LocalDate priorYearsEnd = fiscalYearStart.minusDays(1);
 
-        List<BalanceSheetItem> assetItems = calculateBalanceSheetItems(assetAccounts, periodStart, asOfDate);
-        List<BalanceSheetItem> liabilityItems = calculateBalanceSheetItems(liabilityAccounts, periodStart, asOfDate);
-        List<BalanceSheetItem> equityItems = calculateBalanceSheetItems(equityAccounts, periodStart, asOfDate);
+        // Two scans: everything before the current fiscal year, and the current fiscal year to date.
+        // Their union gives the cumulative balances as of asOfDate.
+        LedgerTotals priorYearsTotals = ledgerBalanceService.totals(LedgerBalanceService.BEGINNING_OF_TIME, priorYearsEnd);
+        LedgerTotals currentYearTotals = ledgerBalanceService.totals(fiscalYearStart, asOfDate);
+        LedgerTotals cumulativeTotals = priorYearsTotals.plus(currentYearTotals);
+
+        List<BalanceSheetItem> assetItems = calculateBalanceSheetItems(assetAccounts, cumulativeTotals);
+        List<BalanceSheetItem> liabilityItems = calculateBalanceSheetItems(liabilityAccounts, cumulativeTotals);
+        List<BalanceSheetItem> equityItems = calculateBalanceSheetItems(equityAccounts, cumulativeTotals);
 
         // Contra-assets (CREDIT normal balance like Accumulated Depreciation) reduce total assets
         BigDecimal totalAssets = assetItems.stream()
@@ -147,15 +178,15 @@ public class ReportService {
                 .map(BalanceSheetItem::balance)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        LocalDate fiscalYearStart = asOfDate.withDayOfYear(1);
-
         // Calculate prior year retained earnings (all net income before current fiscal year)
-        IncomeStatementReport priorYearsIncome = generateIncomeStatement(
-                LocalDate.of(1900, 1, 1), fiscalYearStart.minusDays(1));
+        IncomeStatementReport priorYearsIncome = buildIncomeStatement(
+                LedgerBalanceService.BEGINNING_OF_TIME, priorYearsEnd,
+                revenueAccounts, expenseAccounts, priorYearsTotals);
         BigDecimal retainedEarnings = priorYearsIncome.netIncome();
 
         // Calculate current year earnings
-        IncomeStatementReport incomeStatement = generateIncomeStatement(fiscalYearStart, asOfDate);
+        IncomeStatementReport incomeStatement = buildIncomeStatement(
+                fiscalYearStart, asOfDate, revenueAccounts, expenseAccounts, currentYearTotals);
         BigDecimal currentYearEarnings = incomeStatement.netIncome();
 
         totalEquity = totalEquity.add(retainedEarnings).add(currentYearEarnings);
@@ -164,25 +195,13 @@ public class ReportService {
                 totalAssets, totalLiabilities, totalEquity, currentYearEarnings);
     }
 
-    private List<IncomeStatementItem> calculateAccountBalances(List<ChartOfAccount> accounts,
-                                                               LocalDate startDate, LocalDate endDate) {
+    private List<IncomeStatementItem> calculateAccountBalances(List<ChartOfAccount> accounts, LedgerTotals totals) {
         List<IncomeStatementItem> items = new ArrayList<>();
 
         for (ChartOfAccount account : accounts) {
             if (account.getIsHeader()) continue;
 
-            BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-
-            BigDecimal balance;
-            if (account.getNormalBalance() == NormalBalance.DEBIT) {
-                balance = debit.subtract(credit);
-            } else {
-                balance = credit.subtract(debit);
-            }
-
+            BigDecimal balance = totals.balance(account);
             if (balance.compareTo(BigDecimal.ZERO) != 0) {
                 items.add(new IncomeStatementItem(account, balance));
             }
@@ -191,25 +210,13 @@ public class ReportService {
         return items;
     }
 
-    private List<BalanceSheetItem> calculateBalanceSheetItems(List<ChartOfAccount> accounts,
-                                                              LocalDate startDate, LocalDate endDate) {
+    private List<BalanceSheetItem> calculateBalanceSheetItems(List<ChartOfAccount> accounts, LedgerTotals totals) {
         List<BalanceSheetItem> items = new ArrayList<>();
 
         for (ChartOfAccount account : accounts) {
             if (account.getIsHeader()) continue;
 
-            BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(
-                    account.getId(), startDate, endDate);
-
-            BigDecimal balance;
-            if (account.getNormalBalance() == NormalBalance.DEBIT) {
-                balance = debit.subtract(credit);
-            } else {
-                balance = credit.subtract(debit);
-            }
-
+            BigDecimal balance = totals.balance(account);
             if (balance.compareTo(BigDecimal.ZERO) != 0) {
                 items.add(new BalanceSheetItem(account, balance));
             }
@@ -265,71 +272,65 @@ public class ReportService {
     // ==================== CASH FLOW STATEMENT ====================
 
     public CashFlowReport generateCashFlowStatement(LocalDate startDate, LocalDate endDate) {
-        // Get cash/bank accounts
-        List<ChartOfAccount> cashAccounts = chartOfAccountRepository.findByAccountCodeIn(CASH_BANK_CODES);
+        return generateCashFlowStatement(startDate, endDate, CashFlowMethod.DIRECT);
+    }
 
-        // Calculate beginning cash balance (before startDate)
-        BigDecimal beginningCashBalance = calculateCashBalance(cashAccounts, LocalDate.of(1900, 1, 1), startDate.minusDays(1));
+    public CashFlowReport generateCashFlowStatement(LocalDate startDate, LocalDate endDate, CashFlowMethod method) {
+        // Opening cash balance reads the ledger from the beginning
+        return reportCache.get("cash-flow", LedgerBalanceService.BEGINNING_OF_TIME, endDate, List.of(startDate, method),
+                () -> computeCashFlowStatement(startDate, endDate, method));
+    }
 
-        // Calculate ending cash balance (up to endDate)
-        BigDecimal endingCashBalance = calculateCashBalance(cashAccounts, LocalDate.of(1900, 1, 1), endDate);
+    /**
+     * Cash flows from one aggregation of the period's journal lines by template and account.
+     * Within a template, the lines on cash accounts are the cash received or paid (direct
+     * method); since every transaction balances, the other lines add up to the same amount
+     * with the opposite sign, which the indirect method shows as net income and changes in
+     * non-cash accounts.
+     */
+    private CashFlowReport computeCashFlowStatement(LocalDate startDate, LocalDate endDate, CashFlowMethod method) {
+        List<ChartOfAccount> cashAccounts = chartOfAccountRepository.findByAccountCodeIn(cashFlowConfig.getCashAccountCodes());
+        Set<UUID> cashAccountIds = cashAccounts.stream().map(ChartOfAccount::getId).collect(Collectors.toSet());
 
-        // Get posted transactions in the period
-        List<Transaction> transactions = transactionRepository.findPostedTransactionsBetweenDates(startDate, endDate);
+        // Opening totals (before startDate) plus period totals give the closing totals
+        LedgerTotals openingTotals = ledgerBalanceService.totals(LedgerBalanceService.BEGINNING_OF_TIME, startDate.minusDays(1));
+        LedgerTotals closingTotals = openingTotals.plus(ledgerBalanceService.totals(startDate, endDate));
 
-        // Group cash flows by category
-        Map<CashFlowCategory, List<CashFlowItem>> cashFlowsByCategory = new EnumMap<>(CashFlowCategory.class);
-        for (CashFlowCategory category : CashFlowCategory.values()) {
-            cashFlowsByCategory.put(category, new ArrayList<>());
-        }
+        BigDecimal beginningCashBalance = calculateCashBalance(cashAccounts, openingTotals);
+        BigDecimal endingCashBalance = calculateCashBalance(cashAccounts, closingTotals);
 
-        // Aggregate by template name within each category
-        Map<CashFlowCategory, Map<String, BigDecimal>> aggregatedFlows = new EnumMap<>(CashFlowCategory.class);
+        List<CashFlowTotalsDto> totals = journalEntryRepository.sumDebitCreditGroupedByTemplateAndAccount(startDate, endDate);
+
+        // Cash received less cash paid, by template within each category
+        Map<CashFlowCategory, Map<String, BigDecimal>> cashByTemplate = new EnumMap<>(CashFlowCategory.class);
         for (CashFlowCategory category : CashFlowCategory.values()) {
-            aggregatedFlows.put(category, new HashMap<>());
+            cashByTemplate.put(category, new HashMap<>());
         }
-
-        for (Transaction transaction : transactions) {
-            CashFlowCategory category = transaction.getJournalTemplate().getCashFlowCategory();
-            if (category == null) {
-                category = CashFlowCategory.OPERATING; // default to operating
-            }
-
-            String templateName = transaction.getJournalTemplate().getTemplateName();
-
-            // Calculate net cash impact from this transaction
-            BigDecimal cashImpact = calculateCashImpact(transaction, cashAccounts);
-
-            if (cashImpact.compareTo(BigDecimal.ZERO) != 0) {
-                Map<String, BigDecimal> categoryFlows = aggregatedFlows.get(category);
-                categoryFlows.merge(templateName, cashImpact, BigDecimal::add);
+        for (CashFlowTotalsDto row : totals) {
+            if (cashAccountIds.contains(row.accountId())) {
+                cashByTemplate.get(categoryOf(row))
+                        .merge(row.templateName(), row.debitTotal().subtract(row.creditTotal()), BigDecimal::add);
             }
         }
 
-        // Convert aggregated flows to CashFlowItem lists
-        for (CashFlowCategory category : CashFlowCategory.values()) {
-            Map<String, BigDecimal> categoryFlows = aggregatedFlows.get(category);
-            List<CashFlowItem> items = cashFlowsByCategory.get(category);
-
-            for (Map.Entry<String, BigDecimal> entry : categoryFlows.entrySet()) {
-                items.add(new CashFlowItem(entry.getKey(), entry.getValue()));
-            }
-
-            // Sort by absolute amount descending
-            items.sort((a, b) -> b.amount().abs().compareTo(a.amount().abs()));
-        }
+        List<CashFlowItem> directOperatingItems = cashFlowItems(cashByTemplate.get(CashFlowCategory.OPERATING));
+        List<CashFlowItem> operatingItems = method == CashFlowMethod.INDIRECT
+                ? indirectOperatingItems(totals, cashAccountIds)
+                : directOperatingItems;
+        List<CashFlowItem> investingItems = cashFlowItems(cashByTemplate.get(CashFlowCategory.INVESTING));
+        List<CashFlowItem> financingItems = cashFlowItems(cashByTemplate.get(CashFlowCategory.FINANCING));
 
-        // Calculate section totals
-        BigDecimal operatingTotal = sumCashFlowItems(cashFlowsByCategory.get(CashFlowCategory.OPERATING));
-        BigDecimal investingTotal = sumCashFlowItems(cashFlowsByCategory.get(CashFlowCategory.INVESTING));
-        BigDecimal financingTotal = sumCashFlowItems(cashFlowsByCategory.get(CashFlowCategory.FINANCING));
+        // Both methods give the same operating total
+        BigDecimal operatingTotal = sumCashFlowItems(directOperatingItems);
+        BigDecimal investingTotal = sumCashFlowItems(investingItems);
+        BigDecimal financingTotal = sumCashFlowItems(financingItems);
 
         BigDecimal netCashChange = operatingTotal.add(investingTotal).add(financingTotal);
 
         // Cash account breakdown for reconciliation
         List<CashAccountBalance> cashAccountBalances = new ArrayList<>();
         for (ChartOfAccount account : cashAccounts) {
-            BigDecimal balance = calculateAccountBalance(account, LocalDate.of(1900, 1, 1), endDate);
+            BigDecimal balance = closingTotals.balance(account);
             if (balance.compareTo(BigDecimal.ZERO) != 0) {
                 cashAccountBalances.add(new CashAccountBalance(account.getAccountName(), balance));
             }
@@ -338,9 +339,10 @@ public class ReportService {
         return new CashFlowReport(
                 startDate,
                 endDate,
-                cashFlowsByCategory.get(CashFlowCategory.OPERATING),
-                cashFlowsByCategory.get(CashFlowCategory.INVESTING),
-                cashFlowsByCategory.get(CashFlowCategory.FINANCING),
+                method,
+                operatingItems,
+                investingItems,
+                financingItems,
                 operatingTotal,
                 investingTotal,
                 financingTotal,
@@ -351,44 +353,75 @@ public class ReportService {
         );
     }
 
-    private BigDecimal calculateCashBalance(List<ChartOfAccount> cashAccounts, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (ChartOfAccount account : cashAccounts) {
-            total = total.add(calculateAccountBalance(account, startDate, endDate));
+    /**
+     * Operating activities by the indirect method: net income of the period, less the income
+     * and expenses of investing and financing transactions, plus the change of every non-cash
+     * balance sheet account in operating transactions.
+     */
+    private List<CashFlowItem> indirectOperatingItems(List<CashFlowTotalsDto> totals, Set<UUID> cashAccountIds) {
+        Set<UUID> accountIds = totals.stream().map(CashFlowTotalsDto::accountId).collect(Collectors.toSet());
+        Map<UUID, ChartOfAccount> accounts = chartOfAccountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(ChartOfAccount::getId, a -> a));
+
+        BigDecimal netIncome = BigDecimal.ZERO;
+        BigDecimal nonOperatingIncome = BigDecimal.ZERO;
+        Map<String, BigDecimal> changes = new HashMap<>();
+        for (CashFlowTotalsDto row : totals) {
+            ChartOfAccount account = accounts.get(row.accountId());
+            if (account == null || cashAccountIds.contains(row.accountId())) {
+                continue;
+            }
+            // Credits to non-cash accounts bring cash in
+            BigDecimal amount = row.creditTotal().subtract(row.debitTotal());
+            boolean operating = categoryOf(row) == CashFlowCategory.OPERATING;
+            if (isIncomeStatementAccount(account)) {
+                netIncome = netIncome.add(amount);
+                if (!operating) {
+                    nonOperatingIncome = nonOperatingIncome.add(amount);
+                }
+            } else if (operating) {
+                changes.merge(CHANGE_IN_PREFIX + account.getAccountName(), amount, BigDecimal::add);
+            }
         }
-        return total;
-    }
 
-    private BigDecimal calculateAccountBalance(ChartOfAccount account, LocalDate startDate, LocalDate endDate) {
-        BigDecimal debit = journalEntryRepository.sumDebitByAccountAndDateRange(account.getId(), startDate, endDate);
-        BigDecimal credit = journalEntryRepository.sumCreditByAccountAndDateRange(account.getId(), startDate, endDate);
-
-        if (account.getNormalBalance() == NormalBalance.DEBIT) {
-            return debit.subtract(credit);
-        } else {
-            return credit.subtract(debit);
+        List<CashFlowItem> items = new ArrayList<>();
+        items.add(new CashFlowItem(NET_INCOME_LABEL, netIncome));
+        if (nonOperatingIncome.compareTo(BigDecimal.ZERO) != 0) {
+            items.add(new CashFlowItem(NON_OPERATING_INCOME_LABEL, nonOperatingIncome.negate()));
         }
+        items.addAll(cashFlowItems(changes));
+        return items;
     }
 
-    private BigDecimal calculateCashImpact(Transaction transaction, List<ChartOfAccount> cashAccounts) {
-        List<JournalEntry> entries = journalEntryRepository.findByTransactionIdOrderByJournalNumberAsc(transaction.getId());
-
-        BigDecimal cashInflow = BigDecimal.ZERO;
-        BigDecimal cashOutflow = BigDecimal.ZERO;
+    private static boolean isIncomeStatementAccount(ChartOfAccount account) {
+        return account.getAccountType() == AccountType.REVENUE || account.getAccountType() == AccountType.EXPENSE;
+    }
 
-        for (JournalEntry entry : entries) {
-            boolean isCashAccount = cashAccounts.stream()
-                    .anyMatch(ca -> ca.getId().equals(entry.getAccount().getId()));
+    private static CashFlowCategory categoryOf(CashFlowTotalsDto row) {
+        // Templates without a category count as operating
+        return row.category() != null ? row.category() : CashFlowCategory.OPERATING;
+    }
 
-            if (isCashAccount) {
-                // For cash accounts (DEBIT normal balance):
-                // Debit = cash inflow, Credit = cash outflow
-                cashInflow = cashInflow.add(entry.getDebitAmount());
-                cashOutflow = cashOutflow.add(entry.getCreditAmount());
+    /**
+     * Non-zero amounts as items, largest absolute amount first.
+     */
+    private static List<CashFlowItem> cashFlowItems(Map<String, BigDecimal> amounts) {
+        List<CashFlowItem> items = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entry : amounts.entrySet()) {
+            if (entry.getValue().compareTo(BigDecimal.ZERO) != 0) {
+                items.add(new CashFlowItem(entry.getKey(), entry.getValue()));
             }
         }
+        items.sort((a, b) -> b.amount().abs().compareTo(a.amount().abs()));
+        return items;
+    }
 
-        return cashInflow.subtract(cashOutflow);
+    private BigDecimal calculateCashBalance(List<ChartOfAccount> cashAccounts, LedgerTotals totals) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ChartOfAccount account : cashAccounts) {
+            total = total.add(totals.balance(account));
+        }
+        return total;
     }
 
     private BigDecimal sumCashFlowItems(List<CashFlowItem> items) {
@@ -400,6 +433,7 @@ public class ReportService {
     public record CashFlowReport(
             LocalDate startDate,
             LocalDate endDate,
+            CashFlowMethod method,
             List<CashFlowItem> operatingItems,
             List<CashFlowItem> investingItems,
             List<CashFlowItem> financingItems,
@@ -0,0 +1,134 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.enums.SequenceType;
+import com.artivisi.accountingfinance.repository.TransactionSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates document numbers in the format PREFIX-YYYY-NNNN.
+ *
+ * <p>Gap-free sequences ({@link SequenceType#isGapFree()}) advance their
+ * transaction_sequences row with one upsert inside the caller's transaction, so a
+ * rollback returns the number. The row stays locked until the caller commits, which
+ * serialises postings of that type; callers should allocate as late as possible.
+ *
+ * <p>Other sequences take a block of numbers from the PostgreSQL sequence of the year
+ * (hi/lo with the sequence's INCREMENT BY as block size) and hand them out from memory.
+ * nextval takes no row lock and runs on the caller's connection. Every node reserves its
+ * own blocks, so numbers restart each year and are unique across nodes, but are not
+ * strictly in posting order and the unused rest of a block is skipped on restart.
+ * The sequence of a year is created ahead of its postings (see {@link #prepareYear}),
+ * so that posting does not run DDL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceNumberAllocator {
+
+    private final TransactionSequenceRepository transactionSequenceRepository;
+    private final Map<BlockKey, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Next number of the sequence for the given year, e.g. TRX-2025-0042.
+     * Gap-free sequences require an active transaction.
+     */
+    public String next(SequenceType type, int year) {
+        long number = type.isGapFree() ? advanceGapFree(type, year, 1) : nextFromBlock(type, year);
+        return format(type, year, number);
+    }
+
+    /**
+     * Next {@code count} numbers of the sequence for the given year, in order.
+     * A gap-free sequence is advanced by {@code count} with a single upsert.
+     */
+    public List<String> next(SequenceType type, int year, int count) {
+        List<String> numbers = new ArrayList<>(count);
+        if (count <= 0) {
+            return numbers;
+        }
+        if (type.isGapFree()) {
+            long last = advanceGapFree(type, year, count);
+            for (long number = last - count + 1; number <= last; number++) {
+                numbers.add(format(type, year, number));
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                numbers.add(format(type, year, nextFromBlock(type, year)));
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Create the journal number sequence of the year if missing, e.g. when its fiscal periods
+     * are set up or ahead of the year change. Creating it takes a DDL lock that the first
+     * postings of the year would otherwise take.
+     */
+    public void prepareYear(int year) {
+        transactionSequenceRepository.createJournalNumberSequence(year);
+    }
+
+    /**
+     * Move the journal number sequence of every year past the journal numbers in use and
+     * drop the reserved blocks, e.g. after a data import replaced the journal entries.
+     */
+    public void realign() {
+        blocks.clear();
+        int years = transactionSequenceRepository.realignJournalNumberSequences();
+        log.info("Journal number sequences of {} years realigned", years);
+    }
+
+    private static String format(SequenceType type, int year, long number) {
+        return String.format("%s-%d-%04d", type.getPrefix(), year, number);
+    }
+
+    private long advanceGapFree(SequenceType type, int year, int count) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Gap-free sequence " + type + " must be allocated inside a transaction");
+        }
+        return transactionSequenceRepository.advance(type.getCode(), type.getPrefix(), year, count);
+    }
+
+    private long nextFromBlock(SequenceType type, int year) {
+        NumberBlock block = blocks.computeIfAbsent(new BlockKey(type, year), k -> new NumberBlock());
+        block.lock.lock();
+        try {
+            if (block.next > block.last) {
+                // JOURNAL is the only block sequence. The year's sequence normally exists already;
+                // one created here is created again above the numbers handed out should the
+                // creating transaction roll back.
+                block.last = transactionSequenceRepository.reserveJournalNumberBlock(year, block.last);
+                if (block.size == 0) {
+                    block.size = transactionSequenceRepository.findBlockSize(type.getDatabaseSequence() + "_" + year);
+                }
+                block.next = block.last - block.size + 1;
+                log.debug("Reserved {} {} numbers {}-{}", type, year, block.next, block.last);
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private record BlockKey(SequenceType type, int year) {
+    }
+
+    /**
+     * Reserved range [next, last] of one block sequence.
+     */
+    private static final class NumberBlock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long size;
+        private long next = 1;
+        private long last = 0;
+    }
+}
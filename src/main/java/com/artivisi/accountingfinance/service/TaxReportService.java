@@ -22,6 +22,7 @@ public class TaxReportService {
 
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalEntryRepository journalEntryRepository;
+    private final ReportCache reportCache;
 
     // Tax account codes (Indonesian standard)
     private static final String PPN_MASUKAN_CODE = "1.1.25";
@@ -33,6 +34,10 @@ public class TaxReportService {
     private static final String HUTANG_PPH_29_CODE = "2.1.24";
 
     public PPNSummaryReport generatePPNSummary(LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("ppn-summary", startDate, endDate, List.of(), () -> computePPNSummary(startDate, endDate));
+    }
+
+    private PPNSummaryReport computePPNSummary(LocalDate startDate, LocalDate endDate) {
         ChartOfAccount ppnMasukanAccount = chartOfAccountRepository.findByAccountCode(PPN_MASUKAN_CODE)
                 .orElseThrow(() -> new IllegalStateException("PPN Masukan account not found: " + PPN_MASUKAN_CODE));
         ChartOfAccount hutangPPNAccount = chartOfAccountRepository.findByAccountCode(HUTANG_PPN_CODE)
@@ -63,6 +68,11 @@ public class TaxReportService {
     }
 
     public PPh23WithholdingReport generatePPh23Withholding(LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("pph23-withholding", startDate, endDate, List.of(),
+                () -> computePPh23Withholding(startDate, endDate));
+    }
+
+    private PPh23WithholdingReport computePPh23Withholding(LocalDate startDate, LocalDate endDate) {
         ChartOfAccount hutangPPh23Account = chartOfAccountRepository.findByAccountCode(HUTANG_PPH_23_CODE)
                 .orElseThrow(() -> new IllegalStateException("Hutang PPh 23 account not found: " + HUTANG_PPH_23_CODE));
 
@@ -82,6 +92,10 @@ public class TaxReportService {
     }
 
     public TaxSummaryReport generateTaxSummary(LocalDate startDate, LocalDate endDate) {
+        return reportCache.get("tax-summary", startDate, endDate, List.of(), () -> computeTaxSummary(startDate, endDate));
+    }
+
+    private TaxSummaryReport computeTaxSummary(LocalDate startDate, LocalDate endDate) {
         List<TaxAccountItem> taxItems = new ArrayList<>();
 
         // PPN
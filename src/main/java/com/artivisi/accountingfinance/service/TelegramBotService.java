@@ -11,7 +11,9 @@ import com.artivisi.accountingfinance.entity.TelegramUserLink;
 import com.artivisi.accountingfinance.entity.User;
 import com.artivisi.accountingfinance.repository.TelegramUserLinkRepository;
 import com.artivisi.accountingfinance.repository.UserRepository;
+import com.artivisi.accountingfinance.service.telegram.ReceiptPipelineMetrics;
 import com.artivisi.accountingfinance.service.telegram.TelegramApiClient;
+import com.artivisi.accountingfinance.service.telegram.TelegramRetryableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLConnection;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -36,12 +39,15 @@ public class TelegramBotService {
     private static final Logger log = LoggerFactory.getLogger(TelegramBotService.class);
     private static final SecureRandom RANDOM = new SecureRandom();
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final int DOWNLOAD_CONNECT_TIMEOUT_MS = 10_000;
+    private static final int DOWNLOAD_READ_TIMEOUT_MS = 30_000;
 
     private final TelegramConfig config;
     private final TelegramUserLinkRepository telegramLinkRepository;
     private final UserRepository userRepository;
     private final DraftTransactionService draftService;
     private final DocumentService documentService;
+    private final ReceiptPipelineMetrics metrics;
     private TelegramApiClient telegramApiClient;
 
     public TelegramBotService(
@@ -50,12 +56,14 @@ public class TelegramBotService {
             UserRepository userRepository,
             DraftTransactionService draftService,
             DocumentService documentService,
+            ReceiptPipelineMetrics metrics,
             @Autowired(required = false) TelegramApiClient telegramApiClient) {
         this.config = config;
         this.telegramLinkRepository = telegramLinkRepository;
         this.userRepository = userRepository;
         this.draftService = draftService;
         this.documentService = documentService;
+        this.metrics = metrics;
         this.telegramApiClient = telegramApiClient;
 
         if (log.isInfoEnabled()) {
@@ -71,6 +79,17 @@ public class TelegramBotService {
     }
 
     public void handleUpdate(TelegramUpdate update) {
+        handleUpdate(update, 1, true);
+    }
+
+    /**
+     * Handle an update taken from the update queue. Unless this is the final attempt, a
+     * failed photo download throws {@link TelegramRetryableException} so the queue retries
+     * it; on the final attempt the user is told instead.
+     *
+     * @param attempt 1 for the first attempt; later attempts do not repeat the progress message
+     */
+    public void handleUpdate(TelegramUpdate update, int attempt, boolean finalAttempt) {
         if (!config.isEnabled() || telegramApiClient == null) {
             log.warn("Telegram bot is not enabled");
             return;
@@ -103,7 +122,7 @@ public class TelegramBotService {
             if (log.isInfoEnabled()) {
                 log.info("Processing photo message with {} photos", message.getPhoto().size());
             }
-            handlePhotoMessage(chatId, message.getPhoto(), message.getMessageId(), linkOpt);
+            handlePhotoMessage(chatId, message.getPhoto(), message.getMessageId(), linkOpt, attempt, finalAttempt);
         } else {
             log.info("Ignoring message - no text or photo");
         }
@@ -235,8 +254,8 @@ public class TelegramBotService {
                 """, true); // Use Markdown for formatted help
     }
 
-    private void handlePhotoMessage(Long chatId, List<TelegramPhotoSize> photos,
-                                     Long messageId, Optional<TelegramUserLink> linkOpt) {
+    private void handlePhotoMessage(Long chatId, List<TelegramPhotoSize> photos, Long messageId,
+                                     Optional<TelegramUserLink> linkOpt, int attempt, boolean finalAttempt) {
         if (linkOpt.isEmpty()) {
             sendMessage(chatId, "Akun belum terhubung. Ketik /start untuk mulai.");
             return;
@@ -255,12 +274,27 @@ public class TelegramBotService {
             return;
         }
 
-        sendMessage(chatId, "⏳ Memproses struk...");
+        if (attempt == 1) {
+            sendMessage(chatId, "⏳ Memproses struk...");
+        }
 
+        // Download photo; network errors are retried by the update queue
+        byte[] photoBytes;
+        long downloadStart = System.nanoTime();
         try {
-            // Download photo
-            byte[] photoBytes = downloadPhoto(photo.getFileId());
+            photoBytes = downloadPhoto(photo.getFileId());
+        } catch (Exception e) {
+            if (!finalAttempt) {
+                throw new TelegramRetryableException("Photo download failed: " + e.getMessage(), e);
+            }
+            log.warn("Error downloading photo for chat {}: {}", chatId, e.getMessage());
+            sendMessage(chatId, "❌ Gagal memproses struk: " + e.getMessage());
+            return;
+        } finally {
+            metrics.recordSince(ReceiptPipelineMetrics.Stage.DOWNLOAD, downloadStart);
+        }
 
+        try {
             // Save as document
             Document document = documentService.saveFromBytes(
                     photoBytes, "receipt_" + messageId + ".jpg", "image/jpeg", appUsername);
@@ -303,7 +337,10 @@ public class TelegramBotService {
             throw new SecurityException("Invalid file URL: must be from api.telegram.org");
         }
 
-        try (InputStream is = URI.create(fileUrl).toURL().openStream()) {
+        URLConnection connection = URI.create(fileUrl).toURL().openConnection();
+        connection.setConnectTimeout(DOWNLOAD_CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(DOWNLOAD_READ_TIMEOUT_MS);
+        try (InputStream is = connection.getInputStream()) {
             return is.readAllBytes();
         }
     }
@@ -9,9 +9,9 @@ import com.artivisi.accountingfinance.entity.JournalTemplateLine;
 import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.entity.TransactionAccountMapping;
-import com.artivisi.accountingfinance.entity.TransactionSequence;
 import com.artivisi.accountingfinance.entity.TransactionVariable;
 import com.artivisi.accountingfinance.enums.JournalPosition;
+import com.artivisi.accountingfinance.enums.SequenceType;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.enums.VoidReason;
@@ -19,7 +19,6 @@ import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.ProjectRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
-import com.artivisi.accountingfinance.repository.TransactionSequenceRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -47,7 +46,7 @@ public class TransactionService {
     private static final String ERR_TRANSACTION_NOT_FOUND = "Transaction not found with id: ";
 
     private final TransactionRepository transactionRepository;
-    private final TransactionSequenceRepository transactionSequenceRepository;
+    private final SequenceNumberAllocator sequenceNumberAllocator;
     private final JournalEntryRepository journalEntryRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final ProjectRepository projectRepository;
@@ -153,8 +152,10 @@ public class TransactionService {
             }
         }
 
+        Transaction saved = transactionRepository.save(transaction);
+        // Last statement: the usage update locks the template row until commit
         journalTemplateService.recordUsage(template.getId());
-        return transactionRepository.save(transaction);
+        return saved;
     }
 
     @Transactional
@@ -217,12 +218,6 @@ public class TransactionService {
             throw new IllegalStateException("Only draft transactions can be posted");
         }
 
-        // Generate transaction number at posting time (not at draft creation)
-        // This avoids gaps in numbering when drafts are deleted
-        if (transaction.getTransactionNumber() == null) {
-            transaction.setTransactionNumber(generateTransactionNumber());
-        }
-
         // Check if transaction already has journal entries (created via TemplateExecutionEngine)
         // In this case, we just need to update their status - accounts are already set
         if (!transaction.getJournalEntries().isEmpty()) {
@@ -230,6 +225,7 @@ public class TransactionService {
             // Just validate balance and update status
             validateJournalBalance(transaction.getJournalEntries());
 
+            assignTransactionNumber(transaction);
             transaction.setStatus(TransactionStatus.POSTED);
             transaction.setPostedAt(LocalDateTime.now());
             transaction.setPostedBy(postedBy);
@@ -273,6 +269,7 @@ public class TransactionService {
 
         validateJournalBalance(transaction.getJournalEntries());
 
+        assignTransactionNumber(transaction);
         transaction.setStatus(TransactionStatus.POSTED);
         transaction.setPostedAt(LocalDateTime.now());
         transaction.setPostedBy(postedBy);
@@ -323,40 +320,20 @@ public class TransactionService {
         transactionRepository.delete(transaction);
     }
 
-    private String generateTransactionNumber() {
-        int year = LocalDate.now().getYear();
-        TransactionSequence sequence = transactionSequenceRepository
-                .findBySequenceTypeAndYearForUpdate("TRANSACTION", year)
-                .orElseGet(() -> {
-                    TransactionSequence newSeq = new TransactionSequence();
-                    newSeq.setSequenceType("TRANSACTION");
-                    newSeq.setPrefix("TRX");
-                    newSeq.setYear(year);
-                    newSeq.setLastNumber(0);
-                    return transactionSequenceRepository.save(newSeq);
-                });
-
-        String number = sequence.getNextNumber();
-        transactionSequenceRepository.save(sequence);
-        return number;
+    /**
+     * Generate transaction number at posting time (not at draft creation).
+     * This avoids gaps in numbering when drafts are deleted. The gap-free sequence stays
+     * locked until commit, so it is allocated after the journal lines are built.
+     */
+    private void assignTransactionNumber(Transaction transaction) {
+        if (transaction.getTransactionNumber() == null) {
+            transaction.setTransactionNumber(
+                    sequenceNumberAllocator.next(SequenceType.TRANSACTION, LocalDate.now().getYear()));
+        }
     }
 
     private String generateJournalNumber() {
-        int year = LocalDate.now().getYear();
-        TransactionSequence sequence = transactionSequenceRepository
-                .findBySequenceTypeAndYearForUpdate("JOURNAL", year)
-                .orElseGet(() -> {
-                    TransactionSequence newSeq = new TransactionSequence();
-                    newSeq.setSequenceType("JOURNAL");
-                    newSeq.setPrefix("JE");
-                    newSeq.setYear(year);
-                    newSeq.setLastNumber(0);
-                    return transactionSequenceRepository.save(newSeq);
-                });
-
-        String number = sequence.getNextNumber();
-        transactionSequenceRepository.save(sequence);
-        return number;
+        return sequenceNumberAllocator.next(SequenceType.JOURNAL, LocalDate.now().getYear());
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of the stages a queued Telegram update goes through, since startup.
+ * Recorded from the worker threads without locking.
+ */
+@Component
+public class ReceiptPipelineMetrics {
+
+    public enum Stage {
+        /** From the webhook storing the update to a worker first picking it up */
+        QUEUE_WAIT,
+        /** Telegram getFile and photo download */
+        DOWNLOAD,
+        /** Vision text detection */
+        OCR,
+        /** Receipt parsing */
+        PARSE,
+        /** One processing attempt of an update, all stages included */
+        TOTAL
+    }
+
+    private final Map<Stage, StageTimer> timers = new EnumMap<>(Stage.class);
+
+    public ReceiptPipelineMetrics() {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new StageTimer());
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        StageTimer timer = timers.get(stage);
+        timer.count.increment();
+        timer.totalNanos.add(nanos);
+        timer.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Record the time elapsed since {@code startNanos}, a {@link System#nanoTime()} value.
+     */
+    public void recordSince(Stage stage, long startNanos) {
+        record(stage, System.nanoTime() - startNanos);
+    }
+
+    public List<StageStatistics> getStatistics() {
+        return Arrays.stream(Stage.values())
+                .map(stage -> timers.get(stage).statistics(stage))
+                .toList();
+    }
+
+    public record StageStatistics(Stage stage, long count, long averageMillis, long maxMillis) {
+    }
+
+    private static final class StageTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        StageStatistics statistics(Stage stage) {
+            long n = count.sum();
+            long average = n == 0 ? 0 : totalNanos.sum() / n;
+            return new StageStatistics(stage, n,
+                    TimeUnit.NANOSECONDS.toMillis(average), TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+        }
+    }
+}
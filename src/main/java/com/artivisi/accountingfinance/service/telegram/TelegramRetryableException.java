@@ -0,0 +1,12 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+/**
+ * Processing of a Telegram update failed for a reason that may go away, such as the
+ * photo download timing out. The update queue retries the update later.
+ */
+public class TelegramRetryableException extends RuntimeException {
+
+    public TelegramRetryableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
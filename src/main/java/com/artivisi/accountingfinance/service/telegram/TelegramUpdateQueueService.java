@@ -0,0 +1,186 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
+import com.artivisi.accountingfinance.entity.TelegramUpdateQueueItem;
+import com.artivisi.accountingfinance.repository.TelegramUpdateQueueRepository;
+import com.artivisi.accountingfinance.service.TelegramBotService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Durable queue between the Telegram webhook and update processing.
+ *
+ * <p>The webhook only stores the update; {@link #dispatch()} claims ready updates and
+ * processes them on virtual threads, at most {@code telegram.queue.concurrency} at a time.
+ * An update whose processing throws {@link TelegramRetryableException} is retried with
+ * exponential backoff until {@code telegram.queue.max-attempts}; on the last attempt the
+ * user is told that the receipt could not be processed. Delivery is at-least-once: an
+ * update whose worker dies is claimed again when its lease expires.
+ */
+@Service
+public class TelegramUpdateQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelegramUpdateQueueService.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TelegramUpdateQueueRepository queueRepository;
+    private final TelegramBotService telegramBotService;
+    private final ReceiptPipelineMetrics metrics;
+    private final JsonMapper jsonMapper;
+    private final Semaphore permits;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TelegramUpdateQueueService(
+            TelegramUpdateQueueRepository queueRepository,
+            TelegramBotService telegramBotService,
+            ReceiptPipelineMetrics metrics,
+            JsonMapper jsonMapper,
+            @Value("${telegram.queue.concurrency:4}") int concurrency,
+            @Value("${telegram.queue.max-attempts:5}") int maxAttempts,
+            @Value("${telegram.queue.initial-backoff-seconds:5}") long initialBackoffSeconds,
+            @Value("${telegram.queue.max-backoff-seconds:600}") long maxBackoffSeconds,
+            @Value("${telegram.queue.lease-seconds:300}") long leaseSeconds,
+            @Value("${telegram.queue.retention-days:7}") long retentionDays) {
+        if (concurrency < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("telegram.queue.concurrency and max-attempts must be positive");
+        }
+        this.queueRepository = queueRepository;
+        this.telegramBotService = telegramBotService;
+        this.metrics = metrics;
+        this.jsonMapper = jsonMapper;
+        this.permits = new Semaphore(concurrency);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Store an update for processing.
+     *
+     * @return false if an update with the same update_id was already queued
+     */
+    public boolean enqueue(TelegramUpdate update) {
+        if (update.getUpdateId() == null) {
+            throw new IllegalArgumentException("Telegram update has no update_id");
+        }
+        return queueRepository.enqueue(update.getUpdateId(), jsonMapper.writeValueAsString(update)) > 0;
+    }
+
+    /**
+     * Claim as many ready updates as there are free workers and start processing them.
+     *
+     * @return number of updates started
+     */
+    public int dispatch() {
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return 0;
+        }
+        List<TelegramUpdateQueueItem> claimed = queueRepository.claimReady(
+                free, LocalDateTime.now().plus(lease));
+        for (TelegramUpdateQueueItem item : claimed) {
+            // Only this method takes permits, so the claimed updates always have one free
+            permits.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    process(item);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Process one claimed update and record the outcome.
+     */
+    void process(TelegramUpdateQueueItem item) {
+        long start = System.nanoTime();
+        int attempt = item.getAttempts();
+        if (attempt == 1) {
+            metrics.record(ReceiptPipelineMetrics.Stage.QUEUE_WAIT,
+                    Math.max(0, ChronoUnit.NANOS.between(item.getCreatedAt(), LocalDateTime.now())));
+        }
+        try {
+            TelegramUpdate update = jsonMapper.readValue(item.getPayload(), TelegramUpdate.class);
+            telegramBotService.handleUpdate(update, attempt, attempt >= maxAttempts);
+            queueRepository.markDone(item.getId());
+        } catch (TelegramRetryableException e) {
+            Duration delay = backoff(attempt, initialBackoff, maxBackoff);
+            log.warn("Telegram update {} attempt {} failed, retrying in {}s: {}",
+                    item.getUpdateId(), attempt, delay.toSeconds(), e.getMessage());
+            queueRepository.scheduleRetry(item.getId(), LocalDateTime.now().plus(delay), truncate(e.getMessage()));
+        } catch (Exception e) {
+            // Not retryable: the update cannot be read or processing has a bug
+            log.error("Telegram update {} failed", item.getUpdateId(), e);
+            queueRepository.markFailed(item.getId(), truncate(e.getMessage()));
+        } finally {
+            metrics.recordSince(ReceiptPipelineMetrics.Stage.TOTAL, start);
+        }
+    }
+
+    /**
+     * Delay before the attempt after {@code attempt}: doubles from {@code initial}, capped at {@code max}.
+     */
+    static Duration backoff(int attempt, Duration initial, Duration max) {
+        int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+        Duration delay = initial.multipliedBy(1L << doublings);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    /**
+     * Delete processed and failed updates older than the retention period.
+     */
+    public int purgeFinished() {
+        return queueRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    public QueueStatistics getStatistics() {
+        return new QueueStatistics(
+                queueRepository.countByStatus(TelegramUpdateQueueItem.Status.PENDING),
+                queueRepository.countByStatus(TelegramUpdateQueueItem.Status.PROCESSING),
+                queueRepository.countByStatus(TelegramUpdateQueueItem.Status.FAILED),
+                permits.availablePermits(),
+                metrics.getStatistics());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Updates still running when the executor stops are claimed again after their lease
+        executor.shutdownNow();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Queue depth by status and per-stage latency since startup.
+     */
+    public record QueueStatistics(long pending, long processing, long failed, int idleWorkers,
+                                  List<ReceiptPipelineMetrics.StageStatistics> stages) {
+    }
+}
@@ -0,0 +1,193 @@
+-- V005: Monthly account balance snapshots
+-- Debit/credit totals of posted journal entries per account and calendar month.
+-- Reports read closed months from this table and only scan journal_entries
+-- for partial months at the edges of the requested range.
+--
+-- Maintained by triggers so that every writer (posting, voiding, fiscal year
+-- closing, data import) updates the snapshot in the same database transaction.
+-- The snapshot mirrors the reporting predicate exactly:
+--   journal_entries.deleted_at IS NULL AND transactions.status = 'POSTED'
+--
+-- The triggers only append delta rows, so one account and month can have several
+-- rows and readers sum them. Updating a single row per account and month would
+-- serialize every posting to a busy account such as Kas or Bank on that row, and
+-- two postings locking the rows of their lines in different order could deadlock.
+-- Appends lock no existing row. compact_account_period_balances() folds the deltas
+-- back into one row per account and month and runs on a schedule.
+
+-- ============================================
+-- Account Period Balances
+-- ============================================
+
+CREATE TABLE account_period_balances (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id_account UUID NOT NULL REFERENCES chart_of_accounts(id) ON DELETE CASCADE,
+    period_year INTEGER NOT NULL,
+    period_month INTEGER NOT NULL,
+    debit_total DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    credit_total DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT chk_period_month CHECK (period_month BETWEEN 1 AND 12)
+);
+
+CREATE INDEX idx_apb_account_period ON account_period_balances(id_account, period_year, period_month);
+CREATE INDEX idx_apb_period ON account_period_balances(period_year, period_month);
+
+-- Append a debit/credit delta for one account and month
+CREATE OR REPLACE FUNCTION apply_account_period_delta(
+    p_account UUID, p_date DATE, p_debit DECIMAL, p_credit DECIMAL)
+RETURNS VOID AS $$
+BEGIN
+    IF p_debit = 0 AND p_credit = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO account_period_balances (id_account, period_year, period_month, debit_total, credit_total)
+    VALUES (p_account, EXTRACT(YEAR FROM p_date)::INTEGER, EXTRACT(MONTH FROM p_date)::INTEGER, p_debit, p_credit);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Fold the delta rows of every account and month into one row; months whose deltas
+-- cancel out are removed. Concurrent appends are not touched and stay as deltas.
+-- Returns the number of account-months folded.
+CREATE OR REPLACE FUNCTION compact_account_period_balances()
+RETURNS INTEGER AS $$
+DECLARE
+    v_count INTEGER;
+BEGIN
+    -- One compaction at a time; appends (ROW EXCLUSIVE) are not blocked
+    LOCK TABLE account_period_balances IN SHARE UPDATE EXCLUSIVE MODE;
+
+    WITH folded AS (
+        DELETE FROM account_period_balances b
+        USING (SELECT id_account, period_year, period_month
+               FROM account_period_balances
+               GROUP BY id_account, period_year, period_month
+               HAVING COUNT(*) > 1) k
+        WHERE b.id_account = k.id_account
+          AND b.period_year = k.period_year
+          AND b.period_month = k.period_month
+        RETURNING b.id_account, b.period_year, b.period_month, b.debit_total, b.credit_total
+    ), totals AS (
+        SELECT id_account, period_year, period_month,
+               SUM(debit_total) AS debit_total, SUM(credit_total) AS credit_total
+        FROM folded
+        GROUP BY id_account, period_year, period_month
+    ), inserted AS (
+        INSERT INTO account_period_balances (id_account, period_year, period_month, debit_total, credit_total)
+        SELECT id_account, period_year, period_month, debit_total, credit_total
+        FROM totals
+        WHERE debit_total <> 0 OR credit_total <> 0
+    )
+    SELECT COUNT(*) INTO v_count FROM totals;
+
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Journal line inserted, changed or deleted while its transaction is posted
+CREATE OR REPLACE FUNCTION journal_entries_period_balance()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_status VARCHAR(20);
+    v_date DATE;
+BEGIN
+    -- Timestamp-only updates (posted_at, voided_at, ...) do not affect balances
+    IF TG_OP = 'UPDATE'
+       AND OLD.id_account = NEW.id_account
+       AND OLD.id_transaction = NEW.id_transaction
+       AND OLD.debit_amount = NEW.debit_amount
+       AND OLD.credit_amount = NEW.credit_amount
+       AND OLD.deleted_at IS NOT DISTINCT FROM NEW.deleted_at THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.deleted_at IS NULL THEN
+        SELECT status, transaction_date INTO v_status, v_date
+        FROM transactions WHERE id = OLD.id_transaction;
+        IF v_status = 'POSTED' THEN
+            PERFORM apply_account_period_delta(OLD.id_account, v_date, -OLD.debit_amount, -OLD.credit_amount);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.deleted_at IS NULL THEN
+        SELECT status, transaction_date INTO v_status, v_date
+        FROM transactions WHERE id = NEW.id_transaction;
+        IF v_status = 'POSTED' THEN
+            PERFORM apply_account_period_delta(NEW.id_account, v_date, NEW.debit_amount, NEW.credit_amount);
+        END IF;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_journal_entries_period_balance
+    AFTER INSERT OR UPDATE OR DELETE ON journal_entries
+    FOR EACH ROW EXECUTE FUNCTION journal_entries_period_balance();
+
+-- Transaction posted, voided or re-dated: move all of its live lines in or out of the snapshot
+CREATE OR REPLACE FUNCTION transactions_period_balance()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_was_posted BOOLEAN := OLD.status = 'POSTED';
+    v_is_posted BOOLEAN := NEW.status = 'POSTED';
+BEGIN
+    IF v_was_posted = v_is_posted
+       AND (NOT v_is_posted OR OLD.transaction_date = NEW.transaction_date) THEN
+        RETURN NULL;
+    END IF;
+
+    IF v_was_posted THEN
+        PERFORM apply_account_period_delta(j.id_account, OLD.transaction_date,
+                                           -SUM(j.debit_amount), -SUM(j.credit_amount))
+        FROM journal_entries j
+        WHERE j.id_transaction = OLD.id AND j.deleted_at IS NULL
+        GROUP BY j.id_account;
+    END IF;
+
+    IF v_is_posted THEN
+        PERFORM apply_account_period_delta(j.id_account, NEW.transaction_date,
+                                           SUM(j.debit_amount), SUM(j.credit_amount))
+        FROM journal_entries j
+        WHERE j.id_transaction = NEW.id AND j.deleted_at IS NULL
+        GROUP BY j.id_account;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_period_balance
+    AFTER UPDATE OF status, transaction_date ON transactions
+    FOR EACH ROW EXECUTE FUNCTION transactions_period_balance();
+
+-- Data import truncates the ledger tables; row triggers do not fire for TRUNCATE
+CREATE OR REPLACE FUNCTION ledger_truncate_period_balance()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM account_period_balances;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_journal_entries_truncate_period_balance
+    AFTER TRUNCATE ON journal_entries
+    FOR EACH STATEMENT EXECUTE FUNCTION ledger_truncate_period_balance();
+
+CREATE TRIGGER trg_transactions_truncate_period_balance
+    AFTER TRUNCATE ON transactions
+    FOR EACH STATEMENT EXECUTE FUNCTION ledger_truncate_period_balance();
+
+-- Backfill from existing ledger data
+INSERT INTO account_period_balances (id_account, period_year, period_month, debit_total, credit_total)
+SELECT j.id_account,
+       EXTRACT(YEAR FROM t.transaction_date)::INTEGER,
+       EXTRACT(MONTH FROM t.transaction_date)::INTEGER,
+       SUM(j.debit_amount),
+       SUM(j.credit_amount)
+FROM journal_entries j
+JOIN transactions t ON t.id = j.id_transaction
+WHERE t.status = 'POSTED' AND j.deleted_at IS NULL
+GROUP BY j.id_account, EXTRACT(YEAR FROM t.transaction_date), EXTRACT(MONTH FROM t.transaction_date);
@@ -0,0 +1,16 @@
+-- V006: Indexes for keyset pagination of the general ledger
+-- Ledger order is (transactions.transaction_date, transactions.created_at, journal_entries.journal_number,
+-- journal_entries.id). Lines of one journal can share a journal number, so the id makes the order unique.
+-- The order spans two tables, so it is covered by one index per side of the join:
+--   * posted transactions in ledger order, for the seek predicate and ORDER BY
+--   * an account's lines per transaction in (journal_number, id) order, carrying the
+--     columns needed for page start balances so SUM queries run as index-only scans
+
+CREATE INDEX idx_trx_posted_ledger_order
+    ON transactions (transaction_date, created_at, id)
+    WHERE status = 'POSTED';
+
+CREATE INDEX idx_je_account_ledger
+    ON journal_entries (id_account, id_transaction, journal_number, id)
+    INCLUDE (debit_amount, credit_amount)
+    WHERE deleted_at IS NULL;
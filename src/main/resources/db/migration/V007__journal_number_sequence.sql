@@ -0,0 +1,100 @@
+-- V007: Sequences for journal numbers (JE-YYYY-NNNN)
+-- Journal numbers are handed out from blocks reserved with nextval, so posting no
+-- longer locks a transaction_sequences row. Every year has its own sequence
+-- journal_number_seq_YYYY, so numbers restart each year. INCREMENT BY is the block
+-- size: nextval returns the upper end of a block of 50 numbers.
+-- A year's sequence starts after every journal number of that year already in use,
+-- including manual journals that used to number themselves from MAX(journal_number).
+--
+-- Sequences are created ahead of posting: here and after every migrate run for the
+-- years in use and the current and next year, when fiscal periods are set up, and by
+-- the daily year-rollover job. Posting only creates one for a year none of these
+-- covered, e.g. a backdated entry into a year without any data.
+
+-- Highest JE-YYYY-NNNN number in use for the year
+CREATE OR REPLACE FUNCTION journal_number_in_use(p_year INTEGER)
+RETURNS BIGINT AS $$
+    SELECT GREATEST(
+        (SELECT COALESCE(MAX(last_number), 0) FROM transaction_sequences
+         WHERE sequence_type = 'JOURNAL' AND year = p_year),
+        (SELECT COALESCE(MAX(CAST(SUBSTRING(journal_number FROM '^JE-[0-9]{4}-([0-9]+)') AS BIGINT)), 0)
+         FROM journal_entries WHERE journal_number ~ ('^JE-' || p_year || '-[0-9]+')));
+$$ LANGUAGE sql STABLE;
+
+-- Name of the journal number sequence of the year, created if missing, starting after the
+-- year's highest journal number and after p_floor (numbers a node already handed out).
+-- The sequence is created in the caller's transaction. The advisory lock makes a concurrent
+-- creator wait for that transaction and then find the sequence, or create it if rolled back.
+CREATE OR REPLACE FUNCTION journal_number_sequence(p_year INTEGER, p_floor BIGINT DEFAULT 0)
+RETURNS TEXT AS $$
+DECLARE
+    v_name TEXT := 'journal_number_seq_' || p_year;
+BEGIN
+    IF to_regclass(v_name) IS NULL THEN
+        PERFORM pg_advisory_xact_lock(hashtext(v_name));
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE %I INCREMENT BY 50 MINVALUE 1 START WITH %s',
+                           v_name, GREATEST(journal_number_in_use(p_year), p_floor) + 50);
+        END IF;
+    END IF;
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create the missing sequences of the years in use (transactions, fiscal periods, journal
+-- numbers) and of the current and next year. Returns the number of sequences created.
+CREATE OR REPLACE FUNCTION prepare_journal_number_sequences()
+RETURNS INTEGER AS $$
+DECLARE
+    v_year INTEGER;
+    v_count INTEGER := 0;
+BEGIN
+    FOR v_year IN
+        SELECT DISTINCT EXTRACT(YEAR FROM transaction_date)::INTEGER FROM transactions
+        UNION
+        SELECT year FROM fiscal_periods
+        UNION
+        SELECT CAST(SUBSTRING(journal_number FROM '^JE-([0-9]{4})-') AS INTEGER)
+        FROM journal_entries WHERE journal_number ~ '^JE-[0-9]{4}-[0-9]+'
+        UNION
+        SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + g FROM generate_series(0, 1) AS g
+    LOOP
+        IF to_regclass('journal_number_seq_' || v_year) IS NULL THEN
+            PERFORM journal_number_sequence(v_year);
+            v_count := v_count + 1;
+        END IF;
+    END LOOP;
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Move the sequence of every year past the journal numbers in use, e.g. after a data import.
+-- Returns the number of years realigned.
+CREATE OR REPLACE FUNCTION realign_journal_number_sequences()
+RETURNS INTEGER AS $$
+DECLARE
+    v_year INTEGER;
+    v_name TEXT;
+    v_in_use BIGINT;
+    v_count INTEGER := 0;
+BEGIN
+    PERFORM prepare_journal_number_sequences();
+
+    FOR v_year IN
+        SELECT CAST(SUBSTRING(sequencename FROM '([0-9]{4})$') AS INTEGER)
+        FROM pg_sequences
+        WHERE schemaname = current_schema() AND sequencename ~ '^journal_number_seq_[0-9]{4}$'
+    LOOP
+        v_name := 'journal_number_seq_' || v_year;
+        v_in_use := journal_number_in_use(v_year);
+        IF v_in_use > (SELECT COALESCE(last_value, 0) FROM pg_sequences
+                       WHERE schemaname = current_schema() AND sequencename = v_name) THEN
+            PERFORM setval(v_name, v_in_use);
+        END IF;
+        v_count := v_count + 1;
+    END LOOP;
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT prepare_journal_number_sequences();
@@ -0,0 +1,9 @@
+-- V008: Content-addressed document storage
+-- Documents with identical content share one blob at blobs/<sha[0:2]>/<sha256>. The live
+-- rows pointing at a storage path are the blob's references: counted on delete and
+-- listed per shard prefix by blob garbage collection, so the index supports both
+-- equality and LIKE 'prefix%' lookups.
+
+CREATE INDEX idx_documents_storage_path
+    ON documents (storage_path varchar_pattern_ops)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,28 @@
+-- V009: Blind indexes for encrypted PII
+-- Encrypted columns use a random IV, so equality lookups go through an HMAC of the
+-- normalized plaintext stored next to each searchable field (see BlindIndexService).
+-- Existing rows are backfilled by the V010 Java migration, which needs the application
+-- key to decrypt them.
+
+-- Encrypted values ("ENC:" + Base64 of IV, ciphertext and tag) do not fit the original lengths
+ALTER TABLE employees
+    ALTER COLUMN npwp TYPE VARCHAR(255),
+    ALTER COLUMN nik_ktp TYPE VARCHAR(255),
+    ALTER COLUMN bank_account_number TYPE VARCHAR(255),
+    ALTER COLUMN bpjs_kesehatan_number TYPE VARCHAR(255),
+    ALTER COLUMN bpjs_ketenagakerjaan_number TYPE VARCHAR(255),
+    ADD COLUMN npwp_bidx VARCHAR(32),
+    ADD COLUMN nik_ktp_bidx VARCHAR(32),
+    ADD COLUMN bank_account_number_bidx VARCHAR(32);
+
+ALTER TABLE company_bank_accounts
+    ALTER COLUMN account_number TYPE VARCHAR(255),
+    ADD COLUMN account_number_bidx VARCHAR(32);
+
+-- Replaced by the blind index: an index on ciphertext never matches a lookup
+DROP INDEX IF EXISTS idx_employees_npwp;
+
+CREATE INDEX idx_employees_npwp_bidx ON employees(npwp_bidx);
+CREATE INDEX idx_employees_nik_ktp_bidx ON employees(nik_ktp_bidx);
+CREATE INDEX idx_employees_bank_account_number_bidx ON employees(bank_account_number_bidx);
+CREATE INDEX idx_company_bank_account_number_bidx ON company_bank_accounts(account_number_bidx);
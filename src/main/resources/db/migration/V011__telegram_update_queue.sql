@@ -0,0 +1,24 @@
+-- V011: Durable queue for incoming Telegram updates
+-- The webhook stores each update here and returns, so Telegram is acknowledged without
+-- waiting for the photo download, OCR and parsing. update_id is unique per bot, so a
+-- webhook delivery Telegram repeats is dropped by the insert. Workers claim ready rows
+-- with FOR UPDATE SKIP LOCKED; a claimed row is PROCESSING until next_attempt_at, after
+-- which it is claimed again if the worker never finished it.
+
+CREATE TABLE telegram_update_queue (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    update_id BIGINT NOT NULL UNIQUE,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT chk_telegram_update_queue_status CHECK (status IN ('PENDING', 'PROCESSING', 'DONE', 'FAILED'))
+);
+
+CREATE INDEX idx_telegram_update_queue_ready
+    ON telegram_update_queue (next_attempt_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_telegram_update_queue_status ON telegram_update_queue (status, updated_at);
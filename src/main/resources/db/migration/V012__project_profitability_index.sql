@@ -0,0 +1,10 @@
+-- V012: Index for the project profitability aggregation
+-- Profitability reports sum journal lines grouped by (project, account) for a set of
+-- projects in one query. The lines of the requested projects are read in group order,
+-- joined to posted transactions by id_transaction, and the amounts come from the index
+-- so the aggregation runs as an index-only scan.
+
+CREATE INDEX idx_je_project_account
+    ON journal_entries (id_project, id_account, id_transaction)
+    INCLUDE (debit_amount, credit_amount)
+    WHERE id_project IS NOT NULL AND deleted_at IS NULL;
@@ -0,0 +1,10 @@
+-- V014: Remember documents the blob migration could not move
+-- A document stored before content addressing whose file is missing or does not match its
+-- checksum cannot be moved into the blob store. It is marked instead of being read and hashed
+-- again on every migration run. Clearing the mark queues it again, e.g. after a restore.
+
+ALTER TABLE documents ADD COLUMN blob_migration_failed_at TIMESTAMP;
+
+CREATE INDEX idx_documents_blob_migration
+    ON documents (id)
+    WHERE storage_path NOT LIKE 'blobs/%' AND blob_migration_failed_at IS NULL AND deleted_at IS NULL;
@@ -0,0 +1,12 @@
+-- V015: Fingerprint of the PII blind-index key
+-- Blind indexes are HMACs and only match lookups computed with the same key. The fingerprint
+-- of the key the stored indexes were built with is kept here; after every migrate run the
+-- indexes are rebuilt when the configured key no longer matches it (BlindIndexRebuildCallback).
+
+CREATE TABLE pii_blind_index_key (
+    id INTEGER PRIMARY KEY DEFAULT 1,
+    key_fingerprint VARCHAR(64) NOT NULL,
+    rebuilt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT chk_pii_blind_index_key_single_row CHECK (id = 1)
+);
@@ -0,0 +1,57 @@
+package com.artivisi.accountingfinance;
+
+import com.artivisi.accountingfinance.service.VisionOcrService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replaces Google Cloud Vision with a local stub, so receipt processing can be tested
+ * without credentials or network access. Vision is disabled in the test profile, so this
+ * is the only {@link VisionOcrService} bean in contexts that import it.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StubVisionOcrConfiguration {
+
+    @Bean
+    StubVisionOcrService stubVisionOcrService() {
+        return new StubVisionOcrService();
+    }
+
+    /**
+     * Returns the configured text for every image.
+     */
+    public static class StubVisionOcrService extends VisionOcrService {
+
+        private volatile OcrResult result = OcrResult.error("No OCR text configured");
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public StubVisionOcrService() {
+            super(null, null);
+        }
+
+        public void returnText(String text) {
+            result = OcrResult.success(text);
+        }
+
+        public void returnError(String message) {
+            result = OcrResult.error(message);
+        }
+
+        public int getCalls() {
+            return calls.get();
+        }
+
+        @Override
+        public OcrResult extractText(byte[] imageBytes) {
+            calls.incrementAndGet();
+            return result;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+}
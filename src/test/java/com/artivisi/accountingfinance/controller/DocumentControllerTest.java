@@ -0,0 +1,83 @@
+package com.artivisi.accountingfinance.controller;
+
+import com.artivisi.accountingfinance.entity.Document;
+import com.artivisi.accountingfinance.enums.AuditEventType;
+import com.artivisi.accountingfinance.service.DocumentService;
+import com.artivisi.accountingfinance.service.SecurityAuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Document Controller Tests")
+class DocumentControllerTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 document content".getBytes(StandardCharsets.US_ASCII);
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private SecurityAuditService securityAuditService;
+
+    private UUID documentId;
+
+    @BeforeEach
+    void setUp() {
+        documentId = UUID.randomUUID();
+        Document document = new Document();
+        document.setId(documentId);
+        document.setOriginalFilename("invoice.pdf");
+        document.setContentType("application/pdf");
+        when(documentService.findById(documentId)).thenReturn(document);
+        when(documentService.loadAsResource(documentId)).thenReturn(new ByteArrayResource(CONTENT));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new DocumentController(documentService, securityAuditService))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should audit a full download")
+    void shouldAuditFullDownload() throws Exception {
+        mockMvc.perform(get("/documents/{id}/download", documentId))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+
+        verify(securityAuditService).log(eq(AuditEventType.DOCUMENT_DOWNLOAD), contains(documentId.toString()));
+    }
+
+    @Test
+    @DisplayName("Should audit Range downloads that do not start at byte 0")
+    void shouldAuditRangeDownloads() throws Exception {
+        mockMvc.perform(get("/documents/{id}/download", documentId).header(HttpHeaders.RANGE, "bytes=1-"))
+                .andExpect(status().isPartialContent());
+        mockMvc.perform(get("/documents/{id}/download", documentId)
+                        .header(HttpHeaders.RANGE, "bytes=-" + CONTENT.length))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(CONTENT));
+
+        verify(securityAuditService, times(2))
+                .log(eq(AuditEventType.DOCUMENT_DOWNLOAD), contains(documentId.toString()));
+    }
+}
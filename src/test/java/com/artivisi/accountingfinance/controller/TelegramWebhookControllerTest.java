@@ -2,7 +2,7 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.config.TelegramConfig;
 import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
-import com.artivisi.accountingfinance.service.TelegramBotService;
+import com.artivisi.accountingfinance.service.telegram.TelegramUpdateQueueService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -30,7 +31,7 @@ class TelegramWebhookControllerTest {
     private MockMvc mockMvc;
 
     @Mock
-    private TelegramBotService telegramBotService;
+    private TelegramUpdateQueueService updateQueueService;
 
     @Mock
     private TelegramConfig telegramConfig;
@@ -44,7 +45,7 @@ class TelegramWebhookControllerTest {
         when(telegramConfig.getWebhook()).thenReturn(webhookConfig);
         when(telegramConfig.isEnabled()).thenReturn(true);
 
-        TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, telegramConfig);
+        TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, telegramConfig);
         controller.validateSecurityConfiguration();
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
@@ -87,7 +88,7 @@ class TelegramWebhookControllerTest {
                 .andExpect(content().string("OK"));
 
         // Verify the service was called
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -143,7 +144,7 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -186,7 +187,7 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -280,14 +281,14 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
     @DisplayName("Should handle service exception gracefully")
     void shouldHandleServiceException() throws Exception {
         // Mock service to throw exception
-        doThrow(new RuntimeException("Service error")).when(telegramBotService).handleUpdate(any());
+        when(updateQueueService.enqueue(any())).thenThrow(new RuntimeException("Service error"));
 
         String telegramJson = """
                 {
@@ -318,6 +319,36 @@ class TelegramWebhookControllerTest {
                 .andExpect(content().string("Error handled"));
     }
 
+    @Test
+    @DisplayName("Should ask Telegram to redeliver when the update cannot be stored")
+    void shouldRequestRedeliveryWhenQueueUnavailable() throws Exception {
+        when(updateQueueService.enqueue(any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        mockMvc.perform(post("/api/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Telegram-Bot-Api-Secret-Token", TEST_SECRET_TOKEN)
+                        .content("""
+                                {"update_id": 123456791, "message": {"message_id": 3, "chat": {"id": 123456}, "text": "/status"}}
+                                """))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a duplicate update")
+    void shouldAcknowledgeDuplicateUpdate() throws Exception {
+        when(updateQueueService.enqueue(any())).thenReturn(false);
+
+        mockMvc.perform(post("/api/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Telegram-Bot-Api-Secret-Token", TEST_SECRET_TOKEN)
+                        .content("""
+                                {"update_id": 123456792, "message": {"message_id": 4, "chat": {"id": 123456}, "text": "/status"}}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(content().string("OK"));
+    }
+
     @Nested
     @DisplayName("Security Configuration Validation Tests")
     class SecurityConfigurationValidationTests {
@@ -332,7 +363,7 @@ class TelegramWebhookControllerTest {
             when(config.isEnabled()).thenReturn(true);
             when(config.getWebhook()).thenReturn(webhook);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             assertThatThrownBy(controller::validateSecurityConfiguration)
                     .isInstanceOf(IllegalStateException.class)
@@ -349,7 +380,7 @@ class TelegramWebhookControllerTest {
             when(config.isEnabled()).thenReturn(true);
             when(config.getWebhook()).thenReturn(webhook);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             assertThatThrownBy(controller::validateSecurityConfiguration)
                     .isInstanceOf(IllegalStateException.class)
@@ -365,7 +396,7 @@ class TelegramWebhookControllerTest {
             TelegramConfig config = mock(TelegramConfig.class);
             when(config.isEnabled()).thenReturn(false);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             // Should not throw
             controller.validateSecurityConfiguration();
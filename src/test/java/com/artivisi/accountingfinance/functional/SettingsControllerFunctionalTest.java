@@ -2,6 +2,7 @@ package com.artivisi.accountingfinance.functional;
 
 import com.artivisi.accountingfinance.functional.service.ServiceTestDataInitializer;
 import com.artivisi.accountingfinance.repository.CompanyBankAccountRepository;
+import com.artivisi.accountingfinance.service.CompanyBankAccountService;
 import com.artivisi.accountingfinance.ui.PlaywrightTestBase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,6 +26,9 @@ class SettingsControllerFunctionalTest extends PlaywrightTestBase {
     @Autowired
     private CompanyBankAccountRepository bankAccountRepository;
 
+    @Autowired
+    private CompanyBankAccountService bankAccountService;
+
     @BeforeEach
     void setupAndLogin() {
         loginAsAdmin();
@@ -314,7 +318,7 @@ class SettingsControllerFunctionalTest extends PlaywrightTestBase {
         waitForPageLoad();
 
         // Find the newly created account
-        var bankAccount = bankAccountRepository.findByAccountNumber(uniqueNumber);
+        var bankAccount = bankAccountService.findByAccountNumber(uniqueNumber);
         if (bankAccount.isEmpty()) {
             return;
         }
@@ -459,7 +459,7 @@ class SettingsPersistenceTest extends PlaywrightTestBase {
         waitForPageLoad();
 
         // Verify in database
-        var fromDb = bankAccountRepository.findByAccountNumber(uniqueNumber);
+        var fromDb = bankAccountService.findByAccountNumber(uniqueNumber);
         assertThat(fromDb).isPresent();
         assertThat(fromDb.get().getBankName()).isEqualTo("UI Created Bank");
 
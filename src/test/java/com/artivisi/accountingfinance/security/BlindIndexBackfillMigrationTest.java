@@ -0,0 +1,73 @@
+package com.artivisi.accountingfinance.security;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Employee;
+import com.artivisi.accountingfinance.service.CompanyBankAccountService;
+import com.artivisi.accountingfinance.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the V010 blind-index backfill, run against rows inserted
+ * without blind indexes the way they existed before V009.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BlindIndexBackfillMigration Integration Tests")
+class BlindIndexBackfillMigrationTest {
+
+    @Autowired
+    private BlindIndexBackfillMigration migration;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CompanyBankAccountService bankAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should fill missing blind indexes so legacy rows can be looked up")
+    void shouldBackfillLegacyRows() throws Exception {
+        UUID employeeId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO employees (id, employee_id, name, ptkp_status, hire_date, employment_type,
+                                       employment_status, npwp, nik_ktp, bank_account_number, active)
+                VALUES (?, ?, 'Legacy Employee', 'TK_0', '2020-01-01', 'PERMANENT', 'ACTIVE',
+                        '31.222.333.4-555.666', '3175099988877766', '5550001119', TRUE)""",
+                employeeId, "LEG" + (System.nanoTime() % 1000000));
+        jdbcTemplate.update("""
+                INSERT INTO company_bank_accounts (id, bank_name, account_number, account_name)
+                VALUES (?, 'Legacy Bank', '8880001117', 'PT Legacy')""", UUID.randomUUID());
+        assertThat(employeeService.findByNikKtp("3175099988877766")).isEmpty();
+
+        int updated = migration.backfill(DataSourceUtils.getConnection(dataSource));
+
+        assertThat(updated).isGreaterThanOrEqualTo(2);
+        assertThat(employeeService.findByNikKtp("3175099988877766")).get()
+                .extracting(Employee::getId).isEqualTo(employeeId);
+        assertThat(employeeService.findByNpwp("312223334555666")).isPresent();
+        assertThat(employeeService.findByBankAccountNumber("5550001119")).hasSize(1);
+        assertThat(bankAccountService.findByAccountNumber("8880001117")).isPresent();
+        assertThat(migration.backfill(DataSourceUtils.getConnection(dataSource))).isZero();
+    }
+}
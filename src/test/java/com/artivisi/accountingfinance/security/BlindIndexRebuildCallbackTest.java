@@ -0,0 +1,84 @@
+package com.artivisi.accountingfinance.security;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Employee;
+import com.artivisi.accountingfinance.service.DataSubjectService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the blind-index rebuild after a key change.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BlindIndexRebuildCallback Integration Tests")
+class BlindIndexRebuildCallbackTest {
+
+    // Employee EMP001 from V908__payroll_test_data.sql, inserted by SQL after the V010 backfill
+    private static final UUID EMPLOYEE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+    private static final String EMPLOYEE_NPWP = "99.888.777.6-012.345";
+    private static final String PREVIOUS_KEY = Base64.getEncoder().encodeToString(
+            "previous-blind-index-key-32bytes".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private BlindIndexRebuildCallback callback;
+
+    @Autowired
+    private BlindIndexService blindIndexService;
+
+    @Autowired
+    private DataSubjectService dataSubjectService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should index rows inserted by SQL after the backfill migration")
+    void shouldIndexRowsInsertedAfterBackfill() {
+        assertThat(dataSubjectService.findByIdentityNumber(EMPLOYEE_NPWP)).get()
+                .extracting(Employee::getId).isEqualTo(EMPLOYEE_ID);
+        assertThat(storedFingerprint()).isEqualTo(blindIndexService.keyFingerprint());
+    }
+
+    @Test
+    @DisplayName("Should rebuild blind indexes built with a previous key")
+    void shouldRebuildAfterKeyChange() throws Exception {
+        BlindIndexService previous = new BlindIndexService();
+        ReflectionTestUtils.setField(previous, "blindIndexKeyBase64", PREVIOUS_KEY);
+        previous.init();
+        jdbcTemplate.update("UPDATE employees SET npwp_bidx = ? WHERE id = ?", previous.compute(EMPLOYEE_NPWP), EMPLOYEE_ID);
+        jdbcTemplate.update("UPDATE pii_blind_index_key SET key_fingerprint = ?", previous.keyFingerprint());
+        assertThat(dataSubjectService.findByIdentityNumber(EMPLOYEE_NPWP)).isEmpty();
+
+        int rebuilt = callback.synchronize(DataSourceUtils.getConnection(dataSource));
+
+        assertThat(rebuilt).isPositive();
+        assertThat(dataSubjectService.findByIdentityNumber(EMPLOYEE_NPWP)).get()
+                .extracting(Employee::getId).isEqualTo(EMPLOYEE_ID);
+        assertThat(storedFingerprint()).isEqualTo(blindIndexService.keyFingerprint());
+    }
+
+    private String storedFingerprint() {
+        return jdbcTemplate.queryForObject("SELECT key_fingerprint FROM pii_blind_index_key WHERE id = 1", String.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.artivisi.accountingfinance.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BlindIndexService Tests")
+class BlindIndexServiceTest {
+
+    private static final String ENCRYPTION_KEY = Base64.getEncoder().encodeToString(
+            "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8));
+    private static final String OTHER_KEY = Base64.getEncoder().encodeToString(
+            "abcdefghijklmnopqrstuvwxyz123456".getBytes(StandardCharsets.UTF_8));
+
+    private BlindIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        service = service(ENCRYPTION_KEY, "");
+    }
+
+    private static BlindIndexService service(String encryptionKey, String blindIndexKey) {
+        BlindIndexService service = new BlindIndexService();
+        ReflectionTestUtils.setField(service, "encryptionKeyBase64", encryptionKey);
+        ReflectionTestUtils.setField(service, "blindIndexKeyBase64", blindIndexKey);
+        service.init();
+        return service;
+    }
+
+    @Nested
+    @DisplayName("Compute Tests")
+    class ComputeTests {
+
+        @Test
+        @DisplayName("Should produce the same 32-character index for the same value")
+        void shouldBeDeterministic() {
+            String index = service.compute("3175012345678901");
+
+            assertThat(index).hasSize(32).matches("[0-9a-f]+");
+            assertThat(service.compute("3175012345678901")).isEqualTo(index);
+            assertThat(service.compute("3175012345678902")).isNotEqualTo(index);
+        }
+
+        @Test
+        @DisplayName("Should ignore separators and case")
+        void shouldNormalize() {
+            assertThat(service.compute("12.345.678.9-012.345"))
+                    .isEqualTo(service.compute("123456789012345"))
+                    .isEqualTo(service.compute(" 12 345 678 9/012 345 "));
+            assertThat(service.compute("ab-12")).isEqualTo(service.compute("AB12"));
+        }
+
+        @Test
+        @DisplayName("Should return null for null and blank values")
+        void shouldSkipEmptyValues() {
+            assertThat(service.compute(null)).isNull();
+            assertThat(service.compute("  ")).isNull();
+            assertThat(service.compute(".-")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should depend on the key")
+        void shouldDependOnKey() {
+            String derived = service.compute("3175012345678901");
+
+            assertThat(service(OTHER_KEY, "").compute("3175012345678901")).isNotEqualTo(derived);
+            assertThat(service(ENCRYPTION_KEY, OTHER_KEY).compute("3175012345678901")).isNotEqualTo(derived);
+            assertThat(service("", "").compute("3175012345678901")).isNotEqualTo(derived).hasSize(32);
+        }
+
+        @Test
+        @DisplayName("Should give each key its own fingerprint")
+        void shouldFingerprintKey() {
+            assertThat(service.keyFingerprint()).hasSize(64)
+                    .isEqualTo(service(ENCRYPTION_KEY, "").keyFingerprint())
+                    .isNotEqualTo(service(ENCRYPTION_KEY, OTHER_KEY).keyFingerprint())
+                    .isNotEqualTo(service("", "").keyFingerprint());
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should keep the index of a loaded value without decrypting it")
+        void shouldKeepIndexOfLoadedValue() {
+            EncryptedStringConverter converter = new EncryptedStringConverter();
+            converter.setEncryptionKey(ENCRYPTION_KEY);
+            EncryptedString loaded = converter.convertToEntityAttribute(
+                    converter.convertToDatabaseColumn(EncryptedString.of("1234567890")));
+
+            assertThat(service.refresh(loaded, "existing-index")).isEqualTo("existing-index");
+            assertThat(loaded.isDecrypted()).isFalse();
+            assertThat(service.refresh(loaded, null)).isEqualTo(service.compute("1234567890"));
+        }
+
+        @Test
+        @DisplayName("Should compute the index of a value set by the application")
+        void shouldComputeIndexOfNewValue() {
+            assertThat(service.refresh(EncryptedString.of("1234567890"), "stale-index"))
+                    .isEqualTo(service.compute("1234567890"));
+            assertThat(service.refresh(null, "stale-index")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should confirm matches after normalization")
+        void shouldMatchNormalized() {
+            assertThat(BlindIndexService.matches("12.345.678.9-012.345", "123456789012345")).isTrue();
+            assertThat(BlindIndexService.matches("123456789012345", "123456789012346")).isFalse();
+            assertThat(BlindIndexService.matches("123456789012345", null)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.artivisi.accountingfinance.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the per-row cost of loading the five encrypted PII columns of an
+ * employee, over 10,000 employees:
+ * <ul>
+ *   <li>{@code legacyDecrypt}: the previous converter, one {@code Cipher.getInstance} per value</li>
+ *   <li>{@code pooledDecrypt}: {@link EncryptedStringConverter} reading every value</li>
+ *   <li>{@code lazyLoad}: {@link EncryptedStringConverter} when the values are not read,
+ *       as in the employee list</li>
+ * </ul>
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=EncryptedStringConverterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(EncryptedStringConverterBenchmark.EMPLOYEES)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Tag("performance")
+@DisplayName("EncryptedStringConverter Benchmark")
+public class EncryptedStringConverterBenchmark {
+
+    static final int EMPLOYEES = 10_000;
+    private static final byte[] KEY = "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8);
+
+    private String[][] rows;
+    private EncryptedStringConverter converter;
+    private LegacyConverter legacy;
+
+    @Setup
+    public void setUp() {
+        converter = new EncryptedStringConverter();
+        converter.setEncryptionKey(Base64.getEncoder().encodeToString(KEY));
+        legacy = new LegacyConverter(new SecretKeySpec(KEY, "AES"));
+
+        rows = new String[EMPLOYEES][];
+        for (int i = 0; i < EMPLOYEES; i++) {
+            rows[i] = new String[]{
+                    encrypt(String.format("%02d.%03d.%03d.%01d-%03d.000", i % 100, i % 1000, i, i % 10, i % 1000)),
+                    encrypt(String.format("3201%012d", i)),
+                    encrypt(String.format("%010d", i)),
+                    encrypt(String.format("000%010d", i)),
+                    encrypt(String.format("2%010d", i))
+            };
+        }
+    }
+
+    private String encrypt(String value) {
+        return converter.convertToDatabaseColumn(EncryptedString.of(value));
+    }
+
+    @Benchmark
+    public void legacyDecrypt(Blackhole blackhole) throws Exception {
+        for (String[] row : rows) {
+            for (String column : row) {
+                blackhole.consume(legacy.decrypt(column));
+            }
+        }
+    }
+
+    @Benchmark
+    public void pooledDecrypt(Blackhole blackhole) {
+        for (String[] row : rows) {
+            for (String column : row) {
+                blackhole.consume(converter.convertToEntityAttribute(column).plaintext());
+            }
+        }
+    }
+
+    @Benchmark
+    public void lazyLoad(Blackhole blackhole) {
+        for (String[] row : rows) {
+            for (String column : row) {
+                blackhole.consume(converter.convertToEntityAttribute(column));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Run per-row PII decrypt benchmark")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EncryptedStringConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * The previous decrypt path: a new cipher from {@code Cipher.getInstance} for every value.
+     */
+    static final class LegacyConverter {
+        private final SecretKey secretKey;
+
+        LegacyConverter(SecretKey secretKey) {
+            this.secretKey = secretKey;
+        }
+
+        String decrypt(String dbData) throws Exception {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(Base64.getDecoder().decode(dbData.substring(4)));
+            byte[] iv = new byte[12];
+            byteBuffer.get(iv);
+            byte[] ciphertext = new byte[byteBuffer.remaining()];
+            byteBuffer.get(ciphertext);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+            return new String(cipher.doFinal(ciphertext), StandardCharsets.UTF_8);
+        }
+    }
+}
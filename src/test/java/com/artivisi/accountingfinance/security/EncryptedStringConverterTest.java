@@ -0,0 +1,151 @@
+package com.artivisi.accountingfinance.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("EncryptedStringConverter Tests")
+class EncryptedStringConverterTest {
+
+    private static final String VALID_KEY = Base64.getEncoder().encodeToString(
+            "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8));
+
+    private EncryptedStringConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new EncryptedStringConverter();
+        converter.setEncryptionKey(VALID_KEY);
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should encrypt with prefix and decrypt back")
+        void shouldRoundTrip() {
+            String column = converter.convertToDatabaseColumn(EncryptedString.of("12.345.678.9-012.345"));
+
+            assertThat(column).startsWith("ENC:").doesNotContain("12.345.678.9");
+            assertThat(converter.convertToEntityAttribute(column).plaintext()).isEqualTo("12.345.678.9-012.345");
+        }
+
+        @Test
+        @DisplayName("Should use a fresh IV for every encryption")
+        void shouldUseFreshIv() {
+            EncryptedString value = EncryptedString.of("1234567890123456");
+
+            assertThat(converter.convertToDatabaseColumn(value))
+                    .isNotEqualTo(converter.convertToDatabaseColumn(value));
+        }
+
+        @Test
+        @DisplayName("Should pass null and blank values through")
+        void shouldPassNullAndBlankThrough() {
+            assertThat(converter.convertToDatabaseColumn(null)).isNull();
+            assertThat(converter.convertToDatabaseColumn(EncryptedString.of(""))).isEmpty();
+            assertThat(converter.convertToEntityAttribute(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should store plaintext unchanged when no key is configured")
+        void shouldPassThroughWithoutKey() {
+            EncryptedStringConverter disabled = new EncryptedStringConverter();
+            disabled.setEncryptionKey("");
+
+            assertThat(disabled.convertToDatabaseColumn(EncryptedString.of("1234567890"))).isEqualTo("1234567890");
+        }
+
+        @Test
+        @DisplayName("Should decrypt concurrently with pooled ciphers")
+        void shouldDecryptConcurrently() throws Exception {
+            List<String> columns = IntStream.range(0, 200)
+                    .mapToObj(i -> converter.convertToDatabaseColumn(EncryptedString.of("value-" + i)))
+                    .toList();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<String>> results = columns.stream()
+                        .map(column -> executor.submit(() -> converter.convertToEntityAttribute(column).plaintext()))
+                        .toList();
+                for (int i = 0; i < results.size(); i++) {
+                    assertThat(results.get(i).get()).isEqualTo("value-" + i);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject tampered ciphertext")
+        void shouldRejectTamperedCiphertext() {
+            String column = converter.convertToDatabaseColumn(EncryptedString.of("1234567890"));
+            byte[] raw = Base64.getDecoder().decode(column.substring(4));
+            raw[raw.length - 1] ^= 1;
+            EncryptedString tampered = converter.convertToEntityAttribute("ENC:" + Base64.getEncoder().encodeToString(raw));
+
+            assertThatThrownBy(tampered::plaintext)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Failed to decrypt data");
+        }
+    }
+
+    @Nested
+    @DisplayName("Lazy Decryption Tests")
+    class LazyDecryptionTests {
+
+        @Test
+        @DisplayName("Should not decrypt until the value is read")
+        void shouldDecryptOnFirstAccess() {
+            EncryptedString loaded = converter.convertToEntityAttribute(
+                    converter.convertToDatabaseColumn(EncryptedString.of("1234567890")));
+
+            assertThat(loaded.isDecrypted()).isFalse();
+            assertThat(loaded.plaintext()).isEqualTo("1234567890");
+            assertThat(loaded.isDecrypted()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should write an unchanged loaded value back without re-encrypting")
+        void shouldKeepStoredCiphertext() {
+            String column = converter.convertToDatabaseColumn(EncryptedString.of("1234567890"));
+            EncryptedString loaded = converter.convertToEntityAttribute(column);
+
+            assertThat(converter.convertToDatabaseColumn(loaded)).isEqualTo(column);
+            assertThat(loaded.isDecrypted()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should encrypt legacy plaintext when it is written back")
+        void shouldEncryptLegacyPlaintext() {
+            EncryptedString legacy = converter.convertToEntityAttribute("1234567890");
+
+            String column = converter.convertToDatabaseColumn(legacy);
+
+            assertThat(column).startsWith("ENC:");
+            assertThat(converter.convertToEntityAttribute(column).plaintext()).isEqualTo("1234567890");
+        }
+
+        @Test
+        @DisplayName("Should compare values by plaintext")
+        void shouldCompareByPlaintext() {
+            EncryptedString loaded = converter.convertToEntityAttribute(
+                    converter.convertToDatabaseColumn(EncryptedString.of("1234567890")));
+
+            assertThat(loaded).isEqualTo(EncryptedString.of("1234567890"))
+                    .hasSameHashCodeAs(EncryptedString.of("1234567890"))
+                    .isNotEqualTo(EncryptedString.of("0987654321"));
+            assertThat(loaded.toString()).doesNotContain("1234567890");
+        }
+    }
+}
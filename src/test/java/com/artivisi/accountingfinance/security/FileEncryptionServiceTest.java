@@ -4,12 +4,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Base64;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -120,7 +129,7 @@ class FileEncryptionServiceTest {
 
             byte[] encrypted = service.encrypt(original);
 
-            // Overhead: MAGIC(4) + VERSION(1) + IV(12) + AUTH_TAG(16) = 33 bytes
+            // Overhead: MAGIC(4) + VERSION(1) + SEGMENT_SIZE(4) + NONCE_PREFIX(7) + AUTH_TAG(16) = 32 bytes
             assertThat(encrypted).hasSizeGreaterThan(original.length + 30);
         }
 
@@ -291,12 +300,12 @@ class FileEncryptionServiceTest {
         }
 
         @Test
-        @DisplayName("Should fail decryption when IV is tampered")
-        void shouldFailWhenIvTampered() {
+        @DisplayName("Should fail decryption when header is tampered")
+        void shouldFailWhenHeaderTampered() {
             byte[] original = "Sensitive data".getBytes(StandardCharsets.UTF_8);
             byte[] encrypted = service.encrypt(original);
 
-            // Tamper with the IV (bytes 5-16)
+            // Tamper with the segment size / nonce prefix header (bytes 5-15)
             encrypted[6] ^= 0xFF;
 
             assertThatThrownBy(() -> service.decrypt(encrypted))
@@ -333,8 +342,8 @@ class FileEncryptionServiceTest {
         @Test
         @DisplayName("Should return correct encryption overhead")
         void shouldReturnCorrectEncryptionOverhead() {
-            // MAGIC(4) + VERSION(1) + IV(12) + AUTH_TAG(16) = 33 bytes
-            assertThat(service.getEncryptionOverhead()).isEqualTo(33);
+            // MAGIC(4) + VERSION(1) + SEGMENT_SIZE(4) + NONCE_PREFIX(7) + AUTH_TAG(16) = 32 bytes
+            assertThat(service.getEncryptionOverhead()).isEqualTo(32);
         }
 
         @Test
@@ -347,4 +356,166 @@ class FileEncryptionServiceTest {
             assertThat(actualOverhead).isEqualTo(service.getEncryptionOverhead());
         }
     }
+
+    @Nested
+    @DisplayName("Segmented Format Tests")
+    class SegmentedFormatTests {
+
+        private static final int SEGMENT = FileEncryptionService.SEGMENT_SIZE;
+
+        @TempDir
+        Path tempDir;
+
+        @BeforeEach
+        void setUpEncryption() {
+            ReflectionTestUtils.setField(service, "encryptionKeyBase64", VALID_KEY);
+            service.init();
+        }
+
+        @Test
+        @DisplayName("Should add one tag per segment")
+        void shouldAddOneTagPerSegment() {
+            byte[] encrypted = service.encrypt(sample(3 * SEGMENT + 10));
+
+            assertThat(encrypted).hasSize(3 * SEGMENT + 10 + 16 + 4 * 16);
+            assertThat(service.decrypt(encrypted)).isEqualTo(sample(3 * SEGMENT + 10));
+        }
+
+        @Test
+        @DisplayName("Should round-trip content of exactly whole segments through a file")
+        void shouldRoundTripWholeSegments() throws IOException {
+            byte[] original = sample(2 * SEGMENT);
+            Path file = encryptToFile(original);
+
+            assertThat(service.plaintextSize(file)).isEqualTo(original.length);
+            try (InputStream in = service.openDecryptingStream(file)) {
+                assertThat(in.readAllBytes()).isEqualTo(original);
+            }
+        }
+
+        @Test
+        @DisplayName("Should decrypt a byte range after skipping")
+        void shouldDecryptRangeAfterSkip() throws IOException {
+            byte[] original = sample(5 * SEGMENT + 123);
+            Path file = encryptToFile(original);
+            long start = 3L * SEGMENT - 7;
+
+            try (InputStream in = service.openDecryptingStream(file)) {
+                assertThat(in.skip(start)).isEqualTo(start);
+                assertThat(in.readNBytes(1000)).isEqualTo(Arrays.copyOfRange(original, (int) start, (int) start + 1000));
+            }
+        }
+
+        @Test
+        @DisplayName("Should not read tampered segments that a range skips")
+        void shouldOnlyAuthenticateSegmentsRead() throws IOException {
+            byte[] original = sample(3 * SEGMENT);
+            byte[] encrypted = service.encrypt(original);
+            encrypted[20] ^= 0xFF; // first segment
+            Path file = Files.write(tempDir.resolve("tampered.enc"), encrypted);
+
+            try (InputStream in = service.openDecryptingStream(file)) {
+                in.skip(2L * SEGMENT);
+                assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(original, 2 * SEGMENT, 3 * SEGMENT));
+            }
+            try (InputStream in = service.openDecryptingStream(file)) {
+                assertThatThrownBy(in::read)
+                        .isInstanceOf(IOException.class)
+                        .hasMessageContaining("segment 0 failed authentication");
+            }
+        }
+
+        @Test
+        @DisplayName("Should detect a file truncated at a segment boundary")
+        void shouldDetectTruncation() throws IOException {
+            byte[] encrypted = service.encrypt(sample(3 * SEGMENT));
+            // Drop the last segment: the new last segment was not encrypted as last
+            byte[] truncated = Arrays.copyOf(encrypted, encrypted.length - (SEGMENT + 16));
+            Path file = Files.write(tempDir.resolve("truncated.enc"), truncated);
+
+            assertThatThrownBy(() -> service.decrypt(truncated))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Failed to decrypt file");
+            try (InputStream in = service.openDecryptingStream(file)) {
+                in.skip(SEGMENT);
+                assertThatThrownBy(in::readAllBytes).isInstanceOf(IOException.class);
+            }
+        }
+
+        @Test
+        @DisplayName("Should detect swapped segments")
+        void shouldDetectSwappedSegments() {
+            byte[] encrypted = service.encrypt(sample(3 * SEGMENT));
+            int length = SEGMENT + 16;
+            byte[] first = Arrays.copyOfRange(encrypted, 16, 16 + length);
+            System.arraycopy(encrypted, 16 + length, encrypted, 16, length);
+            System.arraycopy(first, 0, encrypted, 16 + length, length);
+
+            assertThatThrownBy(() -> service.decrypt(encrypted))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Failed to decrypt file");
+        }
+
+        @Test
+        @DisplayName("Should read legacy single-blob files")
+        void shouldReadLegacySingleBlobFiles() throws Exception {
+            byte[] original = sample(SEGMENT + 500);
+            byte[] legacy = encryptLegacy(original);
+            Path file = Files.write(tempDir.resolve("legacy.enc"), legacy);
+
+            assertThat(service.decrypt(legacy)).isEqualTo(original);
+            assertThat(service.plaintextSize(file)).isEqualTo(original.length);
+            try (InputStream in = service.openDecryptingStream(file)) {
+                in.skip(SEGMENT);
+                assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(original, SEGMENT, original.length));
+            }
+        }
+
+        @Test
+        @DisplayName("Should stream unencrypted files unchanged")
+        void shouldStreamUnencryptedFiles() throws IOException {
+            byte[] original = "Plain stored file".getBytes(StandardCharsets.UTF_8);
+            Path file = Files.write(tempDir.resolve("plain.txt"), original);
+
+            assertThat(service.isEncryptedFile(file)).isFalse();
+            assertThat(service.plaintextSize(file)).isEqualTo(original.length);
+            try (InputStream in = service.openDecryptingStream(file)) {
+                assertThat(in.readAllBytes()).isEqualTo(original);
+            }
+        }
+
+        private Path encryptToFile(byte[] original) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            service.encrypt(new ByteArrayInputStream(original), out);
+            Path file = Files.write(tempDir.resolve("document.enc"), out.toByteArray());
+            assertThat(service.isEncryptedFile(file)).isTrue();
+            return file;
+        }
+
+        private static byte[] sample(int length) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) (i * 31 + i / 251);
+            }
+            return data;
+        }
+
+        /**
+         * Version 1 layout: MAGIC + VERSION 1 + IV (12) + one GCM ciphertext.
+         */
+        private static byte[] encryptLegacy(byte[] plaintext) throws Exception {
+            byte[] iv = new byte[12];
+            Arrays.fill(iv, (byte) 7);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(VALID_KEY), "AES"),
+                    new GCMParameterSpec(128, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return ByteBuffer.allocate(4 + 1 + iv.length + ciphertext.length)
+                    .put("ENCF".getBytes(StandardCharsets.US_ASCII))
+                    .put((byte) 1)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.artivisi.accountingfinance.security;
+
+import com.artivisi.accountingfinance.config.RateLimitConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the lock-free sliding window rate limiter with the
+ * previous design (fixed window, {@code ConcurrentHashMap.compute} per request)
+ * under 64 concurrent threads.
+ *
+ * <p>{@code clients} controls contention: 1 means every thread hits the same key.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=RateLimitServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+@Tag("performance")
+@DisplayName("RateLimitService Benchmark")
+public class RateLimitServiceBenchmark {
+
+    private static final int MAX_REQUESTS = 100;
+
+    @Param({"1", "64", "10000"})
+    public int clients;
+
+    private String[] ips;
+    private RateLimitService slidingWindow;
+    private ComputeRateLimiter compute;
+
+    @Setup
+    public void setUp() {
+        ips = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+        RateLimitConfig config = new RateLimitConfig();
+        config.setRoutes(Map.of(RateLimitConfig.API, new RateLimitConfig.Limit(MAX_REQUESTS, 60)));
+        slidingWindow = new RateLimitService(config);
+        compute = new ComputeRateLimiter();
+    }
+
+    @Benchmark
+    public boolean slidingWindow() {
+        return slidingWindow.isApiAllowed(nextIp());
+    }
+
+    @Benchmark
+    public boolean compute() {
+        return compute.isAllowed(nextIp());
+    }
+
+    private String nextIp() {
+        return ips[ThreadLocalRandom.current().nextInt(ips.length)];
+    }
+
+    @Test
+    @DisplayName("Run sliding window vs compute rate limiter benchmark")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RateLimitServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * The previous rate limiter: one {@code compute} call per request with an
+     * {@code int} counter mutated inside the remapping function.
+     */
+    static final class ComputeRateLimiter {
+        private final Map<String, Info> limits = new ConcurrentHashMap<>();
+
+        boolean isAllowed(String ipAddress) {
+            Instant now = Instant.now();
+            Info info = limits.compute(ipAddress.toLowerCase(), (k, existing) -> {
+                if (existing == null || existing.windowStart.plusSeconds(60).isBefore(now)) {
+                    return new Info(now);
+                }
+                existing.count++;
+                return existing;
+            });
+            return info.count <= MAX_REQUESTS;
+        }
+
+        private static final class Info {
+            private final Instant windowStart;
+            private int count = 1;
+
+            Info(Instant windowStart) {
+                this.windowStart = windowStart;
+            }
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package com.artivisi.accountingfinance.security;
 
+import com.artivisi.accountingfinance.config.RateLimitConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for RateLimitService.
@@ -298,4 +311,212 @@ class RateLimitServiceTest {
         boolean apiAllowed = rateLimitService.isApiAllowed(ip);
         assertThat(apiAllowed).isTrue();
     }
+
+    // ==================== Sliding Window ====================
+
+    @Test
+    @DisplayName("Should weight previous window by the time left in the current window")
+    void shouldWeightPreviousWindow() {
+        MutableClock clock = new MutableClock(60_000);
+        RateLimitService service = serviceWithLimit(10, 60, 1000, clock);
+        String ip = "10.0.0.1";
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.isAllowed("test", ip)).isTrue();
+        }
+        assertThat(service.isAllowed("test", ip)).isFalse();
+
+        // Half way through the next window the previous 10 requests still count as 5
+        clock.advance(90_000);
+        assertThat(service.getRemaining("test", ip)).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.isAllowed("test", ip)).isTrue();
+        }
+        assertThat(service.isAllowed("test", ip)).isFalse();
+
+        // Two windows later everything has expired
+        clock.advance(120_000);
+        assertThat(service.getRemaining("test", ip)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should report seconds until the next request is allowed")
+    void shouldReportSecondsUntilAllowed() {
+        MutableClock clock = new MutableClock(60_000);
+        RateLimitService service = serviceWithLimit(10, 60, 1000, clock);
+        String ip = "10.0.0.2";
+
+        for (int i = 0; i < 10; i++) {
+            service.isAllowed("test", ip);
+        }
+        clock.advance(30_000);
+
+        long resetSeconds = service.getResetSeconds("test", ip);
+        // Rest of this window plus 1/10 of the next one
+        assertThat(resetSeconds).isEqualTo(36);
+
+        clock.advance(resetSeconds * 1000 - 1000);
+        assertThat(service.isAllowed("test", ip)).isFalse();
+        clock.advance(1000);
+        assertThat(service.isAllowed("test", ip)).isTrue();
+    }
+
+    // ==================== Configuration ====================
+
+    @Test
+    @DisplayName("Should use limits from configuration")
+    void shouldUseConfiguredLimits() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.getRoutes().put(RateLimitConfig.LOGIN, new RateLimitConfig.Limit(3, 60));
+        RateLimitService service = new RateLimitService(config);
+
+        assertThat(service.getLoginRemaining("192.168.2.1")).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.isLoginAllowed("192.168.2.1")).isTrue();
+        }
+        assertThat(service.isLoginAllowed("192.168.2.1")).isFalse();
+        assertThat(service.getRemaining(RateLimitConfig.API, "192.168.2.1")).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown routes and invalid limits")
+    void shouldRejectUnknownRoutesAndInvalidLimits() {
+        assertThatThrownBy(() -> rateLimitService.isAllowed("unknown", "192.168.2.2"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        RateLimitConfig config = new RateLimitConfig();
+        config.getRoutes().put("broken", new RateLimitConfig.Limit(0, 60));
+        assertThatThrownBy(() -> new RateLimitService(config))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ==================== Bounded Store and Metrics ====================
+
+    @Test
+    @DisplayName("Should keep tracked keys within the configured maximum")
+    void shouldBoundTrackedKeys() {
+        MutableClock clock = new MutableClock(60_000);
+        RateLimitService service = serviceWithLimit(10, 60, 1000, clock);
+
+        for (int i = 0; i < 10_000; i++) {
+            service.isAllowed("test", "10.1." + (i / 256) + "." + (i % 256));
+        }
+
+        assertThat(service.getStatistics())
+                .filteredOn(s -> s.route().equals("test"))
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.trackedKeys()).isLessThanOrEqualTo(1000);
+                    assertThat(s.allowed()).isEqualTo(10_000);
+                });
+    }
+
+    @Test
+    @DisplayName("Should evict idle keys on cleanup")
+    void shouldEvictIdleKeysOnCleanup() {
+        MutableClock clock = new MutableClock(60_000);
+        RateLimitService service = serviceWithLimit(10, 60, 1000, clock);
+        service.isAllowed("test", "10.2.0.1");
+        service.isAllowed("test", "10.2.0.2");
+
+        clock.advance(60_000);
+        service.cleanup();
+        assertThat(service.getStatistics().getFirst().trackedKeys()).isEqualTo(2);
+
+        clock.advance(60_000);
+        service.cleanup();
+        assertThat(service.getStatistics().getFirst().trackedKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count rejected requests per route")
+    void shouldCountRejectedRequests() {
+        String ip = "192.168.2.3";
+        for (int i = 0; i < 15; i++) {
+            rateLimitService.isLoginAllowed(ip);
+        }
+
+        assertThat(rateLimitService.getStatistics())
+                .filteredOn(s -> s.route().equals(RateLimitConfig.LOGIN))
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.allowed()).isEqualTo(10);
+                    assertThat(s.rejected()).isEqualTo(5);
+                    assertThat(s.trackedKeys()).isEqualTo(1);
+                });
+    }
+
+    // ==================== Concurrency ====================
+
+    @Test
+    @DisplayName("Should allow exactly the limit under concurrent requests")
+    void shouldAllowExactlyLimitUnderConcurrency() throws InterruptedException {
+        MutableClock clock = new MutableClock(60_000);
+        RateLimitService service = serviceWithLimit(1000, 60, 1000, clock);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            for (int t = 0; t < 64; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 100; i++) {
+                        if (service.isAllowed("test", "10.3.0.1")) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(allowed).hasValue(1000);
+        assertThat(service.getStatistics().getFirst().rejected()).isEqualTo(64 * 100 - 1000);
+    }
+
+    private static RateLimitService serviceWithLimit(int maxRequests, int windowSeconds, int maxKeys, Clock clock) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setMaxKeys(maxKeys);
+        config.setRoutes(Map.of("test", new RateLimitConfig.Limit(maxRequests, windowSeconds)));
+        return new RateLimitService(config, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
 }
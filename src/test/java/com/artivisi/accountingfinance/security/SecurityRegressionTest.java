@@ -816,7 +816,7 @@ class SecurityRegressionTest extends PlaywrightTestBase {
 
             assertTrue(isRejected,
                     "SECURITY VULNERABILITY: Path traversal filename accepted. " +
-                    "Fix: DocumentStorageService.validateFile should reject filenames containing '..' " +
+                    "Fix: DocumentStorageService should reject filenames containing '..' " +
                     "Response status: " + response.status());
         }
 
@@ -0,0 +1,216 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.VoidReason;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the monthly account balance snapshot.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("AccountPeriodBalanceService Integration Tests")
+class AccountPeriodBalanceServiceTest {
+
+    // Template ID from V003
+    private static final UUID INCOME_CONSULTING_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+
+    @Autowired
+    private AccountPeriodBalanceService accountPeriodBalanceService;
+
+    @Autowired
+    private LedgerBalanceService ledgerBalanceService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Nested
+    @DisplayName("Consistency")
+    class ConsistencyTests {
+
+        @Test
+        @DisplayName("Snapshot should match journal entries for seeded test data")
+        void snapshotShouldMatchSeededData() {
+            assertThat(accountPeriodBalanceService.checkConsistency()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Snapshot should follow post and void")
+        void snapshotShouldFollowPostAndVoid() {
+            Transaction posted = postIncome(LocalDate.of(2025, 3, 15), new BigDecimal("2500000"));
+            assertThat(accountPeriodBalanceService.checkConsistency()).isEmpty();
+
+            transactionService.voidTransaction(posted.getId(), VoidReason.INPUT_ERROR, "Snapshot test", "testuser");
+            assertThat(accountPeriodBalanceService.checkConsistency()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Rebuild should reproduce a consistent snapshot")
+        void rebuildShouldReproduceConsistentSnapshot() {
+            postIncome(LocalDate.of(2025, 4, 10), new BigDecimal("1000000"));
+
+            int rows = accountPeriodBalanceService.rebuild();
+
+            assertThat(rows).isPositive();
+            assertThat(accountPeriodBalanceService.checkConsistency()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Compaction")
+    class CompactionTests {
+
+        @Test
+        @DisplayName("Compaction should fold delta rows into one row per account and month")
+        void compactionShouldFoldDeltaRows() {
+            Transaction posted = postIncome(LocalDate.of(2025, 8, 5), new BigDecimal("1200000"));
+            postIncome(LocalDate.of(2025, 8, 20), new BigDecimal("800000"));
+            transactionService.voidTransaction(posted.getId(), VoidReason.INPUT_ERROR, "Compaction test", "testuser");
+            assertThat(duplicateAccountMonths()).isPositive();
+
+            int folded = accountPeriodBalanceService.compact();
+
+            assertThat(folded).isPositive();
+            assertThat(duplicateAccountMonths()).isZero();
+            assertThat(accountPeriodBalanceService.checkConsistency()).isEmpty();
+            assertThat(accountPeriodBalanceService.compact()).isZero();
+        }
+
+        private int duplicateAccountMonths() {
+            return jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM (
+                        SELECT 1 FROM account_period_balances
+                        GROUP BY id_account, period_year, period_month HAVING COUNT(*) > 1) d
+                    """, Integer.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrent Postings")
+    class ConcurrentPostingTests {
+
+        @Test
+        @DisplayName("Lines on the same accounts in opposite order should not wait for each other")
+        void oppositeOrderLinesShouldNotBlock() throws SQLException {
+            try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+                UUID firstTransaction = beginPostedTransaction(first);
+                UUID secondTransaction = beginPostedTransaction(second);
+                try {
+                    // With one locked snapshot row per account and month, the last two inserts
+                    // would wait for each other and one of them would fail with a deadlock
+                    insertLine(first, firstTransaction, "1.1.01");
+                    insertLine(second, secondTransaction, "4.1.01");
+                    insertLine(first, firstTransaction, "4.1.01");
+                    insertLine(second, secondTransaction, "1.1.01");
+                } finally {
+                    first.rollback();
+                    second.rollback();
+                }
+            }
+        }
+
+        private UUID beginPostedTransaction(Connection connection) throws SQLException {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL lock_timeout = '5s'");
+            }
+            UUID id = UUID.randomUUID();
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO transactions (id, transaction_number, transaction_date, id_journal_template,
+                                              amount, description, status, posted_at)
+                    VALUES (?, ?, DATE '2025-09-10', ?, 1000, 'Concurrent snapshot test', 'POSTED', NOW())
+                    """)) {
+                statement.setObject(1, id);
+                statement.setString(2, "TRX-CONC-" + id);
+                statement.setObject(3, INCOME_CONSULTING_TEMPLATE_ID);
+                statement.executeUpdate();
+            }
+            return id;
+        }
+
+        private void insertLine(Connection connection, UUID transactionId, String accountCode) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO journal_entries (id, journal_number, id_transaction, id_account, debit_amount, credit_amount)
+                    SELECT gen_random_uuid(), ?, ?, id, 1000, 0 FROM chart_of_accounts WHERE account_code = ?
+                    """)) {
+                statement.setString(1, "JE-CONC-" + UUID.randomUUID());
+                statement.setObject(2, transactionId);
+                statement.setString(3, accountCode);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Ledger Totals")
+    class LedgerTotalsTests {
+
+        @Test
+        @DisplayName("Snapshot totals with partial months should equal a raw scan")
+        void snapshotTotalsShouldEqualRawScan() {
+            postIncome(LocalDate.of(2025, 1, 20), new BigDecimal("3000000"));
+            postIncome(LocalDate.of(2025, 2, 14), new BigDecimal("1500000"));
+            postIncome(LocalDate.of(2025, 5, 2), new BigDecimal("750000"));
+
+            LocalDate start = LocalDate.of(2025, 1, 15);
+            LocalDate end = LocalDate.of(2025, 5, 10);
+
+            assertThat(ledgerBalanceService.totals(start, end).byAccount())
+                    .isEqualTo(ledgerBalanceService.scanTotals(start, end).byAccount());
+        }
+
+        @Test
+        @DisplayName("Cumulative totals should equal a raw scan")
+        void cumulativeTotalsShouldEqualRawScan() {
+            LocalDate asOf = LocalDate.of(2025, 6, 30);
+
+            assertThat(ledgerBalanceService.totalsAsOf(asOf).byAccount())
+                    .isEqualTo(ledgerBalanceService.scanTotals(LedgerBalanceService.BEGINNING_OF_TIME, asOf).byAccount());
+        }
+    }
+
+    private Transaction postIncome(LocalDate date, BigDecimal amount) {
+        JournalTemplate template = journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID);
+
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(template);
+        transaction.setTransactionDate(date);
+        transaction.setAmount(amount);
+        transaction.setDescription("Snapshot test " + amount);
+
+        Transaction draft = transactionService.create(transaction, null);
+        return transactionService.post(draft.getId(), "testuser");
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
 
@@ -42,7 +43,9 @@ class CoretaxExportServiceTest {
     @Test
     @DisplayName("Should export e-Faktur Keluaran to Excel")
     void shouldExportEFakturKeluaran() throws IOException {
-        byte[] excelData = coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         assertThat(excelData).isNotNull();
         assertThat(excelData.length).isGreaterThan(0);
@@ -76,7 +79,9 @@ class CoretaxExportServiceTest {
             return; // Skip if no test data
         }
 
-        byte[] excelData = coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
             Sheet dataSheet = workbook.getSheet("DATA");
@@ -95,7 +100,9 @@ class CoretaxExportServiceTest {
     @Test
     @DisplayName("Should export e-Faktur Masukan to Excel")
     void shouldExportEFakturMasukan() throws IOException {
-        byte[] excelData = coretaxExportService.exportEFakturMasukan(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturMasukan(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         assertThat(excelData).isNotNull();
         assertThat(excelData.length).isGreaterThan(0);
@@ -118,7 +125,9 @@ class CoretaxExportServiceTest {
     @Test
     @DisplayName("Should export e-Bupot Unifikasi to Excel")
     void shouldExportBupotUnifikasi() throws IOException {
-        byte[] excelData = coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         assertThat(excelData).isNotNull();
         assertThat(excelData.length).isGreaterThan(0);
@@ -152,7 +161,9 @@ class CoretaxExportServiceTest {
             return; // Skip if no test data
         }
 
-        byte[] excelData = coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
             Sheet dataSheet = workbook.getSheet("DATA");
@@ -205,9 +216,15 @@ class CoretaxExportServiceTest {
         LocalDate pastEnd = LocalDate.of(2000, 1, 31);
 
         // Should not throw exception
-        byte[] fakturKeluaran = coretaxExportService.exportEFakturKeluaran(pastStart, pastEnd);
-        byte[] fakturMasukan = coretaxExportService.exportEFakturMasukan(pastStart, pastEnd);
-        byte[] bupot = coretaxExportService.exportBupotUnifikasi(pastStart, pastEnd);
+        ByteArrayOutputStream fakturKeluaranOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturKeluaran(pastStart, pastEnd, fakturKeluaranOut);
+        byte[] fakturKeluaran = fakturKeluaranOut.toByteArray();
+        ByteArrayOutputStream fakturMasukanOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturMasukan(pastStart, pastEnd, fakturMasukanOut);
+        byte[] fakturMasukan = fakturMasukanOut.toByteArray();
+        ByteArrayOutputStream bupotOut = new ByteArrayOutputStream();
+        coretaxExportService.exportBupotUnifikasi(pastStart, pastEnd, bupotOut);
+        byte[] bupot = bupotOut.toByteArray();
 
         // Should return valid Excel files with headers but no data
         assertThat(fakturKeluaran).isNotNull();
@@ -224,7 +241,9 @@ class CoretaxExportServiceTest {
     @Test
     @DisplayName("Should include reference sheet with transaction codes")
     void shouldIncludeReferenceSheetWithTransactionCodes() throws IOException {
-        byte[] excelData = coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportEFakturKeluaran(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
             Sheet refSheet = workbook.getSheet("REF");
@@ -244,7 +263,9 @@ class CoretaxExportServiceTest {
     @Test
     @DisplayName("Should include Bupot reference sheet with tax object codes")
     void shouldIncludeBupotReferenceSheetWithTaxObjectCodes() throws IOException {
-        byte[] excelData = coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE);
+        ByteArrayOutputStream excelDataOut = new ByteArrayOutputStream();
+        coretaxExportService.exportBupotUnifikasi(START_DATE, END_DATE, excelDataOut);
+        byte[] excelData = excelDataOut.toByteArray();
 
         try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelData))) {
             Sheet refSheet = workbook.getSheet("REF");
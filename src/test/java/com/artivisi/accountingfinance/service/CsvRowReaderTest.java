@@ -0,0 +1,101 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CsvRowReader Tests")
+class CsvRowReaderTest {
+
+    @Nested
+    @DisplayName("Rows")
+    class RowTests {
+
+        @Test
+        @DisplayName("Should skip header and return data rows")
+        void shouldSkipHeader() {
+            List<String[]> rows = read("code,name\n1.1.01,Kas\n1.1.02,Bank\n");
+
+            assertThat(rows).containsExactly(
+                    new String[]{"1.1.01", "Kas"},
+                    new String[]{"1.1.02", "Bank"});
+        }
+
+        @Test
+        @DisplayName("Should skip blank and empty rows")
+        void shouldSkipEmptyRows() {
+            List<String[]> rows = read("code,name\n\n,\n1.1.01,Kas\n\n");
+
+            assertThat(rows).containsExactly(new String[]{"1.1.01", "Kas"});
+        }
+
+        @Test
+        @DisplayName("Should read last row without trailing newline")
+        void shouldReadLastRowWithoutNewline() {
+            assertThat(read("a,b\n1,2")).containsExactly(new String[]{"1", "2"});
+        }
+
+        @Test
+        @DisplayName("Should accept CRLF and CR line endings")
+        void shouldAcceptCrLf() {
+            assertThat(read("a,b\r\n1,2\r\n3,4\r5,6\r"))
+                    .containsExactly(new String[]{"1", "2"}, new String[]{"3", "4"}, new String[]{"5", "6"});
+        }
+
+        @Test
+        @DisplayName("Should keep empty fields")
+        void shouldKeepEmptyFields() {
+            assertThat(read("a,b,c\n1,,\n")).containsExactly(new String[]{"1", "", ""});
+        }
+
+        @Test
+        @DisplayName("Should return nothing for header-only file")
+        void shouldReturnNothingForHeaderOnly() {
+            assertThat(read("a,b\n")).isEmpty();
+            assertThat(read("")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Quoted Fields")
+    class QuotedFieldTests {
+
+        @Test
+        @DisplayName("Should parse commas, escaped quotes and newlines inside quotes")
+        void shouldParseQuotedFields() {
+            List<String[]> rows = read("a,b\n\"Jl. Sudirman, Jakarta\",\"He said \"\"hi\"\"\"\n\"line1\nline2\",x\n");
+
+            assertThat(rows).containsExactly(
+                    new String[]{"Jl. Sudirman, Jakarta", "He said \"hi\""},
+                    new String[]{"line1\nline2", "x"});
+        }
+
+        @Test
+        @DisplayName("Should parse rows spanning buffer boundaries")
+        void shouldParseAcrossBufferBoundaries() {
+            StringBuilder csv = new StringBuilder("id,description\r\n");
+            for (int i = 0; i < 20_000; i++) {
+                csv.append(i).append(",\"Row ").append(i).append(", \"\"quoted\"\"\"\r\n");
+            }
+
+            List<String[]> rows = read(csv.toString());
+
+            assertThat(rows).hasSize(20_000);
+            assertThat(rows.get(19_999)).containsExactly("19999", "Row 19999, \"quoted\"");
+        }
+    }
+
+    private static List<String[]> read(String content) {
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(content))) {
+            return reader.readAll();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
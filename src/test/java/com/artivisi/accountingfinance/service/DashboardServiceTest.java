@@ -1,6 +1,8 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Transaction;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,7 +12,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -24,9 +30,32 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("DashboardService Integration Tests")
 class DashboardServiceTest {
 
+    // Template ID from V003
+    private static final UUID INCOME_CONSULTING_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private void postTransaction(LocalDate date, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID));
+        transaction.setTransactionDate(date);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription("Dashboard test");
+        Transaction draft = transactionService.create(transaction, null);
+        transactionService.post(draft.getId(), "testuser");
+        entityManager.flush();
+    }
+
     @Nested
     @DisplayName("KPI Calculation")
     class KpiTests {
@@ -88,6 +117,76 @@ class DashboardServiceTest {
 
             assertThat(kpi).isNotNull();
         }
+
+        @Test
+        @DisplayName("Should include postings in revenue, change and balances of their month")
+        void shouldIncludePostingsOfMonth() {
+            YearMonth march = YearMonth.of(2099, 3);
+            DashboardService.DashboardKPI before = dashboardService.calculateKPIs(march);
+
+            postTransaction(LocalDate.of(2099, 2, 10), "4000000");
+            postTransaction(LocalDate.of(2099, 3, 10), "8000000");
+            DashboardService.DashboardKPI kpi = dashboardService.calculateKPIs(march);
+
+            assertThat(kpi.revenue()).isEqualByComparingTo("8000000");
+            assertThat(kpi.revenueChange()).isEqualByComparingTo("100.0");
+            assertThat(kpi.cashBalance().subtract(before.cashBalance())).isEqualByComparingTo("12000000");
+            BigDecimal breakdownTotal = kpi.cashBankItems().stream()
+                    .map(DashboardService.CashBankItem::balance)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(breakdownTotal).isEqualByComparingTo(kpi.cashBalance());
+        }
+    }
+
+    @Nested
+    @DisplayName("Recent Transactions")
+    class RecentTransactionTests {
+
+        @Test
+        @DisplayName("Should return at most the requested number of transactions, newest first")
+        void shouldLimitRecentTransactions() {
+            for (int day = 1; day <= 3; day++) {
+                postTransaction(LocalDate.now().minusDays(day), "1000000");
+            }
+
+            List<DashboardService.RecentTransaction> recent = dashboardService.getRecentTransactions(2);
+
+            assertThat(recent).hasSize(2);
+            assertThat(recent.get(0).transactionDate()).isAfterOrEqualTo(recent.get(1).transactionDate());
+            assertThat(recent.get(0).category()).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Widget Loading")
+    class WidgetLoadingTests {
+
+        @Autowired
+        private DashboardWidgetLoader dashboardWidgetLoader;
+
+        @Autowired
+        private DashboardMetrics dashboardMetrics;
+
+        @Test
+        @DisplayName("Should load every widget in parallel and record page latency")
+        void shouldLoadEveryWidget() {
+            long pagesBefore = pageLoads();
+
+            DashboardWidgetLoader.DashboardWidgets widgets = dashboardWidgetLoader.load(YearMonth.now());
+
+            assertThat(widgets.kpi()).isNotNull();
+            assertThat(widgets.recentTransactions()).isNotNull();
+            assertThat(widgets.amortizationSummary()).isNotNull();
+            assertThat(pageLoads()).isEqualTo(pagesBefore + 1);
+        }
+
+        private long pageLoads() {
+            return dashboardMetrics.getStatistics().stream()
+                    .filter(s -> s.widget() == DashboardMetrics.Widget.PAGE)
+                    .findFirst()
+                    .orElseThrow()
+                    .count();
+        }
     }
 
     @Nested
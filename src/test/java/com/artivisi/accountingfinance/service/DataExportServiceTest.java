@@ -1,19 +1,31 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -32,6 +44,15 @@ class DataExportServiceTest {
     @Autowired
     private DataExportService dataExportService;
 
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Nested
     @DisplayName("Export Statistics Operations")
     class ExportStatisticsTests {
@@ -268,8 +289,195 @@ class DataExportServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming Export Operations")
+    class StreamingExportTests {
+
+        @Test
+        @DisplayName("Should stream every journal entry across batches to an output stream")
+        void shouldStreamEveryJournalEntryAcrossBatches() throws IOException {
+            insertStreamFixture(1200);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            dataExportService.exportAllData(out);
+
+            String journalEntries = readZipEntry(out.toByteArray(), "20_journal_entries.csv");
+            assertThat(journalEntries.lines().filter(line -> line.startsWith("JE-STREAM-")))
+                    .hasSize(1200)
+                    .isSorted();
+        }
+
+        @Test
+        @DisplayName("Should keep at most one batch of journal entries in the persistence context")
+        void shouldDetachJournalEntriesPerBatch() throws IOException {
+            insertStreamFixture(1200);
+
+            // Sample the export's persistence context whenever the ZIP stream writes output
+            int[] maxManaged = {0};
+            OutputStream probe = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    sample();
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    sample();
+                }
+
+                private void sample() {
+                    long managed = entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+                            .getEntitiesByKey().keySet().stream()
+                            .filter(key -> key.getEntityName().equals(JournalEntry.class.getName()))
+                            .count();
+                    maxManaged[0] = Math.max(maxManaged[0], (int) managed);
+                }
+            };
+            dataExportService.exportAllData(probe);
+
+            // Without clearing, all 1200 entries would be managed by the end of the stream
+            assertThat(maxManaged[0]).isPositive().isLessThanOrEqualTo(500);
+        }
+
+        @Test
+        @DisplayName("Should skip document files that are missing without leaving an entry")
+        void shouldSkipMissingDocumentFile() throws IOException {
+            String presentPath = "export-test/" + UUID.randomUUID() + ".pdf";
+            String missingPath = "export-test/" + UUID.randomUUID() + ".pdf";
+            Path presentFile = documentStorageService.getRootLocation().resolve(presentPath);
+            Files.createDirectories(presentFile.getParent());
+            Files.write(presentFile, "%PDF-1.4 present".getBytes(StandardCharsets.US_ASCII));
+            try {
+                insertDocument(presentPath);
+                insertDocument(missingPath);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                dataExportService.exportAllData(out);
+                byte[] archive = out.toByteArray();
+
+                assertThat(getZipFileNames(archive))
+                        .contains("documents/" + presentPath, "documents/index.csv")
+                        .doesNotContain("documents/" + missingPath);
+                assertThat(readZipEntry(archive, "documents/" + presentPath)).isEqualTo("%PDF-1.4 present");
+                assertThat(readZipEntry(archive, "documents/index.csv"))
+                        .contains(presentPath, missingPath);
+            } finally {
+                Files.deleteIfExists(presentFile);
+            }
+        }
+
+        private void insertDocument(String storagePath) {
+            jdbcTemplate.update("""
+                    INSERT INTO documents (filename, original_filename, content_type, file_size, storage_path, checksum_sha256)
+                    VALUES (?, ?, 'application/pdf', 16, ?, ?)
+                    """, storagePath, storagePath, storagePath, "0".repeat(64));
+        }
+
+        @Test
+        @DisplayName("Should write the entries and rows of the pre-streaming export format")
+        void shouldWritePreStreamingExportFormat() throws IOException {
+            jdbcTemplate.update("""
+                    INSERT INTO transactions (id, transaction_number, transaction_date, id_journal_template,
+                                              amount, description, reference_number, status, posted_at, posted_by, created_at)
+                    VALUES ('7e000000-0000-0000-0000-000000000001', 'TRX-FIXED-1', DATE '2025-01-15',
+                            'e0000000-0000-0000-0000-000000000001', 1500000, 'Fixed, export', 'REF-1', 'POSTED',
+                            TIMESTAMP '2025-01-16 08:30:00', 'admin', TIMESTAMP '2025-01-15 09:00:00')
+                    """);
+            jdbcTemplate.update("""
+                    INSERT INTO transaction_variables (id_transaction, variable_name, variable_value)
+                    VALUES ('7e000000-0000-0000-0000-000000000001', 'fee', 2500)
+                    """);
+            jdbcTemplate.update("""
+                    INSERT INTO journal_entries (id, journal_number, posted_at, id_transaction, id_account,
+                                                 debit_amount, credit_amount)
+                    SELECT '7e000000-0000-0000-0000-000000000011', 'JE-FIXED-0001', TIMESTAMP '2025-01-16 08:30:00',
+                           '7e000000-0000-0000-0000-000000000001', a.id, 1500000, 0
+                    FROM chart_of_accounts a WHERE a.account_code = '1.1.01'
+                    """);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            dataExportService.exportAllData(out);
+            byte[] archive = out.toByteArray();
+
+            assertThat(getZipEntryNamesInOrder(archive)).containsSubsequence(
+                    "MANIFEST.md", "01_company_config.csv", "02_chart_of_accounts.csv", "03_salary_components.csv",
+                    "04_journal_templates.csv", "05_journal_template_lines.csv", "06_journal_template_tags.csv",
+                    "07_clients.csv", "08_projects.csv", "09_project_milestones.csv", "10_project_payment_terms.csv",
+                    "11_fiscal_periods.csv", "12_tax_deadlines.csv", "13_company_bank_accounts.csv",
+                    "14_merchant_mappings.csv", "15_employees.csv", "16_employee_salary_components.csv",
+                    "17_invoices.csv", "18_transactions.csv", "19_transaction_account_mappings.csv",
+                    "19a_transaction_variables.csv", "20_journal_entries.csv", "21_payroll_runs.csv",
+                    "22_payroll_details.csv", "23_amortization_schedules.csv", "24_amortization_entries.csv",
+                    "25_tax_transaction_details.csv", "26_tax_deadline_completions.csv",
+                    "27_draft_transactions.csv", "28_users.csv", "29_user_roles.csv",
+                    "30_user_template_preferences.csv", "31_telegram_user_links.csv", "32_audit_logs.csv",
+                    "33_transaction_sequences.csv", "34_asset_categories.csv", "documents/index.csv");
+
+            // Headers and rows as written by the export before it was streamed
+            String transactions = readZipEntry(archive, "18_transactions.csv");
+            assertThat(transactions.lines().findFirst()).hasValue(
+                    "transaction_id,transaction_number,transaction_date,template_name,project_code,amount,description,"
+                            + "reference_number,notes,status,void_reason,void_notes,voided_at,voided_by,posted_at,posted_by,created_at");
+            assertThat(transactions.lines()).contains(
+                    "7e000000-0000-0000-0000-000000000001,TRX-FIXED-1,2025-01-15,Pendapatan Jasa Konsultasi,,1500000.00,"
+                            + "\"Fixed, export\",REF-1,,POSTED,,,,,2025-01-16 08:30:00,admin,2025-01-15 09:00:00");
+
+            String variables = readZipEntry(archive, "19a_transaction_variables.csv");
+            assertThat(variables.lines().findFirst()).hasValue("transaction_id,transaction_number,variable_name,variable_value");
+            assertThat(variables.lines()).contains("7e000000-0000-0000-0000-000000000001,TRX-FIXED-1,fee,2500.00");
+
+            assertThat(readZipEntry(archive, "19_transaction_account_mappings.csv").lines().findFirst())
+                    .hasValue("transaction_id,transaction_number,template_name,line_order,account_code,amount");
+
+            String journalEntries = readZipEntry(archive, "20_journal_entries.csv");
+            assertThat(journalEntries.lines().findFirst()).hasValue(
+                    "journal_number,journal_date,transaction_id,transaction_number,description,status,"
+                            + "account_code,debit_amount,credit_amount,posted_at,voided_at,void_reason");
+            assertThat(journalEntries.lines()).contains(
+                    "JE-FIXED-0001,2025-01-15,7e000000-0000-0000-0000-000000000001,TRX-FIXED-1,\"Fixed, export\","
+                            + "POSTED,1.1.01,1500000.00,0.00,2025-01-16 08:30:00,,");
+
+            assertThat(readZipEntry(archive, "32_audit_logs.csv").lines().findFirst())
+                    .hasValue("timestamp,username,action,entity_type,entity_id,ip_address");
+            assertThat(readZipEntry(archive, "documents/index.csv").lines().findFirst()).hasValue(
+                    "storage_path,original_filename,content_type,file_size,transaction_number,journal_number,uploaded_at");
+        }
+    }
+
+    private void insertStreamFixture(int journalEntries) {
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, transaction_number, transaction_date, id_journal_template,
+                                          amount, description, status, posted_at)
+                SELECT gen_random_uuid(), 'TRX-STREAM-1', DATE '2025-01-15', id,
+                       1000, 'Streaming export', 'POSTED', NOW()
+                FROM journal_templates ORDER BY template_name LIMIT 1
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO journal_entries (id, journal_number, id_transaction, id_account, debit_amount, credit_amount)
+                SELECT gen_random_uuid(), 'JE-STREAM-' || LPAD(g::text, 4, '0'), t.id, a.id, 1000, 0
+                FROM transactions t, chart_of_accounts a, generate_series(1, ?) AS g
+                WHERE t.transaction_number = 'TRX-STREAM-1' AND a.account_code = '1.1.01'
+                """, journalEntries);
+    }
+
+    private String readZipEntry(byte[] zipData, String name) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.getName().equals(name)) {
+                    return new String(zis.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new AssertionError("Missing ZIP entry: " + name);
+    }
+
     private Set<String> getZipFileNames(byte[] zipData) throws IOException {
-        Set<String> names = new HashSet<>();
+        return new HashSet<>(getZipEntryNamesInOrder(zipData));
+    }
+
+    private List<String> getZipEntryNamesInOrder(byte[] zipData) throws IOException {
+        List<String> names = new ArrayList<>();
         try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipData))) {
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
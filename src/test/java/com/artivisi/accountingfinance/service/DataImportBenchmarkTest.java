@@ -0,0 +1,132 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for the streaming data import.
+ * Imports an archive with 200,000 transactions and 400,000 journal lines and
+ * reports the throughput in rows per second.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=DataImportBenchmarkTest}
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Tag("performance")
+@Transactional
+@DisplayName("DataImportService Benchmark")
+class DataImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DataImportBenchmarkTest.class);
+
+    private static final int TRANSACTION_COUNT = 200_000;
+    private static final long MIN_ROWS_PER_SECOND = Long.getLong("benchmark.import.minRowsPerSecond", 2_000L);
+
+    @Autowired
+    private DataImportService dataImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Import should stream transactions and journal entries in batches")
+    void importShouldStreamInBatches() throws IOException {
+        String templateName = jdbcTemplate.queryForObject(
+                "SELECT template_name FROM journal_templates ORDER BY template_name LIMIT 1", String.class);
+        Path archive = Files.createTempFile("import-benchmark-", ".zip");
+        try {
+            writeArchive(archive, templateName);
+
+            List<DataImportService.ImportProgress> progress = new ArrayList<>();
+            DataImportService.ImportResult result;
+            try (InputStream in = Files.newInputStream(archive)) {
+                result = dataImportService.importAllData(in, progress::add);
+            }
+
+            long rowsPerSecond = result.totalRecords() * 1000L / Math.max(1, result.durationMs());
+            log.info("Benchmark import: {} rows in {} ms ({} rows/s, archive {} KB)",
+                    result.totalRecords(), result.durationMs(), rowsPerSecond, Files.size(archive) / 1024);
+
+            assertThat(result.totalRecords()).isEqualTo(TRANSACTION_COUNT * 3);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM journal_entries WHERE journal_number LIKE 'BENCH-%'", Long.class))
+                    .isEqualTo(TRANSACTION_COUNT * 2L);
+            // Every line links to the imported transaction of its exported transaction id
+            assertThat(jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM journal_entries j JOIN transactions t ON t.id = j.id_transaction
+                    WHERE t.transaction_number LIKE 'BENCH-%' AND j.journal_number LIKE t.transaction_number || '-_'
+                    """, Long.class))
+                    .isEqualTo(TRANSACTION_COUNT * 2L);
+            assertThat(progress).filteredOn(p -> !p.fileCompleted()).hasSizeGreaterThan(100);
+            assertThat(progress).last().satisfies(p -> assertThat(p.totalRows()).isEqualTo(TRANSACTION_COUNT * 3L));
+            assertThat(rowsPerSecond).isGreaterThanOrEqualTo(MIN_ROWS_PER_SECOND);
+        } finally {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    private void writeArchive(Path archive, String templateName) throws IOException {
+        List<UUID> ids = new ArrayList<>(TRANSACTION_COUNT);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(archive));
+             ZipOutputStream zos = new ZipOutputStream(out)) {
+            Writer csv = new OutputStreamWriter(zos, StandardCharsets.UTF_8);
+
+            zos.putNextEntry(new ZipEntry("18_transactions.csv"));
+            csv.write("transaction_id,transaction_number,transaction_date,template_name,project_code,amount,"
+                    + "description,reference_number,notes,status,void_reason,void_notes,voided_at,voided_by,"
+                    + "posted_at,posted_by,created_at\n");
+            for (int i = 0; i < TRANSACTION_COUNT; i++) {
+                csv.write(ids.get(i) + ",BENCH-" + i + "," + start.plusDays(i % 1826) + ",\"" + templateName
+                        + "\",,1000,\"Benchmark " + i + ", imported\",,,POSTED,,,,,2024-01-01 00:00:00,admin,\n");
+            }
+            csv.flush();
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("20_journal_entries.csv"));
+            csv.write("journal_number,journal_date,transaction_id,transaction_number,description,status,"
+                    + "account_code,debit_amount,credit_amount,posted_at,voided_at,void_reason\n");
+            for (int i = 0; i < TRANSACTION_COUNT; i++) {
+                String prefix = "BENCH-" + i;
+                csv.write(prefix + "-1,," + ids.get(i) + "," + prefix + ",,POSTED,1.1.01,1000,0,2024-01-01 00:00:00,,\n");
+                csv.write(prefix + "-2,," + ids.get(i) + "," + prefix + ",,POSTED,4.1.01,0,1000,2024-01-01 00:00:00,,\n");
+            }
+            csv.flush();
+            zos.closeEntry();
+        }
+    }
+}
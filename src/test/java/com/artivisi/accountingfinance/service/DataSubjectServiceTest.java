@@ -172,6 +172,32 @@ class DataSubjectServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Data Subject Lookup")
+    class DataSubjectLookupTests {
+
+        @Test
+        @DisplayName("Should find data subject by NIK KTP")
+        void shouldFindByNikKtp() {
+            assertThat(dataSubjectService.findByIdentityNumber("3175012345678901"))
+                    .get().extracting(Employee::getId).isEqualTo(testEmployee.getId());
+        }
+
+        @Test
+        @DisplayName("Should find data subject by NPWP regardless of formatting")
+        void shouldFindByNpwpIgnoringFormatting() {
+            assertThat(dataSubjectService.findByIdentityNumber("123456789012000"))
+                    .get().extracting(Employee::getId).isEqualTo(testEmployee.getId());
+        }
+
+        @Test
+        @DisplayName("Should find nothing for an unknown identity number")
+        void shouldFindNothingForUnknownNumber() {
+            assertThat(dataSubjectService.findByIdentityNumber("9999999999999999")).isEmpty();
+            assertThat(dataSubjectService.findByIdentityNumber(" ")).isEmpty();
+        }
+    }
+
     @Nested
     @DisplayName("Right to Erasure (GDPR Art. 17)")
     class RightToErasureTests {
@@ -207,6 +233,19 @@ class DataSubjectServiceTest {
             assertThat(anonymized.getNotes()).contains("Data anonymized per data subject request");
         }
 
+        @Test
+        @DisplayName("Should clear blind indexes of anonymized fields")
+        void shouldClearBlindIndexes() {
+            dataSubjectService.anonymizeEmployee(testEmployee.getId(), "Data subject request");
+            employeeRepository.flush();
+
+            Employee anonymized = employeeRepository.findById(testEmployee.getId()).orElseThrow();
+            assertThat(anonymized.getNikKtpBlindIndex()).isNull();
+            assertThat(anonymized.getNpwpBlindIndex()).isNull();
+            assertThat(anonymized.getBankAccountNumberBlindIndex()).isNull();
+            assertThat(dataSubjectService.findByIdentityNumber("3175012345678901")).isEmpty();
+        }
+
         @Test
         @DisplayName("Should delete user without associated employee")
         void shouldDeleteUserWithoutEmployee() {
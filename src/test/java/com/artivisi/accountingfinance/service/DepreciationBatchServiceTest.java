@@ -0,0 +1,260 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.AssetCategory;
+import com.artivisi.accountingfinance.entity.AssetStatus;
+import com.artivisi.accountingfinance.entity.DepreciationEntry;
+import com.artivisi.accountingfinance.entity.DepreciationEntryStatus;
+import com.artivisi.accountingfinance.entity.DepreciationMethod;
+import com.artivisi.accountingfinance.entity.FixedAsset;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.repository.AssetCategoryRepository;
+import com.artivisi.accountingfinance.repository.DepreciationEntryRepository;
+import com.artivisi.accountingfinance.repository.FixedAssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for DepreciationBatchService with a small chunk size.
+ * Not transactional: every chunk commits or rolls back on its own, as it does in production.
+ */
+@SpringBootTest(properties = "app.depreciation.chunk-size=10")
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("DepreciationBatchService Integration Tests")
+class DepreciationBatchServiceTest {
+
+    private static final UUID KOMPUTER_CATEGORY_ID = UUID.fromString("a0000000-0000-0000-0000-000000000001");
+    private static final int ASSET_COUNT = 25;
+
+    @Autowired
+    private DepreciationBatchService depreciationBatchService;
+
+    @Autowired
+    private FixedAssetService fixedAssetService;
+
+    @Autowired
+    private FixedAssetRepository fixedAssetRepository;
+
+    @Autowired
+    private AssetCategoryRepository assetCategoryRepository;
+
+    @Autowired
+    private DepreciationEntryRepository depreciationEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final YearMonth period = YearMonth.now().minusMonths(1);
+    private final List<UUID> assetIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // KOMPUTER category: 48 months, so 4,800,000 depreciates 100,000 per month
+        AssetCategory category = assetCategoryRepository.findById(KOMPUTER_CATEGORY_ID).orElseThrow();
+        String prefix = "BATCH-" + System.currentTimeMillis() + "-";
+        for (int i = 0; i < ASSET_COUNT; i++) {
+            FixedAsset asset = new FixedAsset();
+            asset.setAssetCode(prefix + i);
+            asset.setName("Batch Asset " + i);
+            asset.setCategory(category);
+            asset.setPurchaseDate(period.atDay(1));
+            asset.setPurchaseCost(new BigDecimal("4800000"));
+            asset.setResidualValue(BigDecimal.ZERO);
+            asset.setDepreciationMethod(DepreciationMethod.STRAIGHT_LINE);
+            asset.setDepreciationStartDate(period.atDay(1));
+            assetIds.add(fixedAssetService.create(asset).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        for (UUID assetId : assetIds) {
+            List<UUID> transactionIds = jdbcTemplate.queryForList(
+                    "SELECT id_transaction FROM depreciation_entries WHERE id_fixed_asset = ? AND id_transaction IS NOT NULL",
+                    UUID.class, assetId);
+            jdbcTemplate.update("DELETE FROM fixed_assets WHERE id = ?", assetId);
+            for (UUID transactionId : transactionIds) {
+                jdbcTemplate.update("DELETE FROM journal_entries WHERE id_transaction = ?", transactionId);
+                jdbcTemplate.update("DELETE FROM transactions WHERE id = ?", transactionId);
+            }
+        }
+        assetIds.clear();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private List<Transaction> postedTransactions() {
+        return inTransaction(() -> {
+            List<Transaction> transactions = new ArrayList<>();
+            for (UUID assetId : assetIds) {
+                for (DepreciationEntry entry : depreciationEntryRepository.findByAssetIdWithAsset(assetId)) {
+                    if (entry.isPosted()) {
+                        entry.getTransaction().getJournalEntries().size();
+                        transactions.add(entry.getTransaction());
+                    }
+                }
+            }
+            return transactions;
+        });
+    }
+
+    private static void assertGapFree(List<Transaction> transactions) {
+        List<Long> numbers = transactions.stream()
+                .map(t -> Long.parseLong(t.getTransactionNumber().substring(t.getTransactionNumber().lastIndexOf('-') + 1)))
+                .sorted()
+                .toList();
+        assertThat(numbers).containsExactlyElementsOf(
+                LongStream.range(numbers.getFirst(), numbers.getFirst() + numbers.size()).boxed().toList());
+    }
+
+    @Nested
+    @DisplayName("Batch Run")
+    class RunTests {
+
+        @Test
+        @DisplayName("Should generate and post every asset in chunks")
+        void shouldGenerateAndPostInChunks() {
+            DepreciationBatchService.BatchResult result = depreciationBatchService.run(period, "SYSTEM");
+
+            assertThat(result.generatedCount()).isEqualTo(ASSET_COUNT);
+            assertThat(result.postedCount()).isEqualTo(ASSET_COUNT);
+            assertThat(result.errorCount()).isZero();
+            assertThat(result.chunks()).extracting(DepreciationBatchService.ChunkResult::size).containsExactly(10, 10, 5);
+            assertThat(result.chunks()).noneMatch(DepreciationBatchService.ChunkResult::retriedIndividually);
+
+            for (UUID assetId : assetIds) {
+                FixedAsset asset = fixedAssetRepository.findById(assetId).orElseThrow();
+                assertThat(asset.getAccumulatedDepreciation()).isEqualByComparingTo("100000");
+                assertThat(asset.getBookValue()).isEqualByComparingTo("4700000");
+                assertThat(asset.getDepreciationPeriodsCompleted()).isEqualTo(1);
+                assertThat(asset.getLastDepreciationDate()).isEqualTo(period.atEndOfMonth());
+                assertThat(asset.getStatus()).isEqualTo(AssetStatus.ACTIVE);
+            }
+        }
+
+        @Test
+        @DisplayName("Should post balanced transactions with gap-free numbers")
+        void shouldPostBalancedTransactions() {
+            depreciationBatchService.run(period, "SYSTEM");
+
+            for (UUID assetId : assetIds) {
+                List<DepreciationEntry> entries = depreciationEntryRepository.findByAssetIdWithAsset(assetId);
+                assertThat(entries).hasSize(1);
+                assertThat(entries.getFirst().getStatus()).isEqualTo(DepreciationEntryStatus.POSTED);
+                assertThat(entries.getFirst().getPostedAt()).isNotNull();
+            }
+
+            List<Transaction> transactions = postedTransactions();
+            assertThat(transactions).hasSize(ASSET_COUNT).allMatch(t -> t.getStatus() == TransactionStatus.POSTED);
+            assertGapFree(transactions);
+            assertThat(transactions).allSatisfy(t -> {
+                assertThat(t.getTransactionDate()).isEqualTo(period.atEndOfMonth());
+                assertThat(t.getJournalEntries()).hasSize(2);
+                assertThat(t.getJournalEntries().stream().map(JournalEntry::getDebitAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                        .isEqualByComparingTo("100000");
+                assertThat(t.getJournalEntries().stream().map(JournalEntry::getCreditAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                        .isEqualByComparingTo("100000");
+            });
+        }
+
+        @Test
+        @DisplayName("Should not generate or post twice for the same period")
+        void shouldNotRepeatPeriod() {
+            depreciationBatchService.run(period, "SYSTEM");
+
+            DepreciationBatchService.BatchResult second = depreciationBatchService.run(period, "SYSTEM");
+
+            assertThat(second.generatedCount()).isZero();
+            assertThat(second.postedCount()).isZero();
+            for (UUID assetId : assetIds) {
+                assertThat(depreciationEntryRepository.findByAssetIdWithAsset(assetId)).hasSize(1);
+            }
+        }
+
+        @Test
+        @DisplayName("Should commit the other chunks and retry a failing chunk entry by entry")
+        void shouldRetryFailingChunkIndividually() {
+            inTransaction(() -> fixedAssetService.createDepreciationEntries(period));
+            // A zero amount gives journal lines without debit or credit, which the database rejects
+            UUID brokenAssetId = assetIds.get(12);
+            jdbcTemplate.update("UPDATE depreciation_entries SET depreciation_amount = 0 WHERE id_fixed_asset = ?",
+                    brokenAssetId);
+
+            DepreciationBatchService.BatchResult result = depreciationBatchService.postPending(period, "SYSTEM");
+
+            assertThat(result.postedCount()).isEqualTo(ASSET_COUNT - 1);
+            assertThat(result.errorCount()).isEqualTo(1);
+            assertThat(result.chunks()).extracting(DepreciationBatchService.ChunkResult::size).containsExactly(10, 10, 5);
+            assertThat(result.chunks()).filteredOn(DepreciationBatchService.ChunkResult::retriedIndividually)
+                    .singleElement()
+                    .satisfies(c -> {
+                        assertThat(c.postedCount()).isEqualTo(c.size() - 1);
+                        assertThat(c.errorCount()).isEqualTo(1);
+                    });
+            assertThat(result.chunks()).filteredOn(c -> !c.retriedIndividually())
+                    .hasSize(2)
+                    .allMatch(c -> c.postedCount() == c.size() && c.errorCount() == 0);
+
+            assertThat(depreciationEntryRepository.findByAssetIdWithAsset(brokenAssetId))
+                    .singleElement().matches(DepreciationEntry::isPending);
+            assertThat(assetIds).filteredOn(id -> !id.equals(brokenAssetId))
+                    .allSatisfy(id -> assertThat(depreciationEntryRepository.findByAssetIdWithAsset(id))
+                            .singleElement().matches(DepreciationEntry::isPosted));
+
+            List<Transaction> transactions = postedTransactions();
+            assertThat(transactions).hasSize(ASSET_COUNT - 1);
+            assertGapFree(transactions);
+        }
+    }
+
+    @Nested
+    @DisplayName("Posting Pending Entries")
+    class PostPendingTests {
+
+        @Test
+        @DisplayName("Should only post entries up to the requested period")
+        void shouldOnlyPostUpToPeriod() {
+            inTransaction(() -> fixedAssetService.createDepreciationEntries(period));
+
+            DepreciationBatchService.BatchResult earlier = depreciationBatchService.postPending(period.minusMonths(1), "SYSTEM");
+            assertThat(earlier.postedCount()).isZero();
+            assertThat(assetIds).allSatisfy(id -> assertThat(depreciationEntryRepository.findByAssetIdWithAsset(id))
+                    .allMatch(DepreciationEntry::isPending));
+
+            DepreciationBatchService.BatchResult result = depreciationBatchService.postPending(period, "SYSTEM");
+
+            assertThat(result.postedCount()).isEqualTo(ASSET_COUNT);
+            assertThat(assetIds).allSatisfy(id -> assertThat(depreciationEntryRepository.findByAssetIdWithAsset(id))
+                    .allMatch(DepreciationEntry::isPosted));
+        }
+    }
+}
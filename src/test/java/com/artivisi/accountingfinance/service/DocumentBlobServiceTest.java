@@ -0,0 +1,208 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Document;
+import com.artivisi.accountingfinance.repository.DocumentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the content-addressed document blob store.
+ * Grace period 0: unreferenced blobs are collected immediately.
+ */
+@SpringBootTest(properties = "app.storage.documents.gc-grace-hours=0")
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("DocumentBlobService Integration Tests")
+class DocumentBlobServiceTest {
+
+    @Autowired
+    private DocumentBlobService documentBlobService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Nested
+    @DisplayName("Deduplication")
+    class DeduplicationTests {
+
+        @Test
+        @DisplayName("Should store identical uploads once and reference the blob from each document")
+        void shouldShareBlobForIdenticalContent() throws Exception {
+            byte[] content = uniquePdf();
+
+            Document fromTelegram = documentService.saveFromBytes(content, "receipt.pdf", "application/pdf", "telegram");
+            Document fromWeb = documentService.saveFromBytes(content, "receipt-copy.pdf", "application/pdf", "admin");
+
+            assertThat(fromWeb.getStoragePath()).isEqualTo(fromTelegram.getStoragePath())
+                    .isEqualTo(DocumentStorageService.blobPath(fromTelegram.getChecksumSha256()));
+            assertThat(documentRepository.countByStoragePath(fromTelegram.getStoragePath())).isEqualTo(2);
+            try (InputStream in = documentService.loadAsResource(fromWeb.getId()).getInputStream()) {
+                assertThat(in.readAllBytes()).isEqualTo(content);
+            }
+        }
+
+        @Test
+        @DisplayName("Should report a reused blob as deduplicated")
+        void shouldReportDeduplicatedUpload() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "scan.pdf", "application/pdf", uniquePdf());
+
+            DocumentStorageService.StoredFile first = documentStorageService.storeDocument(file);
+            DocumentStorageService.StoredFile second = documentStorageService.storeDocument(file);
+
+            assertThat(first.deduplicated()).isFalse();
+            assertThat(second.deduplicated()).isTrue();
+            assertThat(second.storagePath()).isEqualTo(first.storagePath());
+        }
+    }
+
+    @Nested
+    @DisplayName("Garbage Collection")
+    class GarbageCollectionTests {
+
+        @Test
+        @DisplayName("Should keep a blob while any document references it")
+        void shouldKeepReferencedBlob() throws Exception {
+            byte[] content = uniquePdf();
+            Document first = documentService.saveFromBytes(content, "a.pdf", "application/pdf", "admin");
+            documentService.saveFromBytes(content, "b.pdf", "application/pdf", "admin");
+            Path blob = blobFile(first);
+
+            documentService.delete(first.getId());
+            documentBlobService.collectGarbage();
+
+            assertThat(blob).exists();
+        }
+
+        @Test
+        @DisplayName("Should delete a blob once its last document is deleted")
+        void shouldDeleteUnreferencedBlob() throws Exception {
+            byte[] content = uniquePdf();
+            Document first = documentService.saveFromBytes(content, "a.pdf", "application/pdf", "admin");
+            Document second = documentService.saveFromBytes(content, "b.pdf", "application/pdf", "admin");
+            Path blob = blobFile(first);
+
+            documentService.delete(first.getId());
+            documentService.delete(second.getId());
+            assertThat(blob).exists();
+
+            DocumentBlobService.GcResult result = documentBlobService.collectGarbage();
+
+            assertThat(blob).doesNotExist();
+            assertThat(result.deleted()).isPositive();
+            assertThat(result.freedBytes()).isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("Migration")
+    class MigrationTests {
+
+        @Test
+        @DisplayName("Should move legacy files into the blob store and merge duplicates")
+        void shouldMigrateLegacyFiles() throws Exception {
+            byte[] content = uniquePdf();
+            Document first = legacyDocument(content, "legacy-1.pdf");
+            Document second = legacyDocument(content, "legacy-2.pdf");
+            Path firstLegacy = documentStorageService.getRootLocation().resolve(first.getStoragePath());
+            Path secondLegacy = documentStorageService.getRootLocation().resolve(second.getStoragePath());
+
+            DocumentBlobService.MigrationBatch result = documentBlobService.migrateAll();
+
+            assertThat(result.migrated()).isGreaterThanOrEqualTo(2);
+            String blobPath = DocumentStorageService.blobPath(first.getChecksumSha256());
+            assertThat(documentRepository.findById(first.getId()).orElseThrow().getStoragePath()).isEqualTo(blobPath);
+            assertThat(documentRepository.findById(second.getId()).orElseThrow().getStoragePath()).isEqualTo(blobPath);
+            assertThat(firstLegacy).doesNotExist();
+            assertThat(secondLegacy).doesNotExist();
+            try (InputStream in = documentService.loadAsResource(second.getId()).getInputStream()) {
+                assertThat(in.readAllBytes()).isEqualTo(content);
+            }
+        }
+
+        @Test
+        @DisplayName("Should not migrate a file whose content does not match its checksum")
+        void shouldSkipChecksumMismatch() throws Exception {
+            Document document = legacyDocument(uniquePdf(), "corrupt.pdf");
+            document.setChecksumSha256(sha256Hex(uniquePdf()));
+            documentRepository.saveAndFlush(document);
+
+            documentBlobService.migrateAll();
+
+            Document reloaded = documentRepository.findById(document.getId()).orElseThrow();
+            assertThat(DocumentStorageService.isBlobPath(reloaded.getStoragePath())).isFalse();
+            assertThat(reloaded.getBlobMigrationFailedAt()).isNotNull();
+            assertThat(documentStorageService.getRootLocation().resolve(reloaded.getStoragePath())).exists();
+        }
+
+        @Test
+        @DisplayName("Should mark a document whose file is missing and leave it out of later runs")
+        void shouldMarkMissingFile() throws Exception {
+            Document document = legacyDocument(uniquePdf(), "missing.pdf");
+            Files.delete(documentStorageService.getRootLocation().resolve(document.getStoragePath()));
+
+            DocumentBlobService.MigrationBatch first = documentBlobService.migrateAll();
+            DocumentBlobService.MigrationBatch second = documentBlobService.migrateAll();
+
+            assertThat(first.skipped()).isEqualTo(1);
+            assertThat(second.skipped()).isZero();
+            assertThat(documentRepository.findById(document.getId()).orElseThrow().getBlobMigrationFailedAt()).isNotNull();
+        }
+    }
+
+    /**
+     * A document stored under a random path, as uploads were before content addressing.
+     */
+    private Document legacyDocument(byte[] content, String filename) throws Exception {
+        DocumentStorageService.StoredFile stored = documentStorageService.store(
+                new MockMultipartFile("file", filename, "application/pdf", content));
+        Document document = new Document();
+        document.setFilename(stored.filename());
+        document.setOriginalFilename(filename);
+        document.setContentType("application/pdf");
+        document.setFileSize(stored.size());
+        document.setStoragePath(stored.storagePath());
+        document.setChecksumSha256(stored.checksumSha256());
+        document.setUploadedBy("admin");
+        return documentRepository.saveAndFlush(document);
+    }
+
+    private Path blobFile(Document document) {
+        Path blob = documentStorageService.getRootLocation().resolve(document.getStoragePath());
+        assertThat(Files.exists(blob)).isTrue();
+        return blob;
+    }
+
+    private static byte[] uniquePdf() {
+        return ("%PDF-1.4\n" + UUID.randomUUID()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String sha256Hex(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -7,9 +7,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -75,6 +87,46 @@ class DocumentStorageServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Store Operations")
+    class StoreOperationsTests {
+
+        @Test
+        @DisplayName("Should store upload with checksum and size of its content")
+        void shouldStoreWithChecksumAndSize() throws Exception {
+            byte[] content = ("%PDF-1.4\n" + "x".repeat(100_000)).getBytes();
+            MockMultipartFile file = new MockMultipartFile("file", "receipt.pdf", "application/pdf", content);
+
+            DocumentStorageService.StoredFile stored = documentStorageService.store(file);
+
+            try {
+                assertThat(stored.checksumSha256()).isEqualTo(sha256Hex(content));
+                assertThat(stored.size()).isEqualTo(content.length);
+                assertThat(stored.filename()).endsWith(".pdf");
+                assertThat(documentStorageService.exists(stored.storagePath())).isTrue();
+                try (InputStream in = documentStorageService.loadAsResource(stored.storagePath()).getInputStream()) {
+                    assertThat(in.readAllBytes()).isEqualTo(content);
+                }
+                try (Stream<Path> files = Files.list(documentStorageService.getRootLocation().resolve(stored.storagePath()).getParent())) {
+                    assertThat(files).noneMatch(p -> p.getFileName().toString().startsWith(".upload-"));
+                }
+            } finally {
+                documentStorageService.delete(stored.storagePath());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject content that does not match the declared type")
+        void shouldRejectSpoofedContent() {
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "fake.pdf", "application/pdf", "not a pdf at all".getBytes());
+
+            assertThatThrownBy(() -> documentStorageService.store(file))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("does not match declared type");
+        }
+    }
+
     @Nested
     @DisplayName("Load Operations")
     class LoadOperationsTests {
@@ -85,6 +137,34 @@ class DocumentStorageServiceTest {
             assertThatThrownBy(() -> documentStorageService.loadAsResource("non-existent-path/file.pdf"))
                     .isInstanceOf(Exception.class);
         }
+
+        @Test
+        @DisplayName("Should stream stored file content with its plaintext length")
+        void shouldStreamStoredFileContent() throws Exception {
+            byte[] content = new byte[200 * 1024];
+            byte[] pdfHeader = "%PDF-1.4\n".getBytes();
+            System.arraycopy(pdfHeader, 0, content, 0, pdfHeader.length);
+            for (int i = pdfHeader.length; i < content.length; i++) {
+                content[i] = (byte) ('a' + i % 26);
+            }
+            DocumentStorageService.StoredFile stored = documentStorageService.storeDocument(content, "stream.pdf", "application/pdf");
+            String path = stored.storagePath();
+
+            try {
+                Resource resource = documentStorageService.loadAsResource(path);
+                assertThat(resource.contentLength()).isEqualTo(content.length);
+                assertThat(resource.getFilename()).isEqualTo(stored.checksumSha256());
+                assertThat(documentStorageService.isFileEncrypted(path))
+                        .isEqualTo(documentStorageService.isEncryptionEnabled());
+
+                try (InputStream in = resource.getInputStream()) {
+                    in.skipNBytes(150_000);
+                    assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(content, 150_000, content.length));
+                }
+            } finally {
+                documentStorageService.delete(path);
+            }
+        }
     }
 
     @Nested
@@ -138,33 +218,48 @@ class DocumentStorageServiceTest {
     class ChecksumOperationsTests {
 
         @Test
-        @DisplayName("Should calculate checksum from bytes")
-        void shouldCalculateChecksumFromBytes() {
-            byte[] content = "test content for checksum".getBytes();
-            String checksum = documentStorageService.calculateChecksumFromBytes(content);
+        @DisplayName("Should use the SHA-256 of the content as blob checksum")
+        void shouldChecksumContentWithSha256() throws Exception {
+            byte[] content = uniquePdf();
+
+            DocumentStorageService.StoredFile stored = documentStorageService.storeDocument(content, "checksum.pdf", "application/pdf");
 
-            assertThat(checksum).isNotNull();
-            assertThat(checksum).hasSize(64); // SHA-256 produces 64 hex chars
+            try {
+                assertThat(stored.checksumSha256()).isEqualTo(sha256Hex(content)).hasSize(64);
+            } finally {
+                documentStorageService.delete(stored.storagePath());
+            }
         }
 
         @Test
         @DisplayName("Should produce same checksum for same content")
-        void shouldProduceSameChecksumForSameContent() {
-            byte[] content = "identical content".getBytes();
-
-            String checksum1 = documentStorageService.calculateChecksumFromBytes(content);
-            String checksum2 = documentStorageService.calculateChecksumFromBytes(content);
-
-            assertThat(checksum1).isEqualTo(checksum2);
+        void shouldProduceSameChecksumForSameContent() throws Exception {
+            byte[] content = uniquePdf();
+
+            DocumentStorageService.StoredFile first = documentStorageService.storeDocument(content, "first.pdf", "application/pdf");
+            DocumentStorageService.StoredFile second = documentStorageService.storeDocument(content, "second.pdf", "application/pdf");
+
+            try {
+                assertThat(second.checksumSha256()).isEqualTo(first.checksumSha256());
+                assertThat(second.storagePath()).isEqualTo(first.storagePath());
+            } finally {
+                documentStorageService.delete(first.storagePath());
+            }
         }
 
         @Test
         @DisplayName("Should produce different checksum for different content")
-        void shouldProduceDifferentChecksumForDifferentContent() {
-            String checksum1 = documentStorageService.calculateChecksumFromBytes("content1".getBytes());
-            String checksum2 = documentStorageService.calculateChecksumFromBytes("content2".getBytes());
-
-            assertThat(checksum1).isNotEqualTo(checksum2);
+        void shouldProduceDifferentChecksumForDifferentContent() throws Exception {
+            DocumentStorageService.StoredFile first = documentStorageService.storeDocument(uniquePdf(), "first.pdf", "application/pdf");
+            DocumentStorageService.StoredFile second = documentStorageService.storeDocument(uniquePdf(), "second.pdf", "application/pdf");
+
+            try {
+                assertThat(second.checksumSha256()).isNotEqualTo(first.checksumSha256());
+                assertThat(second.storagePath()).isNotEqualTo(first.storagePath());
+            } finally {
+                documentStorageService.delete(first.storagePath());
+                documentStorageService.delete(second.storagePath());
+            }
         }
     }
 
@@ -194,4 +289,12 @@ class DocumentStorageServiceTest {
             assertThat(enabled).isIn(true, false);
         }
     }
+
+    private static byte[] uniquePdf() {
+        return ("%PDF-1.4\n" + UUID.randomUUID()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String sha256Hex(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
 }
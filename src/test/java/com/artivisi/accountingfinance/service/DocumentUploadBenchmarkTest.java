@@ -0,0 +1,168 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.security.FileEncryptionService;
+import com.artivisi.accountingfinance.security.FileValidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for the single-pass document upload pipeline.
+ * Stores 50 encrypted 10 MB uploads in parallel, once through
+ * {@link DocumentStorageService#store} and once the way uploads were stored before
+ * (read the whole upload, encrypt it in memory, hash it again), and reports throughput,
+ * bytes allocated per upload and sampled peak heap growth of both.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=DocumentUploadBenchmarkTest}
+ */
+@Tag("performance")
+@DisplayName("Document Upload Benchmark")
+class DocumentUploadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentUploadBenchmarkTest.class);
+
+    private static final int UPLOADS = 50;
+    private static final int FILE_SIZE = 10 * 1024 * 1024;
+    private static final String KEY = Base64.getEncoder().encodeToString(
+            "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8));
+
+    @TempDir
+    Path storageRoot;
+
+    private DocumentStorageService storageService;
+    private FileEncryptionService encryptionService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        encryptionService = new FileEncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "encryptionKeyBase64", KEY);
+        encryptionService.init();
+
+        storageService = new DocumentStorageService(new FileValidationService(), encryptionService);
+        ReflectionTestUtils.setField(storageService, "storagePath", storageRoot.toString());
+        ReflectionTestUtils.setField(storageService, "maxFileSize", (long) FILE_SIZE);
+        ReflectionTestUtils.setField(storageService, "allowedTypes", "application/pdf");
+        storageService.init();
+
+        // One shared source array: MockMultipartFile streams it without copying
+        content = new byte[FILE_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        System.arraycopy("%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII), 0, content, 0, 9);
+    }
+
+    @AfterEach
+    void tearDown() {
+        content = null;
+        System.gc();
+    }
+
+    @Test
+    @DisplayName("50 parallel 10 MB uploads should stream without holding copies of the upload")
+    void parallelUploadsShouldStream() throws Exception {
+        Result legacy = run("in-memory", file -> storeInMemory(file));
+        Result streaming = run("single-pass", file -> storageService.store(file).checksumSha256());
+
+        assertThat(streaming.checksums()).containsOnly(legacy.checksums().getFirst());
+        assertThat(streaming.allocatedPerUpload()).isLessThan(FILE_SIZE / 4);
+        assertThat(streaming.allocatedPerUpload()).isLessThan(legacy.allocatedPerUpload());
+    }
+
+    private Result run(String name, UploadTask task) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (sampling.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+
+        AtomicLong allocated = new AtomicLong();
+        List<String> checksums = new ArrayList<>(UPLOADS);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(UPLOADS)) {
+            List<Future<String>> futures = new ArrayList<>(UPLOADS);
+            for (int i = 0; i < UPLOADS; i++) {
+                MockMultipartFile file = new MockMultipartFile("file", "upload-" + i + ".pdf", "application/pdf", content);
+                Callable<String> upload = () -> {
+                    long before = threads.getCurrentThreadAllocatedBytes();
+                    String checksum = task.store(file);
+                    allocated.addAndGet(threads.getCurrentThreadAllocatedBytes() - before);
+                    return checksum;
+                };
+                futures.add(executor.submit(upload));
+            }
+            for (Future<String> future : futures) {
+                checksums.add(future.get());
+            }
+        } finally {
+            sampling.set(false);
+            sampler.join();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        Result result = new Result(checksums, allocated.get() / UPLOADS, peak.get() - baseline);
+        log.info("Benchmark upload {}: {} x {} MB in {} ms ({} MB/s), {} KB allocated per upload, peak heap +{} MB",
+                name, UPLOADS, FILE_SIZE / (1024 * 1024), millis, (long) UPLOADS * FILE_SIZE / 1024 / 1024 * 1000 / millis,
+                result.allocatedPerUpload() / 1024, result.peakHeapGrowth() / (1024 * 1024));
+        return result;
+    }
+
+    /**
+     * The previous upload path: whole upload in memory, encrypted copy, second pass to hash.
+     */
+    private String storeInMemory(MockMultipartFile file) throws Exception {
+        byte[] encrypted = encryptionService.encrypt(file.getBytes());
+        Path target = Files.createTempFile(storageRoot, "legacy-", ".pdf");
+        Files.write(target, encrypted);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(file.getBytes()));
+    }
+
+    @FunctionalInterface
+    private interface UploadTask {
+        String store(MockMultipartFile file) throws Exception;
+    }
+
+    private record Result(List<String> checksums, long allocatedPerUpload, long peakHeapGrowth) {
+    }
+}
@@ -1,9 +1,11 @@
 package com.artivisi.accountingfinance.service;
 
+import com.artivisi.accountingfinance.StubVisionOcrConfiguration;
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.DraftTransaction;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
+import com.artivisi.accountingfinance.service.telegram.ReceiptPipelineMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,7 +28,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
  * Tests CRUD operations, filtering, and workflow (approve/reject).
  */
 @SpringBootTest
-@Import(TestcontainersConfiguration.class)
+@Import({TestcontainersConfiguration.class, StubVisionOcrConfiguration.class})
 @ActiveProfiles("test")
 @Transactional
 @DisplayName("DraftTransaction Service Integration Tests")
@@ -41,6 +43,12 @@ class DraftTransactionServiceIntegrationTest {
     @Autowired
     private JournalTemplateRepository journalTemplateRepository;
 
+    @Autowired
+    private StubVisionOcrConfiguration.StubVisionOcrService stubVisionOcrService;
+
+    @Autowired
+    private ReceiptPipelineMetrics receiptPipelineMetrics;
+
     private DraftTransaction testDraft;
 
     @BeforeEach
@@ -192,6 +200,48 @@ class DraftTransactionServiceIntegrationTest {
                 .hasMessageContaining("not pending");
     }
 
+    // ==================== Receipt Processing ====================
+
+    @Test
+    @DisplayName("Should create draft from receipt image with OCR text")
+    void shouldCreateDraftFromReceiptImage() {
+        stubVisionOcrService.returnText("""
+                Bank Jago
+                Transfer Berhasil
+                Rp 1.500.000
+                """);
+        long ocrRuns = stageCount(ReceiptPipelineMetrics.Stage.OCR);
+
+        DraftTransaction draft = draftTransactionService.processReceiptImage(
+                new byte[]{1, 2, 3}, null, 123456L, 42L, "admin");
+
+        assertThat(draft.getId()).isNotNull();
+        assertThat(draft.getSource()).isEqualTo(DraftTransaction.Source.TELEGRAM);
+        assertThat(draft.getReceiptType()).isEqualTo("jago");
+        assertThat(draft.getAmount()).isEqualByComparingTo("1500000");
+        assertThat(stageCount(ReceiptPipelineMetrics.Stage.OCR)).isEqualTo(ocrRuns + 1);
+        assertThat(stageCount(ReceiptPipelineMetrics.Stage.PARSE)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should create failed draft when OCR fails")
+    void shouldCreateFailedDraftWhenOcrFails() {
+        stubVisionOcrService.returnError("Image too blurry");
+
+        DraftTransaction draft = draftTransactionService.processReceiptImage(
+                new byte[]{1, 2, 3}, null, 123456L, 43L, "admin");
+
+        assertThat(draft.getRawOcrText()).isEqualTo("Error: Image too blurry");
+        assertThat(draft.getOverallConfidence()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    private long stageCount(ReceiptPipelineMetrics.Stage stage) {
+        return receiptPipelineMetrics.getStatistics().stream()
+                .filter(s -> s.stage() == stage)
+                .mapToLong(ReceiptPipelineMetrics.StageStatistics::count)
+                .sum();
+    }
+
     // ==================== Save Operations ====================
 
     @Test
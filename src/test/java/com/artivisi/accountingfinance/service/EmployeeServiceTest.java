@@ -6,6 +6,8 @@ import com.artivisi.accountingfinance.entity.EmploymentStatus;
 import com.artivisi.accountingfinance.entity.EmploymentType;
 import com.artivisi.accountingfinance.entity.PtkpStatus;
 import com.artivisi.accountingfinance.repository.EmployeeRepository;
+import com.artivisi.accountingfinance.security.EncryptedString;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,9 +18,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -42,6 +46,9 @@ class EmployeeServiceTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Nested
     @DisplayName("Find Operations")
     class FindOperationsTests {
@@ -510,6 +517,102 @@ class EmployeeServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Encrypted Fields")
+    class EncryptedFieldsTests {
+
+        @Test
+        @DisplayName("should not decrypt PII fields until they are read")
+        void shouldDecryptOnFirstAccess() {
+            Employee employee = buildTestEmployee();
+            employee.setNikKtp("3201234567890123");
+            employee.setBankAccountNumber("1234567890");
+            Employee saved = employeeService.create(employee);
+            entityManager.flush();
+            entityManager.clear();
+
+            Employee loaded = employeeRepository.findById(saved.getId()).orElseThrow();
+
+            EncryptedString nikKtp = (EncryptedString) ReflectionTestUtils.getField(loaded, "nikKtp");
+            assertThat(nikKtp.isDecrypted()).isFalse();
+            assertThat(loaded.getNikKtp()).isEqualTo("3201234567890123");
+            assertThat(nikKtp.isDecrypted()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should not update an employee whose PII fields were only read")
+        void shouldNotDirtyOnRead() {
+            Employee employee = buildTestEmployee();
+            employee.setBankAccountNumber("1234567890");
+            Employee saved = employeeService.create(employee);
+            entityManager.flush();
+            entityManager.clear();
+
+            Employee loaded = employeeRepository.findById(saved.getId()).orElseThrow();
+            LocalDateTime updatedAt = loaded.getUpdatedAt();
+            assertThat(loaded.getBankAccountNumber()).isEqualTo("1234567890");
+            entityManager.flush();
+
+            assertThat(loaded.getUpdatedAt()).isEqualTo(updatedAt);
+        }
+    }
+
+    @Nested
+    @DisplayName("Blind Index Lookups")
+    class BlindIndexLookupTests {
+
+        @Test
+        @DisplayName("should find employee by NPWP, NIK KTP and bank account number")
+        void shouldFindByEncryptedFields() {
+            Employee employee = buildTestEmployee();
+            employee.setNpwp("21.345.678.9-012.777");
+            employee.setNikKtp("3201987654321777");
+            employee.setBankAccountNumber("7770001112");
+            Employee saved = employeeService.create(employee);
+
+            assertThat(employeeService.findByNpwp("213456789012777")).get()
+                    .extracting(Employee::getId).isEqualTo(saved.getId());
+            assertThat(employeeService.findByNikKtp("3201987654321777")).get()
+                    .extracting(Employee::getId).isEqualTo(saved.getId());
+            assertThat(employeeService.findByBankAccountNumber("777-000-1112"))
+                    .extracting(Employee::getId).containsExactly(saved.getId());
+            assertThat(employeeService.findByNikKtp("3201987654321000")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should reject NPWP that differs from an existing one only in formatting")
+        void shouldRejectDuplicateNpwpInOtherFormat() {
+            Employee first = buildTestEmployee();
+            first.setNpwp("21.345.678.9-012.888");
+            employeeService.create(first);
+
+            Employee second = buildTestEmployee();
+            second.setEmployeeId(second.getEmployeeId() + "B");
+            second.setNpwp("213456789012888");
+
+            assertThatThrownBy(() -> employeeService.create(second))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NPWP sudah digunakan");
+        }
+
+        @Test
+        @DisplayName("should update the blind index when NPWP changes")
+        void shouldUpdateBlindIndexOnChange() {
+            Employee employee = buildTestEmployee();
+            employee.setNpwp("21.345.678.9-012.999");
+            Employee saved = employeeService.create(employee);
+            entityManager.flush();
+
+            Employee updateData = buildUpdateData(saved);
+            updateData.setNpwp("21.345.678.9-013.000");
+            employeeService.update(saved.getId(), updateData);
+            entityManager.flush();
+
+            assertThat(employeeService.findByNpwp("21.345.678.9-012.999")).isEmpty();
+            assertThat(employeeService.findByNpwp("21.345.678.9-013.000")).isPresent();
+        }
+    }
+
     // Helper methods
 
     private Employee createTestEmployee() {
@@ -0,0 +1,262 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.InventoryTransactionType;
+import com.artivisi.accountingfinance.service.ExcelWriter.Style;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExcelWriter Tests")
+class ExcelWriterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExcelWriterTest.class);
+
+    @Nested
+    @DisplayName("Streaming")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should keep only the row window in memory")
+        void shouldKeepOnlyRowWindow() throws IOException {
+            try (ExcelWriter excel = new ExcelWriter()) {
+                excel.sheet("Data");
+                Row first = excel.row();
+                excel.text(first, 0, "first", Style.TEXT);
+                Row last = first;
+                for (int i = 0; i < ExcelWriter.ROW_WINDOW; i++) {
+                    last = excel.row();
+                }
+
+                assertThat(last.getSheet().getRow(0)).isNull();
+                assertThat(last.getSheet().getRow(ExcelWriter.ROW_WINDOW)).isSameAs(last);
+            }
+        }
+
+        @Test
+        @DisplayName("Should write every row of every sheet")
+        void shouldWriteEveryRow() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("First");
+                for (int i = 0; i < 1000; i++) {
+                    excel.text(excel.row(), 0, "Row " + i, Style.TEXT);
+                }
+                excel.sheet("Second");
+                excel.skipRows(2);
+                excel.text(excel.row(), 1, "after gap", Style.TEXT);
+            })) {
+                Sheet first = workbook.getSheet("First");
+                assertThat(first.getLastRowNum()).isEqualTo(999);
+                assertThat(first.getRow(999).getCell(0).getStringCellValue()).isEqualTo("Row 999");
+
+                Sheet second = workbook.getSheet("Second");
+                assertThat(second.getRow(0)).isNull();
+                assertThat(second.getRow(2).getCell(1).getStringCellValue()).isEqualTo("after gap");
+            }
+        }
+
+        @Test
+        @DisplayName("Should write report header as merged rows followed by an empty row")
+        void shouldWriteReportHeader() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("Report");
+                excel.reportHeader("PT Test", "NERACA SALDO", "Per tanggal 1 Januari 2025", 4);
+                excel.headerRow("Kode", "Nama Akun");
+            })) {
+                Sheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("PT Test");
+                assertThat(sheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("NERACA SALDO");
+                assertThat(sheet.getRow(2).getCell(0).getStringCellValue()).isEqualTo("Per tanggal 1 Januari 2025");
+                assertThat(sheet.getRow(3)).isNull();
+                assertThat(sheet.getRow(4).getCell(1).getStringCellValue()).isEqualTo("Nama Akun");
+                assertThat(sheet.getNumMergedRegions()).isEqualTo(3);
+                assertThat(sheet.getMergedRegion(0).getLastColumn()).isEqualTo(3);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Cells")
+    class CellTests {
+
+        @Test
+        @DisplayName("Should leave zero and null amounts blank but styled")
+        void shouldLeaveZeroAmountsBlank() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("Data");
+                Row row = excel.row();
+                excel.amount(row, 0, new BigDecimal("1500000"), Style.NUMBER);
+                excel.amount(row, 1, BigDecimal.ZERO, Style.NUMBER);
+                excel.amount(row, 2, null, Style.TOTAL);
+            })) {
+                Row row = workbook.getSheetAt(0).getRow(0);
+                assertThat(row.getCell(0).getNumericCellValue()).isEqualTo(1_500_000d);
+                assertThat(row.getCell(1).getCellType()).isEqualTo(CellType.BLANK);
+                assertThat(row.getCell(2).getCellType()).isEqualTo(CellType.BLANK);
+                assertThat(row.getCell(2).getCellStyle().getDataFormatString()).isEqualTo("#,##0");
+            }
+        }
+
+        @Test
+        @DisplayName("Should write dates as date cells")
+        void shouldWriteDates() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("Data");
+                excel.date(excel.row(), 0, LocalDate.of(2025, 3, 31), Style.DATE);
+            })) {
+                Cell cell = workbook.getSheetAt(0).getRow(0).getCell(0);
+                assertThat(DateUtil.isCellDateFormatted(cell)).isTrue();
+                assertThat(cell.getLocalDateTimeCellValue().toLocalDate()).isEqualTo(LocalDate.of(2025, 3, 31));
+            }
+        }
+
+        @Test
+        @DisplayName("Should share one cell style per report style")
+        void shouldShareStyles() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("Data");
+                for (int i = 0; i < 500; i++) {
+                    Row row = excel.row();
+                    excel.text(row, 0, "Item " + i, Style.TEXT);
+                    excel.amount(row, 1, BigDecimal.valueOf(i + 1), Style.NUMBER);
+                }
+            })) {
+                Sheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getRow(0).getCell(0).getCellStyle().getIndex())
+                        .isEqualTo(sheet.getRow(499).getCell(0).getCellStyle().getIndex());
+                // Default style plus TEXT and NUMBER
+                assertThat(workbook.getNumCellStyles()).isEqualTo(3);
+            }
+        }
+
+        @Test
+        @DisplayName("Should size columns to the longest value")
+        void shouldSizeColumns() throws IOException {
+            try (XSSFWorkbook workbook = read(excel -> {
+                excel.sheet("Data");
+                excel.reportHeader("A company name much longer than any cell below", "Title", "Period", 3);
+                Row row = excel.row();
+                excel.text(row, 0, "Kas", Style.TEXT);
+                excel.text(row, 1, "Bank Central Asia - Rekening Operasional", Style.TEXT);
+                excel.amount(row, 2, new BigDecimal("-1234567"), Style.NUMBER);
+            })) {
+                Sheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getColumnWidth(0)).isEqualTo((3 + 2) * 256);
+                assertThat(sheet.getColumnWidth(1)).isEqualTo((40 + 2) * 256);
+                // -1,234,567
+                assertThat(sheet.getColumnWidth(2)).isEqualTo((10 + 2) * 256);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Memory")
+    class MemoryTests {
+
+        private static final int ROWS = 100_000;
+        private static final int SAMPLE_EVERY = 10_000;
+        private static final long HEAP_CEILING = 64L * 1024 * 1024;
+
+        @Test
+        @DisplayName("Should export 100k stock movements within a fixed heap ceiling")
+        void shouldExportLargeReportWithinHeapCeiling() {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long[] heap = new long[ROWS / SAMPLE_EVERY];
+
+            // Rows are generated on demand so that only the export itself holds memory
+            var items = new AbstractList<InventoryReportService.StockMovementItem>() {
+                @Override
+                public InventoryReportService.StockMovementItem get(int index) {
+                    if (index % SAMPLE_EVERY == 0) {
+                        System.gc();
+                        heap[index / SAMPLE_EVERY] = memory.getHeapMemoryUsage().getUsed();
+                    }
+                    return movement(index);
+                }
+
+                @Override
+                public int size() {
+                    return ROWS;
+                }
+            };
+            var report = new InventoryReportService.StockMovementReport(
+                    LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), items,
+                    BigDecimal.valueOf(ROWS), BigDecimal.ZERO, BigDecimal.valueOf(ROWS * 10_000L), BigDecimal.ZERO);
+            CountingOutputStream out = new CountingOutputStream();
+
+            new ReportExportService(null, null).exportStockMovementToExcel(report, out);
+
+            long growth = 0;
+            for (long used : heap) {
+                growth = Math.max(growth, used - heap[0]);
+            }
+            log.info("Exported {} rows, {} KB written, heap growth {} KB", ROWS, out.count / 1024, growth / 1024);
+            assertThat(out.count).isGreaterThan(0);
+            assertThat(growth).isLessThan(HEAP_CEILING);
+        }
+
+        private InventoryReportService.StockMovementItem movement(int index) {
+            BigDecimal quantity = BigDecimal.valueOf(index % 50 + 1);
+            BigDecimal unitCost = BigDecimal.valueOf(10_000 + index % 1000);
+            return new InventoryReportService.StockMovementItem(
+                    LocalDate.of(2025, 1, 1).plusDays(index % 365),
+                    "PRD-" + (index % 5000),
+                    "Produk " + (index % 5000),
+                    "Kategori " + (index % 20),
+                    InventoryTransactionType.PURCHASE,
+                    "Pembelian",
+                    quantity,
+                    unitCost,
+                    quantity.multiply(unitCost),
+                    "PO-" + index,
+                    BigDecimal.valueOf(index));
+        }
+    }
+
+    private interface ExcelContent {
+        void write(ExcelWriter excel) throws IOException;
+    }
+
+    private static XSSFWorkbook read(ExcelContent content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExcelWriter excel = new ExcelWriter()) {
+            content.write(excel);
+            excel.write(out);
+        }
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
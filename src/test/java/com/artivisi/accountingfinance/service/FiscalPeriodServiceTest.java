@@ -12,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +38,9 @@ class FiscalPeriodServiceTest {
     @Autowired
     private FiscalPeriodService fiscalPeriodService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Nested
     @DisplayName("Find Operations")
     class FindOperationsTests {
@@ -156,6 +160,16 @@ class FiscalPeriodServiceTest {
             assertThat(created.getStatus()).isEqualTo(FiscalPeriodStatus.OPEN);
         }
 
+        @Test
+        @DisplayName("Should create the journal number sequence of the year ahead of posting")
+        void shouldPrepareJournalNumberSequence() {
+            fiscalPeriodService.create(2080, 1);
+
+            String sequence = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('journal_number_seq_2080')::text", String.class);
+            assertThat(sequence).isEqualTo("journal_number_seq_2080");
+        }
+
         @Test
         @DisplayName("Should reject duplicate fiscal period")
         void shouldRejectDuplicateFiscalPeriod() {
@@ -0,0 +1,219 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential tests: the compiled fast path must produce exactly what SpEL produces.
+ */
+@DisplayName("FormulaCompiler Differential Tests")
+class FormulaCompilerTest {
+
+    private static final Path INDUSTRY_SEED = Path.of("industry-seed");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Set<String> KEYWORDS = Set.of("and", "or", "not", "true", "false", "amount");
+
+    private final FormulaEvaluator compiled = new FormulaEvaluator();
+    private final FormulaEvaluator interpreted = new FormulaEvaluator(false);
+
+    @Nested
+    @DisplayName("Industry Seed Templates")
+    class IndustrySeedTests {
+
+        @Test
+        @DisplayName("Every seeded template formula should compile")
+        void everySeedFormulaShouldCompile() throws IOException {
+            for (String formula : seedFormulas()) {
+                if (isIdentifier(formula)) {
+                    continue; // Handled before parsing
+                }
+                assertThat(compile(formula)).as("compiled form of '%s'", formula).isNotNull();
+            }
+        }
+
+        @Test
+        @DisplayName("Every seeded template formula should match SpEL")
+        void everySeedFormulaShouldMatchSpel() throws IOException {
+            List<String> formulas = seedFormulas();
+            assertThat(formulas).isNotEmpty();
+
+            for (String formula : formulas) {
+                assertSameResults(formula);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Documented and Edge Patterns")
+    class PatternTests {
+
+        @Test
+        @DisplayName("Documented patterns should compile and match SpEL")
+        void documentedPatternsShouldMatchSpel() {
+            for (String formula : List.of(
+                    "amount * 0.11",
+                    "amount / 1.11",
+                    "amount + 1000",
+                    "amount - 1000",
+                    "amount > 2000000 ? amount * 0.02 : 0",
+                    "1000000")) {
+                assertThat(compile(formula)).as("compiled form of '%s'", formula).isNotNull();
+                assertSameResults(formula);
+            }
+        }
+
+        @Test
+        @DisplayName("Mixed literal types, logic and folding should match SpEL")
+        void edgePatternsShouldMatchSpel() {
+            for (String formula : List.of(
+                    "-amount",
+                    "+amount",
+                    "amount * -1",
+                    "(amount + 1000) * 0.11",
+                    "amount * (11 / 100)",
+                    "amount * 11 / 100",
+                    "amount / 3",
+                    "amount / 1.11 * 0.02",
+                    "amount - (amount / 1.11 * 0.02)",
+                    "amount * 1e7 / 1e7",
+                    "amount * 10000000.0",
+                    "amount * 9999999999L",
+                    "100 / 3",
+                    "0.5 * 3",
+                    "amount == 2000000 ? 1 : 0.5",
+                    "amount != 0 and amount <= 5000000 ? amount * 0.05 : amount * 0.1",
+                    "amount < 0 or amount >= 10000000 ? 0 : amount",
+                    "!(amount > 1000) ? amount : 1000",
+                    "true ? amount : 0",
+                    "(amount > 100 ? 1 : 2) * amount",
+                    "grossSales - adminFee",
+                    "bpjsKesehatan + bpjsTenagakerja",
+                    "amount / 0",
+                    "amount > 0")) {
+                assertSameResults(formula);
+            }
+        }
+
+        @Test
+        @DisplayName("Unsupported formulas should fall back to SpEL")
+        void unsupportedFormulasShouldFallBack() {
+            assertThat(compile("variables['grossSalary'] * 0.05")).isNull();
+            assertThat(compile("(amount > 100 ? 1 : 2) + 3")).isNull();
+            assertThat(compile("amount > 0")).isNull();
+
+            assertSameResults("(amount > 100 ? 1 : 2) + 3");
+        }
+    }
+
+    private void assertSameResults(String formula) {
+        Set<String> variables = variablesOf(formula);
+        for (FormulaContext context : contexts(variables)) {
+            Object expected = outcome(interpreted, formula, context);
+            Object actual = outcome(compiled, formula, context);
+            assertThat(actual).as("'%s' with %s", formula, context).isEqualTo(expected);
+        }
+    }
+
+    /**
+     * Result value (compared including scale) or exception type and message.
+     */
+    private Object outcome(FormulaEvaluator evaluator, String formula, FormulaContext context) {
+        try {
+            return evaluator.evaluate(formula, context);
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private List<FormulaContext> contexts(Set<String> variables) {
+        List<BigDecimal> amounts = new ArrayList<>(List.of(
+                BigDecimal.ZERO,
+                BigDecimal.ONE,
+                new BigDecimal("999.99"),
+                new BigDecimal("1110000"),
+                new BigDecimal("2000000"),
+                new BigDecimal("2000000.00"),
+                new BigDecimal("2000000.01"),
+                new BigDecimal("11100000"),
+                new BigDecimal("123456789.125"),
+                new BigDecimal("-500000"),
+                new BigDecimal("1.5E+7"),
+                new BigDecimal("0.005")));
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            amounts.add(BigDecimal.valueOf(random.nextLong(1_000_000_000_000L), random.nextInt(5)));
+        }
+
+        List<FormulaContext> contexts = new ArrayList<>();
+        for (BigDecimal amount : amounts) {
+            Map<String, BigDecimal> values = new HashMap<>();
+            for (String variable : variables) {
+                values.put(variable, BigDecimal.valueOf(random.nextLong(100_000_000_000L), random.nextInt(3)));
+            }
+            contexts.add(FormulaContext.of(amount, values));
+        }
+
+        // Missing variables must be reported the same way
+        if (!variables.isEmpty()) {
+            contexts.add(FormulaContext.of(new BigDecimal("1000000")));
+        }
+        return contexts;
+    }
+
+    private FormulaCompiler.CompiledFormula compile(String formula) {
+        return FormulaCompiler.compile(new SpelExpressionParser().parseExpression(formula),
+                SimpleEvaluationContext.forReadOnlyDataBinding().build());
+    }
+
+    private static List<String> seedFormulas() throws IOException {
+        Set<String> formulas = new TreeSet<>();
+        try (Stream<Path> files = Files.walk(INDUSTRY_SEED)) {
+            for (Path file : files.filter(f -> f.endsWith("05_journal_template_lines.csv")).toList()) {
+                List<String> lines = Files.readAllLines(file);
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] columns = line.split(",", -1);
+                    if (columns.length > 5 && !columns[5].isBlank()) {
+                        formulas.add(columns[5].trim());
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(formulas);
+    }
+
+    private static Set<String> variablesOf(String formula) {
+        Set<String> variables = new TreeSet<>();
+        Matcher matcher = IDENTIFIER.matcher(formula);
+        while (matcher.find()) {
+            if (!KEYWORDS.contains(matcher.group()) && !matcher.group().matches("\\d.*|e\\d+|L")) {
+                variables.add(matcher.group());
+            }
+        }
+        return variables;
+    }
+
+    private static boolean isIdentifier(String formula) {
+        return IDENTIFIER.matcher(formula).matches();
+    }
+}
@@ -0,0 +1,82 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing cold (parse every call) and warm (cached expression)
+ * formula evaluation. Formulas are taken from the industry seed templates.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=FormulaEvaluatorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Tag("performance")
+@DisplayName("FormulaEvaluator Benchmark")
+public class FormulaEvaluatorBenchmark {
+
+    @Param({
+            "amount / 1.11",
+            "amount - (amount / 1.11 * 0.02)",
+            "grossSales - adminFee",
+            "amount > 2000000 ? amount * 0.02 : 0"
+    })
+    public String formula;
+
+    private FormulaEvaluator evaluator;
+    private FormulaContext context;
+
+    @Setup
+    public void setUp() {
+        evaluator = new FormulaEvaluator();
+        context = FormulaContext.of(BigDecimal.valueOf(11_100_000), Map.of(
+                "grossSales", BigDecimal.valueOf(11_100_000),
+                "adminFee", BigDecimal.valueOf(250_000)));
+    }
+
+    @Benchmark
+    public BigDecimal cold() {
+        evaluator.clearCache();
+        return evaluator.evaluate(formula, context);
+    }
+
+    @Benchmark
+    public BigDecimal warm() {
+        return evaluator.evaluate(formula, context);
+    }
+
+    @Test
+    @DisplayName("Run cold vs warm formula evaluation benchmark")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FormulaEvaluatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
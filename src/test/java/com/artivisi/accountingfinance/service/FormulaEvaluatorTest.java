@@ -641,4 +641,71 @@ class FormulaEvaluatorTest {
                     .hasMessageContaining("Formula evaluation error");
         }
     }
+
+    @Nested
+    @DisplayName("Expression Cache")
+    class ExpressionCacheTests {
+
+        @Test
+        @DisplayName("Should parse a formula once and reuse it")
+        void shouldParseFormulaOnce() {
+            evaluator.evaluate("amount * 0.11", FormulaContext.of(1_000_000L));
+            evaluator.evaluate("amount * 0.11", FormulaContext.of(2_000_000L));
+            BigDecimal result = evaluator.evaluate("amount * 0.11", FormulaContext.of(3_000_000L));
+
+            assertThat(result).isEqualByComparingTo("330000");
+            assertThat(evaluator.getCacheStats().misses()).isEqualTo(1);
+            assertThat(evaluator.getCacheStats().hits()).isEqualTo(2);
+            assertThat(evaluator.getCacheStats().size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should evaluate cached formula against each call's variables")
+        void shouldEvaluateCachedFormulaAgainstEachContext() {
+            FormulaContext first = FormulaContext.of(BigDecimal.ZERO, Map.of("grossSalary", BigDecimal.valueOf(10_000_000)));
+            FormulaContext second = FormulaContext.of(BigDecimal.ZERO, Map.of("grossSalary", BigDecimal.valueOf(5_000_000)));
+            FormulaContext missing = FormulaContext.of(BigDecimal.ZERO);
+
+            assertThat(evaluator.evaluate("grossSalary * 0.04", first)).isEqualByComparingTo("400000");
+            assertThat(evaluator.evaluate("grossSalary * 0.04", second)).isEqualByComparingTo("200000");
+            assertThatThrownBy(() -> evaluator.evaluate("grossSalary * 0.04", missing))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Formula evaluation error");
+        }
+
+        @Test
+        @DisplayName("Should not cache invalid formulas")
+        void shouldNotCacheInvalidFormulas() {
+            FormulaContext context = FormulaContext.of(1_000_000L);
+
+            assertThatThrownBy(() -> evaluator.evaluate("amount * * 0.11", context))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            assertThat(evaluator.getCacheStats().size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reparse after cache is cleared")
+        void shouldReparseAfterClear() {
+            evaluator.evaluate("amount / 1.11", FormulaContext.of(1_110_000L));
+            evaluator.clearCache();
+            BigDecimal result = evaluator.evaluate("amount / 1.11", FormulaContext.of(1_110_000L));
+
+            assertThat(result).isEqualByComparingTo("1000000");
+            assertThat(evaluator.getCacheStats().misses()).isEqualTo(2);
+            assertThat(evaluator.getCacheStats().size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should stay bounded")
+        void shouldStayBounded() {
+            FormulaContext context = FormulaContext.of(1_000L);
+
+            for (int i = 0; i <= FormulaEvaluator.MAX_CACHED_EXPRESSIONS; i++) {
+                evaluator.evaluate("amount + " + i, context);
+            }
+
+            assertThat(evaluator.getCacheStats().size()).isLessThanOrEqualTo(FormulaEvaluator.MAX_CACHED_EXPRESSIONS);
+        }
+    }
 }
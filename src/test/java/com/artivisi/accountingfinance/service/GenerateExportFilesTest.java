@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
@@ -91,7 +92,9 @@ class GenerateExportFilesTest {
         );
 
         byte[] pdfBytes = exportService.exportTrialBalanceToPdf(report);
-        byte[] excelBytes = exportService.exportTrialBalanceToExcel(report);
+        ByteArrayOutputStream excelBytesOut = new ByteArrayOutputStream();
+        exportService.exportTrialBalanceToExcel(report, excelBytesOut);
+        byte[] excelBytes = excelBytesOut.toByteArray();
 
         Files.write(outputDir.resolve("neraca-saldo.pdf"), pdfBytes);
         Files.write(outputDir.resolve("neraca-saldo.xlsx"), excelBytes);
@@ -137,7 +140,9 @@ class GenerateExportFilesTest {
         );
 
         byte[] pdfBytes = exportService.exportBalanceSheetToPdf(report);
-        byte[] excelBytes = exportService.exportBalanceSheetToExcel(report);
+        ByteArrayOutputStream excelBytesOut = new ByteArrayOutputStream();
+        exportService.exportBalanceSheetToExcel(report, excelBytesOut);
+        byte[] excelBytes = excelBytesOut.toByteArray();
 
         Files.write(outputDir.resolve("laporan-posisi-keuangan.pdf"), pdfBytes);
         Files.write(outputDir.resolve("laporan-posisi-keuangan.xlsx"), excelBytes);
@@ -177,7 +182,9 @@ class GenerateExportFilesTest {
         );
 
         byte[] pdfBytes = exportService.exportIncomeStatementToPdf(report);
-        byte[] excelBytes = exportService.exportIncomeStatementToExcel(report);
+        ByteArrayOutputStream excelBytesOut = new ByteArrayOutputStream();
+        exportService.exportIncomeStatementToExcel(report, excelBytesOut);
+        byte[] excelBytes = excelBytesOut.toByteArray();
 
         Files.write(outputDir.resolve("laporan-laba-rugi.pdf"), pdfBytes);
         Files.write(outputDir.resolve("laporan-laba-rugi.xlsx"), excelBytes);
@@ -308,6 +308,143 @@ class JournalEntryServiceIntegrationTest {
         assertThat(ledger.account()).isEqualTo(cashAccount);
     }
 
+    @Test
+    @DisplayName("Offset ledger pages should continue the running balance of the full ledger")
+    void offsetPagesShouldContinueRunningBalance() {
+        if (cashAccount == null) {
+            return;
+        }
+
+        LocalDate startDate = LocalDate.of(2020, 1, 1);
+        LocalDate endDate = LocalDate.of(2030, 12, 31);
+        List<String> expected = ledgerLines(journalEntryService
+                .getGeneralLedger(cashAccount.getId(), startDate, endDate).entries());
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page * 3 < expected.size(); page++) {
+            paged.addAll(ledgerLines(journalEntryService.getGeneralLedgerPaged(
+                    cashAccount.getId(), startDate, endDate, null, PageRequest.of(page, 3)).entries()));
+        }
+
+        assertThat(paged).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Keyset ledger slices should match the full ledger in both directions")
+    void keysetSlicesShouldMatchFullLedger() {
+        if (cashAccount == null) {
+            return;
+        }
+
+        LocalDate startDate = LocalDate.of(2020, 1, 1);
+        LocalDate endDate = LocalDate.of(2030, 12, 31);
+        List<String> expected = ledgerLines(journalEntryService
+                .getGeneralLedger(cashAccount.getId(), startDate, endDate).entries());
+
+        // Forward from the first page
+        List<String> forward = new ArrayList<>();
+        JournalEntryService.GeneralLedgerSlice slice = journalEntryService.getGeneralLedgerSlice(
+                cashAccount.getId(), startDate, endDate, JournalEntryService.LedgerPageRequest.first(3));
+        assertThat(slice.hasPrevious()).isFalse();
+        forward.addAll(ledgerLines(slice.entries()));
+        while (slice.hasNext()) {
+            slice = journalEntryService.getGeneralLedgerSlice(cashAccount.getId(), startDate, endDate,
+                    JournalEntryService.LedgerPageRequest.after(
+                            JournalEntryService.LedgerCursor.decode(slice.nextCursor()), 3));
+            forward.addAll(ledgerLines(slice.entries()));
+        }
+        assertThat(forward).isEqualTo(expected);
+
+        // Backward from the last page
+        List<String> backward = new ArrayList<>();
+        slice = journalEntryService.getGeneralLedgerSlice(
+                cashAccount.getId(), startDate, endDate, JournalEntryService.LedgerPageRequest.last(3));
+        assertThat(slice.hasNext()).isFalse();
+        backward.addAll(0, ledgerLines(slice.entries()));
+        while (slice.hasPrevious()) {
+            slice = journalEntryService.getGeneralLedgerSlice(cashAccount.getId(), startDate, endDate,
+                    JournalEntryService.LedgerPageRequest.before(
+                            JournalEntryService.LedgerCursor.decode(slice.previousCursor()), 3));
+            backward.addAll(0, ledgerLines(slice.entries()));
+        }
+        assertThat(backward).isEqualTo(expected);
+    }
+
+    @Test
+    @WithMockUser(username = "admin")
+    @DisplayName("Keyset ledger slices should page through lines sharing date, createdAt and journal number")
+    void keysetSlicesShouldSeparateTiedLines() {
+        if (cashAccount == null || revenueAccount == null) {
+            return;
+        }
+
+        // Closing and amortization journals give every line of a journal the same number
+        LocalDate date = LocalDate.of(2031, 3, 15);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(date);
+        transaction.setDescription("Journal with tied ledger lines");
+        List<JournalEntry> entries = new ArrayList<>();
+        for (long amount : new long[]{10000, 20000, 30000}) {
+            JournalEntry debitEntry = new JournalEntry();
+            debitEntry.setAccount(cashAccount);
+            debitEntry.setDebitAmount(BigDecimal.valueOf(amount));
+            debitEntry.setCreditAmount(BigDecimal.ZERO);
+            entries.add(debitEntry);
+        }
+        JournalEntry creditEntry = new JournalEntry();
+        creditEntry.setAccount(revenueAccount);
+        creditEntry.setDebitAmount(BigDecimal.ZERO);
+        creditEntry.setCreditAmount(BigDecimal.valueOf(60000));
+        entries.add(creditEntry);
+
+        Transaction created = journalEntryService.create(transaction, entries);
+        List<JournalEntry> posted = journalEntryService.post(created.getJournalEntries().get(0).getJournalNumber());
+        String lineNumber = posted.get(0).getJournalNumber();
+        String journalNumber = lineNumber.substring(0, lineNumber.lastIndexOf('-'));
+        posted.forEach(entry -> entry.setJournalNumber(journalNumber));
+        journalEntryRepository.saveAllAndFlush(posted);
+
+        List<String> expected = ledgerLines(journalEntryService
+                .getGeneralLedger(cashAccount.getId(), date, date).entries());
+        assertThat(expected).hasSize(3);
+
+        List<String> forward = new ArrayList<>();
+        JournalEntryService.GeneralLedgerSlice slice = journalEntryService.getGeneralLedgerSlice(
+                cashAccount.getId(), date, date, JournalEntryService.LedgerPageRequest.first(1));
+        forward.addAll(ledgerLines(slice.entries()));
+        while (slice.hasNext()) {
+            slice = journalEntryService.getGeneralLedgerSlice(cashAccount.getId(), date, date,
+                    JournalEntryService.LedgerPageRequest.after(
+                            JournalEntryService.LedgerCursor.decode(slice.nextCursor()), 1));
+            forward.addAll(ledgerLines(slice.entries()));
+        }
+        assertThat(forward).isEqualTo(expected);
+
+        List<String> backward = new ArrayList<>();
+        slice = journalEntryService.getGeneralLedgerSlice(
+                cashAccount.getId(), date, date, JournalEntryService.LedgerPageRequest.last(1));
+        backward.addAll(0, ledgerLines(slice.entries()));
+        while (slice.hasPrevious()) {
+            slice = journalEntryService.getGeneralLedgerSlice(cashAccount.getId(), date, date,
+                    JournalEntryService.LedgerPageRequest.before(
+                            JournalEntryService.LedgerCursor.decode(slice.previousCursor()), 1));
+            backward.addAll(0, ledgerLines(slice.entries()));
+        }
+        assertThat(backward).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Ledger cursor should survive encoding")
+    void ledgerCursorShouldRoundTrip() {
+        JournalEntryService.LedgerCursor cursor = new JournalEntryService.LedgerCursor(
+                LocalDate.of(2025, 3, 31), java.time.LocalDateTime.of(2025, 3, 31, 9, 0, 0, 123_456_000), "JE-2025-0001-01",
+                java.util.UUID.randomUUID());
+
+        assertThat(JournalEntryService.LedgerCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThatThrownBy(() -> JournalEntryService.LedgerCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @DisplayName("Should throw exception for invalid account in general ledger")
     void shouldThrowExceptionForInvalidAccount() {
@@ -448,4 +585,10 @@ class JournalEntryServiceIntegrationTest {
         // All returned entries should be for the specified account
         entries.forEach(entry -> assertThat(entry.getAccount().getId()).isEqualTo(cashAccount.getId()));
     }
+
+    private static List<String> ledgerLines(List<JournalEntryService.LedgerLineItem> items) {
+        return items.stream()
+                .map(item -> item.entry().getId() + " " + item.runningBalance().stripTrailingZeros().toPlainString())
+                .toList();
+    }
 }
@@ -0,0 +1,99 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.MerchantMatchRuleDto;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of merchant matching per receipt over the 10,000-name corpus in
+ * {@code benchmark/merchant-names.txt}:
+ * <ul>
+ *   <li>{@code linear}: the previous lookup order done in memory - exact rules, contains
+ *       rules, then every regex compiled per receipt (without the three queries it also ran)</li>
+ *   <li>{@code indexed}: {@link MerchantMatcher}</li>
+ *   <li>{@code build}: building the matcher, the cost of one rebuild after a mapping change</li>
+ * </ul>
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=MerchantMatcherBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Tag("performance")
+@DisplayName("MerchantMatcher Benchmark")
+public class MerchantMatcherBenchmark {
+
+    static final int NAMES = 10_000;
+
+    @Param({"100", "1000", "5000"})
+    public int rules;
+
+    private List<String> names;
+    private List<MerchantMatchRuleDto> ruleList;
+    private List<MerchantMapping> mappings;
+    private MerchantMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        names = MerchantMatcherCorpus.names();
+        ruleList = MerchantMatcherCorpus.rules(names, rules, 17L);
+        mappings = MerchantMatcherCorpus.toMappings(ruleList);
+        matcher = MerchantMatcher.build(ruleList);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void linear(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(MerchantMatcherCorpus.linearMatch(mappings, name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NAMES)
+    public void indexed(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(matcher.match(name));
+        }
+    }
+
+    @Benchmark
+    public MerchantMatcher build() {
+        return MerchantMatcher.build(ruleList);
+    }
+
+    @Test
+    @DisplayName("Run merchant matching benchmark")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MerchantMatcherBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
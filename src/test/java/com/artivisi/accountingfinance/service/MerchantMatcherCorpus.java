@@ -0,0 +1,95 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.MerchantMatchRuleDto;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Benchmark corpus of 10,000 merchant names as they come out of receipts
+ * ({@code benchmark/merchant-names.txt}), and mapping rules generated from it.
+ */
+final class MerchantMatcherCorpus {
+
+    private static final String[] REGEXES = {
+            "^SPBU \\d{2}\\.\\d{3}", "^(QRIS|EDC) BCA", "\\bT\\d{3}-", "^PT .*Indonesia$", "(food|ride|car)$",
+            "^TRF (BRI|BNI) 1", "coffee|kopi", "^Toko .* Bandung$", "\\d{2}$", "^Warung\\s+Bu"
+    };
+
+    private MerchantMatcherCorpus() {
+    }
+
+    static List<String> names() {
+        try (InputStream in = MerchantMatcherCorpus.class.getResourceAsStream("/benchmark/merchant-names.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("benchmark/merchant-names.txt not found");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@code count} rules in priority order: about 30% EXACT names (in varied case), 60%
+     * CONTAINS fragments of names and 10% REGEX, so names hit every tier and overlap.
+     */
+    static List<MerchantMatchRuleDto> rules(List<String> names, int count, long seed) {
+        Random random = new Random(seed);
+        List<MerchantMatchRuleDto> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            double kind = random.nextDouble();
+            MerchantMatchRuleDto rule;
+            if (kind < 0.3) {
+                String pattern = random.nextBoolean() ? name.toUpperCase(Locale.ROOT) : name;
+                rule = rule(pattern, MerchantMapping.MatchType.EXACT, random);
+            } else if (kind < 0.9) {
+                int length = Math.min(name.length(), 3 + random.nextInt(10));
+                int start = random.nextInt(name.length() - length + 1);
+                rule = rule(name.substring(start, start + length), MerchantMapping.MatchType.CONTAINS, random);
+            } else {
+                rule = rule(REGEXES[random.nextInt(REGEXES.length)], MerchantMapping.MatchType.REGEX, random);
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    private static MerchantMatchRuleDto rule(String pattern, MerchantMapping.MatchType type, Random random) {
+        return new MerchantMatchRuleDto(new UUID(random.nextLong(), random.nextLong()), pattern, type);
+    }
+
+    /**
+     * The lookup the matcher replaced: exact rules, then contains rules, then each regex
+     * compiled on the spot, using {@link MerchantMapping#matches}.
+     */
+    static UUID linearMatch(List<MerchantMapping> mappings, String merchantName) {
+        for (MerchantMapping.MatchType type : MerchantMapping.MatchType.values()) {
+            for (MerchantMapping mapping : mappings) {
+                if (mapping.getMatchType() == type && mapping.matches(merchantName)) {
+                    return mapping.getId();
+                }
+            }
+        }
+        return null;
+    }
+
+    static List<MerchantMapping> toMappings(List<MerchantMatchRuleDto> rules) {
+        return rules.stream().map(rule -> {
+            MerchantMapping mapping = new MerchantMapping();
+            mapping.setId(rule.id());
+            mapping.setMerchantPattern(rule.merchantPattern());
+            mapping.setMatchType(rule.matchType());
+            return mapping;
+        }).toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
+import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("MerchantMatcherIndex Integration Tests")
+class MerchantMatcherIndexTest {
+
+    @Autowired
+    private MerchantMatcherIndex merchantMatcherIndex;
+
+    @Autowired
+    private MerchantMappingRepository merchantMappingRepository;
+
+    @Autowired
+    private JournalTemplateRepository journalTemplateRepository;
+
+    private JournalTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        template = journalTemplateRepository.findAll().getFirst();
+    }
+
+    @Nested
+    @DisplayName("Rebuild Tests")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should match a mapping saved after the index was built")
+        void shouldMatchNewMapping() {
+            assertThat(merchantMatcherIndex.findMatch("Kopi Kenangan Kemang")).isEmpty();
+
+            MerchantMapping mapping = save("kopi kenangan", MerchantMapping.MatchType.CONTAINS);
+
+            assertThat(merchantMatcherIndex.findMatch("Kopi Kenangan Kemang")).contains(mapping.getId());
+        }
+
+        @Test
+        @DisplayName("Should follow a pattern change")
+        void shouldFollowPatternChange() {
+            MerchantMapping mapping = save("Kopi Kenangan", MerchantMapping.MatchType.EXACT);
+            assertThat(merchantMatcherIndex.findMatch("KOPI KENANGAN")).contains(mapping.getId());
+
+            mapping.setMerchantPattern("Janji Jiwa");
+            merchantMappingRepository.saveAndFlush(mapping);
+
+            assertThat(merchantMatcherIndex.findMatch("KOPI KENANGAN")).isEmpty();
+            assertThat(merchantMatcherIndex.findMatch("janji jiwa")).contains(mapping.getId());
+        }
+
+        @Test
+        @DisplayName("Should keep the matcher when only the match count changes")
+        void shouldKeepMatcherOnMatchCountChange() {
+            MerchantMapping mapping = save("^SPBU \\d+", MerchantMapping.MatchType.REGEX);
+            MerchantMatcher before = merchantMatcherIndex.matcher();
+
+            mapping.incrementMatchCount();
+            merchantMappingRepository.saveAndFlush(mapping);
+
+            assertThat(merchantMatcherIndex.matcher()).isSameAs(before);
+            assertThat(merchantMatcherIndex.findMatch("SPBU 34.123.45")).contains(mapping.getId());
+        }
+
+        @Test
+        @DisplayName("Should stop matching a deleted mapping")
+        void shouldDropDeletedMapping() {
+            MerchantMapping mapping = save("Mie Gacoan", MerchantMapping.MatchType.EXACT);
+            assertThat(merchantMatcherIndex.findMatch("Mie Gacoan")).contains(mapping.getId());
+
+            merchantMappingRepository.delete(mapping);
+            merchantMappingRepository.flush();
+
+            assertThat(merchantMatcherIndex.findMatch("Mie Gacoan")).isEmpty();
+        }
+    }
+
+    private MerchantMapping save(String pattern, MerchantMapping.MatchType matchType) {
+        MerchantMapping mapping = new MerchantMapping();
+        mapping.setMerchantPattern(pattern);
+        mapping.setMatchType(matchType);
+        mapping.setTemplate(template);
+        return merchantMappingRepository.saveAndFlush(mapping);
+    }
+}
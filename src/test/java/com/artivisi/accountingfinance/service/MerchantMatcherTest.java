@@ -0,0 +1,139 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.MerchantMatchRuleDto;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MerchantMatcher Tests")
+class MerchantMatcherTest {
+
+    private static final UUID EXACT_ID = UUID.randomUUID();
+    private static final UUID CONTAINS_ID = UUID.randomUUID();
+    private static final UUID REGEX_ID = UUID.randomUUID();
+
+    @Nested
+    @DisplayName("Priority Tests")
+    class PriorityTests {
+
+        @Test
+        @DisplayName("Should prefer exact over contains over regex")
+        void shouldPreferExactOverContainsOverRegex() {
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(REGEX_ID, "^indo", MerchantMapping.MatchType.REGEX),
+                    rule(CONTAINS_ID, "maret", MerchantMapping.MatchType.CONTAINS),
+                    rule(EXACT_ID, "Indomaret Kemang", MerchantMapping.MatchType.EXACT)));
+
+            assertThat(matcher.match("INDOMARET KEMANG")).contains(EXACT_ID);
+            assertThat(matcher.match("Indomaret Blok M")).contains(CONTAINS_ID);
+            assertThat(matcher.match("Indosat")).contains(REGEX_ID);
+            assertThat(matcher.match("Alfamart")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should pick the first contains rule even when a later one matches earlier in the name")
+        void shouldPickFirstContainsRule() {
+            UUID later = UUID.randomUUID();
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(CONTAINS_ID, "kemang", MerchantMapping.MatchType.CONTAINS),
+                    rule(later, "indomaret", MerchantMapping.MatchType.CONTAINS)));
+
+            assertThat(matcher.match("Indomaret Kemang")).contains(CONTAINS_ID);
+            assertThat(matcher.match("Indomaret Blok M")).contains(later);
+        }
+
+        @Test
+        @DisplayName("Should find patterns inside other patterns through failure links")
+        void shouldFindOverlappingPatterns() {
+            UUID alfamart = UUID.randomUUID();
+            UUID hypermarket = UUID.randomUUID();
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(CONTAINS_ID, "mart", MerchantMapping.MatchType.CONTAINS),
+                    rule(alfamart, "alfamart", MerchantMapping.MatchType.CONTAINS),
+                    rule(hypermarket, "hypermarket", MerchantMapping.MatchType.CONTAINS)));
+
+            assertThat(matcher.match("ALFAMARTA")).contains(CONTAINS_ID);
+            assertThat(matcher.match("Hypermarket Puri")).contains(hypermarket);
+            assertThat(matcher.match("Hypermart Puri")).contains(CONTAINS_ID);
+            assertThat(matcher.match("Alfamidi")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should match contains patterns literally")
+        void shouldMatchContainsLiterally() {
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(CONTAINS_ID, "a&w", MerchantMapping.MatchType.CONTAINS),
+                    rule(REGEX_ID, "50%", MerchantMapping.MatchType.CONTAINS)));
+
+            assertThat(matcher.match("A&W Senayan")).contains(CONTAINS_ID);
+            assertThat(matcher.match("Diskon 50% Store")).contains(REGEX_ID);
+            assertThat(matcher.match("Diskon 500 Store")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Rule Tests")
+    class RuleTests {
+
+        @Test
+        @DisplayName("Should skip regex that does not compile")
+        void shouldSkipInvalidRegex() {
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(UUID.randomUUID(), "([unclosed", MerchantMapping.MatchType.REGEX),
+                    rule(REGEX_ID, "^grab", MerchantMapping.MatchType.REGEX)));
+
+            assertThat(matcher.match("GrabFood")).contains(REGEX_ID);
+        }
+
+        @Test
+        @DisplayName("Should report whether a mapping is held with its current pattern")
+        void shouldReportHeldMappings() {
+            MerchantMatcher matcher = MerchantMatcher.build(List.of(
+                    rule(EXACT_ID, "Shell", MerchantMapping.MatchType.EXACT)));
+
+            assertThat(matcher.contains(EXACT_ID, "Shell", MerchantMapping.MatchType.EXACT)).isTrue();
+            assertThat(matcher.contains(EXACT_ID, "Shell", MerchantMapping.MatchType.CONTAINS)).isFalse();
+            assertThat(matcher.contains(EXACT_ID, "Pertamina", MerchantMapping.MatchType.EXACT)).isFalse();
+            assertThat(matcher.contains(CONTAINS_ID, "Shell", MerchantMapping.MatchType.EXACT)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should match nothing without rules")
+        void shouldMatchNothingWithoutRules() {
+            MerchantMatcher matcher = MerchantMatcher.build(List.of());
+
+            assertThat(matcher.match("Indomaret")).isEmpty();
+            assertThat(matcher.match(null)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should match the benchmark corpus like the linear lookup")
+    void shouldMatchCorpusLikeLinearLookup() {
+        List<String> names = MerchantMatcherCorpus.names();
+        List<MerchantMatchRuleDto> rules = MerchantMatcherCorpus.rules(names, 1000, 17L);
+        List<MerchantMapping> mappings = MerchantMatcherCorpus.toMappings(rules);
+        MerchantMatcher matcher = MerchantMatcher.build(rules);
+
+        int matched = 0;
+        for (String name : names) {
+            UUID expected = MerchantMatcherCorpus.linearMatch(mappings, name);
+            assertThat(matcher.match(name).orElse(null)).as(name).isEqualTo(expected);
+            if (expected != null) {
+                matched++;
+            }
+        }
+        assertThat(names).hasSize(10_000);
+        assertThat(matched).isBetween(names.size() / 4, names.size() - 1);
+    }
+
+    private static MerchantMatchRuleDto rule(UUID id, String pattern, MerchantMapping.MatchType type) {
+        return new MerchantMatchRuleDto(id, pattern, type);
+    }
+}
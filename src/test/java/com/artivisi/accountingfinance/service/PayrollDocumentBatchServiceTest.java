@@ -0,0 +1,181 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.PayrollDetail;
+import com.artivisi.accountingfinance.entity.PayrollRun;
+import com.artivisi.accountingfinance.repository.PayrollRunRepository;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for PayrollDocumentBatchService.
+ * Payroll is posted for two months of a year far from the seeded test data.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("PayrollDocumentBatchService - Bulk Documents")
+class PayrollDocumentBatchServiceTest {
+
+    private static final int YEAR = 2032;
+
+    // Approved payroll run from V909__payroll_approved_test_data.sql
+    private static final UUID APPROVED_PAYROLL_RUN_ID = UUID.fromString("a0000000-0000-0000-0000-000000000001");
+
+    @Autowired
+    private PayrollDocumentBatchService payrollDocumentBatchService;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    private void postPayroll(YearMonth period, BigDecimal baseSalary) {
+        PayrollRun payrollRun = payrollService.createPayrollRun(period);
+        payrollService.calculatePayroll(payrollRun.getId(), baseSalary, 1);
+        payrollService.approvePayroll(payrollRun.getId());
+        payrollService.postPayroll(payrollRun.getId());
+    }
+
+    private static Map<String, byte[]> unzip(byte[] archive) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static String text(byte[] pdf) throws IOException {
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            return new PdfTextExtractor(reader).getTextFromPage(1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Yearly Summaries")
+    class YearlySummaryTests {
+
+        @Test
+        @DisplayName("Grouped summaries should match the per-employee summaries")
+        void groupedSummariesShouldMatchPerEmployee() {
+            postPayroll(YearMonth.of(YEAR, 1), new BigDecimal("10000000"));
+            postPayroll(YearMonth.of(YEAR, 2), new BigDecimal("12500000"));
+
+            List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(YEAR);
+
+            assertThat(summaries).isNotEmpty()
+                    .extracting(s -> s.employee().getEmployeeId())
+                    .isSorted();
+            for (PayrollService.YearlyPayrollSummary summary : summaries) {
+                var expected = payrollService.getYearlyPayrollSummary(summary.employee().getId(), YEAR);
+                assertThat(summary.monthCount()).isEqualTo(2);
+                assertThat(List.of(summary.totalGross(), summary.totalBpjsEmployee(), summary.totalPph21()))
+                        .isEqualTo(List.of(expected.totalGross(), expected.totalBpjsEmployee(), expected.totalPph21()));
+            }
+        }
+
+        @Test
+        @DisplayName("Should return no summaries for a year without posted payroll")
+        void shouldReturnEmptyForYearWithoutPayroll() {
+            assertThat(payrollService.getYearlyPayrollSummaries(YEAR + 1)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("1721-A1 Archive")
+    class BuktiPotongArchiveTests {
+
+        @Test
+        @DisplayName("Should write one 1721-A1 per employee in employee order")
+        void shouldWriteOneDocumentPerEmployee() throws IOException {
+            postPayroll(YearMonth.of(YEAR, 1), new BigDecimal("10000000"));
+            List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(YEAR);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PayrollDocumentBatchService.BatchResult result =
+                    payrollDocumentBatchService.writeBuktiPotongArchive(YEAR, out);
+
+            Map<String, byte[]> entries = unzip(out.toByteArray());
+            assertThat(entries.keySet()).containsExactlyElementsOf(summaries.stream()
+                    .map(s -> "1721-A1-" + s.employee().getEmployeeId() + "-" + YEAR + ".pdf")
+                    .toList());
+            int i = 0;
+            for (byte[] pdf : entries.values()) {
+                assertThat(new String(pdf, 0, 4)).isEqualTo("%PDF");
+                assertThat(text(pdf)).contains(summaries.get(i++).employee().getName());
+            }
+            assertThat(result.documents()).isEqualTo(summaries.size());
+            assertThat(result.pages()).isGreaterThanOrEqualTo(summaries.size());
+        }
+
+        @Test
+        @DisplayName("Should write an empty archive for a year without posted payroll")
+        void shouldWriteEmptyArchive() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PayrollDocumentBatchService.BatchResult result =
+                    payrollDocumentBatchService.writeBuktiPotongArchive(YEAR + 1, out);
+
+            assertThat(unzip(out.toByteArray())).isEmpty();
+            assertThat(result.documents()).isZero();
+            assertThat(result.pagesPerSecond()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Payslip Archive")
+    class PayslipArchiveTests {
+
+        @Test
+        @DisplayName("Should write one payslip per employee of the payroll run")
+        void shouldWriteOnePayslipPerEmployee() throws IOException {
+            PayrollRun payrollRun = payrollRunRepository.findById(APPROVED_PAYROLL_RUN_ID).orElseThrow();
+            List<PayrollDetail> details = payrollService.getPayrollDetails(APPROVED_PAYROLL_RUN_ID);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            PayrollDocumentBatchService.BatchResult result =
+                    payrollDocumentBatchService.writePayslipArchive(payrollRun, out);
+
+            Map<String, byte[]> entries = unzip(out.toByteArray());
+            assertThat(entries.keySet()).containsExactlyElementsOf(details.stream()
+                    .map(d -> "slip-gaji-" + d.getEmployeeId() + "-" + payrollRun.getPayrollPeriod() + ".pdf")
+                    .toList());
+            int i = 0;
+            for (byte[] pdf : entries.values()) {
+                assertThat(text(pdf)).contains(details.get(i++).getEmployeeName());
+            }
+            assertThat(result.documents()).isEqualTo(details.size());
+            assertThat(result.pages()).isEqualTo(details.size());
+        }
+    }
+}
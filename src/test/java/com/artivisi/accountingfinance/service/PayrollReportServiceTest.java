@@ -17,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -80,7 +81,9 @@ class PayrollReportServiceTest {
     @Test
     @DisplayName("Should export payroll summary to Excel")
     void shouldExportPayrollSummaryToExcel() throws Exception {
-        byte[] excel = payrollReportService.exportPayrollSummaryToExcel(testPayrollRun, testDetails);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        payrollReportService.exportPayrollSummaryToExcel(testPayrollRun, testDetails, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         assertThat(excel.length).isGreaterThan(0);
@@ -117,7 +120,9 @@ class PayrollReportServiceTest {
     @Test
     @DisplayName("Should export PPh 21 report to Excel")
     void shouldExportPph21ReportToExcel() throws Exception {
-        byte[] excel = payrollReportService.exportPph21ReportToExcel(testPayrollRun, testDetails);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        payrollReportService.exportPph21ReportToExcel(testPayrollRun, testDetails, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         assertThat(excel.length).isGreaterThan(0);
@@ -143,7 +148,9 @@ class PayrollReportServiceTest {
     @Test
     @DisplayName("Should export BPJS report to Excel")
     void shouldExportBpjsReportToExcel() throws Exception {
-        byte[] excel = payrollReportService.exportBpjsReportToExcel(testPayrollRun, testDetails);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        payrollReportService.exportBpjsReportToExcel(testPayrollRun, testDetails, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         assertThat(excel.length).isGreaterThan(0);
@@ -2,14 +2,24 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.entity.Employee;
+import com.artivisi.accountingfinance.entity.EmploymentStatus;
+import com.artivisi.accountingfinance.entity.EmploymentType;
 import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.PayrollDetail;
 import com.artivisi.accountingfinance.entity.PayrollRun;
 import com.artivisi.accountingfinance.entity.PayrollStatus;
+import com.artivisi.accountingfinance.entity.PtkpStatus;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.EmployeeRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import com.artivisi.accountingfinance.repository.PayrollDetailRepository;
 import com.artivisi.accountingfinance.repository.PayrollRunRepository;
+import com.artivisi.accountingfinance.service.PayrollCalculationEngine.PayrollProgress;
+import com.artivisi.accountingfinance.service.PayrollCalculationEngine.Stage;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,7 +30,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -336,4 +348,184 @@ class PayrollServiceTest {
             assertThat(transaction.getAmount()).isEqualByComparingTo(expectedTotalGross);
         }
     }
+
+    @Nested
+    @DisplayName("Parallel Calculation Tests")
+    class ParallelCalculationTests {
+
+        private static final BigDecimal BASE_SALARY = new BigDecimal("15750000");
+        private static final int JKK_RISK_CLASS = 3;
+
+        @Autowired
+        private PayrollCalculationEngine payrollCalculationEngine;
+
+        @Autowired
+        private BpjsCalculationService bpjsCalculationService;
+
+        @Autowired
+        private Pph21CalculationService pph21CalculationService;
+
+        @Autowired
+        private EmployeeRepository employeeRepository;
+
+        @Autowired
+        private PayrollDetailRepository payrollDetailRepository;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        @Test
+        @DisplayName("Parallel partitions should return the same details as the pre-partitioning calculation")
+        void parallelCalculationShouldMatchSequential() {
+            createEmployees(23);
+            List<Employee> employees = activeEmployees();
+
+            List<PayrollDetail> parallel = payrollCalculationEngine.calculate(
+                    employees, BASE_SALARY, JKK_RISK_CLASS, progress -> { });
+
+            assertThat(payrollCalculationEngine.getWorkers()).isGreaterThan(1);
+            assertThat(parallel).hasSameSizeAs(employees);
+            for (int i = 0; i < employees.size(); i++) {
+                PayrollDetail expected = calculateEmployeePayroll(employees.get(i), BASE_SALARY, JKK_RISK_CLASS);
+                assertThat(parallel.get(i).getEmployee()).isSameAs(employees.get(i));
+                assertThat(values(parallel.get(i))).isEqualTo(values(expected));
+            }
+        }
+
+        @Test
+        @DisplayName("calculatePayroll should produce the same details and totals as the pre-partitioning calculation")
+        void calculatePayrollShouldMatchSequentialEngine() {
+            createEmployees(23);
+            PayrollRun sequential = calculateSequentially();
+
+            PayrollRun payrollRun = payrollService.createPayrollRun(YearMonth.of(2031, 2));
+            PayrollRun parallel = payrollService.calculatePayroll(payrollRun.getId(), BASE_SALARY, JKK_RISK_CLASS);
+
+            // In-memory details: values reloaded from the database always have scale 2
+            assertThat(valuesByEmployee(parallel.getDetails())).hasSizeGreaterThan(23)
+                    .isEqualTo(valuesByEmployee(sequential.getDetails()));
+            assertThat(List.of(parallel.getTotalGross(), parallel.getTotalDeductions(), parallel.getTotalNetPay(),
+                    parallel.getTotalCompanyBpjs(), parallel.getTotalPph21(), parallel.getEmployeeCount()))
+                    .isEqualTo(List.of(sequential.getTotalGross(), sequential.getTotalDeductions(),
+                            sequential.getTotalNetPay(), sequential.getTotalCompanyBpjs(),
+                            sequential.getTotalPph21(), sequential.getEmployeeCount()));
+        }
+
+        @Test
+        @DisplayName("Recalculating should replace the stored details")
+        void recalculateShouldReplaceDetails() {
+            PayrollRun payrollRun = payrollService.createPayrollRun(YearMonth.of(2031, 3));
+            payrollService.calculatePayroll(payrollRun.getId(), new BigDecimal("8000000"), 1);
+            createEmployees(2);
+
+            PayrollRun recalculated = payrollService.calculatePayroll(payrollRun.getId(), BASE_SALARY, JKK_RISK_CLASS);
+            entityManager.flush();
+            entityManager.clear();
+
+            List<PayrollDetail> details = payrollDetailRepository.findByPayrollRunId(recalculated.getId());
+            assertThat(details).hasSize(activeEmployees().size())
+                    .allSatisfy(d -> assertThat(d.getBaseSalary()).isEqualByComparingTo(BASE_SALARY));
+            assertThat(recalculated.getEmployeeCount()).isEqualTo(details.size());
+        }
+
+        @Test
+        @DisplayName("calculatePayroll should report progress of every stage")
+        void calculatePayrollShouldReportProgress() {
+            createEmployees(10);
+            int employeeCount = activeEmployees().size();
+            PayrollRun payrollRun = payrollService.createPayrollRun(YearMonth.of(2031, 4));
+            List<PayrollProgress> progress = new ArrayList<>();
+
+            payrollService.calculatePayroll(payrollRun.getId(), BASE_SALARY, JKK_RISK_CLASS, progress::add);
+
+            assertThat(progress).extracting(PayrollProgress::stage).containsSubsequence(
+                    Stage.LOAD, Stage.CALCULATE, Stage.PERSIST);
+            assertThat(progress).filteredOn(p -> p.stage() == Stage.PERSIST)
+                    .hasSize((employeeCount + 6) / 7)
+                    .last().satisfies(p -> assertThat(p.completed()).isTrue());
+            assertThat(progress).filteredOn(PayrollProgress::completed)
+                    .extracting(PayrollProgress::stage)
+                    .containsExactly(Stage.LOAD, Stage.CALCULATE, Stage.PERSIST);
+            assertThat(progress).allSatisfy(p -> assertThat(p.total()).isEqualTo(employeeCount));
+        }
+
+        /**
+         * The calculation before partitioning: one employee after another, in memory only.
+         */
+        private PayrollRun calculateSequentially() {
+            PayrollRun payrollRun = new PayrollRun();
+            for (Employee employee : activeEmployees()) {
+                payrollRun.addDetail(calculateEmployeePayroll(employee, BASE_SALARY, JKK_RISK_CLASS));
+            }
+            payrollRun.calculateTotals();
+            return payrollRun;
+        }
+
+        /**
+         * Verbatim copy of PayrollService.calculateEmployeePayroll before it moved to
+         * PayrollCalculationEngine, the reference the engine is checked against.
+         */
+        private PayrollDetail calculateEmployeePayroll(Employee employee, BigDecimal baseSalary, int jkkRiskClass) {
+            PayrollDetail detail = new PayrollDetail();
+            detail.setEmployee(employee);
+            detail.setBaseSalary(baseSalary);
+            detail.setGrossSalary(baseSalary); // For now, gross = base (can add allowances later)
+            detail.setJkkRiskClass(jkkRiskClass);
+
+            // Calculate BPJS
+            var bpjsResult = bpjsCalculationService.calculate(baseSalary, jkkRiskClass);
+            detail.setBpjsKesCompany(bpjsResult.kesehatanCompany());
+            detail.setBpjsKesEmployee(bpjsResult.kesehatanEmployee());
+            detail.setBpjsJkk(bpjsResult.jkk());
+            detail.setBpjsJkm(bpjsResult.jkm());
+            detail.setBpjsJhtCompany(bpjsResult.jhtCompany());
+            detail.setBpjsJhtEmployee(bpjsResult.jhtEmployee());
+            detail.setBpjsJpCompany(bpjsResult.jpCompany());
+            detail.setBpjsJpEmployee(bpjsResult.jpEmployee());
+
+            // Calculate PPh 21
+            boolean hasNpwp = employee.getNpwp() != null && !employee.getNpwp().isBlank();
+            var pph21Result = pph21CalculationService.calculate(baseSalary, employee.getPtkpStatus(), hasNpwp);
+            detail.setPph21(pph21Result.monthlyPph21());
+
+            // Calculate totals
+            detail.calculateTotals();
+
+            return detail;
+        }
+
+        private List<Employee> activeEmployees() {
+            return employeeRepository.findByActiveTrueAndEmploymentStatus(EmploymentStatus.ACTIVE);
+        }
+
+        private void createEmployees(int count) {
+            PtkpStatus[] statuses = PtkpStatus.values();
+            for (int i = 0; i < count; i++) {
+                Employee employee = new Employee();
+                employee.setEmployeeId("PAR-" + UUID.randomUUID().toString().substring(0, 8));
+                employee.setName("Parallel Employee " + i);
+                employee.setHireDate(LocalDate.of(2025, 1, 1));
+                employee.setEmploymentType(EmploymentType.PERMANENT);
+                employee.setEmploymentStatus(EmploymentStatus.ACTIVE);
+                employee.setPtkpStatus(statuses[i % statuses.length]);
+                if (i % 3 != 0) {
+                    employee.setNpwp("12.345.678.9-012." + String.format("%03d", i));
+                }
+                employeeRepository.save(employee);
+            }
+        }
+
+        private static Map<UUID, List<Object>> valuesByEmployee(List<PayrollDetail> details) {
+            return details.stream()
+                    .collect(Collectors.toMap(d -> d.getEmployee().getId(), PayrollServiceTest::values));
+        }
+    }
+
+    // Compared with equals, so a different scale counts as a difference
+    private static List<Object> values(PayrollDetail detail) {
+        return List.of(detail.getBaseSalary(), detail.getGrossSalary(), detail.getJkkRiskClass(),
+                detail.getBpjsKesCompany(), detail.getBpjsKesEmployee(), detail.getBpjsJkk(), detail.getBpjsJkm(),
+                detail.getBpjsJhtCompany(), detail.getBpjsJhtEmployee(), detail.getBpjsJpCompany(),
+                detail.getBpjsJpEmployee(), detail.getPph21(), detail.getTotalDeductions(), detail.getNetPay());
+    }
 }
@@ -0,0 +1,103 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.enums.NormalBalance;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProfitabilityCube Tests")
+class ProfitabilityCubeTest {
+
+    private static final UUID PROJECT_A = UUID.randomUUID();
+    private static final UUID PROJECT_B = UUID.randomUUID();
+
+    private final ChartOfAccount consulting = account("4.1.01", AccountType.REVENUE, NormalBalance.CREDIT);
+    private final ChartOfAccount development = account("4.1.02", AccountType.REVENUE, NormalBalance.CREDIT);
+    private final ChartOfAccount salary = account("5.1.01", AccountType.EXPENSE, NormalBalance.DEBIT);
+    private final ChartOfAccount server = account("5.1.02", AccountType.EXPENSE, NormalBalance.DEBIT);
+
+    private final ProfitabilityCube cube = new ProfitabilityCube(accounts(consulting, development, salary, server));
+
+    @Test
+    @DisplayName("Should keep balances on the normal side of each account")
+    void shouldUseNormalBalance() {
+        cube.add(PROJECT_A, consulting.getId(), amount(1_000), amount(11_000));
+        cube.add(PROJECT_A, salary.getId(), amount(8_000), amount(500));
+
+        assertThat(cube.total(PROJECT_A, AccountType.REVENUE)).isEqualByComparingTo("10000");
+        assertThat(cube.total(PROJECT_A, AccountType.EXPENSE)).isEqualByComparingTo("7500");
+    }
+
+    @Test
+    @DisplayName("Should list non-zero accounts in account code order")
+    void shouldListItemsInAccountOrder() {
+        cube.add(PROJECT_A, development.getId(), BigDecimal.ZERO, amount(15_000));
+        cube.add(PROJECT_A, consulting.getId(), BigDecimal.ZERO, amount(10_000));
+        cube.add(PROJECT_A, server.getId(), amount(2_000), amount(2_000));
+
+        assertThat(cube.items(PROJECT_A, AccountType.REVENUE))
+                .extracting(item -> item.account().getAccountCode())
+                .containsExactly("4.1.01", "4.1.02");
+        assertThat(cube.items(PROJECT_A, AccountType.EXPENSE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep projects apart and sum them on request")
+    void shouldSeparateProjects() {
+        cube.add(PROJECT_A, consulting.getId(), BigDecimal.ZERO, amount(10_000));
+        cube.add(PROJECT_B, consulting.getId(), BigDecimal.ZERO, amount(4_000));
+
+        assertThat(cube.total(PROJECT_B, AccountType.REVENUE)).isEqualByComparingTo("4000");
+        assertThat(cube.total(List.of(PROJECT_A, PROJECT_B), AccountType.REVENUE)).isEqualByComparingTo("14000");
+        assertThat(cube.total(UUID.randomUUID(), AccountType.REVENUE)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should ignore lines on accounts outside the cube")
+    void shouldIgnoreOtherAccounts() {
+        cube.add(PROJECT_A, UUID.randomUUID(), amount(10_000), BigDecimal.ZERO);
+
+        assertThat(cube.items(PROJECT_A, AccountType.REVENUE)).isEmpty();
+        assertThat(cube.total(PROJECT_A, AccountType.EXPENSE)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should leave credited expense accounts out of the positive total")
+    void shouldOnlyAddPositiveBalances() {
+        cube.add(PROJECT_A, salary.getId(), amount(8_000), BigDecimal.ZERO);
+        cube.add(PROJECT_A, server.getId(), BigDecimal.ZERO, amount(1_000));
+
+        assertThat(cube.total(PROJECT_A, AccountType.EXPENSE)).isEqualByComparingTo("7000");
+        assertThat(cube.positiveTotal(PROJECT_A, AccountType.EXPENSE)).isEqualByComparingTo("8000");
+    }
+
+    private static BigDecimal amount(long value) {
+        return BigDecimal.valueOf(value);
+    }
+
+    private static ChartOfAccount account(String code, AccountType type, NormalBalance normalBalance) {
+        ChartOfAccount account = new ChartOfAccount();
+        account.setId(UUID.randomUUID());
+        account.setAccountCode(code);
+        account.setAccountType(type);
+        account.setNormalBalance(normalBalance);
+        return account;
+    }
+
+    private static Map<UUID, ChartOfAccount> accounts(ChartOfAccount... accounts) {
+        Map<UUID, ChartOfAccount> map = new LinkedHashMap<>();
+        for (ChartOfAccount account : accounts) {
+            map.put(account.getId(), account);
+        }
+        return map;
+    }
+}
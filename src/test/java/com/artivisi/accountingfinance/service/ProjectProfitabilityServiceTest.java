@@ -18,11 +18,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Integration tests for ProjectProfitabilityService.
@@ -255,4 +257,100 @@ class ProjectProfitabilityServiceTest {
             );
         }
     }
+
+    @Nested
+    @DisplayName("Profitability Cube")
+    class ProfitabilityCubeTests {
+
+        // Test data from V905__profitability_test_data.sql
+        private static final UUID WEBSITE_PROJECT_ID = UUID.fromString("a0500000-0000-0000-0000-000000000001");
+        private static final UUID ABC_CLIENT_ID = UUID.fromString("c0500000-0000-0000-0000-000000000001");
+        private static final LocalDate START = LocalDate.of(2024, 1, 1);
+        private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+        @Test
+        @DisplayName("Should report project revenue and expense per account")
+        void shouldReportProjectPerAccount() {
+            ProjectProfitabilityService.ProjectProfitabilityReport report =
+                    profitabilityService.calculateProjectProfitability(WEBSITE_PROJECT_ID, START, END);
+
+            assertThat(report.revenueItems())
+                    .extracting(item -> item.account().getAccountCode(), ProjectProfitabilityService.ProfitabilityLineItem::amount)
+                    .containsExactly(
+                            tuple("4.1.01", new BigDecimal("10000000.00")),
+                            tuple("4.1.02", new BigDecimal("15000000.00")));
+            assertThat(report.totalRevenue()).isEqualByComparingTo("25000000");
+            assertThat(report.totalExpense()).isEqualByComparingTo("10000000");
+            assertThat(report.profitMargin()).isEqualByComparingTo("60.00");
+        }
+
+        @Test
+        @DisplayName("Should report every project of a client from one cube")
+        void shouldReportClientProjects() {
+            ProjectProfitabilityService.ClientProfitabilityReport report =
+                    profitabilityService.calculateClientProfitability(ABC_CLIENT_ID, START, END);
+
+            assertThat(report.projects()).hasSize(2);
+            assertThat(report.totalRevenue()).isEqualByComparingTo("37000000");
+            assertThat(report.totalProfit()).isEqualByComparingTo("19000000");
+            assertThat(report.overallMargin()).isEqualByComparingTo("51.35");
+        }
+
+        @Test
+        @DisplayName("Should rank clients with the same totals as their reports")
+        void shouldRankClientsWithReportTotals() {
+            List<ProjectProfitabilityService.ClientRankingItem> rankings =
+                    profitabilityService.getClientRanking(START, END, 0);
+
+            assertThat(rankings)
+                    .filteredOn(item -> item.client().getId().equals(ABC_CLIENT_ID))
+                    .singleElement()
+                    .satisfies(item -> {
+                        assertThat(item.totalRevenue()).isEqualByComparingTo("37000000");
+                        assertThat(item.totalProfit()).isEqualByComparingTo("19000000");
+                    });
+            assertThat(rankings)
+                    .noneMatch(item -> item.client().getId().equals(UUID.fromString("c0500000-0000-0000-0000-000000000003")));
+        }
+
+        @Test
+        @DisplayName("Should break project profitability down by month")
+        void shouldBreakProjectDownByMonth() {
+            List<ProjectProfitabilityService.MonthlyProfitability> trend =
+                    profitabilityService.calculateProjectMonthlyTrend(WEBSITE_PROJECT_ID, START, END);
+
+            assertThat(trend).extracting(ProjectProfitabilityService.MonthlyProfitability::month)
+                    .containsExactly(YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3),
+                            YearMonth.of(2024, 4), YearMonth.of(2024, 5), YearMonth.of(2024, 6));
+            assertThat(trend.get(0).revenue()).isEqualByComparingTo("0");
+            assertThat(trend.get(1).revenue()).isEqualByComparingTo("15000000");
+            assertThat(trend.get(2).expense()).isEqualByComparingTo("8000000");
+            assertThat(trend.get(3).profit()).isEqualByComparingTo("8000000");
+            BigDecimal totalProfit = trend.stream()
+                    .map(ProjectProfitabilityService.MonthlyProfitability::profit)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(totalProfit).isEqualByComparingTo("15000000");
+        }
+
+        @Test
+        @DisplayName("Should break client profitability down by month")
+        void shouldBreakClientDownByMonth() {
+            List<ProjectProfitabilityService.MonthlyProfitability> trend =
+                    profitabilityService.calculateClientMonthlyTrend(ABC_CLIENT_ID, START, END);
+
+            assertThat(trend).hasSize(6);
+            assertThat(trend.get(4).revenue()).isEqualByComparingTo("12000000");
+            assertThat(trend.get(4).expense()).isEqualByComparingTo("8000000");
+        }
+
+        @Test
+        @DisplayName("Should throw exception for the trend of a non-existent project")
+        void shouldThrowForTrendOfNonExistentProject() {
+            UUID randomId = UUID.randomUUID();
+
+            assertThatThrownBy(() -> profitabilityService.calculateProjectMonthlyTrend(randomId, START, END))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessageContaining("Project not found");
+        }
+    }
 }
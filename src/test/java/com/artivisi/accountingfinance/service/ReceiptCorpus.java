@@ -0,0 +1,124 @@
+package com.artivisi.accountingfinance.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Corpus of anonymised OCR receipt texts with their expected parse
+ * ({@code benchmark/receipts.txt}), and the accuracy of a parser over it.
+ *
+ * <p>Each receipt starts with a line {@code @@ type | merchant | amount | date | reference};
+ * an empty field means the value is not on the receipt. Lines starting with {@code #}
+ * before the first receipt are comments.
+ */
+final class ReceiptCorpus {
+
+    private ReceiptCorpus() {
+    }
+
+    record Receipt(String type, String merchant, BigDecimal amount, LocalDate date, String reference, String text) {
+    }
+
+    /**
+     * Share of receipts of one expected type whose fields were parsed as expected.
+     */
+    record Accuracy(String type, int receipts, int typeHits, int merchantHits, int amountHits,
+                    int dateHits, int referenceHits) {
+
+        double rate(int hits) {
+            return receipts == 0 ? 1.0 : (double) hits / receipts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %4d receipts  type %5.1f%%  merchant %5.1f%%  amount %5.1f%%  date %5.1f%%  reference %5.1f%%",
+                    type, receipts, 100 * rate(typeHits), 100 * rate(merchantHits), 100 * rate(amountHits),
+                    100 * rate(dateHits), 100 * rate(referenceHits));
+        }
+    }
+
+    static List<Receipt> receipts() {
+        List<String> lines;
+        try (InputStream in = ReceiptCorpus.class.getResourceAsStream("/benchmark/receipts.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("benchmark/receipts.txt not found");
+            }
+            lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Receipt> receipts = new ArrayList<>();
+        String[] expected = null;
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            if (line.startsWith("@@ ")) {
+                if (expected != null) {
+                    receipts.add(receipt(expected, text));
+                }
+                expected = line.substring(3).split("\\|", -1);
+                text.setLength(0);
+            } else if (expected != null) {
+                text.append(line).append('\n');
+            }
+        }
+        if (expected != null) {
+            receipts.add(receipt(expected, text));
+        }
+        return receipts;
+    }
+
+    private static Receipt receipt(String[] fields, StringBuilder text) {
+        if (fields.length != 5) {
+            throw new IllegalStateException("Expected 5 fields on receipt line: " + String.join("|", fields));
+        }
+        return new Receipt(
+                fields[0].trim(),
+                blankToNull(fields[1]),
+                fields[2].isBlank() ? null : new BigDecimal(fields[2].trim()),
+                fields[3].isBlank() ? null : LocalDate.parse(fields[3].trim()),
+                blankToNull(fields[4]),
+                text.toString());
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Accuracy per expected receipt type, ordered by type.
+     */
+    static Map<String, Accuracy> accuracy(ReceiptParserService parser, List<Receipt> receipts) {
+        Map<String, int[]> hits = new TreeMap<>();
+        for (Receipt receipt : receipts) {
+            ReceiptParserService.ParsedReceipt parsed = parser.parse(receipt.text());
+            int[] counts = hits.computeIfAbsent(receipt.type(), _ -> new int[6]);
+            counts[0]++;
+            if (parsed == null) {
+                continue;
+            }
+            counts[1] += receipt.type().equals(parsed.receiptType()) ? 1 : 0;
+            counts[2] += Objects.equals(receipt.merchant(), parsed.merchantName()) ? 1 : 0;
+            counts[3] += sameAmount(receipt.amount(), parsed.amount()) ? 1 : 0;
+            counts[4] += Objects.equals(receipt.date(), parsed.transactionDate()) ? 1 : 0;
+            counts[5] += Objects.equals(receipt.reference(), parsed.reference()) ? 1 : 0;
+        }
+
+        Map<String, Accuracy> accuracy = new TreeMap<>();
+        hits.forEach((type, c) -> accuracy.put(type, new Accuracy(type, c[0], c[1], c[2], c[3], c[4], c[5])));
+        return accuracy;
+    }
+
+    private static boolean sameAmount(BigDecimal expected, BigDecimal actual) {
+        return expected == null ? actual == null : actual != null && expected.compareTo(actual) == 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReceiptFingerprint Tests")
+class ReceiptFingerprintTest {
+
+    private final ReceiptFingerprint fingerprint = new ReceiptFingerprint(3, List.of(
+            ReceiptFingerprint.Rule.of("byond", "byond"),
+            ReceiptFingerprint.Rule.of("jago", "jago", "syariah"),
+            ReceiptFingerprint.Rule.of("gopay", "gopay"),
+            ReceiptFingerprint.Rule.of("jago", "jago"),
+            ReceiptFingerprint.Rule.of("byond", "bsi"),
+            ReceiptFingerprint.Rule.of("mandiri", "bank mandiri")));
+
+    @Nested
+    @DisplayName("Detection")
+    class DetectionTests {
+
+        @Test
+        @DisplayName("Should match keywords case-insensitively")
+        void shouldMatchCaseInsensitively() {
+            assertThat(fingerprint.detect("GOPAY\nTransfer")).isEqualTo("gopay");
+            assertThat(fingerprint.detect("GoPay\nTransfer")).isEqualTo("gopay");
+        }
+
+        @Test
+        @DisplayName("Should use the first rule whose keywords are all present")
+        void shouldUseFirstMatchingRule() {
+            assertThat(fingerprint.detect("Byond by BSI")).isEqualTo("byond");
+            assertThat(fingerprint.detect("Pembayaran GoPay\nBank Jago")).isEqualTo("gopay");
+            assertThat(fingerprint.detect("Bank Jago\nUnit Syariah\nGoPay")).isEqualTo("jago");
+        }
+
+        @Test
+        @DisplayName("Should collect keywords of one rule across header lines")
+        void shouldCollectKeywordsAcrossLines() {
+            ReceiptFingerprint syariahOnly = new ReceiptFingerprint(3, List.of(
+                    ReceiptFingerprint.Rule.of("jago", "jago", "syariah")));
+
+            assertThat(syariahOnly.detect("Jago\nSyariah")).isEqualTo("jago");
+            assertThat(syariahOnly.detect("Jago\nTransfer")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should only match keywords at the start of a word")
+        void shouldMatchAtWordStartOnly() {
+            assertThat(fingerprint.detect("Subsidi ongkir")).isNull();
+            assertThat(fingerprint.detect("(BSI) Mobile")).isEqualTo("byond");
+            assertThat(fingerprint.detect("jago2025112614300012345")).isEqualTo("jago");
+        }
+
+        @Test
+        @DisplayName("Should match keywords containing spaces")
+        void shouldMatchKeywordWithSpace() {
+            assertThat(fingerprint.detect("Livin' by Bank Mandiri")).isEqualTo("mandiri");
+            assertThat(fingerprint.detect("Bank\nMandiri")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should ignore keywords after the header lines")
+        void shouldIgnoreKeywordsAfterHeader() {
+            String text = """
+                    WARUNG MAKAN
+
+                    Jl. Sudirman No. 1
+
+                    TOTAL Rp 50.000
+                    Bayar pakai GoPay
+                    """;
+
+            assertThat(fingerprint.detect(text)).isNull();
+            assertThat(fingerprint.detect("\n\nGoPay")).isEqualTo("gopay");
+        }
+
+        @Test
+        @DisplayName("Should return null when no rule matches")
+        void shouldReturnNullWithoutMatch() {
+            assertThat(fingerprint.detect("Some Unknown Bank\nRp 500.000")).isNull();
+            assertThat(fingerprint.detect("Bänk Jägo")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject a rule without keywords")
+        void shouldRejectRuleWithoutKeywords() {
+            assertThatThrownBy(() -> new ReceiptFingerprint(3, List.of(ReceiptFingerprint.Rule.of("x"))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject a non-ASCII keyword")
+        void shouldRejectNonAsciiKeyword() {
+            assertThatThrownBy(() -> new ReceiptFingerprint(3, List.of(ReceiptFingerprint.Rule.of("x", "bänk"))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should list rule types in order")
+        void shouldListTypes() {
+            assertThat(fingerprint.types()).containsExactly("byond", "jago", "gopay", "jago", "byond", "mandiri");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.artivisi.accountingfinance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Accuracy of {@link ReceiptParserService} on the receipt corpus in
+ * {@code benchmark/receipts.txt}. The thresholds are the accuracy reached when the corpus
+ * was added; lower them only with a reason, raise them when the parser improves.
+ */
+@DisplayName("ReceiptParserService Accuracy")
+@Slf4j
+class ReceiptParserAccuracyTest {
+
+    private static Map<String, ReceiptCorpus.Accuracy> accuracy;
+
+    @BeforeAll
+    static void parseCorpus() {
+        accuracy = ReceiptCorpus.accuracy(new ReceiptParserService(), ReceiptCorpus.receipts());
+        accuracy.values().forEach(a -> log.info("Receipt parser accuracy: {}", a));
+    }
+
+    @Test
+    @DisplayName("Should recognise the format of every receipt")
+    void shouldRecogniseEveryFormat() {
+        assertThat(accuracy).containsOnlyKeys("byond", "cimb", "gopay", "jago", "unknown");
+        accuracy.values().forEach(a ->
+                assertThat(a.rate(a.typeHits())).as("type accuracy of %s", a.type()).isEqualTo(1.0));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"byond", "cimb", "gopay", "jago"})
+    @DisplayName("Should parse every field of bank app receipts")
+    void shouldParseBankAppReceipts(String type) {
+        ReceiptCorpus.Accuracy a = accuracy.get(type);
+
+        assertThat(a.rate(a.merchantHits())).as("merchant").isEqualTo(1.0);
+        assertThat(a.rate(a.amountHits())).as("amount").isEqualTo(1.0);
+        assertThat(a.rate(a.dateHits())).as("date").isEqualTo(1.0);
+        assertThat(a.rate(a.referenceHits())).as("reference").isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep generic receipt accuracy")
+    void shouldKeepGenericAccuracy() {
+        ReceiptCorpus.Accuracy a = accuracy.get("unknown");
+
+        assertThat(a.rate(a.merchantHits())).as("merchant").isEqualTo(1.0);
+        // The generic format takes the first amount on the receipt, usually an item rather than the total
+        assertThat(a.rate(a.amountHits())).as("amount").isGreaterThanOrEqualTo(0.22);
+        // Address lines like "No. 12\nJakarta 10110" are taken for a date and fail to parse
+        assertThat(a.rate(a.dateHits())).as("date").isGreaterThanOrEqualTo(0.69);
+    }
+}
@@ -0,0 +1,79 @@
+package com.artivisi.accountingfinance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link ReceiptParserService#parse} per receipt over the corpus in
+ * {@code benchmark/receipts.txt}. Before the benchmark runs, the parser's accuracy on the
+ * same corpus is logged per receipt type, so throughput and accuracy are reported together.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=ReceiptParserBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Tag("performance")
+@DisplayName("ReceiptParserService Benchmark")
+@Slf4j
+public class ReceiptParserBenchmark {
+
+    static final int RECEIPTS = 400;
+
+    private List<String> texts;
+    private ReceiptParserService parser;
+
+    @Setup
+    public void setUp() {
+        texts = ReceiptCorpus.receipts().stream().map(ReceiptCorpus.Receipt::text).toList();
+        if (texts.size() != RECEIPTS) {
+            throw new IllegalStateException("Corpus has " + texts.size() + " receipts, expected " + RECEIPTS);
+        }
+        parser = new ReceiptParserService();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECEIPTS)
+    public void parse(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(parser.parse(text));
+        }
+    }
+
+    @Test
+    @DisplayName("Run receipt parser benchmark")
+    void runBenchmark() throws RunnerException {
+        ReceiptCorpus.accuracy(new ReceiptParserService(), ReceiptCorpus.receipts())
+                .values().forEach(accuracy -> log.info("Receipt parser accuracy: {}", accuracy));
+
+        Options options = new OptionsBuilder()
+                .include(ReceiptParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -7,8 +7,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("ReceiptParserService Tests")
 class ReceiptParserServiceTest {
@@ -146,6 +148,84 @@ class ReceiptParserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Format Dispatch")
+    class FormatDispatchTests {
+
+        @Test
+        @DisplayName("Should not detect BSI inside another word")
+        void shouldNotDetectBsiInsideWord() {
+            String ocrText = """
+                TOKO MAJU JAYA
+                Subsidi ongkir   Rp 0
+                TOTAL            Rp 45.000
+                26/11/2025
+                """;
+
+            ReceiptParserService.ParsedReceipt result = parser.parse(ocrText);
+
+            assertThat(result.receiptType()).isEqualTo("unknown");
+            assertThat(result.merchantName()).isEqualTo("TOKO MAJU JAYA");
+        }
+
+        @Test
+        @DisplayName("Should ignore payment app names in the footer of a store receipt")
+        void shouldIgnoreKeywordsInFooter() {
+            String ocrText = """
+                APOTEK SEHAT
+                Jl. Merdeka No. 10
+                Bandung 40111
+                ==============================
+                Paracetamol          Rp 12.000
+                Vitamin C            Rp 25.000
+                ------------------------------
+                TOTAL                Rp 37.000
+                Tanggal: 26/11/2025 10:15
+                Bayar pakai GoPay dapat cashback
+                """;
+
+            ReceiptParserService.ParsedReceipt result = parser.parse(ocrText);
+
+            assertThat(result.receiptType()).isEqualTo("unknown");
+            assertThat(result.merchantName()).isEqualTo("APOTEK SEHAT");
+        }
+
+        @Test
+        @DisplayName("Should run an added format for its fingerprint")
+        void shouldRunAddedFormat() {
+            ReceiptFormat mandiri = new ReceiptFormat() {
+                @Override
+                public String type() {
+                    return "mandiri";
+                }
+
+                @Override
+                public ReceiptParserService.ParsedReceipt parse(String text) {
+                    return new ReceiptParserService.ParsedReceipt("mandiri", "MANDIRI MERCHANT", null, null, null,
+                            text, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("0.30"));
+                }
+            };
+            ReceiptParserService custom = new ReceiptParserService(
+                    new ReceiptFingerprint(8, List.of(ReceiptFingerprint.Rule.of("mandiri", "livin"))),
+                    List.of(mandiri), ReceiptFormats.generic());
+
+            assertThat(custom.parse("Livin' by Mandiri\nRp 10.000").merchantName()).isEqualTo("MANDIRI MERCHANT");
+            assertThat(custom.parse("Bank Jago\nRp 10.000").receiptType()).isEqualTo("unknown");
+        }
+
+        @Test
+        @DisplayName("Should reject a fingerprint type without a format")
+        void shouldRejectFingerprintWithoutFormat() {
+            ReceiptFingerprint fingerprint = new ReceiptFingerprint(8,
+                    List.of(ReceiptFingerprint.Rule.of("mandiri", "livin")));
+
+            assertThatThrownBy(() -> new ReceiptParserService(
+                            fingerprint, ReceiptFormats.formats(), ReceiptFormats.generic()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("mandiri");
+        }
+    }
+
     @Nested
     @DisplayName("Jago Receipt Parsing")
     class JagoParsingTests {
@@ -0,0 +1,198 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReportCache Tests")
+class ReportCacheTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_1 = LocalDate.of(2025, 2, 1);
+    private static final LocalDate FEB_28 = LocalDate.of(2025, 2, 28);
+
+    private final ReportCache cache = new ReportCache(10);
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private String report(String name, LocalDate from, LocalDate to, Object... params) {
+        return cache.get(name, from, to, List.of(params), () -> name + "#" + computed.incrementAndGet());
+    }
+
+    private ReportCache.ReportStatistics statistics(String report) {
+        return cache.getStatistics().stream()
+                .filter(s -> s.report().equals(report))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Nested
+    @DisplayName("Lookup")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should compute a report once per report, dates and parameters")
+        void shouldComputeOncePerKey() {
+            String first = report("income-statement", JAN_1, JAN_31);
+
+            assertThat(report("income-statement", JAN_1, JAN_31)).isSameAs(first);
+            assertThat(report("income-statement", JAN_1, FEB_28)).isNotEqualTo(first);
+            assertThat(report("tax-summary", JAN_1, JAN_31)).isNotEqualTo(first);
+            assertThat(report("project-profitability", JAN_1, JAN_31, "p1"))
+                    .isNotEqualTo(report("project-profitability", JAN_1, JAN_31, "p2"));
+            assertThat(computed).hasValue(5);
+        }
+
+        @Test
+        @DisplayName("Should count hits and misses per report")
+        void shouldCountHitsAndMisses() {
+            report("income-statement", JAN_1, JAN_31);
+            report("income-statement", JAN_1, JAN_31);
+            report("income-statement", JAN_1, JAN_31);
+            report("income-statement", FEB_1, FEB_28);
+            report("tax-summary", JAN_1, JAN_31);
+
+            ReportCache.ReportStatistics income = statistics("income-statement");
+            assertThat(income.hits()).isEqualTo(2);
+            assertThat(income.misses()).isEqualTo(2);
+            assertThat(income.hitRate()).isEqualTo(0.5);
+            assertThat(statistics("tax-summary").hitRate()).isZero();
+            assertThat(cache.getStatistics()).extracting(ReportCache.ReportStatistics::report)
+                    .containsExactly("income-statement", "tax-summary");
+        }
+
+        @Test
+        @DisplayName("Should drop the least recently used report beyond the size limit")
+        void shouldEvictLeastRecentlyUsed() {
+            for (int day = 1; day <= 10; day++) {
+                report("trial-balance", JAN_1, LocalDate.of(2025, 1, day));
+            }
+            // Day 1 is used again, so day 2 is the least recently used
+            report("trial-balance", JAN_1, JAN_1);
+            report("trial-balance", JAN_1, LocalDate.of(2025, 1, 11));
+
+            assertThat(cache.size()).isEqualTo(10);
+            assertThat(statistics("trial-balance").evictions()).isEqualTo(1);
+            int before = computed.get();
+            report("trial-balance", JAN_1, JAN_1);
+            assertThat(computed).hasValue(before);
+            report("trial-balance", JAN_1, LocalDate.of(2025, 1, 2));
+            assertThat(computed).hasValue(before + 1);
+        }
+
+        @Test
+        @DisplayName("Should not cache inside read-write transactions")
+        void shouldBypassReadWriteTransactions() {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+
+            String first = report("income-statement", JAN_1, JAN_31);
+            assertThat(report("income-statement", JAN_1, JAN_31)).isNotEqualTo(first);
+            assertThat(cache.size()).isZero();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            String cached = report("income-statement", JAN_1, JAN_31);
+            assertThat(report("income-statement", JAN_1, JAN_31)).isSameAs(cached);
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should drop only reports whose range contains the changed date")
+        void shouldDropOverlappingReports() {
+            String january = report("income-statement", JAN_1, JAN_31);
+            String february = report("income-statement", FEB_1, FEB_28);
+            String balanceJanuary = report("balance-sheet", LedgerBalanceService.BEGINNING_OF_TIME, JAN_31);
+            String balanceFebruary = report("balance-sheet", LedgerBalanceService.BEGINNING_OF_TIME, FEB_28);
+
+            cache.ledgerChanged(LocalDate.of(2025, 2, 10));
+
+            assertThat(report("income-statement", JAN_1, JAN_31)).isSameAs(january);
+            assertThat(report("balance-sheet", LedgerBalanceService.BEGINNING_OF_TIME, JAN_31)).isSameAs(balanceJanuary);
+            assertThat(report("income-statement", FEB_1, FEB_28)).isNotEqualTo(february);
+            assertThat(report("balance-sheet", LedgerBalanceService.BEGINNING_OF_TIME, FEB_28)).isNotEqualTo(balanceFebruary);
+            assertThat(statistics("income-statement").invalidations()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should include both ends of a report range")
+        void shouldIncludeRangeEnds() {
+            report("income-statement", JAN_1, JAN_31);
+            cache.ledgerChanged(JAN_31);
+            assertThat(cache.size()).isZero();
+
+            report("income-statement", JAN_1, JAN_31);
+            cache.ledgerChanged(JAN_1);
+            assertThat(cache.size()).isZero();
+
+            report("income-statement", JAN_1, JAN_31);
+            cache.ledgerChanged(FEB_1);
+            assertThat(cache.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should drop reports when the writing transaction ends")
+        void shouldDropAfterTransactionEnds() {
+            report("income-statement", JAN_1, JAN_31);
+            report("income-statement", FEB_1, FEB_28);
+            long version = cache.getLedgerVersion();
+
+            TransactionSynchronizationManager.initSynchronization();
+            cache.ledgerChanged(LocalDate.of(2025, 1, 15));
+            cache.ledgerChanged(LocalDate.of(2025, 1, 20));
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.getLedgerVersion()).isGreaterThan(version);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertThat(synchronizations).hasSize(1);
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(report("income-statement", FEB_1, FEB_28)).isEqualTo("income-statement#2");
+        }
+
+        @Test
+        @DisplayName("Should not keep a report computed while the ledger changed")
+        void shouldNotKeepReportComputedDuringChange() {
+            String result = cache.get("income-statement", JAN_1, JAN_31, List.of(), () -> {
+                cache.ledgerChanged(LocalDate.of(2030, 1, 1));
+                return "stale";
+            });
+
+            assertThat(result).isEqualTo("stale");
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should drop every report on invalidate all")
+        void shouldDropEverything() {
+            report("income-statement", JAN_1, JAN_31);
+            report("trial-balance", LedgerBalanceService.BEGINNING_OF_TIME, FEB_28);
+
+            cache.invalidateAll();
+
+            assertThat(cache.size()).isZero();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,7 +56,9 @@ class ReportExportServiceTest {
     @DisplayName("Should export trial balance to Excel")
     void shouldExportTrialBalanceToExcel() throws Exception {
         var report = reportService.generateTrialBalance(LocalDate.now());
-        byte[] excel = reportExportService.exportTrialBalanceToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportTrialBalanceToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -79,7 +82,9 @@ class ReportExportServiceTest {
     @DisplayName("Should export balance sheet to Excel")
     void shouldExportBalanceSheetToExcel() throws Exception {
         var report = reportService.generateBalanceSheet(LocalDate.now());
-        byte[] excel = reportExportService.exportBalanceSheetToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportBalanceSheetToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -105,7 +110,9 @@ class ReportExportServiceTest {
     void shouldExportIncomeStatementToExcel() throws Exception {
         var report = reportService.generateIncomeStatement(
                 LocalDate.now().minusMonths(1), LocalDate.now());
-        byte[] excel = reportExportService.exportIncomeStatementToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportIncomeStatementToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -131,7 +138,9 @@ class ReportExportServiceTest {
     void shouldExportCashFlowToExcel() throws Exception {
         var report = reportService.generateCashFlowStatement(
                 LocalDate.now().minusMonths(1), LocalDate.now());
-        byte[] excel = reportExportService.exportCashFlowToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportCashFlowToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -155,7 +164,9 @@ class ReportExportServiceTest {
     @DisplayName("Should export depreciation to Excel")
     void shouldExportDepreciationToExcel() throws Exception {
         var report = depreciationReportService.generateReport(LocalDate.now().getYear());
-        byte[] excel = reportExportService.exportDepreciationToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportDepreciationToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -179,7 +190,9 @@ class ReportExportServiceTest {
     @DisplayName("Should export stock balance to Excel")
     void shouldExportStockBalanceToExcel() throws Exception {
         var report = inventoryReportService.generateStockBalanceReport(null, null);
-        byte[] excel = reportExportService.exportStockBalanceToExcel(report, LocalDate.now());
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportStockBalanceToExcel(report, LocalDate.now(), excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -205,7 +218,9 @@ class ReportExportServiceTest {
     void shouldExportStockMovementToExcel() throws Exception {
         var report = inventoryReportService.generateStockMovementReport(
                 LocalDate.now().minusMonths(1), LocalDate.now(), null, null);
-        byte[] excel = reportExportService.exportStockMovementToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportStockMovementToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -229,7 +244,9 @@ class ReportExportServiceTest {
     @DisplayName("Should export valuation to Excel")
     void shouldExportValuationToExcel() throws Exception {
         var report = inventoryReportService.generateValuationReport(null);
-        byte[] excel = reportExportService.exportValuationToExcel(report, LocalDate.now());
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportValuationToExcel(report, LocalDate.now(), excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -255,7 +272,9 @@ class ReportExportServiceTest {
     void shouldExportProductProfitabilityToExcel() throws Exception {
         var report = inventoryReportService.generateProfitabilityReport(
                 LocalDate.now().minusMonths(1), LocalDate.now(), null, null);
-        byte[] excel = reportExportService.exportProductProfitabilityToExcel(report);
+        ByteArrayOutputStream excelOut = new ByteArrayOutputStream();
+        reportExportService.exportProductProfitabilityToExcel(report, excelOut);
+        byte[] excel = excelOut.toByteArray();
 
         assertThat(excel).isNotNull();
         try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excel))) {
@@ -0,0 +1,121 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for the set-based report balance engine.
+ * Seeds one million journal lines and asserts that report generation
+ * issues a constant number of queries regardless of ledger size.
+ *
+ * <p>Excluded from the default build; run with:
+ * {@code ./mvnw test -DexcludedGroups= -Dgroups=performance -Dtest=ReportServiceBenchmarkTest}
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Tag("performance")
+@Transactional
+@DisplayName("ReportService Benchmark")
+class ReportServiceBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportServiceBenchmarkTest.class);
+
+    private static final int TRANSACTION_COUNT = 500_000;
+    private static final long MAX_MILLIS = Long.getLong("benchmark.report.maxMillis", 5_000L);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedLedger() {
+        UUID templateId = jdbcTemplate.queryForObject(
+                "SELECT id FROM journal_templates ORDER BY template_name LIMIT 1", UUID.class);
+        UUID cashId = jdbcTemplate.queryForObject(
+                "SELECT id FROM chart_of_accounts WHERE account_code = '1.1.01'", UUID.class);
+        UUID revenueId = jdbcTemplate.queryForObject(
+                "SELECT id FROM chart_of_accounts WHERE account_code = '4.1.01'", UUID.class);
+
+        // Spread transactions over five years so date filters have work to do
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, transaction_number, transaction_date, id_journal_template,
+                                          amount, description, status, posted_at)
+                SELECT gen_random_uuid(), 'BENCH-' || g, DATE '2020-01-01' + (g % 1826), ?,
+                       1000, 'Benchmark ' || g, 'POSTED', NOW()
+                FROM generate_series(1, ?) AS g
+                """, templateId, TRANSACTION_COUNT);
+
+        // Two balanced lines per transaction: one million journal lines in total
+        jdbcTemplate.update("""
+                INSERT INTO journal_entries (id, journal_number, id_transaction, id_account, debit_amount, credit_amount)
+                SELECT gen_random_uuid(), t.transaction_number || '-1', t.id, ?, 1000, 0
+                FROM transactions t WHERE t.transaction_number LIKE 'BENCH-%'
+                UNION ALL
+                SELECT gen_random_uuid(), t.transaction_number || '-2', t.id, ?, 0, 1000
+                FROM transactions t WHERE t.transaction_number LIKE 'BENCH-%'
+                """, cashId, revenueId);
+        jdbcTemplate.execute("ANALYZE transactions");
+        jdbcTemplate.execute("ANALYZE journal_entries");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Reports should use a constant number of queries over one million journal lines")
+    void reportsShouldUseConstantQueries() {
+        ReportService.TrialBalanceReport trialBalance = measure("trial balance",
+                () -> reportService.generateTrialBalance(LocalDate.of(2024, 12, 31)), 2);
+        assertThat(trialBalance.totalDebit()).isEqualByComparingTo(trialBalance.totalCredit());
+
+        ReportService.IncomeStatementReport incomeStatement = measure("income statement",
+                () -> reportService.generateIncomeStatement(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)), 3);
+        assertThat(incomeStatement.totalRevenue()).isPositive();
+
+        ReportService.BalanceSheetReport balanceSheet = measure("balance sheet",
+                () -> reportService.generateBalanceSheet(LocalDate.of(2024, 6, 30)), 7);
+        assertThat(balanceSheet.totalAssets()).isPositive();
+    }
+
+    private <T> T measure(String name, Supplier<T> report, long maxQueries) {
+        statistics.clear();
+        long start = System.nanoTime();
+        T result = report.get();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long queries = statistics.getPrepareStatementCount();
+
+        log.info("Benchmark {}: {} ms, {} queries over {} journal lines",
+                name, elapsedMillis, queries, TRANSACTION_COUNT * 2);
+
+        assertThat(queries).as("queries issued for %s", name).isLessThanOrEqualTo(maxQueries);
+        assertThat(elapsedMillis).as("latency of %s", name).isLessThan(MAX_MILLIS);
+        return result;
+    }
+}
@@ -1,6 +1,9 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.CashFlowMethod;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,10 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,9 +32,38 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("ReportService Integration Tests")
 class ReportServiceTest {
 
+    // Template ID from V003
+    private static final UUID INCOME_CONSULTING_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+    private static final UUID INCOME_DEVELOPMENT_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000002");
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Transaction createTransaction(UUID templateId, LocalDate date, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(journalTemplateService.findById(templateId));
+        transaction.setTransactionDate(date);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription("Report test");
+        Transaction draft = transactionService.create(transaction, null);
+        entityManager.flush();
+        return draft;
+    }
+
+    private void postTransaction(UUID templateId, LocalDate date, String amount) {
+        transactionService.post(createTransaction(templateId, date, amount).getId(), "testuser");
+        entityManager.flush();
+    }
+
     @Nested
     @DisplayName("Trial Balance Report")
     class TrialBalanceTests {
@@ -255,5 +291,94 @@ class ReportServiceTest {
                     .add(report.financingTotal());
             assertThat(report.netCashChange()).isEqualByComparingTo(expectedNet);
         }
+
+        @Test
+        @DisplayName("Should sum cash lines per template for the direct method")
+        void shouldSumCashPerTemplateForDirectMethod() {
+            postTransaction(INCOME_CONSULTING_TEMPLATE_ID, LocalDate.of(2099, 3, 10), "8000000");
+            postTransaction(INCOME_DEVELOPMENT_TEMPLATE_ID, LocalDate.of(2099, 3, 20), "5000000");
+
+            ReportService.CashFlowReport report = reportService.generateCashFlowStatement(
+                    LocalDate.of(2099, 3, 1), LocalDate.of(2099, 3, 31), CashFlowMethod.DIRECT);
+
+            assertThat(report.method()).isEqualTo(CashFlowMethod.DIRECT);
+            assertThat(report.operatingItems())
+                    .extracting(ReportService.CashFlowItem::description)
+                    .containsExactly("Pendapatan Jasa Konsultasi", "Pendapatan Jasa Development");
+            assertThat(report.operatingItems().get(0).amount()).isEqualByComparingTo("8000000");
+            assertThat(report.operatingTotal()).isEqualByComparingTo("13000000");
+            assertThat(report.endingCashBalance().subtract(report.beginningCashBalance()))
+                    .isEqualByComparingTo(report.netCashChange());
+        }
+
+        @Test
+        @DisplayName("Should reconcile net income to operating cash for the indirect method")
+        void shouldReconcileNetIncomeForIndirectMethod() {
+            postTransaction(INCOME_CONSULTING_TEMPLATE_ID, LocalDate.of(2099, 3, 10), "8000000");
+            postTransaction(INCOME_DEVELOPMENT_TEMPLATE_ID, LocalDate.of(2099, 3, 20), "5000000");
+            LocalDate startDate = LocalDate.of(2099, 3, 1);
+            LocalDate endDate = LocalDate.of(2099, 3, 31);
+
+            ReportService.CashFlowReport direct = reportService.generateCashFlowStatement(
+                    startDate, endDate, CashFlowMethod.DIRECT);
+            ReportService.CashFlowReport indirect = reportService.generateCashFlowStatement(
+                    startDate, endDate, CashFlowMethod.INDIRECT);
+
+            assertThat(indirect.operatingItems().get(0).description()).isEqualTo("Laba Bersih");
+            assertThat(indirect.operatingItems().get(0).amount()).isEqualByComparingTo("13000000");
+            BigDecimal itemsTotal = indirect.operatingItems().stream()
+                    .map(ReportService.CashFlowItem::amount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(itemsTotal).isEqualByComparingTo(indirect.operatingTotal());
+            assertThat(indirect.operatingTotal()).isEqualByComparingTo(direct.operatingTotal());
+            assertThat(indirect.netCashChange()).isEqualByComparingTo(direct.netCashChange());
+        }
+    }
+
+    @Nested
+    @DisplayName("Report Cache")
+    class ReportCacheTests {
+
+        @Autowired
+        private ReportCache reportCache;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Test
+        @DisplayName("Should serve a repeated report from the cache in read-only transactions")
+        void shouldServeRepeatedReportFromCache() {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            readOnly.setReadOnly(true);
+            LocalDate asOfDate = LocalDate.of(2099, 6, 30);
+
+            ReportService.TrialBalanceReport first = readOnly.execute(s -> reportService.generateTrialBalance(asOfDate));
+            ReportService.TrialBalanceReport second = readOnly.execute(s -> reportService.generateTrialBalance(asOfDate));
+
+            assertThat(second).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Should compute the report again in read-write transactions")
+        void shouldComputeInReadWriteTransaction() {
+            LocalDate asOfDate = LocalDate.of(2099, 6, 30);
+
+            ReportService.TrialBalanceReport first = reportService.generateTrialBalance(asOfDate);
+
+            assertThat(reportService.generateTrialBalance(asOfDate)).isNotSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Should move the ledger version when a transaction is posted")
+        void shouldMoveLedgerVersionOnPost() {
+            Transaction draft = createTransaction(INCOME_CONSULTING_TEMPLATE_ID, LocalDate.now(), "1000000");
+            long draftVersion = reportCache.getLedgerVersion();
+
+            transactionService.post(draft.getId(), "testuser");
+            entityManager.flush();
+
+            assertThat(reportCache.getLedgerVersion()).isGreaterThan(draftVersion);
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.SequenceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrency tests for SequenceNumberAllocator.
+ * Not transactional: every allocation and posting commits, as it does in production.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("SequenceNumberAllocator Concurrency Tests")
+class SequenceNumberAllocatorTest {
+
+    private static final int THREADS = 32;
+    private static final int TEST_YEAR = 2099;
+    private static final UUID INCOME_CONSULTING_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+
+    @Autowired
+    private SequenceNumberAllocator allocator;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Set<UUID> createdTransactions = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void cleanup() {
+        for (UUID id : createdTransactions) {
+            jdbcTemplate.update("DELETE FROM journal_entries WHERE id_transaction = ?", id);
+            jdbcTemplate.update("DELETE FROM transactions WHERE id = ?", id);
+        }
+        createdTransactions.clear();
+        jdbcTemplate.update("DELETE FROM transaction_sequences WHERE year IN (?, ?)", TEST_YEAR, TEST_YEAR - 1);
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS journal_number_seq_" + TEST_YEAR);
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS journal_number_seq_" + (TEST_YEAR - 1));
+        // Drops the blocks reserved on the dropped sequences
+        allocator.realign();
+    }
+
+    @Nested
+    @DisplayName("Number Allocation")
+    class AllocationTests {
+
+        @Test
+        @DisplayName("Block-reserved numbers should be unique across 32 threads")
+        void blockNumbersShouldBeUnique() throws Exception {
+            List<String> numbers = runConcurrently(10_000, i -> allocator.next(SequenceType.JOURNAL, TEST_YEAR));
+
+            assertThat(numbers).doesNotHaveDuplicates().allMatch(n -> n.matches("JE-2099-\\d{4,}"));
+            long sequenceValue = jdbcTemplate.queryForObject("SELECT last_value FROM journal_number_seq_2099", Long.class);
+            assertThat(sequenceNumbers(numbers)).allMatch(n -> n <= sequenceValue);
+        }
+
+        @Test
+        @DisplayName("Journal numbers should restart every year")
+        void journalNumbersShouldRestartEveryYear() {
+            assertThat(allocator.next(SequenceType.JOURNAL, TEST_YEAR - 1)).isEqualTo("JE-2098-0001");
+            assertThat(allocator.next(SequenceType.JOURNAL, TEST_YEAR)).isEqualTo("JE-2099-0001");
+            assertThat(allocator.next(SequenceType.JOURNAL, TEST_YEAR - 1)).isEqualTo("JE-2098-0002");
+        }
+
+        @Test
+        @DisplayName("Journal number sequences should be created ahead of posting")
+        void journalNumberSequencesShouldBePrepared() {
+            int currentYear = LocalDate.now().getYear();
+            assertThat(sequenceExists(currentYear)).isTrue();
+            assertThat(sequenceExists(currentYear + 1)).isTrue();
+            assertThat(sequenceExists(TEST_YEAR)).isFalse();
+
+            allocator.prepareYear(TEST_YEAR);
+
+            assertThat(sequenceExists(TEST_YEAR)).isTrue();
+            assertThat(allocator.next(SequenceType.JOURNAL, TEST_YEAR)).isEqualTo("JE-2099-0001");
+        }
+
+        @Test
+        @DisplayName("Realign should move journal numbers past imported numbers")
+        void realignShouldSkipNumbersInUse() {
+            long ahead = sequenceNumbers(List.of(allocator.next(SequenceType.JOURNAL, TEST_YEAR))).getFirst() + 1_000;
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            UUID transactionId = tx.execute(status -> {
+                Transaction transaction = new Transaction();
+                transaction.setJournalTemplate(journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID));
+                transaction.setTransactionDate(LocalDate.now());
+                transaction.setAmount(new BigDecimal("1000"));
+                transaction.setDescription("Imported journal");
+                return transactionService.create(transaction, null, null).getId();
+            });
+            createdTransactions.add(transactionId);
+            jdbcTemplate.update("INSERT INTO journal_entries (id, id_transaction, journal_number, id_account, debit_amount, credit_amount) "
+                    + "SELECT gen_random_uuid(), ?, ?, id, 1, 0 FROM chart_of_accounts WHERE account_code = '1.1.01'",
+                    transactionId, "JE-2099-" + ahead + "-01");
+
+            allocator.realign();
+
+            assertThat(sequenceNumbers(List.of(allocator.next(SequenceType.JOURNAL, TEST_YEAR)))).first()
+                    .isEqualTo(ahead + 1);
+        }
+
+        @Test
+        @DisplayName("Gap-free numbers should be contiguous across 32 threads")
+        void gapFreeNumbersShouldBeContiguous() throws Exception {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            List<String> numbers = runConcurrently(2_000,
+                    i -> tx.execute(status -> allocator.next(SequenceType.TRANSACTION, TEST_YEAR)));
+
+            assertThat(sequenceNumbers(numbers)).containsExactlyInAnyOrder(LongStream.rangeClosed(1, 2_000).boxed().toArray(Long[]::new));
+        }
+
+        @Test
+        @DisplayName("Rolled back gap-free number should be allocated again")
+        void rolledBackGapFreeNumberShouldBeReused() {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            tx.executeWithoutResult(status -> {
+                assertThat(allocator.next(SequenceType.TRANSACTION, TEST_YEAR)).isEqualTo("TRX-2099-0001");
+                status.setRollbackOnly();
+            });
+
+            String reallocated = tx.execute(status -> allocator.next(SequenceType.TRANSACTION, TEST_YEAR));
+            assertThat(reallocated).isEqualTo("TRX-2099-0001");
+        }
+
+        @Test
+        @DisplayName("Gap-free numbers should require a transaction")
+        void gapFreeNumbersShouldRequireTransaction() {
+            assertThatThrownBy(() -> allocator.next(SequenceType.TRANSACTION, TEST_YEAR))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    /**
+     * Posts in the current year and permanently advances its sequences, so it only runs
+     * with the performance tests.
+     */
+    @Nested
+    @Tag("performance")
+    @DisplayName("Concurrent Posting")
+    class PostingTests {
+
+        @Test
+        @DisplayName("Posting 10k transactions from 32 threads should give unique, gap-free numbers")
+        void concurrentPostingShouldNumberEveryTransaction() throws Exception {
+            JournalTemplate template = journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID);
+            int year = LocalDate.now().getYear();
+            long transactionsBefore = lastNumber(SequenceType.TRANSACTION, year);
+
+            List<Transaction> posted = runConcurrently(10_000, i -> {
+                Transaction transaction = new Transaction();
+                transaction.setJournalTemplate(template);
+                transaction.setTransactionDate(LocalDate.now());
+                transaction.setAmount(new BigDecimal("1000"));
+                transaction.setDescription("Concurrent posting " + i);
+                Transaction draft = transactionService.create(transaction, null, null);
+                createdTransactions.add(draft.getId());
+                return transactionService.post(draft.getId(), "testuser");
+            });
+
+            List<String> transactionNumbers = posted.stream().map(Transaction::getTransactionNumber).toList();
+            assertThat(sequenceNumbers(transactionNumbers)).containsExactlyInAnyOrder(
+                    LongStream.rangeClosed(transactionsBefore + 1, transactionsBefore + 10_000).boxed().toArray(Long[]::new));
+
+            List<String> journalNumbers = posted.stream()
+                    .flatMap(t -> t.getJournalEntries().stream())
+                    .map(JournalEntry::getJournalNumber)
+                    .toList();
+            assertThat(journalNumbers).doesNotHaveDuplicates().hasSizeGreaterThanOrEqualTo(20_000);
+        }
+    }
+
+    private static <T> List<T> runConcurrently(int count, IntFunction<T> task) throws Exception {
+        List<Future<T>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.apply(index)));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+
+    private static List<Long> sequenceNumbers(Collection<String> numbers) {
+        return numbers.stream()
+                .map(n -> Long.parseLong(n.substring(n.lastIndexOf('-') + 1)))
+                .toList();
+    }
+
+    private long lastNumber(SequenceType type, int year) {
+        List<Long> last = jdbcTemplate.queryForList(
+                "SELECT last_number FROM transaction_sequences WHERE sequence_type = ? AND year = ?",
+                Long.class, type.getCode(), year);
+        return last.isEmpty() ? 0 : last.getFirst();
+    }
+
+    private boolean sequenceExists(int year) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "journal_number_seq_" + year);
+    }
+}
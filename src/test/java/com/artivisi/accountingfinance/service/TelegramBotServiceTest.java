@@ -13,7 +13,9 @@ import com.artivisi.accountingfinance.entity.TelegramUserLink;
 import com.artivisi.accountingfinance.entity.User;
 import com.artivisi.accountingfinance.repository.TelegramUserLinkRepository;
 import com.artivisi.accountingfinance.repository.UserRepository;
+import com.artivisi.accountingfinance.service.telegram.ReceiptPipelineMetrics;
 import com.artivisi.accountingfinance.service.telegram.TelegramApiClient;
+import com.artivisi.accountingfinance.service.telegram.TelegramRetryableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -30,6 +32,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -60,6 +63,8 @@ class TelegramBotServiceTest {
     @Mock
     private TelegramApiClient telegramApiClient;
 
+    private final ReceiptPipelineMetrics metrics = new ReceiptPipelineMetrics();
+
     private TelegramBotService service;
 
     @BeforeEach
@@ -70,7 +75,7 @@ class TelegramBotServiceTest {
 
         service = new TelegramBotService(
                 config, telegramLinkRepository, userRepository,
-                draftService, documentService, telegramApiClient);
+                draftService, documentService, metrics, telegramApiClient);
     }
 
     @Nested
@@ -91,7 +96,7 @@ class TelegramBotServiceTest {
 
             TelegramBotService disabledService = new TelegramBotService(
                     config, telegramLinkRepository, userRepository,
-                    draftService, documentService, telegramApiClient);
+                    draftService, documentService, metrics, telegramApiClient);
 
             assertThat(disabledService.isEnabled()).isFalse();
         }
@@ -101,7 +106,7 @@ class TelegramBotServiceTest {
         void shouldReportDisabledWhenApiClientNull() {
             TelegramBotService noClientService = new TelegramBotService(
                     config, telegramLinkRepository, userRepository,
-                    draftService, documentService, null);
+                    draftService, documentService, metrics, null);
 
             assertThat(noClientService.isEnabled()).isFalse();
         }
@@ -118,7 +123,7 @@ class TelegramBotServiceTest {
 
             TelegramBotService disabledService = new TelegramBotService(
                     config, telegramLinkRepository, userRepository,
-                    draftService, documentService, telegramApiClient);
+                    draftService, documentService, metrics, telegramApiClient);
 
             TelegramUpdate update = createTextUpdate("/start");
             disabledService.handleUpdate(update);
@@ -467,6 +472,51 @@ class TelegramBotServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Queued Photo Retries")
+    class QueuedPhotoRetryTests {
+
+        @BeforeEach
+        void setUpFailingDownload() {
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(createLinkedUserLink()));
+            when(telegramApiClient.getFile(any()))
+                    .thenReturn(new TelegramApiClient.GetFileResponse(false, null, "Too Many Requests"));
+            mockSendMessageSuccess();
+        }
+
+        @Test
+        @DisplayName("Should throw retryable exception when download fails before the final attempt")
+        void shouldThrowRetryableBeforeFinalAttempt() throws Exception {
+            TelegramUpdate update = createPhotoUpdate();
+
+            assertThatThrownBy(() -> service.handleUpdate(update, 1, false))
+                    .isInstanceOf(TelegramRetryableException.class)
+                    .hasMessageContaining("Too Many Requests");
+
+            ArgumentCaptor<TelegramApiClient.SendMessageRequest> captor =
+                    ArgumentCaptor.forClass(TelegramApiClient.SendMessageRequest.class);
+            verify(telegramApiClient).sendMessage(captor.capture());
+            assertThat(captor.getValue().text()).contains("Memproses struk");
+            verify(documentService, never()).saveFromBytes(any(), anyString(), anyString(), anyString());
+            assertThat(metrics.getStatistics())
+                    .filteredOn(s -> s.stage() == ReceiptPipelineMetrics.Stage.DOWNLOAD)
+                    .singleElement()
+                    .satisfies(s -> assertThat(s.count()).isEqualTo(1));
+        }
+
+        @Test
+        @DisplayName("Should tell the user on the final attempt without repeating the progress message")
+        void shouldReportFailureOnFinalAttempt() {
+            service.handleUpdate(createPhotoUpdate(), 3, true);
+
+            ArgumentCaptor<TelegramApiClient.SendMessageRequest> captor =
+                    ArgumentCaptor.forClass(TelegramApiClient.SendMessageRequest.class);
+            verify(telegramApiClient).sendMessage(captor.capture());
+            assertThat(captor.getValue().text()).contains("Gagal memproses struk");
+        }
+    }
+
     @Nested
     @DisplayName("Verification Code Generation")
     class VerificationCodeTests {
@@ -555,7 +605,7 @@ class TelegramBotServiceTest {
         void shouldNotSendMessageWhenApiClientNull() {
             TelegramBotService noClientService = new TelegramBotService(
                     config, telegramLinkRepository, userRepository,
-                    draftService, documentService, null);
+                    draftService, documentService, metrics, null);
 
             when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
                     .thenReturn(Optional.empty());
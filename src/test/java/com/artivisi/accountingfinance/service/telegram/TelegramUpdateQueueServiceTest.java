@@ -0,0 +1,302 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.dto.telegram.TelegramChat;
+import com.artivisi.accountingfinance.dto.telegram.TelegramMessage;
+import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
+import com.artivisi.accountingfinance.entity.TelegramUpdateQueueItem;
+import com.artivisi.accountingfinance.repository.TelegramUpdateQueueRepository;
+import com.artivisi.accountingfinance.service.TelegramBotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for TelegramUpdateQueueService.
+ * Not transactional: the queue commits every step and workers run on their own threads.
+ * Update handling is mocked; the receipt pipeline itself is covered with the Vision stub
+ * in DraftTransactionServiceIntegrationTest.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@DisplayName("Telegram Update Queue Integration Tests")
+class TelegramUpdateQueueServiceTest {
+
+    private static final int CONCURRENCY = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private TelegramUpdateQueueRepository queueRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private TelegramBotService telegramBotService;
+    private ReceiptPipelineMetrics metrics;
+    private TelegramUpdateQueueService queueService;
+
+    @BeforeEach
+    void setUp() {
+        queueRepository.deleteAll();
+        telegramBotService = mock(TelegramBotService.class);
+        metrics = new ReceiptPipelineMetrics();
+        queueService = new TelegramUpdateQueueService(queueRepository, telegramBotService, metrics, jsonMapper,
+                CONCURRENCY, MAX_ATTEMPTS, 60, 600, 300, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queueService.shutdown();
+        queueRepository.deleteAll();
+    }
+
+    @Nested
+    @DisplayName("Enqueue")
+    class EnqueueTests {
+
+        @Test
+        @DisplayName("Should store update as pending")
+        void shouldStoreUpdate() {
+            assertThat(queueService.enqueue(update(1001L))).isTrue();
+
+            TelegramUpdateQueueItem item = queueRepository.findAll().getFirst();
+            assertThat(item.getUpdateId()).isEqualTo(1001L);
+            assertThat(item.getStatus()).isEqualTo(TelegramUpdateQueueItem.Status.PENDING);
+            assertThat(item.getAttempts()).isZero();
+            assertThat(jsonMapper.readValue(item.getPayload(), TelegramUpdate.class).getMessage().getText())
+                    .isEqualTo("/status");
+        }
+
+        @Test
+        @DisplayName("Should ignore update delivered twice")
+        void shouldDeduplicateByUpdateId() {
+            assertThat(queueService.enqueue(update(1002L))).isTrue();
+            assertThat(queueService.enqueue(update(1002L))).isFalse();
+
+            assertThat(queueRepository.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject update without update_id")
+        void shouldRejectUpdateWithoutId() {
+            assertThatThrownBy(() -> queueService.enqueue(new TelegramUpdate()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Dispatch")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("Should process update and mark it done")
+        void shouldProcessUpdate() {
+            queueService.enqueue(update(2001L));
+
+            assertThat(queueService.dispatch()).isEqualTo(1);
+
+            verify(telegramBotService, timeout(5000))
+                    .handleUpdate(argThat(u -> u.getUpdateId() == 2001L), eq(1), eq(false));
+            awaitStatus(2001L, TelegramUpdateQueueItem.Status.DONE);
+            assertThat(stageCount(ReceiptPipelineMetrics.Stage.QUEUE_WAIT)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should run at most the configured number of updates at once")
+        void shouldBoundConcurrency() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger running = new AtomicInteger();
+            doAnswer(invocation -> {
+                running.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+                return null;
+            }).when(telegramBotService).handleUpdate(any(), anyInt(), anyBoolean());
+            for (long id = 3001L; id <= 3005L; id++) {
+                queueService.enqueue(update(id));
+            }
+
+            assertThat(queueService.dispatch()).isEqualTo(CONCURRENCY);
+            assertThat(queueService.dispatch()).isZero();
+            assertThat(queueService.getStatistics().pending()).isEqualTo(3);
+            assertThat(queueService.getStatistics().processing()).isEqualTo(CONCURRENCY);
+
+            release.countDown();
+            awaitStatus(3001L, TelegramUpdateQueueItem.Status.DONE);
+            awaitStatus(3002L, TelegramUpdateQueueItem.Status.DONE);
+            assertThat(running.get()).isEqualTo(CONCURRENCY);
+        }
+
+        @Test
+        @DisplayName("Should not let another worker claim an update being processed")
+        void shouldNotClaimLeasedUpdate() {
+            queueService.enqueue(update(4001L));
+
+            List<TelegramUpdateQueueItem> first = queueRepository.claimReady(10, LocalDateTime.now().plusMinutes(5));
+            List<TelegramUpdateQueueItem> second = queueRepository.claimReady(10, LocalDateTime.now().plusMinutes(5));
+
+            assertThat(first).singleElement().satisfies(item -> assertThat(item.getAttempts()).isEqualTo(1));
+            assertThat(second).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should claim an update again after its lease expires")
+        void shouldReclaimExpiredLease() {
+            queueService.enqueue(update(4002L));
+            queueRepository.claimReady(10, LocalDateTime.now().minusSeconds(1));
+
+            assertThat(queueRepository.claimReady(10, LocalDateTime.now().plusMinutes(5)))
+                    .singleElement()
+                    .satisfies(item -> assertThat(item.getAttempts()).isEqualTo(2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Retries")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Should schedule retry with backoff on retryable failure")
+        void shouldScheduleRetry() {
+            doThrow(new TelegramRetryableException("Photo download failed: timeout", null))
+                    .when(telegramBotService).handleUpdate(any(), anyInt(), anyBoolean());
+            queueService.enqueue(update(5001L));
+
+            queueService.dispatch();
+
+            TelegramUpdateQueueItem item = awaitError(5001L);
+            assertThat(item.getStatus()).isEqualTo(TelegramUpdateQueueItem.Status.PENDING);
+            assertThat(item.getAttempts()).isEqualTo(1);
+            assertThat(item.getLastError()).contains("timeout");
+            assertThat(item.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+            assertThat(queueService.dispatch()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should pass final attempt flag on the last attempt")
+        void shouldFlagFinalAttempt() {
+            queueService.enqueue(update(5002L));
+            queueRepository.claimReady(10, LocalDateTime.now().minusSeconds(1));
+            queueRepository.claimReady(10, LocalDateTime.now().minusSeconds(1));
+
+            queueService.dispatch();
+
+            verify(telegramBotService, timeout(5000)).handleUpdate(any(), eq(MAX_ATTEMPTS), eq(true));
+            awaitStatus(5002L, TelegramUpdateQueueItem.Status.DONE);
+        }
+
+        @Test
+        @DisplayName("Should mark update failed on non-retryable error")
+        void shouldFailOnUnexpectedError() {
+            doThrow(new IllegalStateException("Unexpected"))
+                    .when(telegramBotService).handleUpdate(any(), anyInt(), anyBoolean());
+            queueService.enqueue(update(5003L));
+
+            queueService.dispatch();
+
+            awaitStatus(5003L, TelegramUpdateQueueItem.Status.FAILED);
+            assertThat(queueService.getStatistics().failed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should double backoff up to the maximum")
+        void shouldDoubleBackoff() {
+            Duration initial = Duration.ofSeconds(5);
+            Duration max = Duration.ofMinutes(10);
+
+            assertThat(TelegramUpdateQueueService.backoff(1, initial, max)).isEqualTo(Duration.ofSeconds(5));
+            assertThat(TelegramUpdateQueueService.backoff(2, initial, max)).isEqualTo(Duration.ofSeconds(10));
+            assertThat(TelegramUpdateQueueService.backoff(4, initial, max)).isEqualTo(Duration.ofSeconds(40));
+            assertThat(TelegramUpdateQueueService.backoff(20, initial, max)).isEqualTo(max);
+        }
+    }
+
+    @Test
+    @DisplayName("Should purge finished updates past retention")
+    void shouldPurgeFinishedUpdates() {
+        queueService.enqueue(update(6001L));
+        TelegramUpdateQueueItem item = queueRepository.findAll().getFirst();
+        queueRepository.markDone(item.getId());
+
+        TelegramUpdateQueueService noRetention = new TelegramUpdateQueueService(queueRepository, telegramBotService,
+                metrics, jsonMapper, CONCURRENCY, MAX_ATTEMPTS, 60, 600, 300, 0);
+        try {
+            assertThat(queueService.purgeFinished()).isZero();
+            assertThat(noRetention.purgeFinished()).isEqualTo(1);
+        } finally {
+            noRetention.shutdown();
+        }
+    }
+
+    private TelegramUpdateQueueItem awaitStatus(long updateId, TelegramUpdateQueueItem.Status status) {
+        return await(updateId, item -> item.getStatus() == status);
+    }
+
+    private TelegramUpdateQueueItem awaitError(long updateId) {
+        return await(updateId, item -> item.getLastError() != null);
+    }
+
+    private TelegramUpdateQueueItem await(long updateId, Predicate<TelegramUpdateQueueItem> condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            TelegramUpdateQueueItem item = queueRepository.findAll().stream()
+                    .filter(i -> i.getUpdateId() == updateId)
+                    .findFirst()
+                    .orElseThrow();
+            if (condition.test(item) || System.nanoTime() > deadline) {
+                assertThat(condition.test(item)).as("update %d: %s", updateId, item.getStatus()).isTrue();
+                return item;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private long stageCount(ReceiptPipelineMetrics.Stage stage) {
+        return metrics.getStatistics().stream()
+                .filter(s -> s.stage() == stage)
+                .mapToLong(ReceiptPipelineMetrics.StageStatistics::count)
+                .sum();
+    }
+
+    private static TelegramUpdate update(long updateId) {
+        TelegramChat chat = new TelegramChat();
+        chat.setId(123456L);
+        TelegramMessage message = new TelegramMessage();
+        message.setMessageId(updateId);
+        message.setChat(chat);
+        message.setText("/status");
+        TelegramUpdate update = new TelegramUpdate();
+        update.setUpdateId(updateId);
+        update.setMessage(message);
+        return update;
+    }
+}